@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2020 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2011-2021 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -56,6 +56,11 @@ public class SnomedIdentifierConfiguration {
 	@JsonProperty(required = false)
 	private int cisMaxConnections = 100;
 	
+	// the maximum number of CIS bulk jobs submitted by a single node that may be in progress at the same time
+	@Min(1)
+	@JsonProperty(value = "cisMaxConcurrentBulkJobs", required = false)
+	private int cisMaxConcurrentBulkJobs = 4;
+	
 	@JsonProperty(required = false)
 	private int maxIdGenerationAttempts = DEFAULT_ID_GENERATION_ATTEMPTS;
 
@@ -67,6 +72,15 @@ public class SnomedIdentifierConfiguration {
 	@Max(50000)
 	private int requestBulkLimit = 10_000;
 	
+	/*
+	 * Number of identifiers to pre-generate per namespace and component category in the embedded identifier service. A positive value also
+	 * enables in-memory availability checks and batched, asynchronous writes to the ID index, so it should only be enabled if a single node
+	 * generates identifiers using the ID index.
+	 */
+	@Min(0)
+	@JsonProperty(value = "idPoolSize", required = false)
+	private int idPoolSize = 0;
+	
 	public IdGenerationStrategy getStrategy() {
 		return strategy;
 	}
@@ -139,6 +153,14 @@ public class SnomedIdentifierConfiguration {
 		this.cisMaxConnections = cisMaxConnections;
 	}
 
+	public int getCisMaxConcurrentBulkJobs() {
+		return cisMaxConcurrentBulkJobs;
+	}
+	
+	public void setCisMaxConcurrentBulkJobs(int cisMaxConcurrentBulkJobs) {
+		this.cisMaxConcurrentBulkJobs = cisMaxConcurrentBulkJobs;
+	}
+
 	public int getMaxIdGenerationAttempts() {
 		return maxIdGenerationAttempts;
 	}
@@ -162,4 +184,12 @@ public class SnomedIdentifierConfiguration {
 	public void setRequestBulkLimit(int requestBulkLimit) {
 		this.requestBulkLimit = requestBulkLimit;
 	}
+	
+	public int getIdPoolSize() {
+		return idPoolSize;
+	}
+	
+	public void setIdPoolSize(int idPoolSize) {
+		this.idPoolSize = idPoolSize;
+	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2020 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2011-2021 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,21 +16,23 @@
 package com.b2international.snowowl.snomed.cis.client;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.StatusLine;
-import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.DefaultHttpClient;
-import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -54,6 +56,7 @@ class CisClient {
 	private static final String BAD_TOKEN = "bad_token";
 	
 	private static final int MAX_CONNECTIONS_PER_ROUTE = 20;
+	private static final long MAX_IDLE_TIME_SECONDS = 30L;
 	private static final Logger LOGGER = LoggerFactory.getLogger(CisClient.class);
 
 	private final String cisUrl;
@@ -61,7 +64,7 @@ class CisClient {
 	private final String password;
 	private final ObjectMapper mapper;
 
-	private final HttpClient client;
+	private final CloseableHttpClient client;
 	
 	private AtomicReference<String> token = new AtomicReference<>(BAD_TOKEN);
 
@@ -76,10 +79,15 @@ class CisClient {
 		this.username = conf.getCisUserName();
 		this.password = conf.getCisPassword();
 		this.mapper = mapper;
-		final PoolingClientConnectionManager conman = new PoolingClientConnectionManager();
+		final PoolingHttpClientConnectionManager conman = new PoolingHttpClientConnectionManager();
 		conman.setDefaultMaxPerRoute(MAX_CONNECTIONS_PER_ROUTE);
 		conman.setMaxTotal(conf.getCisMaxConnections());
-		this.client = new DefaultHttpClient(conman);
+		// reuse keep-alive connections for subsequent requests (eg. job status polls), evict connections that remain idle for too long
+		this.client = HttpClients.custom()
+				.setConnectionManager(conman)
+				.setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE)
+				.evictIdleConnections(MAX_IDLE_TIME_SECONDS, TimeUnit.SECONDS)
+				.build();
 	}
 
 	public HttpGet httpGet(final String api) {
@@ -140,8 +148,13 @@ class CisClient {
 	}
 
 	public void close() {
-		if (null != client)
-			client.getConnectionManager().shutdown();
+		if (null != client) {
+			try {
+				client.close();
+			} catch (IOException e) {
+				LOGGER.warn("Exception while closing HTTP client.", e);
+			}
+		}
 	}
 
 	public void login() {
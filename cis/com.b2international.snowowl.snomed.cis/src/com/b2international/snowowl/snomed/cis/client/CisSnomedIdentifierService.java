@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2019 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2011-2021 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,9 +26,18 @@ import java.util.Calendar;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.http.HttpStatus;
 import org.apache.http.client.methods.HttpGet;
@@ -60,7 +69,9 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.base.Joiner;
 import com.google.common.base.Predicates;
 import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
 import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
@@ -68,9 +79,15 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * CIS (IHTSDO) based implementation of the identifier service.
+ * <p>
+ * Bulk requests of a single operation are partitioned by namespace and {@link SnomedIdentifierConfiguration#getRequestBulkLimit() bulk limit}
+ * and submitted concurrently, up to {@link SnomedIdentifierConfiguration#getCisMaxConcurrentBulkJobs() a limit} of jobs in progress. The status
+ * of submitted jobs is polled on a shared scheduler with increasing delays instead of blocking the calling thread between polls.
+ * </p>
  * 
  * @since 4.5
  */
@@ -78,6 +95,17 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(CisSnomedIdentifierService.class);
 	
+	// the delay between job status polls grows by 50% after each poll, up to this multiple of the configured delay
+	private static final int MAX_POLL_DELAY_MULTIPLIER = 8;
+	
+	/**
+	 * Creates the HTTP request that submits a bulk job for a partition of component IDs of a single namespace.
+	 */
+	@FunctionalInterface
+	private interface BulkRequestFactory {
+		HttpRequestBase create(String namespace, Collection<String> componentIds) throws IOException;
+	}
+	
 	private final long numberOfPollTries;
 	private final long numberOfReauthTries;
 	private final long timeBetweenPollTries;
@@ -85,6 +113,11 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 
 	private final String clientKey;
 	private final ObjectMapper mapper;
+	
+	private final Semaphore bulkJobPermits;
+	private final ScheduledExecutorService jobStatusPoller;
+	// jobs being polled, failed when the service is disposed
+	private final Set<CompletableFuture<Void>> polledJobs = ConcurrentHashMap.newKeySet();
 
 	private CisClient client;
 	private boolean disposed;
@@ -99,6 +132,11 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 		this.requestBulkLimit = conf.getRequestBulkLimit();
 		this.mapper = mapper;
 		this.client = new CisClient(conf, mapper);
+		this.bulkJobPermits = new Semaphore(conf.getCisMaxConcurrentBulkJobs(), true);
+		this.jobStatusPoller = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+				.setNameFormat("cis-job-status-%d")
+				.setDaemon(true)
+				.build());
 
 		// Log in at startup, and keep the token as long as possible
 		login();
@@ -127,7 +165,7 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 				generateRequest = httpPost(String.format("sct/bulk/generate?token=%s", getToken()), createBulkGenerationData(namespace, category, quantity));
 				final String response = execute(generateRequest);
 				final String jobId = mapper.readValue(response, JsonNode.class).get("id").asText();
-				joinBulkJobPolling(jobId, quantity, getToken());
+				joinBulkJobPolling(jobId);
 	
 				recordsRequest = httpGet(String.format("bulk/jobs/%s/records?token=%s", jobId, getToken()));
 				final String recordsResponse = execute(recordsRequest);
@@ -176,17 +214,9 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 		try {
 			
 			if (availableOrReservedSctIds.size() > 1) {
-				final Multimap<String, String> componentIdsByNamespace = toNamespaceMultimap(availableOrReservedSctIds.keySet());
-				for (final Entry<String, Collection<String>> entry : componentIdsByNamespace.asMap().entrySet()) {
-					currentNamespace = entry.getKey();
-					
-					for (final Collection<String> bulkIds : Iterables.partition(entry.getValue(), requestBulkLimit)) {
-						LOGGER.debug("Sending bulk registration request for namespace {} with size {}.", currentNamespace, bulkIds.size());
-						registerRequest = httpPost(String.format("sct/bulk/register?token=%s", getToken()), createBulkRegistrationData(bulkIds));
-						execute(registerRequest);
-					}
-				}
-				
+				executeBulkJobs("registration", availableOrReservedSctIds.keySet(), (namespace, bulkIds) -> {
+					return httpPost(String.format("sct/bulk/register?token=%s", getToken()), createBulkRegistrationData(bulkIds));
+				});
 			} else {
 				
 				final String componentId = Iterables.getOnlyElement(availableOrReservedSctIds.keySet());
@@ -227,7 +257,7 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 				reserveRequest = httpPost(String.format("sct/bulk/reserve?token=%s", getToken()), createBulkReservationData(namespace, category, quantity));
 				final String bulkResponse = execute(reserveRequest);
 				final String jobId = mapper.readValue(bulkResponse, JsonNode.class).get("id").asText();
-				joinBulkJobPolling(jobId, quantity, getToken());
+				joinBulkJobPolling(jobId);
 	
 				recordsRequest = httpGet(String.format("bulk/jobs/%s/records?token=%s", jobId, getToken()));
 				final String recordsResponse = execute(recordsRequest);
@@ -281,17 +311,9 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 		try {
 			
 			if (assignedOrReservedSctIds.size() > 1) {
-				final Multimap<String, String> componentIdsByNamespace = toNamespaceMultimap(assignedOrReservedSctIds.keySet());
-				for (final Entry<String, Collection<String>> entry : componentIdsByNamespace.asMap().entrySet()) {
-					currentNamespace = entry.getKey();
-					
-					for (final Collection<String> bulkIds : Iterables.partition(entry.getValue(), requestBulkLimit)) {
-						LOGGER.debug("Sending bulk release request for namespace {} with size {}.", currentNamespace, bulkIds.size());
-						releaseRequest = httpPut(String.format("sct/bulk/release?token=%s", getToken()), createBulkReleaseData(currentNamespace, bulkIds));
-						execute(releaseRequest);
-					}
-				}
-				
+				executeBulkJobs("release", assignedOrReservedSctIds.keySet(), (namespace, bulkIds) -> {
+					return httpPut(String.format("sct/bulk/release?token=%s", getToken()), createBulkReleaseData(namespace, bulkIds));
+				});
 			} else {
 				
 				final String componentId = Iterables.getOnlyElement(assignedOrReservedSctIds.keySet());
@@ -337,17 +359,9 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 		try {
 			
 			if (assignedOrPublishedSctIds.size() > 1) {
-				final Multimap<String, String> componentIdsByNamespace = toNamespaceMultimap(assignedOrPublishedSctIds.keySet());
-				for (final Entry<String, Collection<String>> entry : componentIdsByNamespace.asMap().entrySet()) {
-					currentNamespace = entry.getKey();
-					
-					for (final Collection<String> bulkIds : Iterables.partition(entry.getValue(), requestBulkLimit)) {
-						LOGGER.debug("Sending bulk deprecation request for namespace {} with size {}.", currentNamespace, bulkIds.size());
-						deprecateRequest = httpPut(String.format("sct/bulk/deprecate?token=%s", getToken()), createBulkDeprecationData(currentNamespace, bulkIds));
-						execute(deprecateRequest);
-					}
-				}
-				
+				executeBulkJobs("deprecation", assignedOrPublishedSctIds.keySet(), (namespace, bulkIds) -> {
+					return httpPut(String.format("sct/bulk/deprecate?token=%s", getToken()), createBulkDeprecationData(namespace, bulkIds));
+				});
 			} else {
 				
 				final String componentId = Iterables.getOnlyElement(assignedOrPublishedSctIds.keySet());
@@ -379,17 +393,9 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 			final Map<String, SctId> sctIdsToPublish = ImmutableMap.copyOf(Maps.filterValues(sctIds, Predicates.not(SctId::isPublished)));
 			if (!sctIdsToPublish.isEmpty()) {
 				if (sctIdsToPublish.size() > 1) {
-					final Multimap<String, String> componentIdsByNamespace = toNamespaceMultimap(sctIdsToPublish.keySet());
-					for (final Entry<String, Collection<String>> entry : componentIdsByNamespace.asMap().entrySet()) {
-						currentNamespace = entry.getKey();
-						
-						for (final Collection<String> bulkIds : Iterables.partition(entry.getValue(), requestBulkLimit)) {
-							LOGGER.debug("Sending bulk publication request for namespace {} with size {}.", currentNamespace, bulkIds.size());
-							publishRequest = httpPut(String.format("sct/bulk/publish?token=%s", getToken()), createBulkPublishData(currentNamespace, bulkIds));
-							execute(publishRequest);
-						}
-					}
-					
+					executeBulkJobs("publication", sctIdsToPublish.keySet(), (namespace, bulkIds) -> {
+						return httpPut(String.format("sct/bulk/publish?token=%s", getToken()), createBulkPublishData(namespace, bulkIds));
+					});
 				} else {
 					
 					final String componentId = Iterables.getOnlyElement(sctIdsToPublish.keySet());
@@ -556,38 +562,118 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 		}
 	}
 
-	private void joinBulkJobPolling(final String jobId, final int quantity, final String token) {
-		HttpGet request = null;
-		JobStatus status = JobStatus.PENDING;
-
+	private void joinBulkJobPolling(final String jobId) {
+		join(pollBulkJob(jobId));
+	}
+	
+	/**
+	 * Submits a bulk job for each namespace and bulk limit sized partition of the given component IDs, then waits until all of them finish. Jobs
+	 * are submitted from the calling thread as long as the number of jobs in progress is below the configured limit, the status of submitted jobs
+	 * is polled in the background.
+	 */
+	private void executeBulkJobs(final String operation, final Set<String> componentIds, final BulkRequestFactory requestFactory) {
+		final Multimap<String, String> componentIdsByNamespace = toNamespaceMultimap(componentIds);
+		final List<CompletableFuture<Void>> jobs = Lists.newArrayList();
+		
 		try {
-			LOGGER.debug("Polling job status with ID {}.", jobId);
-
-			request = httpGet(String.format("bulk/jobs/%s?token=%s", jobId, token));
-
-			for (long pollTry = numberOfPollTries; pollTry > 0; pollTry--) {
-				final String response = execute(request);
-				final JsonNode node = mapper.readValue(response, JsonNode.class);
-				status = JobStatus.get(node.get("status").asInt());
-
-				if (JobStatus.FINISHED == status) {
-					break;
-				} else if (JobStatus.ERROR == status) {
-					throw new SnowowlRuntimeException("Bulk request has ended in error.");
-				} else {
-					Thread.sleep(timeBetweenPollTries);
+			for (final Entry<String, Collection<String>> entry : componentIdsByNamespace.asMap().entrySet()) {
+				final String namespace = entry.getKey();
+				
+				for (final Collection<String> bulkIds : Iterables.partition(entry.getValue(), requestBulkLimit)) {
+					bulkJobPermits.acquire();
+					
+					final String jobId;
+					try {
+						LOGGER.debug("Sending bulk {} request for namespace {} with size {}.", operation, namespace, bulkIds.size());
+						jobId = submitBulkJob(requestFactory.create(namespace, bulkIds));
+					} catch (IOException | RuntimeException e) {
+						bulkJobPermits.release();
+						throw new SnowowlRuntimeException(String.format("Exception while sending bulk %s request for namespace %s.", operation, namespace), e);
+					}
+					
+					jobs.add(pollBulkJob(jobId).whenComplete((result, throwable) -> bulkJobPermits.release()));
 				}
 			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SnowowlRuntimeException(String.format("Interrupted while sending bulk %s requests.", operation), e);
+		} catch (RuntimeException e) {
+			// wait for jobs that were already submitted before reporting the failure
+			CompletableFuture.allOf(jobs.toArray(new CompletableFuture<?>[jobs.size()])).handle((result, throwable) -> null).join();
+			throw e;
+		}
+		
+		join(CompletableFuture.allOf(jobs.toArray(new CompletableFuture<?>[jobs.size()])));
+	}
+	
+	private String submitBulkJob(final HttpRequestBase request) throws IOException {
+		try {
+			final String response = execute(request);
+			return mapper.readValue(response, JsonNode.class).get("id").asText();
+		} finally {
+			release(request);
+		}
+	}
+	
+	private CompletableFuture<Void> pollBulkJob(final String jobId) {
+		LOGGER.debug("Polling job status with ID {}.", jobId);
+		final CompletableFuture<Void> job = new CompletableFuture<>();
+		polledJobs.add(job);
+		job.whenComplete((result, throwable) -> polledJobs.remove(job));
+		schedulePoll(jobId, job, numberOfPollTries, 0L);
+		return job;
+	}
+
+	private void schedulePoll(final String jobId, final CompletableFuture<Void> job, final long remainingPollTries, final long delay) {
+		try {
+			jobStatusPoller.schedule(() -> poll(jobId, job, remainingPollTries, delay), delay, TimeUnit.MILLISECONDS);
+		} catch (RejectedExecutionException e) {
+			job.completeExceptionally(new SnowowlRuntimeException("Job status poller has been shut down.", e));
+		}
+	}
 
+	private void poll(final String jobId, final CompletableFuture<Void> job, final long remainingPollTries, final long delay) {
+		// the service has been disposed since the poll was scheduled
+		if (job.isDone()) {
+			return;
+		}
+		
+		try {
+			final JobStatus status = getJobStatus(jobId);
+			if (JobStatus.FINISHED == status) {
+				job.complete(null);
+			} else if (JobStatus.ERROR == status) {
+				job.completeExceptionally(new SnowowlRuntimeException("Bulk request has ended in error."));
+			} else if (remainingPollTries <= 1) {
+				job.completeExceptionally(new SnowowlRuntimeException("Job didn't finish with expected status: " + status));
+			} else {
+				final long nextDelay = Math.min(Math.max(timeBetweenPollTries, delay + delay / 2), timeBetweenPollTries * MAX_POLL_DELAY_MULTIPLIER);
+				schedulePoll(jobId, job, remainingPollTries - 1, nextDelay);
+			}
 		} catch (Exception e) {
-			throw new SnowowlRuntimeException("Exception while polling job status.", e);
+			job.completeExceptionally(new SnowowlRuntimeException("Exception while polling job status.", e));
+		}
+	}
+
+	private JobStatus getJobStatus(final String jobId) throws IOException {
+		HttpGet request = null;
+		try {
+			request = httpGet(String.format("bulk/jobs/%s?token=%s", jobId, getToken()));
+			final String response = execute(request);
+			final JsonNode node = mapper.readValue(response, JsonNode.class);
+			return JobStatus.get(node.get("status").asInt());
 		} finally {
 			release(request);
 		}
-		
-		if (JobStatus.FINISHED != status) {
-			throw new SnowowlRuntimeException("Job didn't finish with expected status: " + status); 
-		} 
+	}
+	
+	private static <T> T join(final CompletableFuture<T> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			Throwables.throwIfUnchecked(e.getCause());
+			throw new SnowowlRuntimeException(e.getCause());
+		}
 	}
 
 	private Set<String> getComponentIds(final JsonNode[] records) {
@@ -674,6 +760,12 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 
 	@Override
 	public void dispose() {
+		// fail callers waiting for a job first, polls dropped by the shutdown would never complete them
+		failPolledJobs();
+		jobStatusPoller.shutdownNow();
+		// jobs registered while shutting down may have had their first poll dropped as well
+		failPolledJobs();
+		
 		if (null != client) {
 			client.logout();
 			client.close();
@@ -683,6 +775,12 @@ public class CisSnomedIdentifierService extends AbstractSnomedIdentifierService
 		disposed = true;
 	}
 
+	private void failPolledJobs() {
+		for (final CompletableFuture<Void> job : ImmutableList.copyOf(polledJobs)) {
+			job.completeExceptionally(new SnowowlRuntimeException("CIS identifier service has been disposed while waiting for a bulk job to finish."));
+		}
+	}
+
 	@Override
 	public boolean isDisposed() {
 		return disposed;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2019 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2017-2021 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -82,30 +82,36 @@ public final class SequentialItemIdGenerationStrategy implements ItemIdGeneratio
 			this.counter.set(newCounter);
 		}
 
-		private synchronized Set<String> getNextItemIds(int quantity, int stepSize) {
-			
-			long current = counter.get();
-			final long oldCurrent = current;
-
-	        final Set<String> generatedItemIds = newLinkedHashSetWithExpectedSize(quantity);
-	        while (quantity > 0) {
-	        	final Range<Long> containingRange = excludedRanges.rangeContaining(current);
-	        	if (containingRange != null) {
-	        		current = snapToLowerBound(containingRange.upperEndpoint() + 1L);
-	        	} else {
-	        		generatedItemIds.add(Long.toString(current));
-	        		quantity--;
-	        		current = snapToLowerBound(current + stepSize + 1L);
-	        	}
-	        	if (oldCurrent == current) {
-	        		throw new IllegalArgumentException("No more itemIds are available in this counter");
-	        	}
-	        }
-		
-	        // set the currently available itemId for the next generation
-	        counter.set(current);
-	        
-	        return generatedItemIds;
+		/*
+		 * Lock-free; the block of item identifiers is computed from a snapshot of the counter and the counter is only
+		 * advanced if no other caller moved it in the meantime, otherwise the computation is repeated.
+		 */
+		private Set<String> getNextItemIds(final int quantity, final int stepSize) {
+			while (true) {
+				final long oldCurrent = counter.get();
+				long current = oldCurrent;
+				int remaining = quantity;
+				
+				final Set<String> generatedItemIds = newLinkedHashSetWithExpectedSize(quantity);
+				while (remaining > 0) {
+					final Range<Long> containingRange = excludedRanges.rangeContaining(current);
+					if (containingRange != null) {
+						current = snapToLowerBound(containingRange.upperEndpoint() + 1L);
+					} else {
+						generatedItemIds.add(Long.toString(current));
+						remaining--;
+						current = snapToLowerBound(current + stepSize + 1L);
+					}
+					if (oldCurrent == current) {
+						throw new IllegalArgumentException("No more itemIds are available in this counter");
+					}
+				}
+				
+				// set the currently available itemId for the next generation
+				if (counter.compareAndSet(oldCurrent, current)) {
+					return generatedItemIds;
+				}
+			}
 		}
 		
 		private long snapToLowerBound(final long value) {
@@ -17,26 +17,30 @@ package com.b2international.snowowl.snomed.cis.memory;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.Lists.newArrayListWithExpectedSize;
 import static com.google.common.collect.Maps.newHashMap;
 import static com.google.common.collect.Sets.newHashSet;
 import static com.google.common.collect.Sets.newLinkedHashSet;
 
-import java.util.Collection;
-import java.util.Collections;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.LongSet;
 import com.b2international.commons.CompareUtils;
+import com.b2international.commons.Pair;
 import com.b2international.commons.VerhoeffCheck;
 import com.b2international.commons.exceptions.BadRequestException;
 import com.b2international.index.Hits;
 import com.b2international.index.Index;
 import com.b2international.index.query.Expressions;
 import com.b2international.index.query.Query;
+import com.b2international.snowowl.core.IDisposableService;
 import com.b2international.snowowl.core.terminology.ComponentCategory;
 import com.b2international.snowowl.snomed.cis.AbstractSnomedIdentifierService;
 import com.b2international.snowowl.snomed.cis.SnomedIdentifierConfiguration;
@@ -49,20 +53,44 @@ import com.b2international.snowowl.snomed.cis.reservations.ISnomedIdentifierRese
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Predicates;
 import com.google.common.base.Strings;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.*;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Provider;
 
 /**
  * {@link Index} based implementation of the identifier service.
+ * <p>
+ * If {@link SnomedIdentifierConfiguration#getIdPoolSize() ID pools} are enabled, the service keeps a pool of pre-generated identifiers per
+ * namespace and component category, refilled in the background, tracks the item identifiers known to the ID index in memory per namespace and
+ * partition to check the availability of newly generated identifiers, and writes state changes to the ID index asynchronously in batches.
+ * </p>
  * 
  * @since 4.5
  */
-public class DefaultSnomedIdentifierService extends AbstractSnomedIdentifierService {
+public class DefaultSnomedIdentifierService extends AbstractSnomedIdentifierService implements IDisposableService {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(DefaultSnomedIdentifierService.class);
 
+	private static final int SCROLL_LIMIT = 10_000;
+	private static final int WRITE_BATCH_SIZE = 1_000;
+	private static final long FLUSH_INTERVAL_MILLIS = 1_000L;
+	
 	private final Index store;
 	private final ItemIdGenerationStrategy generationStrategy;
+	
+	private final int idPoolSize;
+	private final LoadingCache<Pair<String, ComponentCategory>, BlockingQueue<String>> idPools;
+	private final Set<Pair<String, ComponentCategory>> idPoolsUnderRefill = ConcurrentHashMap.newKeySet();
+	// item identifiers present in the ID index, keyed by namespace and partition identifier
+	private final LoadingCache<Pair<String, String>, LongSet> knownItemIds;
+	// SctIds waiting to be written to (or removed from, if the value is empty) the ID index
+	private final ConcurrentMap<String, Optional<SctId>> pendingWrites = new ConcurrentHashMap<>();
+	private final Object flushLock = new Object();
+	private final ScheduledExecutorService executor;
+	private final AtomicBoolean disposed = new AtomicBoolean(false);
 
 	/*
 	 * Tests only
@@ -82,6 +110,25 @@ public class DefaultSnomedIdentifierService extends AbstractSnomedIdentifierServ
 		super(reservationService, config);
 		this.store = store;
 		this.generationStrategy = generationStrategy;
+		this.idPoolSize = config.getIdPoolSize();
+		
+		if (isIdPoolEnabled()) {
+			this.idPools = CacheBuilder.newBuilder().build(CacheLoader.from(key -> new LinkedBlockingQueue<String>()));
+			this.knownItemIds = CacheBuilder.newBuilder().build(CacheLoader.from(this::loadKnownItemIds));
+			this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+					.setNameFormat("snomed-identifiers-%d")
+					.setDaemon(true)
+					.build());
+			this.executor.scheduleWithFixedDelay(this::flushSafely, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+		} else {
+			this.idPools = null;
+			this.knownItemIds = null;
+			this.executor = null;
+		}
+	}
+	
+	private boolean isIdPoolEnabled() {
+		return idPoolSize > 0;
 	}
 
 	@Override
@@ -97,7 +144,7 @@ public class DefaultSnomedIdentifierService extends AbstractSnomedIdentifierServ
 
 		LOGGER.debug("Generating {} component IDs for category {}.", quantity, category.getDisplayName());
 
-		final Set<String> componentIds = generateIds(namespace, category, quantity);
+		final Set<String> componentIds = isIdPoolEnabled() ? leaseIds(namespace, category, quantity) : generateIds(namespace, category, quantity);
 		final Map<String, SctId> sctIds = FluentIterable.from(componentIds).toMap(componentId -> buildSctId(componentId, IdentifierStatus.ASSIGNED));
 		putSctIds(sctIds.values());
 		return sctIds;
@@ -138,7 +185,7 @@ public class DefaultSnomedIdentifierService extends AbstractSnomedIdentifierServ
 
 		LOGGER.debug("Reserving {} component IDs for category {}.", quantity, category.getDisplayName());
 
-		final Set<String> componentIds = generateIds(namespace, category, quantity);
+		final Set<String> componentIds = isIdPoolEnabled() ? leaseIds(namespace, category, quantity) : generateIds(namespace, category, quantity);
 		final Map<String, SctId> sctIds = FluentIterable.from(componentIds).toMap(componentId -> buildSctId(componentId, IdentifierStatus.RESERVED));
 		putSctIds(sctIds.values());
 		return ImmutableMap.copyOf(sctIds);
@@ -201,16 +248,31 @@ public class DefaultSnomedIdentifierService extends AbstractSnomedIdentifierServ
 		if (CompareUtils.isEmpty(componentIds)) {
 			return Collections.emptyMap();
 		}
-		final Query<SctId> getSctIdsQuery = Query.select(SctId.class)
-				.where(Expressions.matchAny("sctid", componentIds))
-				.limit(componentIds.size())
-				.build();
 		
-		final Hits<SctId> existingIds = store.read(index -> index.search(getSctIdsQuery));
-		final Map<String, SctId> existingIdsMap = Maps.uniqueIndex(existingIds, SctId::getSctid);
+		// state changes not written to the ID index yet take precedence over the indexed state
+		final Map<String, SctId> existingIdsMap = newHashMap();
+		final Set<String> idsToSearch = newHashSet();
+		for (final String componentId : componentIds) {
+			final Optional<SctId> pendingWrite = pendingWrites.get(componentId);
+			if (pendingWrite == null) {
+				idsToSearch.add(componentId);
+			} else {
+				pendingWrite.ifPresent(sctId -> existingIdsMap.put(componentId, sctId));
+			}
+		}
+		
+		if (!idsToSearch.isEmpty()) {
+			final Query<SctId> getSctIdsQuery = Query.select(SctId.class)
+					.where(Expressions.matchAny("sctid", idsToSearch))
+					.limit(idsToSearch.size())
+					.build();
+			
+			final Hits<SctId> existingIds = store.read(index -> index.search(getSctIdsQuery));
+			existingIdsMap.putAll(Maps.uniqueIndex(existingIds, SctId::getSctid));
+		}
 		
 		if (existingIdsMap.size() == componentIds.size()) {
-			return existingIdsMap;
+			return ImmutableMap.copyOf(existingIdsMap);
 		} else {
 			final Set<String> knownComponentIds = existingIdsMap.keySet();
 			final Set<String> difference = ImmutableSet.copyOf(Sets.difference(componentIds, knownComponentIds));
@@ -257,6 +319,56 @@ public class DefaultSnomedIdentifierService extends AbstractSnomedIdentifierServ
 		}
 	}
 
+	private Set<String> leaseIds(final String namespace, final ComponentCategory category, final int quantity) {
+		final Pair<String, ComponentCategory> key = Pair.identicalPairOf(Strings.nullToEmpty(namespace), category);
+		final BlockingQueue<String> idPool = idPools.getUnchecked(key);
+		
+		final Set<String> leasedIds = newLinkedHashSet();
+		String componentId;
+		while (leasedIds.size() < quantity && (componentId = idPool.poll()) != null) {
+			leasedIds.add(componentId);
+		}
+		
+		// IDs might have been registered or reserved since they were added to the pool
+		if (!leasedIds.isEmpty()) {
+			leasedIds.removeAll(getReservationService().isReserved(leasedIds));
+			leasedIds.removeIf(this::isKnownId);
+		}
+		
+		if (leasedIds.size() < quantity) {
+			leasedIds.addAll(generateIds(namespace, category, quantity - leasedIds.size()));
+		}
+		
+		if (idPool.size() < idPoolSize / 2 + 1) {
+			refillIdPool(key, idPool);
+		}
+		
+		return ImmutableSet.copyOf(leasedIds);
+	}
+
+	private void refillIdPool(final Pair<String, ComponentCategory> key, final BlockingQueue<String> idPool) {
+		if (disposed.get() || !idPoolsUnderRefill.add(key)) {
+			return;
+		}
+		
+		try {
+			executor.execute(() -> {
+				try {
+					final int missingIds = idPoolSize - idPool.size();
+					if (missingIds > 0) {
+						idPool.addAll(generateIds(key.getA(), key.getB(), missingIds));
+					}
+				} catch (final RuntimeException e) {
+					LOGGER.warn("Couldn't refill identifier pool [{}, {}]", key.getB(), key.getA(), e);
+				} finally {
+					idPoolsUnderRefill.remove(key);
+				}
+			});
+		} catch (final RejectedExecutionException e) {
+			idPoolsUnderRefill.remove(key);
+		}
+	}
+
 	private Set<String> doGenerateIds(final String namespace, final ComponentCategory category, final int quantity, final int attempt) {
 		// generate the item identifier (value can be a function of component category and namespace)
 		return generationStrategy.generateItemIds(namespace, category, quantity, attempt)
@@ -302,8 +414,12 @@ public class DefaultSnomedIdentifierService extends AbstractSnomedIdentifierServ
 			remainingIdsToCheck.removeAll(reservedByService);
 		}
 		
-		// check the ID index to verify state of remaining IDs
-		if (!remainingIdsToCheck.isEmpty()) {
+		// check the ID index (or the in-memory set of known item identifiers) to verify state of remaining IDs
+		if (isIdPoolEnabled()) {
+			remainingIdsToCheck.stream()
+				.filter(this::isKnownId)
+				.forEach(reservedIds::add);
+		} else if (!remainingIdsToCheck.isEmpty()) {
 			getSctIds(remainingIdsToCheck).forEach((id, sctId) -> {
 				if (!sctId.isAvailable()) {
 					reservedIds.add(id);
@@ -329,6 +445,15 @@ public class DefaultSnomedIdentifierService extends AbstractSnomedIdentifierServ
 	}
 	
 	private void putSctIds(final Collection<SctId> ids) {
+		if (isIdPoolEnabled()) {
+			for (final SctId sctId : ids) {
+				pendingWrites.put(sctId.getSctid(), Optional.of(sctId));
+				updateKnownId(sctId.getSctid(), true);
+			}
+			scheduleFlush();
+			return;
+		}
+		
 		store.write(index -> {
 			index.putAll(ids);
 			index.commit();
@@ -337,6 +462,15 @@ public class DefaultSnomedIdentifierService extends AbstractSnomedIdentifierServ
 	}
 	
 	private void removeSctIds(final Set<String> ids) {
+		if (isIdPoolEnabled()) {
+			for (final String id : ids) {
+				pendingWrites.put(id, Optional.empty());
+				updateKnownId(id, false);
+			}
+			scheduleFlush();
+			return;
+		}
+		
 		store.write(index -> {
 			index.removeAll(ImmutableMap.<Class<?>, Set<String>>of(SctId.class, ids));
 			index.commit();
@@ -344,4 +478,127 @@ public class DefaultSnomedIdentifierService extends AbstractSnomedIdentifierServ
 		});
 	}
 	
+	private boolean isKnownId(final String componentId) {
+		final LongSet itemIds = knownItemIds.getUnchecked(toKnownItemIdsKey(componentId));
+		synchronized (itemIds) {
+			return itemIds.contains(SnomedIdentifiers.getItemId(componentId));
+		}
+	}
+	
+	private void updateKnownId(final String componentId, final boolean known) {
+		final LongSet itemIds = knownItemIds.getUnchecked(toKnownItemIdsKey(componentId));
+		synchronized (itemIds) {
+			if (known) {
+				itemIds.add(SnomedIdentifiers.getItemId(componentId));
+			} else {
+				itemIds.remove(SnomedIdentifiers.getItemId(componentId));
+			}
+		}
+	}
+	
+	private static Pair<String, String> toKnownItemIdsKey(final String componentId) {
+		return Pair.identicalPairOf(SnomedIdentifiers.getNamespace(componentId), SnomedIdentifiers.getPartitionId(componentId));
+	}
+	
+	private LongSet loadKnownItemIds(final Pair<String, String> key) {
+		final Query<SctId> query = Query.select(SctId.class)
+				.fields(SctId.Fields.SEQUENCE)
+				.where(Expressions.builder()
+						.filter(SctId.Expressions.namespace(key.getA()))
+						.filter(Expressions.exactMatch(SctId.Fields.PARTITION_ID, key.getB()))
+						.build())
+				.limit(SCROLL_LIMIT)
+				.build();
+		
+		final LongSet itemIds = PrimitiveSets.newLongOpenHashSet();
+		store.read(index -> {
+			for (final Hits<SctId> hits : index.scroll(query)) {
+				hits.forEach(sctId -> itemIds.add(sctId.getSequence()));
+			}
+			return null;
+		});
+		
+		// apply state changes that are not written to the ID index yet
+		pendingWrites.forEach((componentId, pendingWrite) -> {
+			if (key.equals(toKnownItemIdsKey(componentId))) {
+				if (pendingWrite.isPresent()) {
+					itemIds.add(SnomedIdentifiers.getItemId(componentId));
+				} else {
+					itemIds.remove(SnomedIdentifiers.getItemId(componentId));
+				}
+			}
+		});
+		
+		LOGGER.debug("Loaded {} known item identifiers [{}, {}].", itemIds.size(), key.getA(), key.getB());
+		return itemIds;
+	}
+	
+	private void scheduleFlush() {
+		if (pendingWrites.size() >= WRITE_BATCH_SIZE && !disposed.get()) {
+			try {
+				executor.execute(this::flushSafely);
+			} catch (final RejectedExecutionException e) {
+				// disposed in the meantime, pending writes are flushed by dispose()
+			}
+		}
+	}
+	
+	private void flushSafely() {
+		try {
+			flush();
+		} catch (final RuntimeException e) {
+			LOGGER.error("Couldn't write identifier state changes to the ID index, retrying later.", e);
+		}
+	}
+	
+	/**
+	 * Writes all pending state changes to the ID index. Does nothing if ID pools are not enabled, as changes are written synchronously in that case.
+	 */
+	@VisibleForTesting
+	public void flush() {
+		synchronized (flushLock) {
+			final Map<String, Optional<SctId>> batch = ImmutableMap.copyOf(pendingWrites);
+			if (batch.isEmpty()) {
+				return;
+			}
+			
+			final List<SctId> idsToPut = newArrayListWithExpectedSize(batch.size());
+			final Set<String> idsToRemove = newHashSet();
+			batch.forEach((componentId, pendingWrite) -> {
+				if (pendingWrite.isPresent()) {
+					idsToPut.add(pendingWrite.get());
+				} else {
+					idsToRemove.add(componentId);
+				}
+			});
+			
+			store.write(index -> {
+				if (!idsToPut.isEmpty()) {
+					index.putAll(idsToPut);
+				}
+				if (!idsToRemove.isEmpty()) {
+					index.removeAll(ImmutableMap.<Class<?>, Set<String>>of(SctId.class, idsToRemove));
+				}
+				index.commit();
+				return null;
+			});
+			
+			// keep state changes that were made while the batch was written
+			batch.forEach((componentId, pendingWrite) -> pendingWrites.computeIfPresent(componentId, (key, current) -> current == pendingWrite ? null : current));
+		}
+	}
+	
+	@Override
+	public void dispose() {
+		if (disposed.compareAndSet(false, true) && executor != null) {
+			executor.shutdownNow();
+			flushSafely();
+		}
+	}
+	
+	@Override
+	public boolean isDisposed() {
+		return disposed.get();
+	}
+	
 }
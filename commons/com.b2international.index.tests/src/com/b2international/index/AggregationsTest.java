@@ -18,6 +18,7 @@ package com.b2international.index;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.Collection;
+import java.util.Map;
 
 import org.elasticsearch.common.UUIDs;
 import org.junit.Test;
@@ -25,6 +26,7 @@ import org.junit.Test;
 import com.b2international.index.Fixtures.Data;
 import com.b2international.index.aggregations.Aggregation;
 import com.b2international.index.aggregations.AggregationBuilder;
+import com.b2international.index.aggregations.Bucket;
 import com.b2international.index.query.Expressions;
 import com.google.common.collect.ImmutableList;
 
@@ -104,4 +106,71 @@ public class AggregationsTest extends BaseIndexTest {
 		assertThat(buckets.getBucket(String.join("_", "field1", "field2"))).containsOnly(dup1, dup2);
 	}
 	
+	@Test
+	public void aggregatePageByPage() throws Exception {
+		final Data a1 = new Data(UUIDs.randomBase64UUID());
+		a1.setField1("a");
+		final Data a2 = new Data(UUIDs.randomBase64UUID());
+		a2.setField1("a");
+		final Data b = new Data(UUIDs.randomBase64UUID());
+		b.setField1("b");
+		final Data c = new Data(UUIDs.randomBase64UUID());
+		c.setField1("c");
+		
+		indexDocuments(a1, a2, b, c);
+		
+		final Aggregation<Data> firstPage = aggregate(
+			AggregationBuilder.bucket("aggregatePageByPage", Data.class)
+				.query(Expressions.matchAll())
+				.onFieldValue("field1")
+				.pageSize(2)
+		);
+		
+		assertThat(firstPage.getBuckets()).containsOnlyKeys("a", "b");
+		assertThat(firstPage.getBucket("a")).containsOnly(a1, a2);
+		assertThat(firstPage.hasNextPage()).isTrue();
+		
+		final Aggregation<Data> secondPage = aggregate(
+			AggregationBuilder.bucket("aggregatePageByPage", Data.class)
+				.query(Expressions.matchAll())
+				.onFieldValue("field1")
+				.pageSize(2)
+				.after(firstPage.getAfterKey())
+		);
+		
+		assertThat(secondPage.getBuckets()).containsOnlyKeys("c");
+		assertThat(secondPage.hasNextPage()).isFalse();
+	}
+	
+	@Test
+	public void aggregateOnMultipleFieldValuesCountOnly() throws Exception {
+		final Data dup1 = new Data(UUIDs.randomBase64UUID());
+		dup1.setField1("field1");
+		dup1.setField2("field2");
+		
+		final Data dup2 = new Data(UUIDs.randomBase64UUID());
+		dup2.setField1("field1");
+		dup2.setField2("field2");
+		
+		final Data different = new Data(UUIDs.randomBase64UUID());
+		different.setField1("field1");
+		different.setField2("differentField2");
+		
+		indexDocuments(dup1, dup2, different);
+		
+		final Aggregation<Data> buckets = aggregate(
+			AggregationBuilder.bucket("aggregateOnMultipleFieldValues", Data.class)
+				.query(Expressions.matchAll())
+				.onFieldValues("field1", "field2")
+				.countOnly()
+				.minBucketSize(2)
+		);
+		
+		assertThat(buckets.getBuckets()).hasSize(1);
+		final Bucket<Data> bucket = buckets.getBucket(Map.of("field1", "field1", "field2", "field2"));
+		assertThat(bucket.getHits().getTotal()).isEqualTo(2);
+		assertThat(bucket).isEmpty();
+		assertThat(buckets.hasNextPage()).isFalse();
+	}
+	
 }
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index;
+
+import static com.google.common.collect.Sets.newHashSetWithExpectedSize;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.elasticsearch.common.UUIDs;
+import org.junit.Test;
+
+import com.b2international.index.Fixtures.Data;
+import com.b2international.index.query.Expressions;
+import com.b2international.index.query.Query;
+
+/**
+ * @since 8.0
+ */
+public class IdSetTest extends BaseIndexTest {
+
+	@Override
+	protected Collection<Class<?>> getTypes() {
+		return Collections.singleton(Data.class);
+	}
+	
+	@Test
+	public void matchAnyIdSet() throws Exception {
+		indexDocuments(List.of(createData("1"), createData("2"), createData("3")));
+		
+		final IdSet idSet = index().idSets().register(List.of("1", "3", "4"));
+		assertThat(idSet.getSize()).isEqualTo(3);
+		assertThat(idSet.getChunks()).isEqualTo(1);
+		
+		assertThat(search(Query.select(Data.class).where(Expressions.matchAnyIdSet("field1", idSet)).build()))
+			.extracting(Data::getField1)
+			.containsOnly("1", "3");
+	}
+	
+	@Test
+	public void matchAnyIdSetWithMoreThanMaxTermsCount() throws Exception {
+		final int numberOfTerms = 2 * IndexClientFactory.DEFAULT_MAX_TERMS_COUNT;
+		final Set<String> moreThanMaxTermsCount = newHashSetWithExpectedSize(numberOfTerms);
+		for (int i = 0; i < numberOfTerms; i++) {
+			moreThanMaxTermsCount.add(""+i);
+		}
+		
+		indexDocuments(List.of(createData("1"), createData("2"), createData(""+(numberOfTerms + 1))));
+		
+		final IdSet idSet = index().idSets().register(moreThanMaxTermsCount);
+		assertThat(idSet.getChunks()).isEqualTo(2);
+		
+		// the same set can be used in any number of queries
+		for (int i = 0; i < 2; i++) {
+			assertThat(search(Query.select(Data.class).where(Expressions.matchAnyIdSet("field1", idSet)).build()).getTotal()).isEqualTo(2);
+		}
+	}
+	
+	@Test
+	public void emptyIdSetMatchesNothing() throws Exception {
+		indexDocuments(List.of(createData("1")));
+		
+		final IdSet idSet = index().idSets().register(List.of());
+		assertThat(search(Query.select(Data.class).where(Expressions.matchAnyIdSet("field1", idSet)).build())).isEmpty();
+	}
+	
+	@Test(expected = IndexException.class)
+	public void releasedIdSetCannotBeQueried() throws Exception {
+		indexDocuments(List.of(createData("1")));
+		
+		final IdSet idSet = index().idSets().register(List.of("1"));
+		assertThat(search(Query.select(Data.class).where(Expressions.matchAnyIdSet("field1", idSet)).build())).hasSize(1);
+		
+		index().idSets().release(idSet);
+		search(Query.select(Data.class).where(Expressions.matchAnyIdSet("field1", idSet)).build());
+	}
+	
+	@Test(expected = IndexException.class)
+	public void unknownIdSetCannotBeQueried() throws Exception {
+		indexDocuments(List.of(createData("1")));
+		
+		final IdSet registered = index().idSets().register(List.of("1"));
+		final IdSet unknown = new IdSet(registered.getIndex(), UUIDs.randomBase64UUID(), 1, 1);
+		search(Query.select(Data.class).where(Expressions.matchAnyIdSet("field1", unknown)).build());
+	}
+	
+	@Test(expected = IndexException.class)
+	public void expiredIdSetCannotBeQueried() throws Exception {
+		indexDocuments(List.of(createData("1")));
+		
+		final IdSet idSet = index().idSets().register(List.of("1"), "1ms");
+		Thread.sleep(10L);
+		search(Query.select(Data.class).where(Expressions.matchAnyIdSet("field1", idSet)).build());
+	}
+	
+	@Test
+	public void usingIdSetExtendsKeepAlive() throws Exception {
+		indexDocuments(List.of(createData("1")));
+		
+		final IdSet idSet = index().idSets().register(List.of("1"), "2s");
+		for (int i = 0; i < 3; i++) {
+			// each search happens after more than half of the keep alive has passed, the last one after the original expiry
+			Thread.sleep(1_200L);
+			assertThat(search(Query.select(Data.class).where(Expressions.matchAnyIdSet("field1", idSet)).build())).hasSize(1);
+		}
+	}
+	
+	@Test
+	public void registerAfterIndexDelete() throws Exception {
+		index().idSets().register(List.of("1"));
+		
+		index().admin().delete();
+		index().admin().create();
+		indexDocuments(List.of(createData("1")));
+		
+		// the ID set index is created again on demand
+		final IdSet idSet = index().idSets().register(List.of("1"));
+		assertThat(search(Query.select(Data.class).where(Expressions.matchAnyIdSet("field1", idSet)).build())).hasSize(1);
+	}
+	
+	@Test
+	public void concurrentRegistrations() throws Exception {
+		indexDocuments(List.of(createData("1"), createData("2"), createData("3")));
+		
+		// registrations are written independently, each of them must be written before it returns
+		final List<IdSet> idSets = IntStream.range(0, 8)
+				.parallel()
+				.mapToObj(i -> index().idSets().register(List.of(""+(i % 3 + 1))))
+				.collect(Collectors.toList());
+		
+		for (IdSet idSet : idSets) {
+			assertThat(search(Query.select(Data.class).where(Expressions.matchAnyIdSet("field1", idSet)).build())).hasSize(1);
+		}
+	}
+
+	private Data createData(String field1Value) {
+		final Data data = new Data(UUIDs.randomBase64UUID());
+		data.setField1(field1Value);
+		return data;
+	}
+	
+}
@@ -22,6 +22,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang.RandomStringUtils;
 import org.junit.Ignore;
@@ -119,6 +122,60 @@ public class ScrollTest extends BaseIndexTest {
 		assertThat(hits).hasSize(NUM_DOCS);
 	}
 	
+	@Test
+	public void searchAndReturnAllHitsWithSlicedScroll() throws Exception {
+		indexDocs(NUM_DOCS);
+		
+		Stopwatch w = Stopwatch.createStarted();
+		List<String> ids = scrollSlicedIds(4);
+		System.err.println("ReturnAllHitsWithSlicedScroll took " + w);
+		
+		// slices are disjoint and together they return every document exactly once
+		assertThat(ids).hasSize(NUM_DOCS).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(getIds(NUM_DOCS));
+	}
+	
+	@Test
+	public void slicedScrollCapsNumberOfSlices() throws Exception {
+		indexDocs(NUM_DOCS);
+		
+		List<String> ids = scrollSlicedIds(SlicedScrollingIterator.MAX_SLICES * 2);
+		assertThat(ids).hasSize(NUM_DOCS).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(getIds(NUM_DOCS));
+	}
+	
+	@Test
+	public void closeSlicedScrollBeforeExhausted() throws Exception {
+		indexDocs(NUM_DOCS);
+		
+		Hits<Data> firstPage = index().read(searcher -> {
+			try (Stream<Hits<Data>> pages = searcher.scroll(Query.select(Data.class)
+					.where(Expressions.matchAll())
+					.limit(100)
+					.build(), 4)) {
+				return pages.findFirst().get();
+			}
+		});
+		
+		assertThat(firstPage).hasSize(100);
+	}
+	
+	private List<String> scrollSlicedIds(int slices) {
+		return index().read(searcher -> {
+			try (Stream<Hits<Data>> pages = searcher.scroll(Query.select(Data.class)
+					.where(Expressions.matchAll())
+					.limit(1000)
+					.build(), slices)) {
+				return pages
+						.flatMap(scrollHits -> scrollHits.getHits().stream())
+						.map(Data::getId)
+						.collect(Collectors.toList());
+			}
+		});
+	}
+	
+	private static List<String> getIds(int numberOfDocs) {
+		return IntStream.range(0, numberOfDocs).mapToObj(i -> "key" + i).collect(Collectors.toList());
+	}
+	
 	@Test(expected = SearchContextMissingException.class)
 	@Ignore("slows down test suite; scroll context invalidation is non-deterministic")
 	public void scrollTimeout() throws Exception {
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.commons.exceptions.BadRequestException;
+import com.b2international.index.Fixtures.Data;
+import com.b2international.index.query.Expressions;
+import com.b2international.index.query.Query;
+
+/**
+ * @since 8.0
+ */
+public class TrackTotalHitsTest extends BaseIndexTest {
+
+	private static final int NUM_DOCS = 100;
+	
+	@Override
+	protected Collection<Class<?>> getTypes() {
+		return List.of(Data.class);
+	}
+	
+	@Before
+	public void setup() {
+		final List<Data> docs = new ArrayList<>(NUM_DOCS); 
+		for (int i = 0; i < NUM_DOCS; i++) {
+			docs.add(new Data(Integer.toString(i)));
+		}
+		indexDocuments(docs);
+	}
+	
+	@Test
+	public void accurateByDefault() throws Exception {
+		final Hits<Data> hits = search(Query.select(Data.class)
+				.where(Expressions.matchAll())
+				.limit(10)
+				.build());
+		
+		assertThat(hits).hasSize(10);
+		assertThat(hits.getTotal()).isEqualTo(NUM_DOCS);
+		assertThat(hits.isTotalLowerBound()).isFalse();
+	}
+	
+	@Test
+	public void capped() throws Exception {
+		final Hits<Data> hits = search(Query.select(Data.class)
+				.where(Expressions.matchAll())
+				.limit(10)
+				.trackTotalHitsUpTo(20)
+				.build());
+		
+		assertThat(hits).hasSize(10);
+		assertThat(hits.getTotal()).isEqualTo(20);
+		assertThat(hits.isTotalLowerBound()).isTrue();
+	}
+	
+	@Test
+	public void cappedAboveMatches() throws Exception {
+		final Hits<Data> hits = search(Query.select(Data.class)
+				.where(Expressions.matchAll())
+				.limit(10)
+				.trackTotalHitsUpTo(NUM_DOCS * 2)
+				.build());
+		
+		assertThat(hits.getTotal()).isEqualTo(NUM_DOCS);
+		assertThat(hits.isTotalLowerBound()).isFalse();
+	}
+	
+	@Test
+	public void disabled() throws Exception {
+		final Hits<Data> hits = search(Query.select(Data.class)
+				.where(Expressions.matchAll())
+				.limit(10)
+				.trackTotalHitsUpTo(Query.TRACK_TOTAL_HITS_DISABLED)
+				.build());
+		
+		assertThat(hits).hasSize(10);
+		assertThat(hits.getTotal()).isEqualTo(10);
+		assertThat(hits.isTotalLowerBound()).isTrue();
+		assertThat(hits.getSearchAfter()).isNotNull();
+	}
+	
+	@Test(expected = BadRequestException.class)
+	public void invalid() throws Exception {
+		Query.select(Data.class)
+			.where(Expressions.matchAll())
+			.trackTotalHitsUpTo(-2);
+	}
+	
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.es.client;
+
+import static com.b2international.index.es.client.EsBulkExecutor.HIGH_LATENCY_MILLIS;
+import static com.b2international.index.es.client.EsBulkExecutor.LOW_LATENCY_MILLIS;
+import static com.b2international.index.es.client.EsBulkExecutor.MIN_BULK_ACTIONS;
+import static com.b2international.index.es.client.EsBulkExecutor.nextBulkActions;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Proxy;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.elasticsearch.ElasticsearchStatusException;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.rest.RestStatus;
+import org.junit.Test;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * @since 8.0
+ */
+public class EsBulkExecutorTest {
+
+	private static final int LIMIT = 10_000;
+
+	@FunctionalInterface
+	private interface BulkHandler {
+		BulkResponse bulk(BulkRequest request) throws Exception;
+	}
+
+	private static EsClient client(BulkHandler handler) {
+		return (EsClient) Proxy.newProxyInstance(EsClient.class.getClassLoader(), new Class<?>[] { EsClient.class }, (proxy, method, args) -> {
+			if ("bulk".equals(method.getName()) && args != null && args.length == 1 && args[0] instanceof BulkRequest) {
+				return handler.bulk((BulkRequest) args[0]);
+			}
+			throw new UnsupportedOperationException(method.getName());
+		});
+	}
+
+	private static BulkResponse emptyResponse() {
+		return new BulkResponse(new BulkItemResponse[0], 0L);
+	}
+
+	private static Throwable failure(ListenableFuture<BulkResponse> future) throws Exception {
+		try {
+			future.get(10L, TimeUnit.SECONDS);
+			fail("Expected bulk request to fail");
+			return null;
+		} catch (ExecutionException e) {
+			return e.getCause();
+		}
+	}
+
+	@Test
+	public void halveOnRejection() throws Exception {
+		assertEquals(LIMIT / 2, nextBulkActions(LIMIT, LIMIT, LOW_LATENCY_MILLIS / 2, true, LIMIT));
+	}
+
+	@Test
+	public void neverShrinkBelowMinimum() throws Exception {
+		assertEquals(MIN_BULK_ACTIONS, nextBulkActions(MIN_BULK_ACTIONS, MIN_BULK_ACTIONS, 0L, true, LIMIT));
+		assertEquals(MIN_BULK_ACTIONS, nextBulkActions(MIN_BULK_ACTIONS, MIN_BULK_ACTIONS, HIGH_LATENCY_MILLIS + 1, false, LIMIT));
+		// callers with a lower limit are respected
+		assertEquals(10, nextBulkActions(10, 10, 0L, true, 10));
+	}
+
+	@Test
+	public void shrinkOnHighLatency() throws Exception {
+		assertEquals(7_500, nextBulkActions(LIMIT, LIMIT, HIGH_LATENCY_MILLIS + 1, false, LIMIT));
+	}
+
+	@Test
+	public void growOnLowLatency() throws Exception {
+		assertEquals(1_250, nextBulkActions(1_000, 1_000, LOW_LATENCY_MILLIS - 1, false, LIMIT));
+		// never grow beyond the limit
+		assertEquals(LIMIT, nextBulkActions(9_000, 9_000, LOW_LATENCY_MILLIS - 1, false, LIMIT));
+	}
+
+	@Test
+	public void doNotGrowOnPartialRequest() throws Exception {
+		assertEquals(1_000, nextBulkActions(1_000, 10, LOW_LATENCY_MILLIS - 1, false, LIMIT));
+	}
+
+	@Test
+	public void keepSizeOnModerateLatency() throws Exception {
+		assertEquals(1_000, nextBulkActions(1_000, 1_000, (LOW_LATENCY_MILLIS + HIGH_LATENCY_MILLIS) / 2, false, LIMIT));
+	}
+
+	@Test
+	public void timeoutStartsWithExecution() throws Exception {
+		final CountDownLatch firstStarted = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final AtomicInteger calls = new AtomicInteger();
+		final EsClient client = client(request -> {
+			if (calls.incrementAndGet() == 1) {
+				firstStarted.countDown();
+				release.await();
+			}
+			return emptyResponse();
+		});
+
+		try (EsBulkExecutor executor = new EsBulkExecutor(client, "test", 1, 1, 500L)) {
+			final ListenableFuture<BulkResponse> running = executor.execute(new BulkRequest(), LIMIT);
+			assertTrue(firstStarted.await(10L, TimeUnit.SECONDS));
+			final ListenableFuture<BulkResponse> queued = executor.execute(new BulkRequest(), LIMIT);
+
+			assertTrue(failure(running) instanceof TimeoutException);
+			// the queued request has been waiting longer than the timeout, but it has not started yet
+			Thread.sleep(600L);
+			assertFalse(queued.isDone());
+
+			release.countDown();
+			queued.get(10L, TimeUnit.SECONDS);
+			assertEquals(2, calls.get());
+		}
+	}
+
+	@Test
+	public void callerRunsWhenQueueIsFull() throws Exception {
+		final CountDownLatch firstStarted = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final AtomicInteger calls = new AtomicInteger();
+		final Thread testThread = Thread.currentThread();
+		final AtomicInteger callerRuns = new AtomicInteger();
+		final EsClient client = client(request -> {
+			if (calls.incrementAndGet() == 1) {
+				firstStarted.countDown();
+				release.await();
+			}
+			if (Thread.currentThread() == testThread) {
+				callerRuns.incrementAndGet();
+			}
+			return emptyResponse();
+		});
+
+		try (EsBulkExecutor executor = new EsBulkExecutor(client, "test", 1, 1, TimeUnit.MINUTES.toMillis(1L))) {
+			final ListenableFuture<BulkResponse> running = executor.execute(new BulkRequest(), LIMIT);
+			assertTrue(firstStarted.await(10L, TimeUnit.SECONDS));
+			final ListenableFuture<BulkResponse> queued = executor.execute(new BulkRequest(), LIMIT);
+
+			// the only writer thread is busy and the queue is full, the caller has to execute the request itself
+			final ListenableFuture<BulkResponse> rejected = executor.execute(new BulkRequest(), LIMIT);
+			assertTrue(rejected.isDone());
+			assertEquals(1, callerRuns.get());
+			assertFalse(queued.isDone());
+
+			release.countDown();
+			running.get(10L, TimeUnit.SECONDS);
+			queued.get(10L, TimeUnit.SECONDS);
+			assertEquals(1, callerRuns.get());
+		}
+	}
+
+	@Test
+	public void retryWaitsForWriterThread() throws Exception {
+		final CountDownLatch firstRejected = new CountDownLatch(1);
+		final CountDownLatch secondStarted = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final AtomicInteger calls = new AtomicInteger();
+		final Set<String> threadNames = ConcurrentHashMap.newKeySet();
+		final EsClient client = client(request -> {
+			threadNames.add(Thread.currentThread().getName());
+			final int call = calls.incrementAndGet();
+			if (call == 1) {
+				firstRejected.countDown();
+				throw new ElasticsearchStatusException("Too many requests", RestStatus.TOO_MANY_REQUESTS);
+			} else if (call == 2) {
+				secondStarted.countDown();
+				release.await();
+			}
+			return emptyResponse();
+		});
+
+		try (EsBulkExecutor executor = new EsBulkExecutor(client, "test", 1, 1, TimeUnit.MINUTES.toMillis(1L))) {
+			final ListenableFuture<BulkResponse> retrying = executor.execute(new BulkRequest(), LIMIT);
+			assertTrue(firstRejected.await(10L, TimeUnit.SECONDS));
+			final ListenableFuture<BulkResponse> running = executor.execute(new BulkRequest(), LIMIT);
+			assertTrue(secondStarted.await(10L, TimeUnit.SECONDS));
+			final ListenableFuture<BulkResponse> queued = executor.execute(new BulkRequest(), LIMIT);
+
+			// the only writer thread is busy and the queue is full, the retry must not be executed by the scheduler
+			Thread.sleep(500L);
+			assertFalse(retrying.isDone());
+			assertEquals(2, calls.get());
+
+			release.countDown();
+			running.get(10L, TimeUnit.SECONDS);
+			queued.get(10L, TimeUnit.SECONDS);
+			retrying.get(10L, TimeUnit.SECONDS);
+			assertEquals(4, calls.get());
+			assertTrue(threadNames.stream().allMatch(name -> name.startsWith("es-writer-") && !name.startsWith("es-writer-retry-")));
+		}
+	}
+
+	@Test
+	public void metersOfExecutorsForSameCluster() throws Exception {
+		final MeterRegistry registry = new SimpleMeterRegistry();
+		final EsClient client = client(request -> emptyResponse());
+
+		final EsBulkExecutor first = new EsBulkExecutor(client, "test", 1);
+		first.bindTo(registry);
+		try (EsBulkExecutor second = new EsBulkExecutor(client, "test", 1)) {
+			second.bindTo(registry);
+			second.execute(new BulkRequest(), LIMIT).get(10L, TimeUnit.SECONDS);
+
+			// each executor reports its own requests
+			assertEquals(2, registry.find("index.bulk.requests").tag("cluster", "test").functionTimers().size());
+			assertEquals(1L, registry.find("index.bulk.requests").functionTimers().stream().mapToDouble(FunctionTimer::count).sum(), 0.0);
+
+			first.close();
+			assertEquals(1, registry.find("index.bulk.requests").functionTimers().size());
+		}
+
+		assertTrue(registry.getMeters().isEmpty());
+	}
+
+	@Test
+	public void closeFailsPendingRequests() throws Exception {
+		final CountDownLatch rejectedOnce = new CountDownLatch(1);
+		final EsClient client = client(request -> {
+			rejectedOnce.countDown();
+			throw new ElasticsearchStatusException("Too many requests", RestStatus.TOO_MANY_REQUESTS);
+		});
+
+		final EsBulkExecutor executor = new EsBulkExecutor(client, "test", 1, 1, TimeUnit.MINUTES.toMillis(1L));
+		final ListenableFuture<BulkResponse> retrying = executor.execute(new BulkRequest(), LIMIT);
+		assertTrue(rejectedOnce.await(10L, TimeUnit.SECONDS));
+
+		// the request is waiting for its next retry, which is dropped when the executor is closed
+		executor.close();
+		assertTrue(failure(retrying) instanceof RejectedExecutionException);
+		assertTrue(failure(executor.execute(new BulkRequest(), LIMIT)) instanceof RejectedExecutionException);
+	}
+
+}
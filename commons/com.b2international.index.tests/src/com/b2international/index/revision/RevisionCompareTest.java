@@ -16,6 +16,7 @@
 package com.b2international.index.revision;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.util.Collection;
 
@@ -277,4 +278,57 @@ public class RevisionCompareTest extends BaseRevisionIndexTest {
 		);
 	}
 	
+	@Test
+	public void compareUnchangedBranchesReturnsCachedResult() throws Exception {
+		final String branch = createBranch(MAIN, "a");
+		indexRevision(branch, new RevisionData(STORAGE_KEY1, "field1", "field2"));
+		
+		final RevisionCompare first = index().compare(MAIN, branch);
+		final RevisionCompare second = index().compare(MAIN, branch);
+		assertThat(second).isEqualTo(first);
+	}
+	
+	@Test
+	public void cachedCompareResultIsImmutable() throws Exception {
+		final String branch = createBranch(MAIN, "a");
+		indexRevision(branch, new RevisionData(STORAGE_KEY1, "field1", "field2"));
+		
+		final RevisionCompare first = index().compare(MAIN, branch);
+		assertThatThrownBy(() -> first.getDetails().clear()).isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> first.getCompare().segments().clear()).isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> first.getBase().segments().clear()).isInstanceOf(UnsupportedOperationException.class);
+		
+		final RevisionCompare second = index().compare(MAIN, branch);
+		assertThat(second.getDetails()).hasSize(1);
+		assertThat(second).isEqualTo(first);
+	}
+	
+	@Test
+	public void compareAfterCommitOnCompareBranchRecomputesResult() throws Exception {
+		final String branch = createBranch(MAIN, "a");
+		indexRevision(branch, new RevisionData(STORAGE_KEY1, "field1", "field2"));
+		
+		final RevisionCompare first = index().compare(MAIN, branch);
+		assertThat(first.getDetails()).hasSize(1);
+		
+		indexRevision(branch, new RevisionData(STORAGE_KEY2, "field1", "field2"));
+		
+		final RevisionCompare second = index().compare(MAIN, branch);
+		assertThat(second).isNotSameAs(first);
+		assertThat(second.getDetails()).hasSize(2);
+	}
+	
+	@Test
+	public void compareBranchWithManyCommits() throws Exception {
+		final String branch = createBranch(MAIN, "a");
+		// more commits than a single compare batch
+		for (int i = 0; i < 150; i++) {
+			indexRevision(branch, new RevisionData(nextId(), "field1", "field2"));
+		}
+		
+		final RevisionCompare compare = index().compare(MAIN, branch);
+		assertThat(compare.getDetails()).hasSize(150);
+		assertThat(compare.getTotalAdded()).isEqualTo(150);
+	}
+	
 }
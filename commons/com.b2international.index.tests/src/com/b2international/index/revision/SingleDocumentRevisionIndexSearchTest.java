@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2020 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2011-2021 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -136,6 +136,30 @@ public class SingleDocumentRevisionIndexSearchTest extends BaseRevisionIndexTest
 		});
 	}
 	
+	@Test
+	public void searchWithFieldScore() throws Exception {
+		final ScoredData first = new ScoredData(STORAGE_KEY1, "field1", "field2", null, 1.0f);
+		final ScoredData second = new ScoredData(STORAGE_KEY2, "field1", "field2.2", null, 2.0f);
+		
+		indexRevision(MAIN, first, second);
+		
+		final Query<ScoredData> query = Query.select(ScoredData.class).where(Expressions.fieldScore(
+				Expressions.exactMatch("field1", "field1"), "doi", 1.0d))
+				.withScores(true)
+				.build();
+		
+		final Iterable<ScoredData> matches = search(MAIN, query);
+		
+		assertThat(matches).hasSize(2);
+		assertThat(matches).contains(first, second);
+		assertThat(matches).are(new Condition<ScoredData>() {
+			@Override
+			public boolean matches(ScoredData input) {
+				return input.getScore() == input.getDoi();
+			}
+		});
+	}
+	
 	@Test
 	public void searchWithCustomScoreParams() throws Exception {
 		final ScoredData first = new ScoredData(STORAGE_KEY1, "field1", "field2", null, 1.0f);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2018 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2011-2021 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -52,6 +52,11 @@ public final class DefaultIndex implements Index {
 		}
 	}
 	
+	@Override
+	public IdSets idSets() {
+		return client.idSets();
+	}
+	
 	@Override
 	public String name() {
 		return admin().name();
@@ -33,13 +33,19 @@ public final class Hits<T> implements Iterable<T> {
 	private final String searchAfter;
 	private final int limit;
 	private final int total;
+	private final boolean totalLowerBound;
 
 	public Hits(List<T> hits, String scrollId, String searchAfter, int limit, int total) {
+		this(hits, scrollId, searchAfter, limit, total, false);
+	}
+	
+	public Hits(List<T> hits, String scrollId, String searchAfter, int limit, int total, boolean totalLowerBound) {
 		this.hits = hits;
 		this.scrollId = scrollId;
 		this.searchAfter = searchAfter;
 		this.limit = limit;
 		this.total = total;
+		this.totalLowerBound = totalLowerBound;
 	}
 	
 	@Override
@@ -78,6 +84,15 @@ public final class Hits<T> implements Iterable<T> {
 	public int getTotal() {
 		return total;
 	}
+	
+	/**
+	 * @return <code>true</code> if the query did not count all matches (total hit tracking was capped or disabled) and {@link #getTotal()} is only
+	 *         a lower bound of the number of matches, <code>false</code> if the total is accurate
+	 * @see com.b2international.index.query.Query.AfterWhereBuilder#trackTotalHitsUpTo(int)
+	 */
+	public boolean isTotalLowerBound() {
+		return totalLowerBound;
+	}
 
 	@Override
 	public String toString() {
@@ -85,6 +100,7 @@ public final class Hits<T> implements Iterable<T> {
 				.add("hits", StringUtils.limitedToString(hits, 10))
 				.add("limit", limit)
 				.add("total", total)
+				.add("totalLowerBound", totalLowerBound)
 				.add("scrollId", scrollId)
 				.add("searchAfter", searchAfter)
 				.toString();
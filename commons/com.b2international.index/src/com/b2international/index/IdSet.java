@@ -0,0 +1,115 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index;
+
+import java.util.Objects;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Handle of a set of identifiers registered via {@link IdSets#register(java.util.Collection)}. The identifiers themselves are stored on the
+ * server side, expressions can reference them with {@link com.b2international.index.query.Expressions#matchAnyIdSet(String, IdSet)} without
+ * sending the values again with every query.
+ * 
+ * @since 8.0
+ */
+public final class IdSet {
+
+	/**
+	 * Fields of the documents storing the identifiers of a set.
+	 */
+	public static final class Fields {
+		public static final String IDS = "ids";
+		public static final String EXPIRES = "expires";
+		public static final String KEEP_ALIVE = "keepAlive";
+	}
+	
+	private final String index;
+	private final String id;
+	private final int chunks;
+	private final int size;
+
+	public IdSet(String index, String id, int chunks, int size) {
+		this.index = index;
+		this.id = id;
+		this.chunks = chunks;
+		this.size = size;
+	}
+	
+	/**
+	 * @return the name of the index where the identifiers are stored
+	 */
+	public String getIndex() {
+		return index;
+	}
+	
+	/**
+	 * @return the unique identifier of this set
+	 */
+	public String getId() {
+		return id;
+	}
+	
+	/**
+	 * @return the number of documents the identifiers are split into
+	 */
+	public int getChunks() {
+		return chunks;
+	}
+	
+	/**
+	 * @param chunk - the index of the chunk, between <code>0</code> (inclusive) and {@link #getChunks()} (exclusive)
+	 * @return the document identifier of the given chunk
+	 */
+	public String getChunkId(int chunk) {
+		return String.format("%s-%d", id, chunk);
+	}
+	
+	/**
+	 * @return the number of identifiers in this set
+	 */
+	public int getSize() {
+		return size;
+	}
+	
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	
+	@Override
+	public int hashCode() {
+		return Objects.hash(index, id);
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) return true;
+		if (obj == null) return false;
+		if (getClass() != obj.getClass()) return false;
+		IdSet other = (IdSet) obj;
+		return Objects.equals(index, other.index) && Objects.equals(id, other.id);
+	}
+	
+	@Override
+	public String toString() {
+		return MoreObjects.toStringHelper(getClass())
+				.add("index", index)
+				.add("id", id)
+				.add("size", size)
+				.toString();
+	}
+	
+}
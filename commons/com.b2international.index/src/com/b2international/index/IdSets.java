@@ -0,0 +1,69 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index;
+
+import java.util.Collection;
+
+/**
+ * Short-lived, server-side sets of identifiers. A large identifier filter that is used by more than one query of the same request chain can be
+ * registered once and then referenced by its {@link IdSet handle}, instead of serializing all values into each query. Registering a set costs an
+ * additional write, so filters used by a single query are better sent inline.
+ * <p>
+ * Currently the whitelist updates of the validation repository reference their affected components this way. ECL, reference set and query
+ * type reference set evaluation still send their identifier filters inline, as they hand evaluated identifiers to subsequent search requests as
+ * plain collections.
+ * </p>
+ * 
+ * @since 8.0
+ */
+public interface IdSets {
+
+	/**
+	 * The default time an {@link IdSet} is kept after registration.
+	 */
+	String DEFAULT_KEEP_ALIVE = "5m";
+	
+	/**
+	 * Registers the given identifiers with the {@link #DEFAULT_KEEP_ALIVE default keep alive} value.
+	 * 
+	 * @param ids - the identifiers to store
+	 * @return the handle that can be used in queries
+	 * @see #register(Collection, String)
+	 */
+	default IdSet register(Collection<String> ids) {
+		return register(ids, DEFAULT_KEEP_ALIVE);
+	}
+	
+	/**
+	 * Registers the given identifiers and keeps them for at least the given amount of time. Each query referencing the set extends its expiry
+	 * to the given amount of time, once less than half of it remains.
+	 * 
+	 * @param ids - the identifiers to store
+	 * @param keepAlive - the minimum time to keep the identifiers, eg. <code>30s</code>, <code>5m</code>
+	 * @return the handle that can be used in queries
+	 */
+	IdSet register(Collection<String> ids, String keepAlive);
+	
+	/**
+	 * Removes the identifiers of the given set before they would expire. Queries referencing the set fail with an {@link IndexException}
+	 * afterwards, the same way as queries referencing an unknown or expired set. Sets should be released by the node that registered them, other
+	 * nodes that have already used the set may only notice the release when its expiry is due.
+	 * 
+	 * @param idSet
+	 */
+	void release(IdSet idSet);
+	
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2016 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2011-2021 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -45,5 +45,12 @@ public interface Index extends Administrable<IndexAdmin> {
 	 * @return
 	 */
 	<T> T write(IndexWrite<T> write);
+	
+	/**
+	 * Returns the {@link IdSets} service of this index that can store large identifier filters on the server side.
+	 * 
+	 * @return
+	 */
+	IdSets idSets();
 
 }
\ No newline at end of file
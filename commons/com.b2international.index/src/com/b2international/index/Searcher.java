@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2018 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2011-2021 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,10 +17,12 @@ package com.b2international.index;
 
 import java.io.IOException;
 import java.util.Iterator;
+import java.util.stream.Stream;
 
 import com.b2international.index.aggregations.Aggregation;
 import com.b2international.index.aggregations.AggregationBuilder;
 import com.b2international.index.query.Query;
+import com.google.common.collect.Streams;
 
 /**
  * @since 4.7
@@ -102,4 +104,30 @@ public interface Searcher {
 		};
 	}
 	
+	/**
+	 * Returns a {@link Stream} of pages to scroll through all matches of the given query using the given number of slices. Each slice is
+	 * scrolled independently with its own search context on a dedicated thread, pages of different slices are fetched concurrently and returned
+	 * in no particular order. Use this for reading large result sets (eg. entire terminologies) where the order of pages does not matter.
+	 * <p>
+	 * The stream itself is sequential, pages are consumed on the calling thread. The number of slices is capped at
+	 * {@link SlicedScrollingIterator#MAX_SLICES}. Close the stream (eg. with try-with-resources) to release the slice threads when it is not
+	 * consumed entirely.
+	 * </p>
+	 * <p>
+	 * Slices of a revision query share the same branch point, so they see the same state of the branch even when the index changes while
+	 * scrolling.
+	 * </p>
+	 * 
+	 * @param query - the query to execute, its limit is used as the page size of each slice
+	 * @param slices - the number of slices to scroll concurrently
+	 * @return
+	 * @see #scroll(Query)
+	 * @see SlicedScrollingIterator
+	 * @since 8.0
+	 */
+	default <T> Stream<Hits<T>> scroll(Query<T> query, int slices) {
+		final SlicedScrollingIterator<T> iterator = new SlicedScrollingIterator<>(this, query, slices);
+		return Streams.stream(iterator).onClose(iterator::close);
+	}
+	
 }
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.b2international.index.query.Query;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Scrolls through all matches of a query using a number of disjoint slices. Each slice is scrolled with its own search context on a
+ * dedicated thread, at most {@link #MAX_SLICES} slices are scrolled concurrently. Pages of all slices are handed over to the iterating
+ * thread through a bounded queue in no particular order, so slices fetching ahead of the consumer block instead of buffering the entire
+ * result set.
+ * <p>
+ * The iterator releases its threads and search contexts when it is exhausted, when a slice fails or when it is {@link #close() closed}.
+ * </p>
+ *
+ * @since 8.0
+ * @param <T> - the type of scrolled documents
+ */
+public final class SlicedScrollingIterator<T> implements Iterator<Hits<T>>, AutoCloseable {
+
+	/**
+	 * The maximum number of slices scrolled concurrently by a single iterator.
+	 */
+	public static final int MAX_SLICES = 8;
+
+	private static final int QUEUED_PAGES_PER_SLICE = 2;
+
+	private final Searcher searcher;
+	private final Query<T> query;
+	private final int slices;
+	private final BlockingQueue<SlicePage<T>> pages;
+
+	private ExecutorService executor;
+	private int completedSlices;
+	private Hits<T> next;
+	private volatile boolean closed;
+
+	public SlicedScrollingIterator(Searcher searcher, Query<T> query, int slices) {
+		checkArgument(slices > 0, "Number of slices must be greater than zero, was '%s'.", slices);
+		this.searcher = searcher;
+		this.query = query;
+		this.slices = Math.min(slices, MAX_SLICES);
+		this.pages = new ArrayBlockingQueue<>(this.slices * QUEUED_PAGES_PER_SLICE);
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (next != null) {
+			return true;
+		}
+
+		if (closed) {
+			return false;
+		}
+
+		if (executor == null) {
+			start();
+		}
+
+		while (completedSlices < slices) {
+			final SlicePage<T> page = takePage();
+			if (page.failure != null) {
+				close();
+				throw page.failure;
+			} else if (page.hits == null) {
+				completedSlices++;
+			} else {
+				next = page.hits;
+				return true;
+			}
+		}
+
+		close();
+		return false;
+	}
+
+	@Override
+	public Hits<T> next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		final Hits<T> hits = next;
+		next = null;
+		return hits;
+	}
+
+	private void start() {
+		executor = Executors.newFixedThreadPool(slices, new ThreadFactoryBuilder()
+				.setNameFormat("index-scroll-slice-%d")
+				.setDaemon(true)
+				.build());
+
+		for (int sliceId = 0; sliceId < slices; sliceId++) {
+			final Query<T> sliceQuery = slices == 1 ? query : query.withWhere(query.getWhere()).slice(sliceId, slices).build();
+			executor.execute(() -> scrollSlice(sliceQuery));
+		}
+	}
+
+	private void scrollSlice(Query<T> sliceQuery) {
+		String scrollId = null;
+		try {
+			final ScrollingIterator<T> slice = new ScrollingIterator<>(searcher, sliceQuery);
+			while (!closed) {
+				if (!slice.hasNext()) {
+					// an exhausted slice has already released its search context
+					scrollId = null;
+					put(new SlicePage<>(null, null));
+					break;
+				}
+				final Hits<T> hits = slice.next();
+				scrollId = hits.getScrollId();
+				put(new SlicePage<>(hits, null));
+			}
+		} catch (RuntimeException e) {
+			put(new SlicePage<>(null, e));
+		} finally {
+			if (scrollId != null && closed) {
+				searcher.cancelScroll(scrollId);
+			}
+		}
+	}
+
+	private void put(SlicePage<T> page) {
+		try {
+			pages.put(page);
+		} catch (InterruptedException e) {
+			// the iterator has been closed, the page is no longer needed
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private SlicePage<T> takePage() {
+		try {
+			return pages.take();
+		} catch (InterruptedException e) {
+			close();
+			Thread.currentThread().interrupt();
+			throw new IndexException("Interrupted while waiting for the next page of scrolled documents", e);
+		}
+	}
+
+	/**
+	 * Stops scrolling the remaining slices and releases the threads of this iterator. Subsequent calls to {@link #hasNext()} return
+	 * <code>false</code>.
+	 */
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		next = null;
+		if (executor != null) {
+			// interrupts slices waiting for room in the queue
+			executor.shutdownNow();
+		}
+		pages.clear();
+	}
+
+	private static final class SlicePage<T> {
+
+		private final Hits<T> hits;
+		private final RuntimeException failure;
+
+		private SlicePage(Hits<T> hits, RuntimeException failure) {
+			this.hits = hits;
+			this.failure = failure;
+		}
+
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2017 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2017-2021 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,10 +25,16 @@ public final class Aggregation<T> {
 
 	private final String name;
 	private final Map<Object, Bucket<T>> buckets;
+	private final Map<String, Object> afterKey;
 	
 	public Aggregation(String name, Map<Object, Bucket<T>> buckets) {
+		this(name, buckets, null);
+	}
+	
+	public Aggregation(String name, Map<Object, Bucket<T>> buckets, Map<String, Object> afterKey) {
 		this.name = name;
 		this.buckets = buckets;
+		this.afterKey = afterKey;
 	}
 	
 	public String getName() {
@@ -43,4 +49,19 @@ public final class Aggregation<T> {
 		return buckets.get(key);
 	}
 	
+	/**
+	 * @return the key of the last bucket of a paged aggregation to pass to {@link AggregationBuilder#after(Map)} when requesting the next page, or
+	 *         <code>null</code> if there are no more buckets
+	 */
+	public Map<String, Object> getAfterKey() {
+		return afterKey;
+	}
+	
+	/**
+	 * @return <code>true</code> if a paged aggregation has more buckets to return, <code>false</code> otherwise
+	 */
+	public boolean hasNextPage() {
+		return afterKey != null;
+	}
+	
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2017 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2017-2021 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,6 +15,8 @@
  */
 package com.b2international.index.aggregations;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -24,6 +26,12 @@ import com.b2international.index.query.Expression;
 import com.google.common.collect.ImmutableList;
 
 /**
+ * Describes a bucket aggregation over documents of a single type.
+ * <p>
+ * By default all buckets are computed and returned in a single response. If a {@link #pageSize(int) page size} is specified (or the buckets are
+ * keyed by {@link #onFieldValues(List) multiple fields}) the aggregation is computed page by page, each returned {@link Aggregation} carries the
+ * {@link Aggregation#getAfterKey() after key} that can be sent back via {@link #after(Map)} to fetch the next page of buckets.
+ * 
  * @since 6.0
  */
 public final class AggregationBuilder<T> implements ScriptExpression {
@@ -33,12 +41,14 @@ public final class AggregationBuilder<T> implements ScriptExpression {
 	private final Class<?> from;
 	
 	private Expression query;
-	private String groupByField;
+	private List<String> groupByFields = Collections.emptyList();
 	private List<String> fields = Collections.emptyList();
 	private String groupByScript;
 	private int minBucketSize = 1;
 	private int bucketHitsLimit = 10;
 	private String path;
+	private int pageSize = 0;
+	private Map<String, Object> afterKey;
 
 	AggregationBuilder(String name, Class<T> select, Class<?> from) {
 		this.name = name;
@@ -52,7 +62,26 @@ public final class AggregationBuilder<T> implements ScriptExpression {
 	}
 	
 	public AggregationBuilder<T> onFieldValue(String field) {
-		this.groupByField = field;
+		this.groupByFields = field == null ? Collections.emptyList() : ImmutableList.of(field);
+		return this;
+	}
+	
+	/**
+	 * Groups documents by the combination of the given field values. Keys of the returned buckets are {@link Map}s of field name to value. Multi-field
+	 * keys are always computed page by page.
+	 * 
+	 * @param fields
+	 * @return
+	 */
+	public AggregationBuilder<T> onFieldValues(String...fields) {
+		return onFieldValues(ImmutableList.copyOf(fields));
+	}
+	
+	/**
+	 * @see #onFieldValues(String...)
+	 */
+	public AggregationBuilder<T> onFieldValues(List<String> fields) {
+		this.groupByFields = ImmutableList.copyOf(fields);
 		return this;
 	}
 	
@@ -85,6 +114,38 @@ public final class AggregationBuilder<T> implements ScriptExpression {
 		return this;
 	}
 	
+	/**
+	 * Computes only the number of documents in each bucket, without loading any of the documents themselves.
+	 * 
+	 * @return
+	 */
+	public AggregationBuilder<T> countOnly() {
+		return setBucketHitsLimit(0);
+	}
+	
+	/**
+	 * Returns at most the given number of buckets in a single {@link Aggregation}, ordered by their keys.
+	 * 
+	 * @param pageSize
+	 * @return
+	 */
+	public AggregationBuilder<T> pageSize(int pageSize) {
+		checkArgument(pageSize > 0, "Page size must be greater than zero, got: %s", pageSize);
+		this.pageSize = pageSize;
+		return this;
+	}
+	
+	/**
+	 * Continues a paged aggregation after the given key.
+	 * 
+	 * @param afterKey - the {@link Aggregation#getAfterKey() after key} of the previous page, may be <code>null</code> to get the first page
+	 * @return
+	 */
+	public AggregationBuilder<T> after(Map<String, Object> afterKey) {
+		this.afterKey = afterKey;
+		return this;
+	}
+	
 	public Class<T> getSelect() {
 		return select;
 	}
@@ -102,7 +163,11 @@ public final class AggregationBuilder<T> implements ScriptExpression {
 	}
 	
 	public String getGroupByField() {
-		return groupByField;
+		return groupByFields.size() == 1 ? groupByFields.get(0) : null;
+	}
+	
+	public List<String> getGroupByFields() {
+		return groupByFields;
 	}
 	
 	public List<String> getFields() {
@@ -131,6 +196,21 @@ public final class AggregationBuilder<T> implements ScriptExpression {
 		return bucketHitsLimit;
 	}
 	
+	public int getPageSize() {
+		return pageSize;
+	}
+	
+	public Map<String, Object> getAfterKey() {
+		return afterKey;
+	}
+	
+	/**
+	 * @return <code>true</code> if buckets should be computed page by page, <code>false</code> if all buckets should be returned at once
+	 */
+	public boolean isPaged() {
+		return pageSize > 0 || afterKey != null || groupByFields.size() > 1;
+	}
+	
 	public Expression getQuery() {
 		return query;
 	}
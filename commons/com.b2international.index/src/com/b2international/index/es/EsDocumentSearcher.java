@@ -41,14 +41,19 @@ import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.aggregations.AggregationBuilders;
 import org.elasticsearch.search.aggregations.Aggregations;
+import org.elasticsearch.search.aggregations.bucket.MultiBucketsAggregation;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregation;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeValuesSourceBuilder;
+import org.elasticsearch.search.aggregations.bucket.composite.TermsValuesSourceBuilder;
 import org.elasticsearch.search.aggregations.bucket.nested.Nested;
 import org.elasticsearch.search.aggregations.bucket.nested.ReverseNested;
-import org.elasticsearch.search.aggregations.bucket.terms.Terms;
 import org.elasticsearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
 import org.elasticsearch.search.aggregations.metrics.TopHits;
 import org.elasticsearch.search.aggregations.metrics.TopHitsAggregationBuilder;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.elasticsearch.search.fetch.subphase.FetchSourceContext;
+import org.elasticsearch.search.slice.SliceBuilder;
 import org.elasticsearch.search.sort.ScriptSortBuilder.ScriptSortType;
 import org.elasticsearch.search.sort.SortBuilders;
 import org.elasticsearch.search.sort.SortOrder;
@@ -144,14 +149,27 @@ public class EsDocumentSearcher implements Searcher {
 		// TODO support multiple document mappings during query building
 		final EsQueryBuilder esQueryBuilder = new EsQueryBuilder(primaryMapping, admin.settings(), admin.log());
 		final QueryBuilder esQuery = esQueryBuilder.build(query.getWhere());
+		admin.idSets().checkAvailable(esQueryBuilder.getIdSets());
 		
 		final SearchRequest req = new SearchRequest(admin.getTypeIndexes(mappings).toArray(length -> new String[length]));
 		
+		// scroll config
+		final boolean isLocalScroll = limit > resultWindow;
+		final boolean isScrolled = !Strings.isNullOrEmpty(query.getScrollKeepAlive());
+		final boolean isLiveScrolled = !Strings.isNullOrEmpty(query.getSearchAfter());
+		
 		final SearchSourceBuilder reqSource = req.source()
 			.size(toRead)
 			.query(esQuery)
-			.trackScores(esQueryBuilder.needsScoring())
-			.trackTotalHitsUpTo(Integer.MAX_VALUE);
+			.trackScores(esQueryBuilder.needsScoring());
+		
+		// scrolls rely on the accurate number of matches to fetch all of them
+		final int trackTotalHitsUpTo = isLocalScroll || isScrolled ? Query.TRACK_TOTAL_HITS_ACCURATE : query.getTrackTotalHitsUpTo();
+		if (trackTotalHitsUpTo == Query.TRACK_TOTAL_HITS_DISABLED) {
+			reqSource.trackTotalHits(false);
+		} else {
+			reqSource.trackTotalHitsUpTo(trackTotalHitsUpTo);
+		}
 		
 		// field selection
 		final boolean fetchSource = applySourceFiltering(query.getFields(), primaryMapping, reqSource);
@@ -165,16 +183,12 @@ public class EsDocumentSearcher implements Searcher {
 			reqSource.storedFields(STORED_FIELDS_NONE);
 		}
 		
-		// scroll config
-		final boolean isLocalScroll = limit > resultWindow;
-		final boolean isScrolled = !Strings.isNullOrEmpty(query.getScrollKeepAlive());
-		final boolean isLiveScrolled = !Strings.isNullOrEmpty(query.getSearchAfter());
+		// local scrolls fetch all matches with a short lived scroll, the first page is returned by the initial search request
+		final TimeValue localScrollKeepAlive = TimeValue.timeValueSeconds(60);
 		if (isLocalScroll) {
 			checkArgument(!isScrolled, "Cannot fetch more than '%s' items when scrolling is specified. You requested '%s' items.", resultWindow, limit);
 			checkArgument(!isLiveScrolled, "Cannot use search after when requesting more number of items (%s) than the max result window (%s).", limit, resultWindow);
-			// do NOT start a scroll on the first request, just validate the search request state here
-			// XXX commented row kept for historical reasons
-//			req.scroll(scrollTime);
+			req.scroll(localScrollKeepAlive);
 		} else if (isScrolled) {
 			checkArgument(!isLiveScrolled, "Cannot scroll and live scroll at the same time");
 			req.scroll(query.getScrollKeepAlive());
@@ -183,6 +197,11 @@ public class EsDocumentSearcher implements Searcher {
 			reqSource.searchAfter(fromSearchAfterToken(query.getSearchAfter()));
 		}
 		
+		if (query.isSliced()) {
+			checkArgument(isScrolled, "Sliced queries must be scrolled");
+			reqSource.slice(new SliceBuilder(query.getSliceId(), query.getMaxSlices()));
+		}
+		
 		// sorting config with a default sort field based on scroll config
 		addSort(primaryMapping, reqSource, query.getSortBy(), !isScrolled && !isLocalScroll);
 		// disable explain explicitly, just in case
@@ -199,38 +218,37 @@ public class EsDocumentSearcher implements Searcher {
 			throw new IndexException("Couldn't execute query: " + e.getMessage(), null);
 		}
 
-		TotalHits totalHits = response.getHits().getTotalHits();
-		checkState(totalHits.relation == Relation.EQUAL_TO, "Searches should always track total hits accurately");
-		final int totalHitCount = (int) totalHits.value;
+		final TotalHits totalHits = response.getHits().getTotalHits();
+		final int totalHitCount;
+		final boolean totalLowerBound;
+		if (totalHits == null) {
+			// total hit tracking was disabled, the returned hits are the only matches we know about
+			totalHitCount = response.getHits().getHits().length;
+			totalLowerBound = true;
+		} else {
+			totalHitCount = (int) totalHits.value;
+			totalLowerBound = totalHits.relation == Relation.GREATER_THAN_OR_EQUAL_TO;
+		}
+		checkState(!isLocalScroll || !totalLowerBound, "Local scrolls should always track total hits accurately");
 		final ImmutableList.Builder<SearchHit> allHits = ImmutableList.builder();
 		int numDocsToFetch = Math.min(limit, totalHitCount) - response.getHits().getHits().length;
 
-		// if the client requested all data at once and there are more data in the index
-		// throw away the first batch and perform a local scroll
-		if (isLocalScroll && numDocsToFetch > 0) {
-			// WARN the caller that this might not be the most efficient way of fetching the data, consider using SearchAfter API or explicit Scroll API
-			admin.log().warn("Returning all matches (totalHits: '{}') larger than the currently configured result_window ('{}') might not be the most efficient way of getting the data. Consider using the index pagination APIs (searchAfter or explicit scroll) instead.", totalHitCount, resultWindow);
-
-			// perform search again with a default 60s scroll enabled
-			final TimeValue scrollTime = TimeValue.timeValueSeconds(60);
-			try {
-				response = client.search(req.scroll(scrollTime));
-			} catch (Exception e) {
-				admin.log().error("Couldn't execute query", e);
-				throw new IndexException("Couldn't execute query: " + e.getMessage(), null);
+		allHits.add(response.getHits().getHits());
+		
+		if (isLocalScroll) {
+			if (numDocsToFetch > 0) {
+				// WARN the caller that this might not be the most efficient way of fetching the data, consider using SearchAfter API or explicit Scroll API
+				admin.log().warn("Returning all matches (totalHits: '{}') larger than the currently configured result_window ('{}') might not be the most efficient way of getting the data. Consider using the index pagination APIs (searchAfter or explicit scroll) instead.", totalHitCount, resultWindow);
 			}
-
-			// recalc if there were index changes in the middle
-			numDocsToFetch = Math.min(limit, totalHitCount) - response.getHits().getHits().length;
-			// register all hits
-			allHits.add(response.getHits().getHits());
-
-			// then continue scroll
+			
+			// continue the scroll started by the first request
+			String scrollId = response.getScrollId();
 			while (numDocsToFetch > 0) {
-				final SearchScrollRequest searchScrollRequest = new SearchScrollRequest(response.getScrollId())
-						.scroll(scrollTime);
-
+				final SearchScrollRequest searchScrollRequest = new SearchScrollRequest(scrollId)
+						.scroll(localScrollKeepAlive);
+				
 				response = client.scroll(searchScrollRequest);
+				scrollId = response.getScrollId();
 				int fetchedDocs = response.getHits().getHits().length;
 				if (fetchedDocs == 0) {
 					break;
@@ -241,16 +259,15 @@ public class EsDocumentSearcher implements Searcher {
 			
 			// clear the custom local scroll
 			final ClearScrollRequest clearScrollRequest = new ClearScrollRequest();
-			clearScrollRequest.addScrollId(response.getScrollId());
+			clearScrollRequest.addScrollId(scrollId);
 			client.clearScroll(clearScrollRequest);
-		} else {
-			allHits.add(response.getHits().getHits());
 		}
 
 		final Class<T> select = query.getSelection().getSelect();
 		final List<Class<?>> from = query.getSelection().getFrom();
 		
-		final Hits<T> hits = toHits(select, from, query.getFields(), fetchSource, limit, totalHitCount, response.getScrollId(), query.getSortBy(), allHits.build());
+		final String scrollId = isLocalScroll ? null : response.getScrollId();
+		final Hits<T> hits = toHits(select, from, query.getFields(), fetchSource, limit, totalHitCount, totalLowerBound, scrollId, query.getSortBy(), allHits.build());
 		admin.log().trace("Executed query '{}' in '{}'", query, w);
 		return hits;
 	}
@@ -310,7 +327,7 @@ public class EsDocumentSearcher implements Searcher {
 			Class<?> from = Iterables.getOnlyElement(scroll.getSelection().getFrom());
 			final DocumentMapping mapping = admin.mappings().getMapping(from);
 			final boolean fetchSource = scroll.getFields().isEmpty() || requiresDocumentSourceField(mapping, scroll.getFields());
-			return toHits(scroll.getSelection().getSelect(), List.of(from), scroll.getFields(), fetchSource, response.getHits().getHits().length, (int) response.getHits().getTotalHits().value, response.getScrollId(), null, response.getHits());	
+			return toHits(scroll.getSelection().getSelect(), List.of(from), scroll.getFields(), fetchSource, response.getHits().getHits().length, (int) response.getHits().getTotalHits().value, false, response.getScrollId(), null, response.getHits());	
 			
 		} catch (IOException | ElasticsearchStatusException e) {
 			final Throwable rootCause = Throwables.getRootCause(e);
@@ -344,6 +361,7 @@ public class EsDocumentSearcher implements Searcher {
 			final boolean fetchSource,
 			final int limit, 
 			final int totalHits, 
+			final boolean totalLowerBound,
 			final String scrollId,
 			final SortBy sortBy,
 			final Iterable<SearchHit> hits) throws IOException {
@@ -362,7 +380,7 @@ public class EsDocumentSearcher implements Searcher {
 				searchAfterSortValues = hit.getSortValues();
 			}
 		}
-		return new Hits<T>(result.build(), scrollId, toSearchAfterToken(searchAfterSortValues), limit, totalHits);
+		return new Hits<T>(result.build(), scrollId, toSearchAfterToken(searchAfterSortValues), limit, totalHits, totalLowerBound);
 	}
 	
 	private String toSearchAfterToken(final Object[] searchAfter) {
@@ -473,6 +491,7 @@ public class EsDocumentSearcher implements Searcher {
 		
 		final EsQueryBuilder esQueryBuilder = new EsQueryBuilder(mapping, admin.settings(), admin.log());
 		final QueryBuilder esQuery = esQueryBuilder.build(aggregation.getQuery());
+		admin.idSets().checkAvailable(esQueryBuilder.getIdSets());
 		
 		final SearchRequest req = new SearchRequest(admin.getTypeIndex(mapping));
 		
@@ -495,18 +514,23 @@ public class EsDocumentSearcher implements Searcher {
 		}
 		
 		
-		ImmutableMap.Builder<Object, Bucket<T>> buckets = ImmutableMap.builder();
 		Aggregations topLevelAggregations = response.getAggregations();
 		Nested nested = topLevelAggregations.get(nestedAggName(aggregation));
-		Terms aggregationResult;
+		MultiBucketsAggregation aggregationResult;
 		
 		if (nested != null) {
 			aggregationResult = nested.getAggregations().get(aggregationName);
 		} else {
 			aggregationResult = topLevelAggregations.get(aggregationName);
 		}
-				
-		for (org.elasticsearch.search.aggregations.bucket.terms.Terms.Bucket bucket : aggregationResult.getBuckets()) {
+		
+		ImmutableMap.Builder<Object, Bucket<T>> buckets = ImmutableMap.builder();
+		for (MultiBucketsAggregation.Bucket bucket : aggregationResult.getBuckets()) {
+			// composite aggregations do not support min_doc_count, filter out smaller buckets here
+			if (bucket.getDocCount() < aggregation.getMinBucketSize()) {
+				continue;
+			}
+			
 			final TopHits topHits;
 			if (nested != null) {
 				final ReverseNested reverseNested = bucket.getAggregations().get(reverseNestedAggName(aggregation));
@@ -516,31 +540,45 @@ public class EsDocumentSearcher implements Searcher {
 			}
 			Hits<T> hits;
 			if (topHits != null) {
-				hits = toHits(aggregation.getSelect(), List.of(aggregation.getFrom()), aggregation.getFields(), fetchSource, aggregation.getBucketHitsLimit(), (int) bucket.getDocCount(), null, null, topHits.getHits()); 
+				hits = toHits(aggregation.getSelect(), List.of(aggregation.getFrom()), aggregation.getFields(), fetchSource, aggregation.getBucketHitsLimit(), (int) bucket.getDocCount(), false, null, null, topHits.getHits()); 
 			} else {
 				hits = new Hits<>(Collections.emptyList(), null, null, aggregation.getBucketHitsLimit(), (int) bucket.getDocCount());
 			}
-			buckets.put(bucket.getKey(), new Bucket<>(bucket.getKey(), hits));
+			final Object key = toBucketKey(bucket.getKey());
+			buckets.put(key, new Bucket<>(key, hits));
 		}
 		
-		return new Aggregation<>(aggregationName, buckets.build());
+		Map<String, Object> afterKey = null;
+		if (aggregationResult instanceof CompositeAggregation) {
+			final CompositeAggregation compositeResult = (CompositeAggregation) aggregationResult;
+			// a partial page means that there are no more buckets to return
+			if (compositeResult.afterKey() != null && compositeResult.getBuckets().size() >= getCompositePageSize(aggregation)) {
+				afterKey = ImmutableMap.copyOf(compositeResult.afterKey());
+			}
+		}
+		
+		return new Aggregation<>(aggregationName, buckets.build(), afterKey);
+	}
+	
+	/*
+	 * Single-field composite keys are unwrapped, so paged and non-paged aggregations on the same field return the same bucket keys.
+	 */
+	private Object toBucketKey(Object key) {
+		if (key instanceof Map<?, ?>) {
+			final Map<?, ?> compositeKey = (Map<?, ?>) key;
+			return compositeKey.size() == 1 ? Iterables.getOnlyElement(compositeKey.values()) : ImmutableMap.copyOf(compositeKey);
+		}
+		return key;
+	}
+	
+	private int getCompositePageSize(AggregationBuilder<?> aggregation) {
+		return aggregation.getPageSize() > 0 ? aggregation.getPageSize() : resultWindow;
 	}
 
 	private org.elasticsearch.search.aggregations.AggregationBuilder toEsAggregation(DocumentMapping mapping, AggregationBuilder<?> aggregation, boolean fetchSource) {
-		final TermsAggregationBuilder termsAgg = AggregationBuilders
-				.terms(aggregation.getName())
-				.minDocCount(aggregation.getMinBucketSize())
-				.size(Integer.MAX_VALUE);
-		boolean isFieldAgg = !Strings.isNullOrEmpty(aggregation.getGroupByField());
-		boolean isScriptAgg = !Strings.isNullOrEmpty(aggregation.getGroupByScript());
-		if (isFieldAgg) {
-			checkArgument(!isScriptAgg, "Specify either field or script parameter, not both");
-			termsAgg.field(aggregation.getGroupByField());
-		} else if (isScriptAgg) {
-			termsAgg.script(aggregation.toEsScript(mapping));
-		} else {
-			throw new IllegalArgumentException("Specify either field or script parameter");
-		}
+		final org.elasticsearch.search.aggregations.AggregationBuilder bucketAgg = aggregation.isPaged() 
+				? toEsCompositeAggregation(mapping, aggregation) 
+				: toEsTermsAggregation(mapping, aggregation);
 		
 		boolean isNested = !Strings.isNullOrEmpty(aggregation.getPath());
 		// add top hits agg to get the top N items for each bucket
@@ -562,20 +600,64 @@ public class EsDocumentSearcher implements Searcher {
 			}
 			
 			if (isNested) {
-				termsAgg.subAggregation(AggregationBuilders.reverseNested(reverseNestedAggName(aggregation)).subAggregation(topHitsAgg));
+				bucketAgg.subAggregation(AggregationBuilders.reverseNested(reverseNestedAggName(aggregation)).subAggregation(topHitsAgg));
 			} else {
-				termsAgg.subAggregation(topHitsAgg);
+				bucketAgg.subAggregation(topHitsAgg);
 			}
 		}
 		
 		if (isNested) {
 			return AggregationBuilders
 					.nested(nestedAggName(aggregation), aggregation.getPath())
-					.subAggregation(termsAgg);
+					.subAggregation(bucketAgg);
 		}
 		
+		return bucketAgg;
+	}
+	
+	private TermsAggregationBuilder toEsTermsAggregation(DocumentMapping mapping, AggregationBuilder<?> aggregation) {
+		final TermsAggregationBuilder termsAgg = AggregationBuilders
+				.terms(aggregation.getName())
+				.minDocCount(aggregation.getMinBucketSize())
+				.size(Integer.MAX_VALUE);
+		boolean isFieldAgg = !Strings.isNullOrEmpty(aggregation.getGroupByField());
+		boolean isScriptAgg = !Strings.isNullOrEmpty(aggregation.getGroupByScript());
+		if (isFieldAgg) {
+			checkArgument(!isScriptAgg, "Specify either field or script parameter, not both");
+			termsAgg.field(aggregation.getGroupByField());
+		} else if (isScriptAgg) {
+			termsAgg.script(aggregation.toEsScript(mapping));
+		} else {
+			throw new IllegalArgumentException("Specify either field or script parameter");
+		}
 		return termsAgg;
 	}
+	
+	private CompositeAggregationBuilder toEsCompositeAggregation(DocumentMapping mapping, AggregationBuilder<?> aggregation) {
+		final List<CompositeValuesSourceBuilder<?>> sources = newArrayList();
+		boolean isFieldAgg = !aggregation.getGroupByFields().isEmpty();
+		boolean isScriptAgg = !Strings.isNullOrEmpty(aggregation.getGroupByScript());
+		if (isFieldAgg) {
+			checkArgument(!isScriptAgg, "Specify either field or script parameter, not both");
+			for (String field : aggregation.getGroupByFields()) {
+				sources.add(new TermsValuesSourceBuilder(field).field(field));
+			}
+		} else if (isScriptAgg) {
+			sources.add(new TermsValuesSourceBuilder(aggregation.getName()).script(aggregation.toEsScript(mapping)));
+		} else {
+			throw new IllegalArgumentException("Specify either field or script parameter");
+		}
+		
+		final CompositeAggregationBuilder compositeAgg = AggregationBuilders
+				.composite(aggregation.getName(), sources)
+				.size(getCompositePageSize(aggregation));
+		
+		if (aggregation.getAfterKey() != null) {
+			compositeAgg.aggregateAfter(aggregation.getAfterKey());
+		}
+		
+		return compositeAgg;
+	}
 
 	private String topHitsAggName(AggregationBuilder<?> aggregation) {
 		return aggregation.getName() + "-top-hits";
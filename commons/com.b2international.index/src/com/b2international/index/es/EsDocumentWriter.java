@@ -23,24 +23,21 @@ import java.io.IOException;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 
+import org.elasticsearch.action.DocWriteRequest;
 import org.elasticsearch.action.DocWriteRequest.OpType;
 import org.elasticsearch.action.bulk.BulkItemResponse;
-import org.elasticsearch.action.bulk.BulkProcessor;
 import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.delete.DeleteRequest;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.common.UUIDs;
 import org.elasticsearch.common.unit.ByteSizeUnit;
-import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.xcontent.XContentType;
 
 import com.b2international.index.*;
 import com.b2international.index.es.admin.EsIndexAdmin;
-import com.b2international.index.es.client.EsClient;
+import com.b2international.index.es.client.EsBulkExecutor;
 import com.b2international.index.mapping.DocumentMapping;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.*;
@@ -115,12 +112,11 @@ public class EsDocumentWriter implements Writer {
 		}
 		
 		final Set<DocumentMapping> mappingsToRefresh = Collections.synchronizedSet(newHashSet());
-		final EsClient client = admin.client();
-		// apply bulk updates first
+		final EsBulkExecutor bulkExecutor = admin.client().bulkExecutor();
+		// apply bulk updates first, on the shared writer threads if there are more than one
 		final ListeningExecutorService executor;
 		if (bulkUpdateOperations.size() > 1 || bulkDeleteOperations.size() > 1) {
-			final int threads = Math.min(4, Math.max(bulkUpdateOperations.size(), bulkDeleteOperations.size()));
-			executor = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(threads));
+			executor = bulkExecutor.executor();
 		} else {
 			executor = MoreExecutors.newDirectExecutorService();
 		}
@@ -140,9 +136,7 @@ public class EsDocumentWriter implements Writer {
 			}));
 		}
 		try {
-			executor.shutdown();
 			Futures.allAsList(updateFutures).get();
-			executor.awaitTermination(10, TimeUnit.SECONDS);
 		} catch (InterruptedException | ExecutionException e) {
 			admin.log().error("Couldn't execute bulk updates", e);
 			throw new IndexException("Couldn't execute bulk updates", e);
@@ -150,31 +144,7 @@ public class EsDocumentWriter implements Writer {
 		
 		// then bulk indexes/deletes
 		if (!indexOperations.isEmpty() || !deleteOperations.isEmpty()) {
-			final BulkProcessor processor = client.bulk(new BulkProcessor.Listener() {
-				@Override
-				public void beforeBulk(long executionId, BulkRequest request) {
-					admin.log().debug("Sending bulk request {}", request.numberOfActions());
-				}
-				
-				@Override
-				public void afterBulk(long executionId, BulkRequest request, Throwable failure) {
-					admin.log().error("Failed bulk request", failure);
-				}
-				
-				@Override
-				public void afterBulk(long executionId, BulkRequest request, BulkResponse response) {
-					admin.log().debug("Successfully processed bulk request ({}) in {}.", request.numberOfActions(), response.getTook());
-					if (response.hasFailures()) {
-						for (BulkItemResponse itemResponse : response.getItems()) {
-							checkState(!itemResponse.isFailed(), "Failed to commit bulk request in index '%s', %s", admin.name(), itemResponse.getFailureMessage());
-						}
-					}
-				}
-			})
-			.setConcurrentRequests(getConcurrencyLevel())
-			.setBulkActions((int) admin.settings().get(IndexClientFactory.BULK_ACTIONS_SIZE))
-			.setBulkSize(new ByteSizeValue((int) admin.settings().get(IndexClientFactory.BULK_ACTIONS_SIZE_IN_MB), ByteSizeUnit.MB))
-			.build();
+			final BulkRequests requests = new BulkRequests(bulkExecutor);
 			
 			for (Class<?> type : ImmutableSet.copyOf(indexOperations.rowKeySet())) {
 				final Map<String, Object> indexOperationsForType = indexOperations.row(type);
@@ -197,16 +167,16 @@ public class EsDocumentWriter implements Writer {
 						if (!mapping.isAutoGeneratedId()) {
 							indexRequest.id(id);
 						}
-						processor.add(indexRequest);
+						requests.add(indexRequest);
 					}
 				}
 	
 				for (String id : deleteOperations.removeAll(type)) {
-					processor.add(new DeleteRequest(typeIndex, id));
+					requests.add(new DeleteRequest(typeIndex, id));
 				}
 				
-				// Flush processor between index boundaries
-				processor.flush();
+				// Flush requests between index boundaries
+				requests.flush();
 			}
 			
 			// Remaining delete operations can be executed on their own
@@ -217,17 +187,11 @@ public class EsDocumentWriter implements Writer {
 				mappingsToRefresh.add(mapping);
 				
 				for (String id : deleteOperations.removeAll(type)) {
-					processor.add(new DeleteRequest(typeIndex, id));
+					requests.add(new DeleteRequest(typeIndex, id));
 				}
 
-				// Flush processor between index boundaries
-				processor.flush();
-			}
-
-			try {
-				processor.awaitClose(5, TimeUnit.MINUTES);
-			} catch (InterruptedException e) {
-				throw new IndexException("Interrupted bulk processing part of the commit", e);
+				// Flush requests between index boundaries
+				requests.flush();
 			}
 		}
 
@@ -243,6 +207,75 @@ public class EsDocumentWriter implements Writer {
 	private int getConcurrencyLevel() {
 		return (int) admin.settings().get(IndexClientFactory.COMMIT_CONCURRENCY_LEVEL);
 	}
+	
+	/*
+	 * Collects index and delete requests into bulk requests sized by the shared bulk executor and keeps at most "commit concurrency level"
+	 * number of bulk requests in flight while collecting the next one.
+	 */
+	private final class BulkRequests {
+		
+		private final EsBulkExecutor bulkExecutor;
+		private final int maxBulkActions;
+		private final long maxBulkSizeInBytes;
+		private final int concurrencyLevel;
+		private final Deque<ListenableFuture<BulkResponse>> inFlight = new ArrayDeque<>();
+		
+		private BulkRequest request = new BulkRequest();
+		
+		BulkRequests(EsBulkExecutor bulkExecutor) {
+			this.bulkExecutor = bulkExecutor;
+			this.maxBulkActions = (int) admin.settings().get(IndexClientFactory.BULK_ACTIONS_SIZE);
+			this.maxBulkSizeInBytes = ByteSizeUnit.MB.toBytes((int) admin.settings().get(IndexClientFactory.BULK_ACTIONS_SIZE_IN_MB));
+			this.concurrencyLevel = getConcurrencyLevel();
+		}
+		
+		void add(DocWriteRequest<?> action) {
+			request.add(action);
+			if (request.numberOfActions() >= bulkExecutor.getBulkActions(maxBulkActions) || request.estimatedSizeInBytes() >= maxBulkSizeInBytes) {
+				send();
+			}
+		}
+		
+		void flush() {
+			send();
+			while (!inFlight.isEmpty()) {
+				await(inFlight.poll());
+			}
+		}
+		
+		private void send() {
+			if (request.numberOfActions() == 0) {
+				return;
+			}
+			admin.log().debug("Sending bulk request {}", request.numberOfActions());
+			inFlight.add(bulkExecutor.execute(request, maxBulkActions));
+			request = new BulkRequest();
+			while (inFlight.size() > concurrencyLevel) {
+				await(inFlight.poll());
+			}
+		}
+		
+		private void await(ListenableFuture<BulkResponse> future) {
+			final BulkResponse response;
+			try {
+				// the bulk executor fails requests that time out
+				response = future.get();
+			} catch (InterruptedException e) {
+				throw new IndexException("Interrupted bulk processing part of the commit", e);
+			} catch (ExecutionException e) {
+				admin.log().error("Failed bulk request", e);
+				throw new IndexException("Failed bulk request", e);
+			}
+			
+			admin.log().debug("Successfully processed bulk request ({}) in {}.", response.getItems().length, response.getTook());
+			if (response.hasFailures()) {
+				for (BulkItemResponse itemResponse : response.getItems()) {
+					checkState(!itemResponse.isFailed(), "Failed to commit bulk request in index '%s', %s", admin.name(), itemResponse.getFailureMessage());
+				}
+			}
+		}
+		
+	}
 
 	/*
 	 * Testing only, dumps a text representation of all operations to the console
@@ -0,0 +1,352 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.es;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.get.GetRequest;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.client.indices.CreateIndexRequest;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.search.fetch.subphase.FetchSourceContext;
+
+import com.b2international.index.IdSet;
+import com.b2international.index.IdSets;
+import com.b2international.index.IndexClientFactory;
+import com.b2international.index.IndexException;
+import com.b2international.index.es.admin.EsIndexAdmin;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+
+/**
+ * {@link IdSets} implementation that stores identifiers in a dedicated Elasticsearch index, so they can be referenced from queries via <a
+ * href="https://www.elastic.co/guide/en/elasticsearch/reference/7.x/query-dsl-terms-query.html#query-dsl-terms-lookup">terms lookup</a>. Sets
+ * larger than the configured <code>max_terms_count</code> are split into multiple documents. Expired sets are removed lazily when new sets are
+ * registered.
+ * <p>
+ * A terms lookup referring to a missing document silently matches nothing, so searches check that every referenced set is still available
+ * via {@link #checkAvailable(Collection)} before they are sent to the cluster. The expiry of each known set is kept in memory, the stored
+ * documents are only read for sets registered by another node or when the local expiry has passed. Using a set in a query extends its expiry
+ * by its keep alive once less than half of it remains.
+ * </p>
+ * 
+ * @since 8.0
+ */
+public final class EsIdSets implements IdSets {
+
+	private static final long CLEANUP_INTERVAL = TimeUnit.MINUTES.toMillis(1L);
+	private static final int CLEANUP_BATCH_SIZE = 1_000;
+	// each chunk holds up to max_terms_count identifiers, keep bulk requests at a few megabytes
+	private static final int CHUNKS_PER_BULK = 4;
+	
+	private final EsIndexAdmin admin;
+	private final String index;
+	private final AtomicLong nextCleanup = new AtomicLong();
+	private final ConcurrentMap<String, Lease> leases = new ConcurrentHashMap<>();
+	
+	private volatile boolean indexReady;
+	
+	public EsIdSets(EsIndexAdmin admin) {
+		this.admin = admin;
+		this.index = admin.getIdSetIndex();
+	}
+	
+	@Override
+	public IdSet register(Collection<String> ids, String keepAlive) {
+		final long keepAliveMillis = TimeValue.parseTimeValue(keepAlive, "keepAlive").millis();
+		final long expires = System.currentTimeMillis() + keepAliveMillis;
+		final int maxTermsCount = Integer.parseInt((String) admin.settings().get(IndexClientFactory.MAX_TERMS_COUNT_KEY));
+		final List<List<String>> chunks = ImmutableList.copyOf(Iterables.partition(ids, maxTermsCount));
+		final IdSet idSet = new IdSet(index, UUID.randomUUID().toString(), chunks.size(), ids.size());
+		if (idSet.isEmpty()) {
+			return idSet;
+		}
+		
+		ensureIndex();
+		deleteExpired();
+		
+		final List<DocWriteRequest<?>> requests = Lists.newArrayListWithExpectedSize(chunks.size());
+		for (int chunk = 0; chunk < chunks.size(); chunk++) {
+			requests.add(new IndexRequest(index)
+					.id(idSet.getChunkId(chunk))
+					.opType(DocWriteRequest.OpType.CREATE)
+					.source(Map.of(IdSet.Fields.IDS, chunks.get(chunk), IdSet.Fields.EXPIRES, expires, IdSet.Fields.KEEP_ALIVE, keepAliveMillis)));
+		}
+		
+		final BulkItemResponse failure = bulk(requests);
+		if (failure != null) {
+			throw new IndexException("Couldn't write ID set to index " + index, failure.getFailure().getCause());
+		}
+		
+		leases.put(idSet.getId(), new Lease(keepAliveMillis, expires));
+		admin.log().debug("Registered ID set '{}' with {} identifiers in {} chunk(s)", idSet.getId(), idSet.getSize(), idSet.getChunks());
+		return idSet;
+	}
+
+	@Override
+	public void release(IdSet idSet) {
+		checkOwnIdSet(idSet);
+		if (idSet.isEmpty()) {
+			return;
+		}
+		
+		leases.remove(idSet.getId());
+		final List<DocWriteRequest<?>> requests = Lists.newArrayListWithExpectedSize(idSet.getChunks());
+		for (int chunk = 0; chunk < idSet.getChunks(); chunk++) {
+			requests.add(new DeleteRequest(index, idSet.getChunkId(chunk)));
+		}
+		
+		final BulkItemResponse failure = bulk(requests);
+		if (failure != null) {
+			throw new IndexException("Couldn't release ID set " + idSet.getId(), failure.getFailure().getCause());
+		}
+	}
+	
+	/**
+	 * Checks that the given ID sets have not been released and have not expired yet, and extends the expiry of sets that are about to expire.
+	 * 
+	 * @param idSets - the ID sets referenced by a query
+	 * @throws IndexException - if any of the sets is unknown, has been released or has expired
+	 */
+	public void checkAvailable(Collection<IdSet> idSets) {
+		if (idSets.isEmpty()) {
+			return;
+		}
+		
+		for (IdSet idSet : idSets) {
+			checkOwnIdSet(idSet);
+			if (idSet.isEmpty()) {
+				continue;
+			}
+			
+			final long now = System.currentTimeMillis();
+			Lease lease = leases.get(idSet.getId());
+			if (lease == null || lease.isExpired(now)) {
+				// registered by another node, or the set has been extended elsewhere since it was last read
+				lease = readLease(idSet);
+				if (lease.isExpired(now)) {
+					leases.remove(idSet.getId());
+					throw new IndexException(String.format("ID set '%s' has expired.", idSet.getId()), null);
+				}
+				leases.put(idSet.getId(), lease);
+			}
+			
+			if (lease.shouldExtend(now)) {
+				extend(idSet, lease, now);
+			}
+		}
+	}
+	
+	private Lease readLease(IdSet idSet) {
+		ensureIndex();
+		long keepAlive = 0L;
+		long expires = Long.MAX_VALUE;
+		for (int chunk = 0; chunk < idSet.getChunks(); chunk++) {
+			final GetResponse response;
+			try {
+				// realtime get, the chunk is visible immediately after registration
+				response = admin.client().get(new GetRequest(index, idSet.getChunkId(chunk))
+						.fetchSourceContext(new FetchSourceContext(true, new String[] { IdSet.Fields.EXPIRES, IdSet.Fields.KEEP_ALIVE }, null)));
+			} catch (IOException e) {
+				throw new IndexException("Couldn't check availability of ID set " + idSet.getId(), e);
+			}
+			
+			if (!response.isExists()) {
+				throw unknownIdSet(idSet);
+			}
+			
+			final Map<String, Object> source = response.getSourceAsMap();
+			keepAlive = ((Number) source.get(IdSet.Fields.KEEP_ALIVE)).longValue();
+			expires = Math.min(expires, ((Number) source.get(IdSet.Fields.EXPIRES)).longValue());
+		}
+		return new Lease(keepAlive, expires);
+	}
+	
+	private void extend(IdSet idSet, Lease lease, long now) {
+		final long expires = lease.expires.get();
+		final long extendedExpires = now + lease.keepAlive;
+		// concurrent searches referencing the same set do not need to extend it again
+		if (!lease.expires.compareAndSet(expires, extendedExpires)) {
+			return;
+		}
+		
+		final List<DocWriteRequest<?>> requests = Lists.newArrayListWithExpectedSize(idSet.getChunks());
+		for (int chunk = 0; chunk < idSet.getChunks(); chunk++) {
+			requests.add(new UpdateRequest(index, idSet.getChunkId(chunk)).doc(Map.of(IdSet.Fields.EXPIRES, extendedExpires)));
+		}
+		
+		final BulkItemResponse failure = bulk(requests);
+		if (failure == null) {
+			return;
+		}
+		
+		leases.remove(idSet.getId());
+		if (RestStatus.NOT_FOUND == failure.status()) {
+			throw unknownIdSet(idSet);
+		} else {
+			throw new IndexException("Couldn't extend expiry of ID set " + idSet.getId(), failure.getFailure().getCause());
+		}
+	}
+	
+	private IndexException unknownIdSet(IdSet idSet) {
+		return new IndexException(String.format("ID set '%s' is unknown or has been released.", idSet.getId()), null);
+	}
+	
+	/**
+	 * Deletes the index storing the ID sets, if it exists. All registered sets become unknown.
+	 */
+	public void deleteIndex() {
+		synchronized (this) {
+			try {
+				if (admin.client().indices().exists(index)) {
+					admin.client().indices().delete(new DeleteIndexRequest(index));
+				}
+			} catch (IOException e) {
+				throw new IndexException("Couldn't delete ID set index " + index, e);
+			} finally {
+				// the index is created again with the next registration
+				indexReady = false;
+				leases.clear();
+			}
+		}
+	}
+	
+	private void checkOwnIdSet(IdSet idSet) {
+		checkArgument(index.equals(idSet.getIndex()), "ID set '%s' does not belong to index '%s'.", idSet.getId(), index);
+	}
+	
+	private void ensureIndex() {
+		if (indexReady) {
+			return;
+		}
+		
+		synchronized (this) {
+			if (indexReady) {
+				return;
+			}
+			
+			try {
+				if (!admin.client().indices().exists(index)) {
+					final Map<String, Object> mapping = Map.of(
+						"dynamic", "strict",
+						"properties", Map.of(
+							// identifiers are only read from the _source by terms lookups
+							IdSet.Fields.IDS, Map.of("type", "keyword", "index", false, "doc_values", false),
+							IdSet.Fields.EXPIRES, Map.of("type", "long"),
+							IdSet.Fields.KEEP_ALIVE, Map.of("type", "long", "index", false)
+						)
+					);
+					final Map<String, Object> settings = Map.of(
+						"number_of_shards", "1",
+						"number_of_replicas", "0"
+					);
+					admin.client().indices().create(new CreateIndexRequest(index).mapping(mapping).settings(settings));
+				}
+				indexReady = true;
+			} catch (IOException e) {
+				throw new IndexException("Couldn't create ID set index " + index, e);
+			}
+		}
+	}
+	
+	private void deleteExpired() {
+		final long now = System.currentTimeMillis();
+		final long scheduled = nextCleanup.get();
+		if (now < scheduled || !nextCleanup.compareAndSet(scheduled, now + CLEANUP_INTERVAL)) {
+			return;
+		}
+		
+		leases.values().removeIf(lease -> lease.isExpired(now));
+		try {
+			admin.client().deleteByQuery(index, CLEANUP_BATCH_SIZE, QueryBuilders.rangeQuery(IdSet.Fields.EXPIRES).lt(now));
+		} catch (Exception e) {
+			// expired sets are removed with the next attempt
+			admin.log().warn("Couldn't remove expired ID sets from index '{}'", index, e);
+		}
+	}
+	
+	/*
+	 * Executes the given requests in bulks of a few chunks each and returns the first failed item, if any. Each caller sends its own requests, so
+	 * concurrent writes do not wait for each other and failures are reported to the caller that caused them.
+	 */
+	private BulkItemResponse bulk(List<DocWriteRequest<?>> requests) {
+		for (List<DocWriteRequest<?>> partition : Lists.partition(requests, CHUNKS_PER_BULK)) {
+			final BulkRequest bulk = new BulkRequest();
+			partition.forEach(bulk::add);
+			
+			final BulkResponse response;
+			try {
+				response = admin.client().bulk(bulk);
+			} catch (IOException e) {
+				throw new IndexException("Couldn't write ID sets to index " + index, e);
+			}
+			
+			if (response.hasFailures()) {
+				for (BulkItemResponse itemResponse : response.getItems()) {
+					if (itemResponse.isFailed()) {
+						return itemResponse;
+					}
+				}
+			}
+		}
+		return null;
+	}
+	
+	/*
+	 * The locally known expiry of an ID set, and the amount of time a query referencing the set extends it with.
+	 */
+	private static final class Lease {
+		
+		private final long keepAlive;
+		private final AtomicLong expires;
+		
+		private Lease(long keepAlive, long expires) {
+			this.keepAlive = keepAlive;
+			this.expires = new AtomicLong(expires);
+		}
+		
+		private boolean isExpired(long now) {
+			return expires.get() < now;
+		}
+		
+		private boolean shouldExtend(long now) {
+			return expires.get() - now < keepAlive / 2;
+		}
+		
+	}
+	
+}
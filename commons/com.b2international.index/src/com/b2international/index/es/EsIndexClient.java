@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2020 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2017-2021 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,6 +15,7 @@
  */
 package com.b2international.index.es;
 
+import com.b2international.index.IdSets;
 import com.b2international.index.IndexClient;
 import com.b2international.index.Searcher;
 import com.b2international.index.Writer;
@@ -49,5 +50,10 @@ public final class EsIndexClient implements IndexClient {
 	public Writer writer() {
 		return new EsDocumentWriter(admin, searcher(), mapper);
 	}
+	
+	@Override
+	public IdSets idSets() {
+		return admin.idSets();
+	}
 
 }
@@ -57,6 +57,7 @@ import com.b2international.commons.CompareUtils;
 import com.b2international.commons.ReflectionUtils;
 import com.b2international.index.*;
 import com.b2international.index.admin.IndexAdmin;
+import com.b2international.index.es.EsIdSets;
 import com.b2international.index.es.client.EsClient;
 import com.b2international.index.es.query.EsQueryBuilder;
 import com.b2international.index.mapping.DocumentMapping;
@@ -106,6 +107,7 @@ public final class EsIndexAdmin implements IndexAdmin {
 	
 	private final Logger log;
 	private final String prefix;
+	private final EsIdSets idSets;
 
 	public EsIndexAdmin(EsClient client, ObjectMapper mapper, String name, Mappings mappings, Map<String, Object> settings) {
 		this.client = client;
@@ -127,6 +129,7 @@ public final class EsIndexAdmin implements IndexAdmin {
 		
 		final String prefix = (String) settings.getOrDefault(IndexClientFactory.INDEX_PREFIX, IndexClientFactory.DEFAULT_INDEX_PREFIX);
 		this.prefix = prefix.isEmpty() ? "" : prefix + ".";
+		this.idSets = new EsIdSets(this);
 	}
 	
 	@Override
@@ -470,6 +473,8 @@ public final class EsIndexAdmin implements IndexAdmin {
 				throw new IndexException(String.format("Failed to delete all ES indices for '%s'.", name), e);
 			}
 		}
+		
+		idSets.deleteIndex();
 	}
 
 	@Override
@@ -571,6 +576,20 @@ public final class EsIndexAdmin implements IndexAdmin {
 		}
 	}
 	
+	/**
+	 * @return the {@link com.b2international.index.IdSet ID sets} registered for this index
+	 */
+	public EsIdSets idSets() {
+		return idSets;
+	}
+	
+	/**
+	 * @return the name of the index storing the {@link com.b2international.index.IdSet ID sets} registered for this index
+	 */
+	public String getIdSetIndex() {
+		return String.format("%s%s-idset", prefix, name);
+	}
+	
 	@Override
 	public List<String> getTypeIndexes(List<DocumentMapping> mappings) {
 		return mappings.stream().map(this::getTypeIndex).collect(Collectors.toList());
@@ -631,7 +650,9 @@ public final class EsIndexAdmin implements IndexAdmin {
 			final org.elasticsearch.script.Script script,
 			final String operationDescription) {
 		
-		final QueryBuilder query = new EsQueryBuilder(mapping, settings, log).build(filter);
+		final EsQueryBuilder queryBuilder = new EsQueryBuilder(mapping, settings, log);
+		final QueryBuilder query = queryBuilder.build(filter);
+		idSets.checkAvailable(queryBuilder.getIdSets());
 		
 		boolean needsRefresh = false;
 		long versionConflicts = 0;
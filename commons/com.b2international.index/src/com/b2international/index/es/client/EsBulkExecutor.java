@@ -0,0 +1,429 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.es.client;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.Lists.newArrayList;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BackoffPolicy;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.rest.RestStatus;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Executes bulk write requests of index writers connected to the same cluster on a long-lived, bounded thread pool. The number of actions
+ * sent in a single bulk request adapts to the observed response times (additive increase, multiplicative decrease), and actions rejected
+ * by the cluster with <code>429 Too Many Requests</code> are retried with exponential backoff on a shared scheduler.
+ * <p>
+ * Only a limited number of tasks can wait for a writer thread; when all of them are taken, the submitting thread executes its task itself,
+ * which slows down callers producing bulk requests faster than the cluster can accept them. Retries are never executed by the scheduler, they
+ * are postponed until a writer thread becomes available. A bulk request fails if it does not complete
+ * within {@value #DEFAULT_TIMEOUT_MINUTES} minutes after its first attempt has started, and bulk requests still pending when the executor is
+ * closed fail immediately.
+ * </p>
+ *
+ * @since 8.0
+ */
+public final class EsBulkExecutor implements MeterBinder, AutoCloseable {
+
+	/**
+	 * The number of threads available for executing bulk requests, bulk updates and bulk deletes of all writers.
+	 */
+	public static final int DEFAULT_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() / 2);
+
+	/**
+	 * The bulk size never goes below this number of actions (unless the limit set by the caller is lower).
+	 */
+	public static final int MIN_BULK_ACTIONS = 100;
+
+	/**
+	 * The number of tasks that can wait for a writer thread, per thread.
+	 */
+	public static final int QUEUED_TASKS_PER_THREAD = 4;
+
+	/**
+	 * A bulk request (including its retries) fails if it does not complete in this many minutes after its first attempt has started.
+	 */
+	public static final long DEFAULT_TIMEOUT_MINUTES = 5L;
+
+	/**
+	 * Bulk requests completing faster than this are considered cheap, the next bulk request can be larger.
+	 */
+	static final long LOW_LATENCY_MILLIS = 1_000L;
+
+	/**
+	 * Bulk requests completing slower than this are considered expensive, the next bulk request should be smaller.
+	 */
+	static final long HIGH_LATENCY_MILLIS = 5_000L;
+
+	private static final TimeValue INITIAL_RETRY_DELAY = TimeValue.timeValueMillis(100L);
+	private static final int MAX_NUMBER_OF_RETRIES = 8;
+
+	// distinguishes the meters of executors created for the same cluster
+	private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+	private final EsClient client;
+	private final String cluster;
+	private final String id = Integer.toString(NEXT_ID.incrementAndGet());
+	private final ThreadPoolExecutor pool;
+	private final ListeningExecutorService executor;
+	private final ScheduledExecutorService scheduler;
+	private final long timeoutMillis;
+
+	// bulk requests that have not completed yet, failed when the executor is closed
+	private final Set<SettableFuture<BulkResponse>> pendingResults = ConcurrentHashMap.newKeySet();
+
+	// adaptive bulk size, capped by the limit of the calling writer
+	private final AtomicInteger bulkActions = new AtomicInteger(Integer.MAX_VALUE);
+
+	// statistics
+	private final AtomicLong bulkRequests = new AtomicLong();
+	private final AtomicLong bulkRequestTimeMillis = new AtomicLong();
+	private final AtomicLong actions = new AtomicLong();
+	private final AtomicLong rejectedActions = new AtomicLong();
+	private final AtomicLong retries = new AtomicLong();
+	private final AtomicLong failures = new AtomicLong();
+	private final List<Meter> meters = new CopyOnWriteArrayList<>();
+	private volatile MeterRegistry registry;
+
+	public EsBulkExecutor(EsClient client, String cluster) {
+		this(client, cluster, DEFAULT_THREADS);
+	}
+
+	public EsBulkExecutor(EsClient client, String cluster, int threads) {
+		this(client, cluster, threads, threads * QUEUED_TASKS_PER_THREAD, TimeUnit.MINUTES.toMillis(DEFAULT_TIMEOUT_MINUTES));
+	}
+
+	EsBulkExecutor(EsClient client, String cluster, int threads, int queueCapacity, long timeoutMillis) {
+		checkArgument(threads > 0, "Number of threads must be greater than zero, was '%s'", threads);
+		checkArgument(queueCapacity > 0, "Queue capacity must be greater than zero, was '%s'", queueCapacity);
+		checkArgument(timeoutMillis > 0L, "Timeout must be greater than zero, was '%s'", timeoutMillis);
+		this.client = client;
+		this.cluster = cluster;
+		this.timeoutMillis = timeoutMillis;
+
+		this.pool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueCapacity),
+				new ThreadFactoryBuilder().setNameFormat("es-writer-%d").setDaemon(true).build(),
+				this::rejected);
+		// idle clients should not keep their writer threads alive
+		pool.allowCoreThreadTimeOut(true);
+		this.executor = MoreExecutors.listeningDecorator(pool);
+
+		final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1,
+				new ThreadFactoryBuilder().setNameFormat("es-writer-retry-%d").setDaemon(true).build());
+		scheduler.setRemoveOnCancelPolicy(true);
+		this.scheduler = scheduler;
+	}
+
+	/*
+	 * Runs the task on the submitting thread when the queue is full, so that callers can not get too far ahead of the writer threads. Retries
+	 * are submitted by the scheduler thread, which must stay available for other retries and timeouts, so they are rejected instead.
+	 */
+	private void rejected(Runnable task, ThreadPoolExecutor pool) {
+		if (pool.isShutdown()) {
+			throw new RejectedExecutionException(String.format("Bulk executor of cluster '%s' has been closed", cluster));
+		} else if (task instanceof Retry) {
+			throw new RejectedExecutionException(String.format("Writer threads of cluster '%s' are busy", cluster));
+		}
+		task.run();
+	}
+
+	/**
+	 * @return the shared executor service to use for long running write operations (eg. update and delete by query)
+	 */
+	public ListeningExecutorService executor() {
+		return executor;
+	}
+
+	/**
+	 * Returns the number of actions the next bulk request should contain.
+	 *
+	 * @param limit - the maximum number of actions allowed by the caller
+	 * @return the current adaptive bulk size, never greater than the given limit
+	 */
+	public int getBulkActions(int limit) {
+		return Math.max(1, Math.min(limit, bulkActions.get()));
+	}
+
+	/**
+	 * Executes the given bulk request asynchronously. Actions rejected by the cluster are retried with exponential backoff, items of the
+	 * returned response reflect the outcome of the last attempt of each action.
+	 *
+	 * @param request - the bulk request to execute
+	 * @param limit - the maximum number of actions allowed by the caller in a single bulk request
+	 * @return a future that completes when all actions of the request have been executed (or the number of retries is exhausted), fails
+	 *         if the request times out or the executor is closed before that
+	 */
+	public ListenableFuture<BulkResponse> execute(BulkRequest request, int limit) {
+		final SettableFuture<BulkResponse> result = SettableFuture.create();
+		pendingResults.add(result);
+		result.addListener(() -> pendingResults.remove(result), MoreExecutors.directExecutor());
+
+		final Iterator<TimeValue> backoff = BackoffPolicy.exponentialBackoff(INITIAL_RETRY_DELAY, MAX_NUMBER_OF_RETRIES).iterator();
+		submit(() -> {
+			// time spent waiting for a writer thread does not count towards the timeout
+			startTimeout(result);
+			execute(request, limit, backoff, newArrayList(), 0L, result);
+		}, result);
+		return result;
+	}
+
+	private void startTimeout(SettableFuture<BulkResponse> result) {
+		try {
+			final ScheduledFuture<?> timeout = scheduler.schedule(() -> {
+				result.setException(new TimeoutException(String.format("Bulk request did not complete in %d ms", timeoutMillis)));
+			}, timeoutMillis, TimeUnit.MILLISECONDS);
+			result.addListener(() -> timeout.cancel(false), MoreExecutors.directExecutor());
+		} catch (RejectedExecutionException e) {
+			result.setException(e);
+		}
+	}
+
+	private void submit(Runnable task, SettableFuture<BulkResponse> result) {
+		try {
+			executor.execute(task);
+		} catch (RejectedExecutionException e) {
+			result.setException(e);
+		}
+	}
+
+	private void execute(BulkRequest request, int limit, Iterator<TimeValue> backoff, List<BulkItemResponse> completedItems, long tookMillis, SettableFuture<BulkResponse> result) {
+		// the request has timed out or the executor was closed while this attempt was waiting for its turn
+		if (result.isDone()) {
+			return;
+		}
+
+		final int numberOfActions = request.numberOfActions();
+		// the HTTP client moves the target index of each action to the request path, keep them for retries
+		final String[] indices = request.requests().stream().map(DocWriteRequest::index).toArray(String[]::new);
+		final Stopwatch watch = Stopwatch.createStarted();
+
+		final BulkResponse response;
+		try {
+			response = client.bulk(request);
+		} catch (Exception e) {
+			if (isRejected(e) && backoff.hasNext()) {
+				// the entire request was rejected, try again later
+				onCompleted(numberOfActions, watch.elapsed(TimeUnit.MILLISECONDS), numberOfActions, limit);
+				retry(withIndices(request, indices), limit, backoff, completedItems, tookMillis + watch.elapsed(TimeUnit.MILLISECONDS), result);
+			} else {
+				failures.incrementAndGet();
+				result.setException(e);
+			}
+			return;
+		}
+
+		final long elapsedMillis = watch.elapsed(TimeUnit.MILLISECONDS);
+		final BulkRequest rejected = new BulkRequest();
+		final BulkItemResponse[] items = response.getItems();
+		for (int i = 0; i < items.length; i++) {
+			final BulkItemResponse item = items[i];
+			if (backoff.hasNext() && item.isFailed() && item.getFailure().getStatus() == RestStatus.TOO_MANY_REQUESTS) {
+				rejected.add(withIndex(request.requests().get(i), indices[i]));
+			} else {
+				completedItems.add(item);
+			}
+		}
+
+		onCompleted(numberOfActions, elapsedMillis, rejected.numberOfActions(), limit);
+
+		if (rejected.numberOfActions() > 0) {
+			retry(rejected, limit, backoff, completedItems, tookMillis + elapsedMillis, result);
+		} else {
+			result.set(new BulkResponse(completedItems.toArray(new BulkItemResponse[completedItems.size()]), tookMillis + elapsedMillis));
+		}
+	}
+
+	private void retry(BulkRequest request, int limit, Iterator<TimeValue> backoff, List<BulkItemResponse> completedItems, long tookMillis, SettableFuture<BulkResponse> result) {
+		retries.incrementAndGet();
+		schedule(new Retry(() -> execute(request, limit, backoff, completedItems, tookMillis, result)), backoff.next(), result);
+	}
+
+	private void schedule(Retry retry, TimeValue delay, SettableFuture<BulkResponse> result) {
+		try {
+			scheduler.schedule(() -> resubmit(retry, result), delay.millis(), TimeUnit.MILLISECONDS);
+		} catch (RejectedExecutionException e) {
+			result.setException(e);
+		}
+	}
+
+	/*
+	 * Hands the retry over to a writer thread, or postpones it if all of them are busy and the queue is full. The timeout of the request still
+	 * applies while it is postponed.
+	 */
+	private void resubmit(Retry retry, SettableFuture<BulkResponse> result) {
+		if (result.isDone()) {
+			return;
+		}
+		try {
+			pool.execute(retry);
+		} catch (RejectedExecutionException e) {
+			if (pool.isShutdown()) {
+				result.setException(e);
+			} else {
+				schedule(retry, INITIAL_RETRY_DELAY, result);
+			}
+		}
+	}
+
+	private void onCompleted(int numberOfActions, long elapsedMillis, int numberOfRejectedActions, int limit) {
+		bulkRequests.incrementAndGet();
+		bulkRequestTimeMillis.addAndGet(elapsedMillis);
+		actions.addAndGet(numberOfActions);
+		rejectedActions.addAndGet(numberOfRejectedActions);
+		bulkActions.updateAndGet(current -> nextBulkActions(Math.min(current, limit), numberOfActions, elapsedMillis, numberOfRejectedActions > 0, limit));
+	}
+
+	/*
+	 * Halve the bulk size on rejections, shrink it by a quarter when the cluster is slow to respond and grow it by a quarter when full requests
+	 * complete quickly.
+	 */
+	static int nextBulkActions(int current, int numberOfActions, long elapsedMillis, boolean rejected, int limit) {
+		final int min = Math.min(MIN_BULK_ACTIONS, limit);
+		if (rejected) {
+			return Math.max(min, current / 2);
+		} else if (elapsedMillis > HIGH_LATENCY_MILLIS) {
+			return Math.max(min, current - current / 4);
+		} else if (elapsedMillis < LOW_LATENCY_MILLIS && numberOfActions >= current) {
+			return Math.min(limit, current + Math.max(min, current / 4));
+		} else {
+			return current;
+		}
+	}
+
+	private static boolean isRejected(Throwable e) {
+		return Throwables.getCausalChain(e).stream().anyMatch(cause -> ExceptionsHelper.status(cause) == RestStatus.TOO_MANY_REQUESTS);
+	}
+
+	private static BulkRequest withIndices(BulkRequest request, String[] indices) {
+		final BulkRequest copy = new BulkRequest();
+		for (int i = 0; i < indices.length; i++) {
+			copy.add(withIndex(request.requests().get(i), indices[i]));
+		}
+		return copy;
+	}
+
+	private static DocWriteRequest<?> withIndex(DocWriteRequest<?> action, String index) {
+		action.index(index);
+		return action;
+	}
+
+	/**
+	 * Registers the meters of this executor. Executors of different clients connected to the same cluster are distinguished by their
+	 * <code>executor</code> tag, the meters are removed from the registry when the executor is closed.
+	 */
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		checkState(this.registry == null, "Bulk executor of cluster '%s' is already bound to a registry", cluster);
+		this.registry = registry;
+		final List<Tag> tags = List.of(Tag.of("cluster", cluster), Tag.of("executor", id));
+
+		meters.add(FunctionTimer.builder("index.bulk.requests", this, e -> e.bulkRequests.get(), e -> e.bulkRequestTimeMillis.get(), TimeUnit.MILLISECONDS)
+			.description("The number and total response time of bulk requests sent to the cluster")
+			.tags(tags)
+			.register(registry));
+
+		meters.add(FunctionCounter.builder("index.bulk.actions", this, e -> e.actions.get())
+			.description("The total number of index and delete actions sent in bulk requests")
+			.tags(tags)
+			.register(registry));
+
+		meters.add(FunctionCounter.builder("index.bulk.rejected", this, e -> e.rejectedActions.get())
+			.description("The total number of bulk actions rejected by the cluster due to back pressure")
+			.tags(tags)
+			.register(registry));
+
+		meters.add(FunctionCounter.builder("index.bulk.retries", this, e -> e.retries.get())
+			.description("The total number of bulk request retries")
+			.tags(tags)
+			.register(registry));
+
+		meters.add(FunctionCounter.builder("index.bulk.failed", this, e -> e.failures.get())
+			.description("The total number of bulk requests that have failed execution")
+			.tags(tags)
+			.register(registry));
+
+		meters.add(Gauge.builder("index.bulk.size", this, e -> e.bulkActions.get() == Integer.MAX_VALUE ? Double.NaN : e.bulkActions.get())
+			.description("The current adaptive number of actions per bulk request")
+			.tags(tags)
+			.register(registry));
+	}
+
+	@Override
+	public void close() throws Exception {
+		if (registry != null) {
+			meters.forEach(registry::remove);
+			meters.clear();
+		}
+		// scheduled retries and timeouts are dropped, fail every bulk request that has not completed yet instead of leaving callers waiting
+		scheduler.shutdownNow();
+		executor.shutdown();
+		for (SettableFuture<BulkResponse> result : ImmutableList.copyOf(pendingResults)) {
+			result.setException(new RejectedExecutionException(String.format("Bulk executor of cluster '%s' has been closed", cluster)));
+		}
+		if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+			executor.shutdownNow();
+		}
+	}
+
+	/*
+	 * A retry attempt of a bulk request, never executed on the thread submitting it.
+	 */
+	private static final class Retry implements Runnable {
+
+		private final Runnable attempt;
+
+		private Retry(Runnable attempt) {
+			this.attempt = attempt;
+		}
+
+		@Override
+		public void run() {
+			attempt.run();
+		}
+
+	}
+
+}
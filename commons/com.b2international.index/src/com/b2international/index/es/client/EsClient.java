@@ -21,6 +21,8 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 
 import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.get.GetRequest;
 import org.elasticsearch.action.get.GetResponse;
 import org.elasticsearch.action.search.*;
@@ -67,6 +69,14 @@ public interface EsClient extends AutoCloseable {
 	
 	BulkProcessor.Builder bulk(BulkProcessor.Listener listener);
 	
+	BulkResponse bulk(BulkRequest req) throws IOException;
+	
+	/**
+	 * @return the shared executor of bulk write operations sent to this cluster
+	 * @since 8.0
+	 */
+	EsBulkExecutor bulkExecutor();
+	
 	BulkByScrollResponse updateByQuery(String index, int batchSize, Script script, QueryBuilder query) throws IOException;
 	
 	BulkByScrollResponse deleteByQuery(String index, int batchSize, QueryBuilder query) throws IOException;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2019-2020 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2019-2021 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -46,6 +46,7 @@ import com.b2international.index.IndexException;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 
+import io.micrometer.core.instrument.Metrics;
 import net.jodah.failsafe.Failsafe;
 import net.jodah.failsafe.RetryPolicy;
 import net.jodah.failsafe.function.CheckedSupplier;
@@ -59,6 +60,7 @@ public abstract class EsClientBase implements EsClient {
 	
 	private final HttpHost host;
 	private final Logger log;
+	private final EsBulkExecutor bulkExecutor;
 	
 	private final ExpiringMemoizingSupplier<String> clusterAvailable = memoizeWithExpiration(this::checkClusterAvailable, 5, TimeUnit.MINUTES);
 	private final ExpiringMemoizingSupplier<ClusterHealthResponse> clusterHealth = memoizeWithExpiration(this::checkClusterHealth, 5, TimeUnit.MINUTES);
@@ -67,12 +69,34 @@ public abstract class EsClientBase implements EsClient {
 	public EsClientBase(String clusterUrl) {
 		this.host = HttpHost.create(clusterUrl);
 		this.log = LoggerFactory.getLogger(getClass());
+		this.bulkExecutor = new EsBulkExecutor(this, host.toURI());
+		this.bulkExecutor.bindTo(Metrics.globalRegistry);
 	}
 	
 	protected final HttpHost host() {
 		return host;
 	}
 	
+	@Override
+	public final EsBulkExecutor bulkExecutor() {
+		return bulkExecutor;
+	}
+	
+	@Override
+	public final void close() throws Exception {
+		try {
+			bulkExecutor.close();
+		} finally {
+			doClose();
+		}
+	}
+	
+	/**
+	 * Releases the resources held by the underlying Elasticsearch client.
+	 * @throws Exception
+	 */
+	protected abstract void doClose() throws Exception;
+	
 	@Override
 	public final EsClusterStatus status(String...indices) {
 		final String clusterDiagnosis = clusterAvailable.get();
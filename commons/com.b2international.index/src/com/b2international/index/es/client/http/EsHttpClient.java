@@ -29,6 +29,8 @@ import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.elasticsearch.action.bulk.BulkProcessor;
 import org.elasticsearch.action.bulk.BulkProcessor.Builder;
 import org.elasticsearch.action.bulk.BulkProcessor.Listener;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.get.GetRequest;
 import org.elasticsearch.action.get.GetResponse;
 import org.elasticsearch.action.search.*;
@@ -111,7 +113,7 @@ public final class EsHttpClient extends EsClientBase {
 	}
 	
 	@Override
-	public final void close() throws IOException {
+	protected void doClose() throws IOException {
 		client.close();
 	}
 	
@@ -135,6 +137,12 @@ public final class EsHttpClient extends EsClientBase {
 		checkAvailable();
 		return BulkProcessor.builder((req, actionListener) -> clientExt.bulkAsync(req, EXTENDED_DEFAULT, actionListener), listener);
 	}
+	
+	@Override
+	public BulkResponse bulk(BulkRequest req) throws IOException {
+		checkAvailable();
+		return clientExt.bulk(req, EXTENDED_DEFAULT);
+	}
 
 	@Override
 	public GetResponse get(GetRequest req) throws IOException {
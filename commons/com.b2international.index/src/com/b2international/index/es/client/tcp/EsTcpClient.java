@@ -22,6 +22,8 @@ import org.elasticsearch.action.ActionFuture;
 import org.elasticsearch.action.bulk.BulkProcessor;
 import org.elasticsearch.action.bulk.BulkProcessor.Builder;
 import org.elasticsearch.action.bulk.BulkProcessor.Listener;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.get.GetRequest;
 import org.elasticsearch.action.get.GetResponse;
 import org.elasticsearch.action.search.*;
@@ -59,7 +61,7 @@ public final class EsTcpClient extends EsClientBase {
 	}
 	
 	@Override
-	public void close() throws Exception {
+	protected void doClose() throws Exception {
 		client.close();
 	}
 
@@ -97,6 +99,11 @@ public final class EsTcpClient extends EsClientBase {
 	public Builder bulk(Listener listener) {
 		return BulkProcessor.builder(client::bulk, listener);
 	}
+	
+	@Override
+	public BulkResponse bulk(BulkRequest req) throws IOException {
+		return execute(client.bulk(req));
+	}
 
 	@Override
 	public BulkByScrollResponse updateByQuery(String index, int batchSize, Script script, QueryBuilder query) throws IOException {
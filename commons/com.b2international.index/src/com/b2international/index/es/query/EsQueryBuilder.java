@@ -16,6 +16,7 @@
 package com.b2international.index.es.query;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.Sets.newLinkedHashSet;
 
 import java.util.Deque;
 import java.util.Map;
@@ -27,9 +28,11 @@ import org.elasticsearch.common.lucene.search.function.CombineFunction;
 import org.elasticsearch.common.unit.Fuzziness;
 import org.elasticsearch.index.query.*;
 import org.elasticsearch.index.query.functionscore.ScoreFunctionBuilders;
+import org.elasticsearch.indices.TermsLookup;
 import org.slf4j.Logger;
 
 import com.b2international.commons.exceptions.FormattedRuntimeException;
+import com.b2international.index.IdSet;
 import com.b2international.index.IndexClientFactory;
 import com.b2international.index.compat.TextConstants;
 import com.b2international.index.mapping.DocumentMapping;
@@ -53,18 +56,21 @@ public final class EsQueryBuilder {
 	private final DocumentMapping mapping;
 	private final Logger log;
 	private final String path;
+	// shared with the builders of inner clauses
+	private final Set<IdSet> idSets;
 	
 	private boolean needsScoring;
 	
 	public EsQueryBuilder(DocumentMapping mapping, Map<String, Object> settings, Logger log) {
-		this(mapping, settings, log, "");
+		this(mapping, settings, log, "", newLinkedHashSet());
 	}
 	
-	private EsQueryBuilder(DocumentMapping mapping, Map<String, Object> settings, Logger log, String path) {
+	private EsQueryBuilder(DocumentMapping mapping, Map<String, Object> settings, Logger log, String path, Set<IdSet> idSets) {
 		this.mapping = mapping;
 		this.settings = settings;
 		this.log = log;
 		this.path = path;
+		this.idSets = idSets;
 	}
 	
 	private FormattedRuntimeException newIllegalStateException() {
@@ -75,6 +81,13 @@ public final class EsQueryBuilder {
 		return needsScoring;
 	}
 	
+	/**
+	 * @return the server-side ID sets referenced by the expressions built so far
+	 */
+	public Set<IdSet> getIdSets() {
+		return idSets;
+	}
+	
 	public QueryBuilder build(Expression expression) {
 		checkNotNull(expression, "expression");
 		// always filter by type
@@ -117,6 +130,8 @@ public final class EsQueryBuilder {
 			visit((RegexpPredicate) expression);
 		} else if (expression instanceof StringSetPredicate) {
 			visit((StringSetPredicate) expression);
+		} else if (expression instanceof IdSetPredicate) {
+			visit((IdSetPredicate) expression);
 		} else if (expression instanceof LongSetPredicate) {
 			visit((LongSetPredicate) expression);
 		} else if (expression instanceof IntPredicate) {
@@ -137,6 +152,8 @@ public final class EsQueryBuilder {
 			visit((BoostPredicate) expression);
 		} else if (expression instanceof ScriptScoreExpression) {
 			visit((ScriptScoreExpression) expression);
+		} else if (expression instanceof FieldScoreExpression) {
+			visit((FieldScoreExpression) expression);
 		} else if (expression instanceof DecimalPredicate) {
 			visit((DecimalPredicate) expression);
 		} else if (expression instanceof DecimalRangePredicate) {
@@ -171,11 +188,22 @@ public final class EsQueryBuilder {
 				.boostMode(CombineFunction.REPLACE));
 	}
 	
+	private void visit(FieldScoreExpression expression) {
+		final Expression inner = expression.expression();
+		visit(inner);
+		final QueryBuilder innerQuery = deque.pop();
+		
+		needsScoring = true;
+		deque.push(QueryBuilders
+				.functionScoreQuery(innerQuery, ScoreFunctionBuilders.fieldValueFactorFunction(toFieldPath(expression.getField())).missing(expression.getMissing()))
+				.boostMode(CombineFunction.REPLACE));
+	}
+	
 	private void visit(BoolExpression bool) {
 		final BoolQueryBuilder query = QueryBuilders.boolQuery();
 		for (Expression must : bool.mustClauses()) {
 			// visit the item and immediately pop the deque item back
-			final EsQueryBuilder innerQueryBuilder = new EsQueryBuilder(mapping, settings, log);
+			final EsQueryBuilder innerQueryBuilder = new EsQueryBuilder(mapping, settings, log, "", idSets);
 			innerQueryBuilder.visit(must);
 			if (innerQueryBuilder.needsScoring) {
 				needsScoring = innerQueryBuilder.needsScoring;
@@ -210,7 +238,7 @@ public final class EsQueryBuilder {
 	private void visit(NestedPredicate predicate) {
 		final String nestedPath = toFieldPath(predicate);
 		final DocumentMapping nestedMapping = mapping.getNestedMapping(predicate.getField());
-		final EsQueryBuilder nestedQueryBuilder = new EsQueryBuilder(nestedMapping, settings, log, nestedPath);
+		final EsQueryBuilder nestedQueryBuilder = new EsQueryBuilder(nestedMapping, settings, log, nestedPath, idSets);
 		nestedQueryBuilder.visit(predicate.getExpression());
 		needsScoring = nestedQueryBuilder.needsScoring;
 		final QueryBuilder nestedQuery = nestedQueryBuilder.deque.pop();
@@ -322,6 +350,21 @@ public final class EsQueryBuilder {
 		}
 	}
 	
+	// each chunk of the ID set is within the max terms count limit, reference them via terms lookup
+	private void visit(IdSetPredicate predicate) {
+		final IdSet idSet = predicate.getIdSet();
+		idSets.add(idSet);
+		if (idSet.getChunks() == 1) {
+			deque.push(QueryBuilders.termsLookupQuery(toFieldPath(predicate), new TermsLookup(idSet.getIndex(), idSet.getChunkId(0), IdSet.Fields.IDS)));
+		} else {
+			final BoolQueryBuilder bool = QueryBuilders.boolQuery().minimumShouldMatch(1);
+			for (int chunk = 0; chunk < idSet.getChunks(); chunk++) {
+				bool.should(QueryBuilders.termsLookupQuery(toFieldPath(predicate), new TermsLookup(idSet.getIndex(), idSet.getChunkId(chunk), IdSet.Fields.IDS)));
+			}
+			deque.push(bool);
+		}
+	}
+	
 	private void visit(PrefixPredicate predicate) {
 		deque.push(QueryBuilders.prefixQuery(toFieldPath(predicate), predicate.getArgument()));
 	}
@@ -39,6 +39,9 @@ class DefaultQueryBuilder<T> implements QueryBuilder<T>, AfterWhereBuilder<T> {
 	private Expression where;
 	private SortBy sortBy = SortBy.DEFAULT;
 	private boolean withScores = false;
+	private int trackTotalHitsUpTo = Query.TRACK_TOTAL_HITS_ACCURATE;
+	private int sliceId = 0;
+	private int maxSlices = 1;
 
 	private List<String> fields = Collections.emptyList();
 
@@ -106,6 +109,28 @@ class DefaultQueryBuilder<T> implements QueryBuilder<T>, AfterWhereBuilder<T> {
 		return this;
 	}
 
+	@Override
+	public AfterWhereBuilder<T> trackTotalHitsUpTo(int trackTotalHitsUpTo) {
+		if (trackTotalHitsUpTo < Query.TRACK_TOTAL_HITS_DISABLED) {
+			throw new BadRequestException("Track total hits should be '%s' or greater, was '%s'.", Query.TRACK_TOTAL_HITS_DISABLED, trackTotalHitsUpTo);
+		}
+		this.trackTotalHitsUpTo = trackTotalHitsUpTo;
+		return this;
+	}
+
+	@Override
+	public AfterWhereBuilder<T> slice(int sliceId, int maxSlices) {
+		if (maxSlices < 1) {
+			throw new BadRequestException("Number of slices must be greater than zero, was '%s'.", maxSlices);
+		}
+		if (sliceId < 0 || sliceId >= maxSlices) {
+			throw new BadRequestException("Slice ID must be between 0 and %s, was '%s'.", maxSlices - 1, sliceId);
+		}
+		this.sliceId = sliceId;
+		this.maxSlices = maxSlices;
+		return this;
+	}
+
 	@Override
 	public Query<T> build() {
 		IndexSelection<T> selection = this.selection.build();
@@ -121,6 +146,8 @@ class DefaultQueryBuilder<T> implements QueryBuilder<T>, AfterWhereBuilder<T> {
 		query.setSortBy(sortBy);
 		query.setWithScores(withScores);
 		query.setFields(fields);
+		query.setTrackTotalHitsUpTo(trackTotalHitsUpTo);
+		query.setSlice(sliceId, maxSlices);
 		return query;
 	}
 
@@ -23,6 +23,8 @@ import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import com.b2international.index.IdSet;
+import com.b2international.index.IdSets;
 import com.b2international.index.query.TextPredicate.MatchType;
 import com.google.common.base.Splitter;
 import com.google.common.collect.Iterables;
@@ -152,6 +154,18 @@ public class Expressions {
 		return new StringSetPredicate(field, values);
 	}
 	
+	/**
+	 * Matches documents where the given field has any of the values of a server-side {@link IdSet}.
+	 * 
+	 * @param field
+	 * @param idSet
+	 * @return
+	 * @see IdSets
+	 */
+	public static Expression matchAnyIdSet(String field, IdSet idSet) {
+		return idSet.isEmpty() ? matchNone() : new IdSetPredicate(field, idSet);
+	}
+	
 	public static Expression matchAnyLong(String field, Iterable<Long> values) {
 		return new LongSetPredicate(field, values);
 	}
@@ -240,6 +254,18 @@ public class Expressions {
 		return new ScriptScoreExpression(query, scriptName, params);
 	}
 	
+	/**
+	 * Scores documents matching the given query by the value of a numeric field, documents without a value get the given score instead.
+	 * 
+	 * @param query
+	 * @param field - the numeric field to use as score
+	 * @param missing - the score of documents without a value
+	 * @return
+	 */
+	public static Expression fieldScore(Expression query, String field, double missing) {
+		return new FieldScoreExpression(query, field, missing);
+	}
+	
 	public static Expression scriptQuery(String script) {
 		return new ScriptQueryExpression(script, Collections.emptyMap());
 	}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.query;
+
+/**
+ * Replaces the score of documents matching the inner expression with the value of a numeric field, without evaluating a script.
+ * 
+ * @since 8.0
+ */
+public final class FieldScoreExpression implements Expression {
+
+	private final Expression expression;
+	private final String field;
+	private final double missing;
+
+	FieldScoreExpression(Expression expression, String field, double missing) {
+		this.expression = expression;
+		this.field = field;
+		this.missing = missing;
+	}
+	
+	public Expression expression() {
+		return expression;
+	}
+	
+	public String getField() {
+		return field;
+	}
+	
+	/**
+	 * @return the score of documents that do not have a value for the field
+	 */
+	public double getMissing() {
+		return missing;
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("FIELD SCORE(%s, %s)", field, expression);
+	}
+	
+}
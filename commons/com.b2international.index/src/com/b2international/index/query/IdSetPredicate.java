@@ -0,0 +1,59 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.index.query;
+
+import java.util.Objects;
+
+import com.b2international.index.IdSet;
+
+/**
+ * Matches documents where the field value is a member of a server-side {@link IdSet}.
+ * 
+ * @since 8.0
+ */
+public final class IdSetPredicate extends Predicate {
+
+	private final IdSet idSet;
+
+	IdSetPredicate(String field, IdSet idSet) {
+		super(field);
+		this.idSet = idSet;
+	}
+	
+	public IdSet getIdSet() {
+		return idSet;
+	}
+	
+	@Override
+	public int hashCode() {
+		return Objects.hash(getField(), idSet);
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (super.equals(obj)) {
+			final IdSetPredicate other = (IdSetPredicate) obj;
+			return Objects.equals(idSet, other.idSet);
+		}
+		return false;
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("%s IN_ID_SET(%s)", getField(), idSet.getId());
+	}
+	
+}
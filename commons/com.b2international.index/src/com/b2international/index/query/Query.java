@@ -18,6 +18,7 @@ package com.b2international.index.query;
 import java.util.List;
 
 import com.b2international.commons.CompareUtils;
+import com.b2international.index.Hits;
 import com.b2international.index.Searcher;
 import com.b2international.index.revision.Revision;
 import com.google.common.base.Joiner;
@@ -34,6 +35,16 @@ public final class Query<T> {
 	private static final Joiner COMMA_JOINER = Joiner.on(",");
 	public static final String DEFAULT_SCROLL_KEEP_ALIVE = "60s";
 	
+	/**
+	 * Counts all matches of the query accurately. This is the default.
+	 */
+	public static final int TRACK_TOTAL_HITS_ACCURATE = Integer.MAX_VALUE;
+	
+	/**
+	 * Does not count matches of the query at all, the returned total is a lower bound based on the number of returned hits.
+	 */
+	public static final int TRACK_TOTAL_HITS_DISABLED = -1;
+	
 	/**
 	 * @since 4.7
 	 */
@@ -112,6 +123,27 @@ public final class Query<T> {
 		 * @return
 		 */
 		AfterWhereBuilder<T> withScores(boolean withScores);
+		
+		/**
+		 * Counts matches of the query accurately up to the given number. Counting all matches can be the most expensive part of a broad query,
+		 * when the cap is reached the returned total will be a {@link Hits#isTotalLowerBound() lower bound} of the actual number of matches.
+		 * 
+		 * @param trackTotalHitsUpTo - the maximum number of matches to count, {@link Query#TRACK_TOTAL_HITS_ACCURATE} to count all matches (the
+		 *                           default) or {@link Query#TRACK_TOTAL_HITS_DISABLED} to skip counting
+		 * @return
+		 */
+		AfterWhereBuilder<T> trackTotalHitsUpTo(int trackTotalHitsUpTo);
+		
+		/**
+		 * Restricts a scrolled query to one of the given number of disjoint slices of the matching documents. Slices of the same query can be
+		 * scrolled independently and concurrently, together they return all matches.
+		 * 
+		 * @param sliceId - the zero-based index of the slice to return
+		 * @param maxSlices - the total number of slices, <code>1</code> disables slicing (the default)
+		 * @return
+		 * @see Searcher#scroll(Query, int)
+		 */
+		AfterWhereBuilder<T> slice(int sliceId, int maxSlices);
 	}
 
 	private String scrollKeepAlive;
@@ -122,6 +154,9 @@ public final class Query<T> {
 	private SortBy sortBy = SortBy.DEFAULT;
 	private boolean withScores;
 	private List<String> fields;
+	private int trackTotalHitsUpTo = TRACK_TOTAL_HITS_ACCURATE;
+	private int sliceId = 0;
+	private int maxSlices = 1;
 
 	Query() {}
 
@@ -189,6 +224,31 @@ public final class Query<T> {
 		this.searchAfter = searchAfter;
 	}
 	
+	public int getTrackTotalHitsUpTo() {
+		return trackTotalHitsUpTo;
+	}
+	
+	void setTrackTotalHitsUpTo(int trackTotalHitsUpTo) {
+		this.trackTotalHitsUpTo = trackTotalHitsUpTo;
+	}
+	
+	public int getSliceId() {
+		return sliceId;
+	}
+	
+	public int getMaxSlices() {
+		return maxSlices;
+	}
+	
+	void setSlice(int sliceId, int maxSlices) {
+		this.sliceId = sliceId;
+		this.maxSlices = maxSlices;
+	}
+	
+	public boolean isSliced() {
+		return maxSlices > 1;
+	}
+	
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
@@ -202,6 +262,9 @@ public final class Query<T> {
 		if (!Strings.isNullOrEmpty(scrollKeepAlive)) {
 			sb.append(" SCROLL("+scrollKeepAlive+") ");
 		}
+		if (isSliced()) {
+			sb.append(" SLICE(" + sliceId + "/" + maxSlices + ")");
+		}
 		if (selection.getParentScope() != null) {
 			sb.append(" HAS_PARENT(" + selection.getParentScopeDocumentType() + ")");
 		}
@@ -234,7 +297,9 @@ public final class Query<T> {
 			.limit(getLimit())
 			.scroll(getScrollKeepAlive())
 			.searchAfter(getSearchAfter())
-			.withScores(isWithScores());
+			.withScores(isWithScores())
+			.trackTotalHitsUpTo(getTrackTotalHitsUpTo())
+			.slice(getSliceId(), getMaxSlices());
 	}
 	
 }
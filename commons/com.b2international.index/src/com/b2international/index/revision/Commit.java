@@ -197,6 +197,7 @@ public final class Commit implements WithScore {
 		public static final String TIMESTAMP = "timestamp";
 		public static final String GROUP_ID = "groupId";
 		public static final String MERGE_SOURCE = "mergeSource";
+		public static final String DETAILS = "details";
 		private static final String DETAILS_OBJECT = "details.objects";
 		private static final String DETAILS_COMPONENT = "details.components";
 		// Sort keys
@@ -22,7 +22,9 @@ import static com.google.common.collect.Sets.newHashSet;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import com.b2international.index.*;
 import com.b2international.index.mapping.DocumentMapping;
@@ -35,6 +37,8 @@ import com.b2international.index.query.SortBy.Order;
 import com.b2international.index.revision.RevisionCompare.Builder;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Stopwatch;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 
 /**
@@ -44,11 +48,25 @@ public final class DefaultRevisionIndex implements InternalRevisionIndex, Hooks
 
 	private static final int COMPARE_DEFAULT_LIMIT = 100_000;
 	
+	/* 
+	 * Number of commits to load for each compare batch. Only the details of each commit are loaded, so a larger batch size can be used compared to
+	 * loading complete commit documents. 
+	 */
+	private static final int COMPARE_COMMIT_BATCH_SIZE = 100;
+	
+	/* Maximum number of compare details to keep in the compare result cache, each entry is weighed by the number of its details */
+	private static final long COMPARE_CACHE_MAX_DETAILS = 1_000_000L;
+	
 	private final Index index;
 	private final BaseRevisionBranching branching;
 	private final RevisionIndexAdmin admin;
 	private final ObjectMapper mapper;
 	private final List<Hooks.Hook> hooks = newArrayList();
+	private final Cache<CompareKey, RevisionCompare> compareCache = CacheBuilder.newBuilder()
+			.maximumWeight(COMPARE_CACHE_MAX_DETAILS)
+			.weigher((CompareKey key, RevisionCompare value) -> value.getDetails().size() + 1)
+			.expireAfterAccess(10, TimeUnit.MINUTES)
+			.build();
 
 	public DefaultRevisionIndex(Index index, TimestampProvider timestampProvider, ObjectMapper mapper) {
 		this.index = index;
@@ -150,22 +168,33 @@ public final class DefaultRevisionIndex implements InternalRevisionIndex, Hooks
 	
 	@Override
 	public RevisionCompare compare(final RevisionBranchRef base, final RevisionBranchRef compare, final int limit, boolean excludeComponentChanges) {
-		return index.read(searcher -> {
-			
-			final RevisionBranchRef baseOfCompareRef = base.intersection(compare);
-			final RevisionBranchRef compareRef = compare.difference(base);
-
-			final Builder result = RevisionCompare.builder(baseOfCompareRef, compareRef, limit, excludeComponentChanges);
-			
-			if (base.branchId() != compare.branchId()) {
-				Stopwatch w = Stopwatch.createStarted();
-				admin.log().trace("Comparing changes between {} -> {}.", base, compare);
-				doRevisionCompare(searcher, compareRef, result);
-				admin.log().trace("Compared changes between {} -> {} in {}.", base, compare, w);
-			}
-
-			return result.build();
+		final RevisionBranchRef baseOfCompareRef = base.intersection(compare);
+		final RevisionBranchRef compareRef = compare.difference(base);
+		
+		if (base.branchId() == compare.branchId()) {
+			return RevisionCompare.builder(baseOfCompareRef, compareRef, limit, excludeComponentChanges).build();
+		}
+		
+		// refs contain the head timestamps of all segments, so a cached result stays valid until any of the participating branches changes
+		// compare results (including their refs) are immutable, so the same instance can be returned to concurrent callers
+		final CompareKey key = new CompareKey(baseOfCompareRef, compareRef, limit, excludeComponentChanges);
+		final RevisionCompare cachedResult = compareCache.getIfPresent(key);
+		if (cachedResult != null) {
+			admin.log().trace("Returning cached compare result between {} -> {}.", base, compare);
+			return cachedResult;
+		}
+		
+		final RevisionCompare result = index.read(searcher -> {
+			final Builder builder = RevisionCompare.builder(baseOfCompareRef, compareRef, limit, excludeComponentChanges);
+			Stopwatch w = Stopwatch.createStarted();
+			admin.log().trace("Comparing changes between {} -> {}.", base, compare);
+			doRevisionCompare(searcher, compareRef, builder);
+			admin.log().trace("Compared changes between {} -> {} in {}.", base, compare, w);
+			return builder.build();
 		});
+		
+		compareCache.put(key, result);
+		return result;
 	}
 	
 	private void doRevisionCompare(Searcher searcher, RevisionBranchRef compareRef, RevisionCompare.Builder result) throws IOException {
@@ -182,13 +211,13 @@ public final class DefaultRevisionIndex implements InternalRevisionIndex, Hooks
 					.build());
 		}
 		
-		// apply commits happened on the compareRef segments in chronological order
+		// apply commits happened on the compareRef segments in chronological order, load only the fields required to compute the compare result
 		AfterWhereBuilder<Commit> query = Query.select(Commit.class)
+			.fields(Commit.Fields.ID, Commit.Fields.TIMESTAMP, Commit.Fields.DETAILS)
 			.where(compareCommitsQuery.build())
-			.limit(20) // load only 20 commits for each batch (import commits tend to be large, so if we load 20 of them we should not use that much memory)
+			.limit(COMPARE_COMMIT_BATCH_SIZE)
 			.sortBy(SortBy.field(Commit.Fields.TIMESTAMP, Order.ASC));
 		
-		int processedCommits = 0;
 		Hits<Commit> hits = null;
 		do {
 			if (hits != null) {
@@ -196,8 +225,7 @@ public final class DefaultRevisionIndex implements InternalRevisionIndex, Hooks
 			}
 			hits = searcher.search(query.build());
 			hits.forEach(result::apply);
-			processedCommits += hits.getLimit();
-		} while (processedCommits < hits.getTotal());
+		} while (hits.getHits().size() == COMPARE_COMMIT_BATCH_SIZE && hits.getSearchAfter() != null);
 	}
 
 	private String getBranchPath(Searcher searcher, long branchId) throws IOException {
@@ -327,4 +355,40 @@ public final class DefaultRevisionIndex implements InternalRevisionIndex, Hooks
 	}
 
 	
+	/*
+	 * Compare result cache key, refs include the head timestamp of each segment.
+	 */
+	private static final class CompareKey {
+		
+		private final RevisionBranchRef base;
+		private final RevisionBranchRef compare;
+		private final int limit;
+		private final boolean excludeComponentChanges;
+		
+		CompareKey(RevisionBranchRef base, RevisionBranchRef compare, int limit, boolean excludeComponentChanges) {
+			this.base = base;
+			this.compare = compare;
+			this.limit = limit;
+			this.excludeComponentChanges = excludeComponentChanges;
+		}
+		
+		@Override
+		public int hashCode() {
+			return Objects.hash(base, compare, limit, excludeComponentChanges);
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) return true;
+			if (obj == null) return false;
+			if (getClass() != obj.getClass()) return false;
+			CompareKey other = (CompareKey) obj;
+			return Objects.equals(base, other.base)
+					&& Objects.equals(compare, other.compare)
+					&& limit == other.limit
+					&& excludeComponentChanges == other.excludeComponentChanges;
+		}
+		
+	}
+	
 }
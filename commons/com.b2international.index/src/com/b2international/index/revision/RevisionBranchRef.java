@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2020 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2018-2021 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -152,7 +152,7 @@ final class RevisionBranchRef {
 			}
 		}
 		
-		return new RevisionBranchRef(branchId, branchPath, differenceSegments);
+		return new RevisionBranchRef(branchId, branchPath, ImmutableSortedSet.copyOfSorted(differenceSegments));
 	}
 
 	public RevisionBranchRef intersection(RevisionBranchRef other) {
@@ -170,7 +170,7 @@ final class RevisionBranchRef {
 			intersectionSegments.add(nextSegment.intersection(otherSegment));
 		}
 		
-		return new RevisionBranchRef(branchId, branchPath, intersectionSegments);
+		return new RevisionBranchRef(branchId, branchPath, ImmutableSortedSet.copyOfSorted(intersectionSegments));
 	}
 
 	/**
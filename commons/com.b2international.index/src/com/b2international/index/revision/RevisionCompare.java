@@ -19,12 +19,16 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 import com.b2international.commons.collections.Collections3;
 
 /**
+ * Immutable result of comparing two branches. Instances are cached and shared between callers by the revision index, so neither the compare
+ * details nor the compared branch refs may change after the result is built.
+ * 
  * @since 5.0
  */
 public final class RevisionCompare {
@@ -179,4 +183,23 @@ public final class RevisionCompare {
 		return totalRemoved;
 	}
 	
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == null) return false;
+		if (this == obj) return true;
+		if (getClass() != obj.getClass()) return false;
+		RevisionCompare other = (RevisionCompare) obj;
+		return Objects.equals(base, other.base)
+				&& Objects.equals(compare, other.compare)
+				&& Objects.equals(details, other.details)
+				&& totalAdded == other.totalAdded
+				&& totalChanged == other.totalChanged
+				&& totalRemoved == other.totalRemoved;
+	}
+	
+	@Override
+	public int hashCode() {
+		return Objects.hash(base, compare, details, totalAdded, totalChanged, totalRemoved);
+	}
+	
 }
@@ -94,6 +94,10 @@ public abstract class RepositoryBranchRestService extends AbstractRestService {
 			@RequestParam(value="searchAfter", required=false)
 			final String searchAfter,
 			
+			@Parameter(description = "The number of matches to count accurately when computing the total, -1 to skip counting. If the total reaches this number, it is a lower bound of the actual number of matches. All matches are counted by default.")
+			@RequestParam(value="trackTotalHits", required=false)
+			final Integer trackTotalHits,
+			
 			@Parameter(description = "Sort keys")
 			@RequestParam(value="sort", required=false)
 			final List<String> sort,
@@ -108,6 +112,7 @@ public abstract class RepositoryBranchRestService extends AbstractRestService {
 					.filterByName(names == null ? null : ImmutableList.copyOf(names))
 					.sortBy(extractSortFields(sort))
 					.setSearchAfter(searchAfter)
+					.setTrackTotalHits(trackTotalHits)
 					.setLimit(limit)
 					.build(repositoryId)
 					.execute(getBus());
@@ -70,6 +70,7 @@ public class BundleRestService extends AbstractRestService {
 				.setExpand(params.getExpand())
 				.setFields(params.getField())
 				.setSearchAfter(params.getSearchAfter())
+				.setTrackTotalHits(params.getTrackTotalHits())
 				.sortBy(extractSortFields(params.getSort()))
 				.buildAsync()
 				.execute(getBus());
@@ -72,6 +72,7 @@ public class CodeSystemRestService extends AbstractRestService {
 				.setExpand(params.getExpand())
 				.setFields(params.getField())
 				.setSearchAfter(params.getSearchAfter())
+				.setTrackTotalHits(params.getTrackTotalHits())
 				.sortBy(extractSortFields(params.getSort()))
 				.buildAsync()
 				.execute(getBus());
@@ -82,6 +82,7 @@ public class VersionRestService extends AbstractRestService {
 				.setExpand(params.getExpand())
 				.setFields(params.getField())
 				.setSearchAfter(params.getSearchAfter())
+				.setTrackTotalHits(params.getTrackTotalHits())
 				.sortBy(extractSortFields(params.getSort()))
 				.buildAsync()
 				.execute(getBus());
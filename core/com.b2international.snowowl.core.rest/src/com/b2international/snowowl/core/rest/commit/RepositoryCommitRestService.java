@@ -83,6 +83,7 @@ public abstract class RepositoryCommitRestService extends AbstractRestService {
 					.setFields(fields)
 					.setExpand(params.getExpand())
 					.setSearchAfter(params.getSearchAfter())
+					.setTrackTotalHits(params.getTrackTotalHits())
 					.setLimit(params.getLimit())
 					.sortBy(extractSortFields(params.getSort()))
 					.build(repositoryId)
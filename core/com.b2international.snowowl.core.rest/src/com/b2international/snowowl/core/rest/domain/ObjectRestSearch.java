@@ -38,6 +38,9 @@ public class ObjectRestSearch extends ResourceSelectors {
 	
 	@Parameter(description = "The maximum number of items to return", example = "50", schema = @Schema(defaultValue = "50"))
 	private int limit = 50;
+	
+	@Parameter(description = "The number of matches to count accurately when computing the total, -1 to skip counting. If the total reaches this number, it is a lower bound of the actual number of matches. All matches are counted by default.")
+	private Integer trackTotalHits;
 
 	public final Set<String> getId() {
 		return id;
@@ -70,5 +73,13 @@ public class ObjectRestSearch extends ResourceSelectors {
 	public final void setLimit(int limit) {
 		this.limit = limit;
 	}
+	
+	public final Integer getTrackTotalHits() {
+		return trackTotalHits;
+	}
+	
+	public final void setTrackTotalHits(Integer trackTotalHits) {
+		this.trackTotalHits = trackTotalHits;
+	}
 
 }
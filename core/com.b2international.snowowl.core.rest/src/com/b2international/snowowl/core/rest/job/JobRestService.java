@@ -72,6 +72,10 @@ public class JobRestService extends AbstractRestService {
 			@RequestParam(value="searchAfter", required=false) 
 			final String searchAfter,
 			
+			@Parameter(description = "The number of matches to count accurately when computing the total, -1 to skip counting. If the total reaches this number, it is a lower bound of the actual number of matches. All matches are counted by default.")
+			@RequestParam(value="trackTotalHits", required=false)
+			final Integer trackTotalHits,
+			
 			@Parameter(description = "The maximum number of items to return")
 			@RequestParam(value="limit", defaultValue="50", required=false)   
 			final int limit,
@@ -84,6 +88,7 @@ public class JobRestService extends AbstractRestService {
 				.filterByUsers(users == null ? null : Collections3.toImmutableSet(users))
 				.filterByState(state == null ? null : Collections3.toImmutableSet(state))
 				.setSearchAfter(searchAfter)
+				.setTrackTotalHits(trackTotalHits)
 				.setLimit(limit)
 				.sortBy(extractSortFields(sort))
 				.buildAsync()
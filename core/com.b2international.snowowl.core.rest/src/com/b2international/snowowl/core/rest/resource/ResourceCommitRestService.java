@@ -87,6 +87,7 @@ public class ResourceCommitRestService extends AbstractRestService {
 				.setFields(fields)
 				.setExpand(params.getExpand())
 				.setSearchAfter(params.getSearchAfter())
+				.setTrackTotalHits(params.getTrackTotalHits())
 				.setLimit(params.getLimit())
 				.sortBy(extractSortFields(params.getSort()))
 				.build();
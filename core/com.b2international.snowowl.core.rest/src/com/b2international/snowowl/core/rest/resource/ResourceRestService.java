@@ -66,6 +66,7 @@ public class ResourceRestService extends AbstractRestService {
 				.setExpand(params.getExpand())
 				.setFields(params.getField())
 				.setSearchAfter(params.getSearchAfter())
+				.setTrackTotalHits(params.getTrackTotalHits())
 				.sortBy(extractSortFields(params.getSort()))
 				.buildAsync()
 				.execute(getBus());
@@ -94,6 +95,7 @@ public class ResourceRestService extends AbstractRestService {
 				.setExpand(params.getExpand())
 				.setFields(params.getField())
 				.setSearchAfter(params.getSearchAfter())
+				.setTrackTotalHits(params.getTrackTotalHits())
 				.sortBy(extractSortFields(params.getSort()))
 				.buildAsync()
 				.execute(getBus());
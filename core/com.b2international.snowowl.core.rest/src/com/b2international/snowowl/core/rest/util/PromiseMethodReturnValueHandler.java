@@ -1,5 +1,5 @@
 /*
- * Copyright 2019 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2019-2021 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,6 +15,8 @@
  */
 package com.b2international.snowowl.core.rest.util;
 
+import javax.servlet.http.HttpServletResponse;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.MethodParameter;
@@ -29,6 +31,9 @@ import org.springframework.web.method.support.ModelAndViewContainer;
 import com.b2international.snowowl.core.events.util.Promise;
 
 /**
+ * Handles {@link Promise} return values by converting them to {@link DeferredResult}s. Promises completing with a
+ * {@link StreamingCollectionResponseBody} are written to the response incrementally.
+ * 
  * @since 7.2
  */
 public class PromiseMethodReturnValueHandler implements HandlerMethodReturnValueHandler, AsyncHandlerMethodReturnValueHandler {
@@ -49,11 +54,16 @@ public class PromiseMethodReturnValueHandler implements HandlerMethodReturnValue
 		
 		if (returnValue instanceof Promise<?>) {
 			final Promise<?> promise = (Promise<?>) returnValue;
-			final DeferredResult<ResponseEntity<?>> result = new DeferredResult<>();
+			final DeferredResult<Object> result = new DeferredResult<>();
 			promise
 				.then(body -> {
 					if (result.isSetOrExpired()) {
 						LOG.warn("Deferred result is already set or expired, could not deliver result {}.", body);
+					} else if (body instanceof StreamingCollectionResponseBody) {
+						// streaming bodies are passed on as is, Spring writes them to the response asynchronously, page by page
+						final HttpServletResponse servletResponse = webRequest.getNativeResponse(HttpServletResponse.class);
+						((StreamingCollectionResponseBody) body).getHeaders().forEach((name, values) -> values.forEach(value -> servletResponse.addHeader(name, value)));
+						result.setResult(body);
 					} else { 
 						final ResponseEntity<?> response;
 						if (body instanceof ResponseEntity<?>) {
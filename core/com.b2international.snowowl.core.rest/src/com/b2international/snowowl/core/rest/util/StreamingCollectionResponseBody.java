@@ -0,0 +1,224 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.rest.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map.Entry;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.b2international.snowowl.core.domain.PageableCollectionResource;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
+
+/**
+ * A {@link StreamingResponseBody} that writes a paged result set to the response one page at a time. The next page is only requested after the
+ * items of the current page have been written and flushed to the client, so a slow reader throttles the underlying search requests and only a
+ * single page is kept in memory regardless of the size of the result set.
+ * <p>
+ * The first page is fetched when the body is created, before anything is written, so a failing request results in a regular error response.
+ * A failure while fetching a subsequent page aborts the response, leaving an incomplete document behind.
+ * <p>
+ * Instances can be returned as the value of a {@link com.b2international.snowowl.core.events.util.Promise Promise}, see
+ * {@link PromiseMethodReturnValueHandler}.
+ * 
+ * @since 8.0
+ * @see com.b2international.snowowl.core.request.SearchResourceRequestIterator
+ */
+public abstract class StreamingCollectionResponseBody implements StreamingResponseBody {
+
+	/**
+	 * The default number of items to fetch and write out in a single round.
+	 */
+	public static final int DEFAULT_PAGE_SIZE = 1_000;
+	
+	private final HttpHeaders headers;
+	
+	private StreamingCollectionResponseBody(HttpHeaders headers) {
+		this.headers = headers;
+	}
+	
+	/**
+	 * Creates a response body that writes the items of each page into the <code>items</code> array of a single JSON object, followed by the
+	 * paging properties of the result set. The output is the same as the serialized form of a {@link PageableCollectionResource} holding all
+	 * returned items.
+	 * 
+	 * @param mapper - the mapper to use for serializing the items
+	 * @param pages - the pages to write, usually a {@link com.b2international.snowowl.core.request.SearchResourceRequestIterator} returning at most
+	 *              <code>limit</code> items
+	 * @param limit - the number of items requested by the client
+	 * @return
+	 */
+	public static StreamingCollectionResponseBody json(ObjectMapper mapper, Iterator<? extends PageableCollectionResource<?>> pages, int limit) {
+		final HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON_UTF8);
+		return new JsonCollectionResponseBody(headers, mapper, fetchFirstPage(pages), limit);
+	}
+	
+	/**
+	 * Creates a response body that writes the items of each page as rows of a tab-separated file attachment, using the same format as
+	 * {@link CsvMessageConverter}. Same as with the converter, nothing is written if there are no items to return.
+	 * 
+	 * @param itemType - the type of the items, used for computing the header of the file
+	 * @param pages - the pages to write, usually backed by a {@link com.b2international.snowowl.core.request.SearchResourceRequestIterator}
+	 * @return
+	 */
+	public static StreamingCollectionResponseBody csv(Class<?> itemType, Iterator<? extends Iterable<?>> pages) {
+		final HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(CsvMessageConverter.MEDIA_TYPE);
+		headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment");
+		return new CsvCollectionResponseBody(headers, itemType, fetchFirstPage(pages));
+	}
+	
+	/*
+	 * Fetches the first page while the response is not committed yet, so a failing request is reported with the proper error status instead
+	 * of a truncated 200 response
+	 */
+	private static <T> Iterator<T> fetchFirstPage(Iterator<T> pages) {
+		final PeekingIterator<T> peekingPages = Iterators.peekingIterator(pages);
+		if (peekingPages.hasNext()) {
+			peekingPages.peek();
+		}
+		return peekingPages;
+	}
+	
+	/**
+	 * @return the headers to set on the response before the body is written
+	 */
+	public final HttpHeaders getHeaders() {
+		return headers;
+	}
+	
+	private static final class JsonCollectionResponseBody extends StreamingCollectionResponseBody {
+
+		private final ObjectMapper mapper;
+		private final Iterator<? extends PageableCollectionResource<?>> pages;
+		private final int limit;
+		
+		private JsonCollectionResponseBody(HttpHeaders headers, ObjectMapper mapper, Iterator<? extends PageableCollectionResource<?>> pages, int limit) {
+			super(headers);
+			this.mapper = mapper;
+			this.pages = pages;
+			this.limit = limit;
+		}
+		
+		@Override
+		public void writeTo(OutputStream out) throws IOException {
+			final ObjectWriter writer = mapper.writer();
+			try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+				generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+				generator.writeStartObject();
+				generator.writeArrayFieldStart("items");
+				
+				PageableCollectionResource<?> firstPage = null;
+				PageableCollectionResource<?> lastPage = null;
+				int written = 0;
+				while (written < limit && pages.hasNext()) {
+					lastPage = pages.next();
+					if (firstPage == null) {
+						firstPage = lastPage;
+					}
+					
+					for (Object item : lastPage) {
+						writer.writeValue(generator, item);
+						written++;
+					}
+					
+					// push the current page to the client before requesting the next one
+					generator.flush();
+				}
+				
+				generator.writeEndArray();
+				
+				// searchAfter continues after the last written item, the total is computed by the first request
+				final PageableCollectionResource<?> envelope = PageableCollectionResource.of(
+					Collections.emptyList(), 
+					lastPage != null ? lastPage.getSearchAfter() : null, 
+					limit, 
+					firstPage != null ? firstPage.getTotal() : 0
+				);
+				envelope.setTotalLowerBound(firstPage != null && firstPage.isTotalLowerBound());
+				
+				// the paging properties are serialized by the mapper, so they match the non-streamed form of the collection
+				final ObjectNode envelopeNode = mapper.valueToTree(envelope);
+				envelopeNode.remove("items");
+				final Iterator<Entry<String, JsonNode>> fields = envelopeNode.fields();
+				while (fields.hasNext()) {
+					final Entry<String, JsonNode> field = fields.next();
+					generator.writeFieldName(field.getKey());
+					mapper.writeTree(generator, field.getValue());
+				}
+				generator.writeEndObject();
+			}
+		}
+		
+	}
+	
+	private static final class CsvCollectionResponseBody extends StreamingCollectionResponseBody {
+		
+		private final Class<?> itemType;
+		private final Iterator<? extends Iterable<?>> pages;
+		
+		private CsvCollectionResponseBody(HttpHeaders headers, Class<?> itemType, Iterator<? extends Iterable<?>> pages) {
+			super(headers);
+			this.itemType = itemType;
+			this.pages = pages;
+		}
+		
+		@Override
+		public void writeTo(OutputStream out) throws IOException {
+			final CsvMapper mapper = new CsvMapper();
+			final CsvSchema schema = mapper.schemaFor(itemType).withHeader().withColumnSeparator('\t');
+			final ObjectWriter writer = mapper.writer(schema).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			
+			// the sequence (and the header row) is only started when the first item arrives
+			SequenceWriter sequence = null;
+			try {
+				while (pages.hasNext()) {
+					for (Object item : pages.next()) {
+						if (sequence == null) {
+							sequence = writer.writeValues(out);
+						}
+						sequence.write(item);
+					}
+					// push the current page to the client before requesting the next one
+					if (sequence != null) {
+						sequence.flush();
+					}
+				}
+			} finally {
+				if (sequence != null) {
+					sequence.close();
+				}
+			}
+		}
+		
+	}
+	
+}
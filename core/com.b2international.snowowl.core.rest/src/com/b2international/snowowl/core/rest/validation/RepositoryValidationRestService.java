@@ -15,7 +15,9 @@
  */
 package com.b2international.snowowl.core.rest.validation;
 
-import java.util.Collection;
+import static com.google.common.collect.Maps.newHashMap;
+
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -36,9 +38,11 @@ import com.b2international.snowowl.core.jobs.RemoteJobEntry;
 import com.b2international.snowowl.core.jobs.RemoteJobs;
 import com.b2international.snowowl.core.request.SearchResourceRequest.SortField;
 import com.b2international.snowowl.core.rest.AbstractRestService;
+import com.b2international.snowowl.core.rest.util.StreamingCollectionResponseBody;
 import com.b2international.snowowl.core.validation.ValidationRequests;
 import com.b2international.snowowl.core.validation.issue.ValidationIssue;
-import com.b2international.snowowl.core.validation.rule.ValidationRule;
+import com.b2international.snowowl.core.validation.issue.ValidationIssueSearchRequestBuilder;
+import com.b2international.snowowl.core.validation.issue.ValidationIssues;
 import com.b2international.snowowl.eventbus.IEventBus;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableMap;
@@ -140,7 +144,7 @@ public abstract class RepositoryValidationRestService extends AbstractRestServic
 		@ApiResponse(responseCode = "404", description = "Branch not found")
 	})
 	@RequestMapping(value="/validations/{validationId}/issues", method=RequestMethod.GET, produces={ AbstractRestService.JSON_MEDIA_TYPE, AbstractRestService.CSV_MEDIA_TYPE })
-	public @ResponseBody Promise<Collection<Object>> getValidationResults(
+	public @ResponseBody Promise<Object> getValidationResults(
 			@Parameter(description="The unique validation identifier.")
 			@PathVariable(value="validationId")
 			final String validationId,
@@ -149,6 +153,10 @@ public abstract class RepositoryValidationRestService extends AbstractRestServic
 			@RequestParam(value="searchAfter", required=false) 
 			final String searchAfter,
 			
+			@Parameter(description = "The number of matches to count accurately when computing the total, -1 to skip counting. If the total reaches this number, it is a lower bound of the actual number of matches. All matches are counted by default.")
+			@RequestParam(value="trackTotalHits", required=false)
+			final Integer trackTotalHits,
+			
 			@Parameter(description="The maximum number of items to return")
 			@RequestParam(value="limit", defaultValue="50", required=false)   
 			final int limit,
@@ -158,42 +166,26 @@ public abstract class RepositoryValidationRestService extends AbstractRestServic
 			final String contentType) {
 		final IEventBus bus = getBus();
 		
-		return getValidationRun(validationId).thenWith(validationJob -> {
+		return getValidationRun(validationId).<Object>thenWith(validationJob -> {
 			final ResourceURI codeSystemURI = getCodeSystemURIFromJob(validationJob);
 			if (AbstractRestService.CSV_MEDIA_TYPE.equals(contentType)) {
-				return ValidationRequests.issues().prepareSearch()
+				// issue reports are fetched and written to the response page by page, rule descriptions are collected along the way
+				final Map<String, String> ruleDescriptionById = newHashMap();
+				final Iterator<List<ValidationIssueReport>> reports = ValidationRequests.issues().prepareSearch()
 						.isWhitelisted(false)
-						.all()
+						.setLimit(StreamingCollectionResponseBody.DEFAULT_PAGE_SIZE)
 						.filterByResourceUri(codeSystemURI)
 						.sortBy(SortField.ascending(ValidationIssue.Fields.RULE_ID))
-						.buildAsync()
-						.execute(bus)
-						.then(issues -> {
-							final Set<String> rulesToFetch = issues.stream()
-									.map(ValidationIssue::getRuleId)
-									.collect(Collectors.toSet());
-							final Map<String, String> ruleDescriptionById = ValidationRequests.rules().prepareSearch()
-									.all()
-									.filterByIds(rulesToFetch)
-									.buildAsync()
-									.execute(bus)
-									.getSync(1, TimeUnit.MINUTES)
-									.stream()
-									.collect(Collectors.toMap(ValidationRule::getId, ValidationRule::getMessageTemplate));
-							
-							return issues.stream().map(issue -> {
-								final String ruleId = issue.getRuleId();
-								final String ruleDescription = ruleDescriptionById.get(ruleId);
-								final String affectedComponentLabel = Iterables.getFirst(issue.getAffectedComponentLabels(), "No label found");
-								final String affectedComponentId = issue.getAffectedComponent().getComponentId();
-								return new ValidationIssueReport(ruleId, ruleDescription, affectedComponentId, affectedComponentLabel);
-							}).collect(Collectors.toList());
-						});
+						.streamAsync(bus, ValidationIssueSearchRequestBuilder::buildAsync)
+						.map(issues -> toReports(issues, ruleDescriptionById, bus))
+						.iterator();
+				return Promise.immediate(StreamingCollectionResponseBody.csv(ValidationIssueReport.class, reports));
 			} else {
 				return ValidationRequests.issues().prepareSearch()
 						.isWhitelisted(false)
 						.setLimit(limit)
 						.setSearchAfter(searchAfter)
+						.setTrackTotalHits(trackTotalHits)
 						.filterByResourceUri(codeSystemURI )
 						.buildAsync()
 						.execute(bus)
@@ -203,6 +195,31 @@ public abstract class RepositoryValidationRestService extends AbstractRestServic
 		});
 	}
 	
+	private List<ValidationIssueReport> toReports(final ValidationIssues issues, final Map<String, String> ruleDescriptionById, final IEventBus bus) {
+		final Set<String> rulesToFetch = issues.stream()
+				.map(ValidationIssue::getRuleId)
+				.filter(ruleId -> !ruleDescriptionById.containsKey(ruleId))
+				.collect(Collectors.toSet());
+		
+		if (!rulesToFetch.isEmpty()) {
+			ValidationRequests.rules().prepareSearch()
+					.all()
+					.filterByIds(rulesToFetch)
+					.buildAsync()
+					.execute(bus)
+					.getSync(1, TimeUnit.MINUTES)
+					.forEach(rule -> ruleDescriptionById.put(rule.getId(), rule.getMessageTemplate()));
+		}
+		
+		return issues.stream().map(issue -> {
+			final String ruleId = issue.getRuleId();
+			final String ruleDescription = ruleDescriptionById.get(ruleId);
+			final String affectedComponentLabel = Iterables.getFirst(issue.getAffectedComponentLabels(), "No label found");
+			final String affectedComponentId = issue.getAffectedComponent().getComponentId();
+			return new ValidationIssueReport(ruleId, ruleDescription, affectedComponentId, affectedComponentLabel);
+		}).collect(Collectors.toList());
+	}
+	
 	private ResourceURI getCodeSystemURIFromJob(final RemoteJobEntry validationJob) {
 		return new ResourceURI((String) validationJob.getParameters(objectMapper).get("uri"));
 	}
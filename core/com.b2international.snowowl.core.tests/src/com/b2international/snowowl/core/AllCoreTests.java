@@ -21,15 +21,19 @@ import org.junit.runners.Suite.SuiteClasses;
 
 import com.b2international.snowowl.core.attachments.AttachmentRegistryTest;
 import com.b2international.snowowl.core.codesystem.CodeSystemTest;
+import com.b2international.snowowl.core.conceptmap.ConceptMapCompareEngineTest;
 import com.b2international.snowowl.core.events.NotificationsTest;
+import com.b2international.snowowl.core.events.bulk.BulkRequestTest;
 import com.b2international.snowowl.core.events.util.PromiseTest;
 import com.b2international.snowowl.core.events.util.RequestTest;
+import com.b2international.snowowl.core.identity.CachingIdentityProviderTest;
 import com.b2international.snowowl.core.identity.PermissionTest;
 import com.b2international.snowowl.core.jobs.JobRequestsTest;
 import com.b2international.snowowl.core.locks.DatastoreLockTests;
 import com.b2international.snowowl.core.locks.LockIndexTests;
 import com.b2international.snowowl.core.merge.MergeConflictSerializationTest;
 import com.b2international.snowowl.core.monitoring.ConsoleProgressMonitorTest;
+import com.b2international.snowowl.core.repository.ResourceRepositoryCacheTest;
 import com.b2international.snowowl.core.request.SearchResourceRequestTest;
 import com.b2international.snowowl.core.request.SortParserTest;
 import com.b2international.snowowl.core.request.io.ImportResponseSerializationTest;
@@ -53,15 +57,19 @@ import com.b2international.snowowl.core.validation.issue.ValidationIssueApiTest;
 	NotificationsTest.class,
 	PromiseTest.class,
 	RequestTest.class,
+	BulkRequestTest.class,
 	AttachmentRegistryTest.class,
 	SortParserTest.class,
 	MergeConflictSerializationTest.class,
 	PermissionTest.class,
+	CachingIdentityProviderTest.class,
 	ImportResponseSerializationTest.class,
 	ValidationThreadPoolTest.class,
 	SearchResourceRequestTest.class,
 	CodeSystemTest.class,
 	GroovyScriptEngineTest.class,
+	ResourceRepositoryCacheTest.class,
+	ConceptMapCompareEngineTest.class,
 	
 	// medium integration tests
 	JobRequestsTest.class,
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.conceptmap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.b2international.snowowl.core.compare.ConceptMapCompareChangeKind;
+import com.b2international.snowowl.core.compare.ConceptMapCompareConfigurationProperties;
+import com.b2international.snowowl.core.compare.ConceptMapCompareResult;
+import com.b2international.snowowl.core.compare.ConceptMapCompareResultItem;
+import com.b2international.snowowl.core.domain.ConceptMapMapping;
+import com.b2international.snowowl.core.uri.ComponentURI;
+
+/**
+ * @since 8.0
+ */
+public class ConceptMapCompareEngineTest {
+
+	private final ConceptMapCompareEngine engine = new ConceptMapCompareEngine(ConceptMapCompareConfigurationProperties.DEFAULT_SELECTED_PROPERTIES);
+
+	@Test
+	public void compareEmpty() throws Exception {
+		final ConceptMapCompareResult result = engine.compare(List.of(), List.of());
+		assertThat(result).isEmpty();
+		assertThat(result.getTotalAdded()).isZero();
+		assertThat(result.getTotalRemoved()).isZero();
+		assertThat(result.getTotalChanged()).isZero();
+		assertThat(result.getTotalUnchanged()).isZero();
+	}
+
+	@Test
+	public void compare() throws Exception {
+		final ConceptMapMapping same = mapping("1", "A");
+		final ConceptMapMapping present = mapping("2", "B");
+		final ConceptMapMapping missing = mapping("3", "C");
+		final ConceptMapMapping baseTarget = mapping("4", "D");
+		final ConceptMapMapping compareTarget = mapping("4", "E");
+
+		final ConceptMapCompareResult result = engine.compare(
+			List.of(same, present, baseTarget),
+			List.of(baseTarget.toBuilder().build(), missing, compareTarget, same.toBuilder().build())
+		);
+
+		// the base and compare side have the same targets for concept 4, but the compare side has an additional one
+		assertThat(result.getTotalUnchanged()).isEqualTo(2);
+		assertThat(result.getTotalAdded()).isEqualTo(2);
+		assertThat(result.getTotalRemoved()).isEqualTo(1);
+		assertThat(result.getTotalChanged()).isZero();
+		assertThat(result).extracting(ConceptMapCompareResultItem::getChangeKind)
+			.containsOnly(ConceptMapCompareChangeKind.SAME, ConceptMapCompareChangeKind.PRESENT, ConceptMapCompareChangeKind.MISSING);
+	}
+
+	@Test
+	public void compareDifferentTarget() throws Exception {
+		final ConceptMapCompareResult result = engine.compare(
+			List.of(mapping("1", "A"), mapping("2", "B")),
+			List.of(mapping("1", "C"), mapping("2", "B"))
+		);
+
+		assertThat(result.getTotalUnchanged()).isEqualTo(1);
+		assertThat(result.getTotalChanged()).isEqualTo(2);
+		assertThat(result.getTotalAdded()).isZero();
+		assertThat(result.getTotalRemoved()).isZero();
+		assertThat(result).hasSize(3);
+	}
+
+	@Test
+	public void compareDuplicateMappings() throws Exception {
+		final ConceptMapCompareResult result = engine.compare(
+			List.of(mapping("1", "A"), mapping("1", "A")),
+			List.of(mapping("1", "A"))
+		);
+
+		assertThat(result.getTotalUnchanged()).isEqualTo(1);
+		assertThat(result).hasSize(1);
+	}
+
+	private static ConceptMapMapping mapping(String sourceCode, String targetCode) {
+		return ConceptMapMapping.builder()
+			.sourceTerm("Source " + sourceCode)
+			.sourceComponentURI(ComponentURI.of("codesystems/SNOMEDCT", "concept", sourceCode))
+			.targetTerm("Target " + targetCode)
+			.targetComponentURI(ComponentURI.of("codesystems/ICD10", "concept", targetCode))
+			.build();
+	}
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.events.bulk;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.b2international.commons.exceptions.NotFoundException;
+import com.b2international.snowowl.core.ServiceProvider;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * @since 8.0
+ */
+public class BulkRequestTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidParallelism() throws Exception {
+		BulkRequest.<ServiceProvider>create().setParallelism(0);
+	}
+	
+	@Test
+	public void sequentialKeepsOrder() throws Exception {
+		final BulkRequestBuilder<ServiceProvider> bulk = BulkRequest.create();
+		for (int i = 0; i < 10; i++) {
+			final int value = i;
+			bulk.add(context -> value);
+		}
+		final BulkResponse response = bulk.build().execute(ServiceProvider.EMPTY);
+		assertEquals(10, response.getItems().size());
+		for (int i = 0; i < 10; i++) {
+			assertEquals(i, response.getItems().get(i));
+		}
+	}
+	
+	@Test
+	public void parallelKeepsOrder() throws Exception {
+		final Set<String> threads = ConcurrentHashMap.newKeySet();
+		final BulkRequestBuilder<ServiceProvider> bulk = BulkRequest.<ServiceProvider>create().setParallelism(4);
+		for (int i = 0; i < 20; i++) {
+			final int value = i;
+			bulk.add(context -> {
+				threads.add(Thread.currentThread().getName());
+				// later requests finish first
+				Uninterruptibles.sleepUninterruptibly(5 * (20 - value), TimeUnit.MILLISECONDS);
+				return value;
+			});
+		}
+		final BulkResponse response = bulk.build().execute(ServiceProvider.EMPTY);
+		assertEquals(20, response.getItems().size());
+		for (int i = 0; i < 20; i++) {
+			assertEquals(i, response.getItems().get(i));
+		}
+		assertTrue(threads.size() > 1);
+		assertTrue(threads.size() <= 4);
+		// the calling thread executes requests as well
+		final String caller = Thread.currentThread().getName();
+		assertTrue(threads.stream().allMatch(name -> name.startsWith("bulk-request-") || name.equals(caller)));
+	}
+	
+	@Test
+	public void nestedParallelDoesNotStarve() throws Exception {
+		final BulkRequestBuilder<ServiceProvider> bulk = BulkRequest.<ServiceProvider>create().setParallelism(BulkRequest.MAX_PARALLELISM);
+		for (int i = 0; i < BulkRequest.MAX_PARALLELISM; i++) {
+			final int value = i;
+			// every worker of the shared pool executes another parallel bulk request
+			bulk.add(BulkRequest.<ServiceProvider>create()
+					.setParallelism(2)
+					.add(context -> value)
+					.add(context -> -value)
+					.build());
+		}
+		final BulkResponse response = bulk.build().execute(ServiceProvider.EMPTY);
+		assertEquals(BulkRequest.MAX_PARALLELISM, response.getItems().size());
+		for (int i = 0; i < BulkRequest.MAX_PARALLELISM; i++) {
+			final BulkResponse nested = (BulkResponse) response.getItems().get(i);
+			assertEquals(i, nested.getItems().get(0));
+			assertEquals(-i, nested.getItems().get(1));
+		}
+	}
+	
+	@Test
+	public void parallelFailsLikeSequential() throws Exception {
+		final Set<Integer> executed = ConcurrentHashMap.newKeySet();
+		final BulkRequestBuilder<ServiceProvider> bulk = BulkRequest.<ServiceProvider>create().setParallelism(2);
+		for (int i = 0; i < 100; i++) {
+			final int value = i;
+			bulk.add(context -> {
+				if (value == 1) {
+					throw new NotFoundException("Concept", "1");
+				}
+				executed.add(value);
+				return value;
+			});
+		}
+		
+		try {
+			bulk.build().execute(ServiceProvider.EMPTY);
+			fail("Expected the failure of the second request to fail the bulk request");
+		} catch (NotFoundException e) {
+			assertEquals("Concept with identifier '1' could not be found.", e.getMessage());
+		}
+		// requests not started before the failure are skipped
+		assertTrue(executed.size() < 99);
+	}
+	
+	@Test
+	public void parallelRunsOnCallerWhenPoolIsBusy() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		// two blocking bulk requests keep every thread of the shared pool and both of their calling threads busy
+		final CountDownLatch blocked = new CountDownLatch(BulkRequest.MAX_PARALLELISM + 2);
+		final List<CompletableFuture<BulkResponse>> blockingResponses = newArrayList();
+		final ExecutorService callers = Executors.newFixedThreadPool(2);
+		for (int i = 0; i < 2; i++) {
+			final BulkRequestBuilder<ServiceProvider> blocking = BulkRequest.<ServiceProvider>create().setParallelism(BulkRequest.MAX_PARALLELISM);
+			for (int j = 0; j < BulkRequest.MAX_PARALLELISM; j++) {
+				blocking.add(context -> {
+					blocked.countDown();
+					Uninterruptibles.awaitUninterruptibly(release);
+					return null;
+				});
+			}
+			blockingResponses.add(CompletableFuture.supplyAsync(() -> blocking.build().execute(ServiceProvider.EMPTY), callers));
+		}
+		
+		try {
+			assertTrue(blocked.await(10L, TimeUnit.SECONDS));
+			
+			final BulkResponse response = BulkRequest.<ServiceProvider>create()
+					.setParallelism(4)
+					.add(context -> Thread.currentThread().getName())
+					.add(context -> Thread.currentThread().getName())
+					.build()
+					.execute(ServiceProvider.EMPTY);
+			
+			assertThat(response.getItems()).containsOnly(Thread.currentThread().getName());
+		} finally {
+			release.countDown();
+			callers.shutdown();
+		}
+		
+		for (CompletableFuture<BulkResponse> blockingResponse : blockingResponses) {
+			assertEquals(BulkRequest.MAX_PARALLELISM, blockingResponse.get(10L, TimeUnit.SECONDS).getItems().size());
+		}
+	}
+	
+}
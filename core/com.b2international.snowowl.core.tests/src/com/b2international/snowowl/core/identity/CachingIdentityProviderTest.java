@@ -0,0 +1,109 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.identity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.b2international.snowowl.core.events.util.Promise;
+import com.google.common.base.Charsets;
+
+/**
+ * @since 8.0
+ */
+public class CachingIdentityProviderTest {
+
+	private static final class CountingIdentityProvider implements IdentityProvider, IdentityWriter {
+		
+		private final AtomicInteger authCalls = new AtomicInteger();
+		
+		@Override
+		public User auth(String username, String password) {
+			authCalls.incrementAndGet();
+			return "pass".equals(password) ? new User(username, List.of(new Role("browser", List.of(Permission.requireAll(Permission.OPERATION_BROWSE, "*"))))) : null;
+		}
+		
+		@Override
+		public void addUser(String username, String password) {
+			// nothing to do
+		}
+		
+		@Override
+		public Promise<Users> searchUsers(Collection<String> usernames, int limit) {
+			return Promise.immediate(new Users(List.of(), limit, 0));
+		}
+		
+		@Override
+		public String getInfo() {
+			return "counting";
+		}
+		
+		@Override
+		public void validateSettings() throws Exception {
+			// nothing to do
+		}
+		
+	}
+	
+	private final CountingIdentityProvider delegate = new CountingIdentityProvider();
+	private final CachingIdentityProvider provider = new CachingIdentityProvider(delegate, 60L);
+	
+	@Test
+	public void cacheSuccessfulBasicAuthentication() throws Exception {
+		final User user = provider.auth(basic("user", "pass"));
+		assertSame(user, provider.auth(basic("user", "pass")));
+		assertEquals(1, delegate.authCalls.get());
+	}
+	
+	@Test
+	public void doNotCacheFailedAuthentication() throws Exception {
+		assertNull(provider.auth(basic("user", "wrong")));
+		assertNull(provider.auth(basic("user", "wrong")));
+		assertEquals(2, delegate.authCalls.get());
+	}
+	
+	@Test
+	public void evictOnUserChange() throws Exception {
+		provider.auth("user", "pass");
+		provider.addUser("user", "pass");
+		provider.auth("user", "pass");
+		assertEquals(2, delegate.authCalls.get());
+	}
+	
+	@Test
+	public void permissionDecisions() throws Exception {
+		final User user = provider.auth("user", "pass");
+		assertTrue(user.hasPermission(Permission.requireAll(Permission.OPERATION_BROWSE, "SNOMEDCT")));
+		// the cached decision should be returned on the second call
+		assertTrue(user.hasPermission(Permission.requireAll(Permission.OPERATION_BROWSE, "SNOMEDCT")));
+		assertFalse(user.hasPermission(Permission.requireAll(Permission.OPERATION_EDIT, "SNOMEDCT")));
+	}
+	
+	private static String basic(String username, String password) {
+		return "Basic " + Base64.getEncoder().encodeToString(String.join(":", username, password).getBytes(Charsets.UTF_8));
+	}
+	
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2019 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2011-2021 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -42,6 +42,7 @@ import com.b2international.snowowl.core.repository.JsonSupport;
 import com.b2international.snowowl.eventbus.EventBusUtil;
 import com.b2international.snowowl.eventbus.IEventBus;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Iterables;
 
 /**
  * @since 5.7
@@ -188,6 +189,30 @@ public class JobRequestsTest {
 		verifyJobEvents(jobId, 1, 12, 0);
 	}
 	
+	@Test
+	public void scheduleAndSearch() throws Exception {
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		final String jobId = schedule("scheduleAndSearch", context -> {
+			try {
+				barrier.await();
+				barrier.await();
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+			return RESULT;
+		});
+		barrier.await();
+		// pending state changes of live jobs are visible to searches
+		final RemoteJobs runningJobs = tracker.search(RemoteJobEntry.Expressions.state(RemoteJobState.RUNNING), 10);
+		assertEquals(1, runningJobs.getTotal());
+		assertEquals(jobId, Iterables.getOnlyElement(runningJobs).getId());
+		barrier.await();
+		
+		waitDone(jobId);
+		final RemoteJobs finishedJobs = tracker.search(RemoteJobEntry.Expressions.id(jobId), 10);
+		assertEquals(RemoteJobState.FINISHED, Iterables.getOnlyElement(finishedJobs).getState());
+	}
+	
 	@Test(expected = NotFoundException.class)
 	public void scheduleAndClean() throws Exception {
 		final String jobId = schedule("scheduleAndClean", true, context -> RESULT);
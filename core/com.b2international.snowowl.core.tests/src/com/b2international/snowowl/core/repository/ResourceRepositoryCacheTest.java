@@ -0,0 +1,117 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * @since 8.0
+ */
+public class ResourceRepositoryCacheTest {
+
+	private final ResourceRepositoryCache cache = new ResourceRepositoryCache(ResourceRepositoryCache.DEFAULT_MAXIMUM_SIZE, new ObjectMapper());
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@Test
+	public void valueIsLoadedOnce() throws Exception {
+		assertEquals("a", cache.get("ns", "key", () -> load("a")));
+		assertEquals("a", cache.get("ns", "key", () -> load("b")));
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	public void missingValueIsCached() throws Exception {
+		assertNull(cache.get("ns", "key", () -> load(null)));
+		assertNull(cache.get("ns", "key", () -> load("a")));
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	public void namespacesAreSeparated() throws Exception {
+		assertEquals("a", cache.get("ns1", "key", () -> load("a")));
+		assertEquals("b", cache.get("ns2", "key", () -> load("b")));
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	public void invalidateAll() throws Exception {
+		cache.get("ns", "key", () -> load("a"));
+		cache.invalidateAll();
+		assertEquals("b", cache.get("ns", "key", () -> load("b")));
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	public void invalidateNamespace() throws Exception {
+		cache.get("ns1", "key", () -> load("a"));
+		cache.get("ns2", "key", () -> load("b"));
+		cache.invalidateAll("ns1");
+		assertEquals("c", cache.get("ns1", "key", () -> load("c")));
+		assertEquals("b", cache.get("ns2", "key", () -> load("d")));
+		assertEquals(3, loads.get());
+	}
+
+	@Test
+	public void cachedValueIsCopied() throws Exception {
+		final List<String> loaded = new ArrayList<>(List.of("a"));
+		cache.get("ns", "key", () -> loaded);
+		loaded.add("b");
+
+		final List<String> cached = cache.get("ns", "key", () -> List.of());
+		assertEquals(List.of("a"), cached);
+		cached.add("c");
+		assertEquals(List.of("a"), cache.get("ns", "key", () -> List.of()));
+	}
+
+	@Test
+	public void valueLoadedDuringInvalidationIsNotCached() throws Exception {
+		assertEquals("a", cache.get("ns", "key", () -> {
+			cache.invalidateAll();
+			return load("a");
+		}));
+		assertEquals("b", cache.get("ns", "key", () -> load("b")));
+	}
+
+	@Test
+	public void getAllLoadsMissingKeysOnly() throws Exception {
+		cache.get("ns", "1", () -> load("one"));
+		final Map<String, String> values = cache.getAll("ns", List.of("1", "2", "3"), missingKeys -> {
+			assertEquals(Set.of("2", "3"), missingKeys);
+			return Map.of("2", load("two"));
+		});
+		assertEquals(Map.of("1", "one", "2", "two"), values);
+		// the missing key is cached as well
+		assertEquals(Map.of("1", "one", "2", "two"), cache.getAll("ns", List.of("1", "2", "3"), missingKeys -> Map.of("3", load("three"))));
+		assertEquals(2, loads.get());
+	}
+
+	private String load(String value) {
+		loads.incrementAndGet();
+		return value;
+	}
+
+}
@@ -24,7 +24,6 @@ import com.b2international.snowowl.core.jobs.RemoteJobEntry;
 import com.b2international.snowowl.core.jobs.RemoteJobTracker;
 import com.b2international.snowowl.core.merge.Merge;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.common.collect.Iterables;
 
 /**
  * @since 7.1
@@ -41,8 +40,8 @@ public class GetMergeRequest implements Request<RepositoryContext, Merge>, Acces
 
 	@Override
 	public Merge execute(RepositoryContext context) {
-		final RemoteJobEntry job = Iterables.getOnlyElement(context.service(RemoteJobTracker.class).search(RemoteJobEntry.Expressions.id(id), 1), null);
-		if (job == null) {
+		final RemoteJobEntry job = context.service(RemoteJobTracker.class).get(id);
+		if (job == null || job.isDeleted()) {
 			throw new NotFoundException("Merge", id);
 		}
 		return SearchMergeRequest.createMergefromJobEntry(job, context.service(ObjectMapper.class));
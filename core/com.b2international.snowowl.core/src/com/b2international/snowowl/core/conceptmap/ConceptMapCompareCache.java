@@ -0,0 +1,143 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.conceptmap;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.b2international.snowowl.core.IDisposableService;
+import com.b2international.snowowl.core.ServiceProvider;
+import com.b2international.snowowl.core.compare.ConceptMapCompareResult;
+import com.b2international.snowowl.core.events.Notifications;
+import com.b2international.snowowl.core.repository.RepositoryCommitNotification;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import io.reactivex.disposables.Disposable;
+
+/**
+ * Node-local cache of complete concept map compare results, so that requesting more items of the same comparison does not compare the concept
+ * maps again. Results are keyed by the compared concept map URIs and the compare settings.
+ * <p>
+ * All entries are evicted when a {@link RepositoryCommitNotification commit notification} of any repository arrives, as results depend on the
+ * content of the concept maps and the terms of the mapped components. A comparison that is not paged through for
+ * {@value #DEFAULT_EXPIRE_AFTER_ACCESS_MINUTES} minutes is considered abandoned and its result is dropped to free up memory.
+ * </p>
+ *
+ * @since 8.0
+ */
+public final class ConceptMapCompareCache implements IDisposableService {
+
+	/**
+	 * The default number of compare results to keep in memory.
+	 */
+	public static final long DEFAULT_MAXIMUM_SIZE = 8L;
+	public static final long DEFAULT_EXPIRE_AFTER_ACCESS_MINUTES = 10L;
+
+	/**
+	 * Zero-size instance for contexts without a registered cache, each page of a comparison is computed from scratch.
+	 */
+	private static final ConceptMapCompareCache DISABLED = new ConceptMapCompareCache(0L);
+
+	private final Cache<List<Object>, ConceptMapCompareResult> results;
+	// incremented on each invalidation, results computed before an invalidation are not stored
+	private final AtomicLong generation = new AtomicLong();
+	private final AtomicBoolean disposed = new AtomicBoolean(false);
+	private Disposable subscription;
+
+	public ConceptMapCompareCache(long maximumSize) {
+		checkArgument(maximumSize >= 0, "Maximum size must be greater than or equal to zero");
+		this.results = CacheBuilder.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterAccess(DEFAULT_EXPIRE_AFTER_ACCESS_MINUTES, TimeUnit.MINUTES)
+				.build();
+	}
+
+	/**
+	 * Returns the compare result cache of the given context, or one that compares the concept maps again for every request if the context has
+	 * no cache registered.
+	 *
+	 * @param context
+	 * @return
+	 */
+	public static ConceptMapCompareCache get(ServiceProvider context) {
+		return context.optionalService(ConceptMapCompareCache.class).orElse(DISABLED);
+	}
+
+	/**
+	 * Registers this cache to receive commit notifications from the given {@link Notifications} stream.
+	 *
+	 * @param notifications
+	 * @return this cache for method chaining
+	 */
+	public ConceptMapCompareCache subscribe(Notifications notifications) {
+		this.subscription = notifications.ofType(RepositoryCommitNotification.class)
+			.subscribe(notification -> invalidateAll());
+		return this;
+	}
+
+	/**
+	 * Returns the cached compare result for the given key or computes and caches it using the given loader.
+	 *
+	 * @param key - the compared concept maps and compare settings
+	 * @param loader - the function that computes the complete compare result if it is not cached
+	 * @return the cached or computed compare result
+	 */
+	ConceptMapCompareResult get(List<Object> key, Supplier<ConceptMapCompareResult> loader) {
+		final ConceptMapCompareResult cached = results.getIfPresent(key);
+		if (cached != null) {
+			return cached;
+		}
+
+		final long expectedGeneration = generation.get();
+		final ConceptMapCompareResult result = loader.get();
+		put(key, result, expectedGeneration);
+		return result;
+	}
+
+	private synchronized void put(List<Object> key, ConceptMapCompareResult result, long expectedGeneration) {
+		if (generation.get() == expectedGeneration) {
+			results.put(key, result);
+		}
+	}
+
+	public synchronized void invalidateAll() {
+		generation.incrementAndGet();
+		results.invalidateAll();
+	}
+
+	@Override
+	public void dispose() {
+		if (disposed.compareAndSet(false, true)) {
+			if (subscription != null) {
+				subscription.dispose();
+				subscription = null;
+			}
+			invalidateAll();
+		}
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return disposed.get();
+	}
+
+}
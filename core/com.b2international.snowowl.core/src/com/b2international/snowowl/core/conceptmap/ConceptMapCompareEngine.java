@@ -0,0 +1,200 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.conceptmap;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import com.b2international.snowowl.core.compare.ConceptMapCompareChangeKind;
+import com.b2international.snowowl.core.compare.ConceptMapCompareConfigurationProperties;
+import com.b2international.snowowl.core.compare.ConceptMapCompareResult;
+import com.b2international.snowowl.core.compare.ConceptMapCompareResultItem;
+import com.b2international.snowowl.core.domain.ConceptMapMapping;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+/**
+ * Compares the mappings of two concept maps by reducing each mapping to a compact source and target key (made up of the selected
+ * {@link ConceptMapCompareConfigurationProperties}), sorting both sides by these keys and merging the sorted sides in a single pass.
+ * <p>
+ * Mappings with the same source key and target key on both sides are {@link ConceptMapCompareChangeKind#SAME the same}. The remaining mappings of
+ * a source key are {@link ConceptMapCompareChangeKind#DIFFERENT_TARGET different} if both sides have some, otherwise they are
+ * {@link ConceptMapCompareChangeKind#PRESENT present} only in the base or {@link ConceptMapCompareChangeKind#MISSING missing} from the base.
+ * </p>
+ *
+ * @since 8.0
+ */
+final class ConceptMapCompareEngine {
+
+	private static final char KEY_SEPARATOR = '\u0000';
+
+	private static final class Row implements Comparable<Row> {
+
+		private final String sourceKey;
+		private final String targetKey;
+		private final ConceptMapMapping mapping;
+
+		private Row(String sourceKey, String targetKey, ConceptMapMapping mapping) {
+			this.sourceKey = sourceKey;
+			this.targetKey = targetKey;
+			this.mapping = mapping;
+		}
+
+		@Override
+		public int compareTo(Row other) {
+			final int result = sourceKey.compareTo(other.sourceKey);
+			return result != 0 ? result : targetKey.compareTo(other.targetKey);
+		}
+
+	}
+
+	private final Set<ConceptMapCompareConfigurationProperties> selectedConfig;
+
+	ConceptMapCompareEngine(Set<ConceptMapCompareConfigurationProperties> selectedConfig) {
+		this.selectedConfig = selectedConfig;
+	}
+
+	/**
+	 * Compares the given mappings and returns all compare result items sorted by change kind and source term.
+	 *
+	 * @param baseMappings
+	 * @param compareMappings
+	 * @return
+	 */
+	ConceptMapCompareResult compare(Iterable<ConceptMapMapping> baseMappings, Iterable<ConceptMapMapping> compareMappings) {
+		final List<Row> base = toSortedRows(baseMappings);
+		final List<Row> compare = toSortedRows(compareMappings);
+
+		final List<ConceptMapCompareResultItem> added = Lists.newArrayList();
+		final List<ConceptMapCompareResultItem> removed = Lists.newArrayList();
+		final List<ConceptMapCompareResultItem> changed = Lists.newArrayList();
+		final List<ConceptMapCompareResultItem> unchanged = Lists.newArrayList();
+
+		final List<Row> onlyBase = Lists.newArrayList();
+		final List<Row> onlyCompare = Lists.newArrayList();
+		int i = 0;
+		int j = 0;
+		while (i < base.size() || j < compare.size()) {
+			final String sourceKey;
+			if (i == base.size()) {
+				sourceKey = compare.get(j).sourceKey;
+			} else if (j == compare.size() || base.get(i).sourceKey.compareTo(compare.get(j).sourceKey) <= 0) {
+				sourceKey = base.get(i).sourceKey;
+			} else {
+				sourceKey = compare.get(j).sourceKey;
+			}
+
+			// both sides are sorted by target key within the group of the current source key
+			final int baseEnd = groupEnd(base, i, sourceKey);
+			final int compareEnd = groupEnd(compare, j, sourceKey);
+			while (i < baseEnd || j < compareEnd) {
+				final int result;
+				if (i == baseEnd) {
+					result = 1;
+				} else if (j == compareEnd) {
+					result = -1;
+				} else {
+					result = base.get(i).targetKey.compareTo(compare.get(j).targetKey);
+				}
+
+				if (result == 0) {
+					unchanged.add(new ConceptMapCompareResultItem(ConceptMapCompareChangeKind.SAME, base.get(i).mapping));
+					i++;
+					j++;
+				} else if (result < 0) {
+					onlyBase.add(base.get(i++));
+				} else {
+					onlyCompare.add(compare.get(j++));
+				}
+			}
+
+			if (!onlyBase.isEmpty() && !onlyCompare.isEmpty()) {
+				onlyBase.forEach(row -> changed.add(new ConceptMapCompareResultItem(ConceptMapCompareChangeKind.DIFFERENT_TARGET, row.mapping)));
+				onlyCompare.forEach(row -> changed.add(new ConceptMapCompareResultItem(ConceptMapCompareChangeKind.DIFFERENT_TARGET, row.mapping)));
+			} else {
+				onlyBase.forEach(row -> removed.add(new ConceptMapCompareResultItem(ConceptMapCompareChangeKind.PRESENT, row.mapping)));
+				onlyCompare.forEach(row -> added.add(new ConceptMapCompareResultItem(ConceptMapCompareChangeKind.MISSING, row.mapping)));
+			}
+			onlyBase.clear();
+			onlyCompare.clear();
+		}
+
+		final List<ConceptMapCompareResultItem> items = Lists.newArrayListWithExpectedSize(added.size() + removed.size() + changed.size() + unchanged.size());
+		items.addAll(added);
+		items.addAll(removed);
+		items.addAll(changed);
+		items.addAll(unchanged);
+		Collections.sort(items);
+
+		return new ConceptMapCompareResult(ImmutableList.copyOf(items), added.size(), removed.size(), changed.size(), unchanged.size(), items.size());
+	}
+
+	private List<Row> toSortedRows(Iterable<ConceptMapMapping> mappings) {
+		final List<Row> rows = Lists.newArrayList();
+		for (ConceptMapMapping mapping : mappings) {
+			rows.add(new Row(getSourceKey(mapping), getTargetKey(mapping), mapping));
+		}
+		Collections.sort(rows);
+
+		// keep the first mapping of equivalent mappings only
+		final List<Row> distinctRows = Lists.newArrayListWithExpectedSize(rows.size());
+		for (Row row : rows) {
+			if (distinctRows.isEmpty() || distinctRows.get(distinctRows.size() - 1).compareTo(row) != 0) {
+				distinctRows.add(row);
+			}
+		}
+		return distinctRows;
+	}
+
+	private static int groupEnd(List<Row> rows, int start, String sourceKey) {
+		int end = start;
+		while (end < rows.size() && rows.get(end).sourceKey.equals(sourceKey)) {
+			end++;
+		}
+		return end;
+	}
+
+	private String getSourceKey(ConceptMapMapping mapping) {
+		final StringBuilder key = new StringBuilder();
+		if (selectedConfig.contains(ConceptMapCompareConfigurationProperties.CODE_SYSTEM)) {
+			key.append(mapping.getSourceComponentURI().resourceUri().getResourceId()).append(KEY_SEPARATOR);
+		}
+		if (selectedConfig.contains(ConceptMapCompareConfigurationProperties.CODE)) {
+			key.append(mapping.getSourceComponentURI().identifier()).append(KEY_SEPARATOR);
+		}
+		if (selectedConfig.contains(ConceptMapCompareConfigurationProperties.TERM)) {
+			key.append(Strings.nullToEmpty(mapping.getSourceTerm())).append(KEY_SEPARATOR);
+		}
+		return key.toString();
+	}
+
+	private String getTargetKey(ConceptMapMapping mapping) {
+		final StringBuilder key = new StringBuilder();
+		if (selectedConfig.contains(ConceptMapCompareConfigurationProperties.CODE_SYSTEM)) {
+			key.append(mapping.getTargetComponentURI().resourceUri().getResourceId()).append(KEY_SEPARATOR);
+		}
+		if (selectedConfig.contains(ConceptMapCompareConfigurationProperties.CODE)) {
+			key.append(mapping.getTargetComponentURI().identifier()).append(KEY_SEPARATOR);
+		}
+		if (selectedConfig.contains(ConceptMapCompareConfigurationProperties.TERM)) {
+			key.append(Strings.nullToEmpty(mapping.getTargetTerm())).append(KEY_SEPARATOR);
+		}
+		return key.toString();
+	}
+
+}
@@ -27,6 +27,7 @@ import com.b2international.snowowl.core.branch.Branch;
 import com.b2international.snowowl.core.events.DelegatingRequest;
 import com.b2international.snowowl.core.events.Request;
 import com.b2international.snowowl.core.repository.PathTerminologyResourceResolver;
+import com.b2international.snowowl.core.repository.ResourceRepositoryCache;
 import com.b2international.snowowl.core.request.ResourceRequests;
 import com.b2international.snowowl.core.uri.ResourceURIPathResolver;
 import com.google.common.base.Strings;
@@ -93,7 +94,10 @@ public final class TerminologyResourceRequest<R> extends DelegatingRequest<Servi
 		} else {
 			// resourcePaths are just ID/PATH style expressions to reference content in a terminology repository
 			final ResourceURI referenceResourceUri = ResourceURI.of("any", resourcePath);
-			Resource resource = ResourceRequests.prepareGet(referenceResourceUri).buildAsync().getRequest().execute(context);
+			// missing resources are reported by the get request and are not cached
+			Resource resource = ResourceRepositoryCache.get(context).get(ResourceRepositoryCache.RESOURCES_BY_ID, referenceResourceUri.getResourceId(), () -> {
+				return ResourceRequests.prepareGet(referenceResourceUri).buildAsync().getRequest().execute(context);
+			});
 			if (!(resource instanceof TerminologyResource)) {
 				throw new NotFoundException("Terminology Resource", referenceResourceUri.getResourceId());
 			}
@@ -38,6 +38,8 @@ public class PageableCollectionResource<T> extends ListCollectionResource<T> {
 	
 //	@ApiModelProperty("Total number of results available")
 	private final int total;
+	
+	private boolean totalLowerBound;
 
 	protected PageableCollectionResource(List<T> items, String searchAfter, int limit, int total) {
 		super(items);
@@ -74,13 +76,29 @@ public class PageableCollectionResource<T> extends ListCollectionResource<T> {
 		return total;
 	}
 	
+	/**
+	 * Returns whether the search stopped counting matches before computing the total, in which case {@link #getTotal()} is only a lower bound of
+	 * the number of results available.
+	 * 
+	 * @return
+	 * @see SearchResourceRequestBuilder#setTrackTotalHits(Integer)
+	 */
+	public final boolean isTotalLowerBound() {
+		return totalLowerBound;
+	}
+	
+	public final void setTotalLowerBound(boolean totalLowerBound) {
+		this.totalLowerBound = totalLowerBound;
+	}
+	
 	@Override
 	public String toString() {
 		return MoreObjects.toStringHelper(PageableCollectionResource.class)
 				.add("items", StringUtils.limitedToString(getItems(), 10))
 				.add("searchAfter", searchAfter)
 				.add("limit", limit)
-				.add("total", total).toString();
+				.add("total", total)
+				.add("totalLowerBound", totalLowerBound).toString();
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2017 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2011-2021 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,13 +17,25 @@ package com.b2international.snowowl.core.events.bulk;
 
 import static com.google.common.collect.Lists.newArrayList;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.b2international.commons.CompositeClassLoader;
 import com.b2international.snowowl.core.ServiceProvider;
+import com.b2international.snowowl.core.api.SnowowlRuntimeException;
+import com.b2international.snowowl.core.domain.TransactionContext;
 import com.b2international.snowowl.core.events.Request;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * @since 4.5
@@ -31,14 +43,31 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
  */
 public final class BulkRequest<C extends ServiceProvider> implements Request<C, BulkResponse> {
 
+	/**
+	 * The maximum number of threads a single parallel bulk request can use, including the calling thread.
+	 */
+	public static final int MAX_PARALLELISM = 8;
+	
+	/**
+	 * Shared by all parallel bulk requests, so the number of threads stays bounded regardless of the number of concurrent bulk requests.
+	 */
+	private static final ExecutorService EXECUTOR = createExecutor();
+	
 	private List<Request<C, ?>> requests;
+	private int parallelism;
 
-	BulkRequest(List<Request<C, ?>> requests) {
+	BulkRequest(List<Request<C, ?>> requests, int parallelism) {
 		this.requests = requests == null ? Collections.<Request<C, ?>> emptyList() : requests;
+		this.parallelism = parallelism;
 	}
 
 	@Override
 	public BulkResponse execute(C context) {
+		// nested requests of a transaction share the same uncommitted state, they are always executed sequentially
+		if (parallelism > 1 && requests.size() > 1 && !(context instanceof TransactionContext)) {
+			return executeParallel(context);
+		}
+		
 		final List<Object> responses = newArrayList();
 		
 		for (Request<C, ?> req : requests) {
@@ -48,6 +77,97 @@ public final class BulkRequest<C extends ServiceProvider> implements Request<C,
 		return new BulkResponse(responses);
 	}
 
+	private BulkResponse executeParallel(C context) {
+		final ParallelExecution<C> execution = new ParallelExecution<>(context, requests);
+		
+		// helpers only pick up requests not yet claimed by the calling thread, a busy or saturated pool just means less help
+		final int helpers = Math.min(Math.min(parallelism, MAX_PARALLELISM), requests.size()) - 1;
+		for (int i = 0; i < helpers; i++) {
+			try {
+				EXECUTOR.execute(execution::run);
+			} catch (RejectedExecutionException e) {
+				break;
+			}
+		}
+		
+		execution.run();
+		return new BulkResponse(execution.await());
+	}
+	
+	private static ThreadPoolExecutor createExecutor() {
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_PARALLELISM, MAX_PARALLELISM, 60L, TimeUnit.SECONDS, 
+				new LinkedBlockingQueue<>(), 
+				new ThreadFactoryBuilder()
+					.setNameFormat("bulk-request-%d")
+					.setDaemon(true)
+					.build());
+		// idle threads are released between parallel bulk requests
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+	
+	/*
+	 * Nested requests of a parallel bulk request, claimed one by one by the calling thread and any helper threads that get to run. The
+	 * calling thread keeps claiming requests until all of them are taken, so it never waits for a request that has not been started yet.
+	 */
+	private static final class ParallelExecution<C extends ServiceProvider> {
+		
+		private final C context;
+		private final List<Request<C, ?>> requests;
+		private final Object[] responses;
+		private final Throwable[] failures;
+		private final AtomicInteger nextRequest = new AtomicInteger();
+		private final CountDownLatch completedRequests;
+		
+		// set when a request fails, the remaining requests are skipped just like in sequential execution
+		private volatile boolean failed;
+		
+		ParallelExecution(C context, List<Request<C, ?>> requests) {
+			this.context = context;
+			this.requests = requests;
+			this.responses = new Object[requests.size()];
+			this.failures = new Throwable[requests.size()];
+			this.completedRequests = new CountDownLatch(requests.size());
+		}
+		
+		void run() {
+			int index;
+			while ((index = nextRequest.getAndIncrement()) < requests.size()) {
+				try {
+					if (!failed) {
+						responses[index] = requests.get(index).execute(context);
+					}
+				} catch (Throwable t) {
+					failures[index] = t;
+					failed = true;
+				} finally {
+					completedRequests.countDown();
+				}
+			}
+		}
+		
+		List<Object> await() {
+			try {
+				// all requests have been claimed at this point, claimed requests are either running or already completed
+				completedRequests.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new SnowowlRuntimeException("Interrupted while executing bulk request", e);
+			}
+			
+			// report the failure of the first failed request, the same one sequential execution would have stopped at
+			for (Throwable failure : failures) {
+				if (failure != null) {
+					Throwables.throwIfUnchecked(failure);
+					throw new SnowowlRuntimeException(failure);
+				}
+			}
+			
+			return Arrays.asList(responses);
+		}
+		
+	}
+
 	/**
 	 * Creates a new {@link BulkRequestBuilder} instance to create a {@link BulkRequest}.
 	 * 
@@ -65,6 +185,13 @@ public final class BulkRequest<C extends ServiceProvider> implements Request<C,
 		return requests;
 	}
 	
+	/**
+	 * @return the maximum number of nested requests executed concurrently, values less than or equal to <code>1</code> mean sequential execution
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+	
 	@Override
 	public ClassLoader getClassLoader() {
 		final CompositeClassLoader classLoader = new CompositeClassLoader();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2019 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2011-2021 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,6 +15,7 @@
  */
 package com.b2international.snowowl.core.events.bulk;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.b2international.snowowl.core.ServiceProvider;
@@ -30,6 +31,8 @@ public final class BulkRequestBuilder<C extends ServiceProvider> implements Requ
 	
 	private Builder<Request<C, ?>> requests = ImmutableList.builder();
 	
+	private int parallelism = 1;
+	
 	BulkRequestBuilder() {}
 
 	public BulkRequestBuilder<C> add(Request<C, ?> req) {
@@ -43,8 +46,24 @@ public final class BulkRequestBuilder<C extends ServiceProvider> implements Requ
 		return add(req.build());
 	}
 	
+	/**
+	 * Enables parallel execution of the nested requests using at most the given number of threads (capped at {@link BulkRequest#MAX_PARALLELISM}),
+	 * including the calling thread. Only independent, read-only requests should be added to a parallel bulk request; the responses are returned in
+	 * the order of the requests. Failures are reported the same way as in sequential execution: the first failed request fails the entire bulk
+	 * request and the requests not started yet are skipped. Bulk requests executed in a transaction context ignore this setting and run sequentially.
+	 * 
+	 * @param parallelism
+	 *            - the maximum number of concurrently executing nested requests, <code>1</code> (the default) means sequential execution
+	 * @return this builder
+	 */
+	public BulkRequestBuilder<C> setParallelism(int parallelism) {
+		checkArgument(parallelism > 0, "Parallelism must be greater than zero, got: %s", parallelism);
+		this.parallelism = parallelism;
+		return this;
+	}
+	
 	@Override
 	public BulkRequest<C> build() {
-		return new BulkRequest<>(requests.build());
+		return new BulkRequest<>(requests.build(), parallelism);
 	}
 }
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.identity;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.b2international.snowowl.core.events.util.Promise;
+import com.google.common.base.Charsets;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+
+/**
+ * Caches successful authentication decisions of the wrapped {@link IdentityProvider} for a limited amount of time. Authorization tokens (both
+ * Basic and Bearer) and username-password pairs are keyed by their SHA-256 hash, so that no credentials are kept in memory in clear text. The
+ * cached {@link User} instances are reused between requests, which also keeps the permission decisions memoized on them.
+ * <p>
+ * Failed authentication attempts are not cached. The expiration time of JWT tokens is respected even if it comes before the expiration of the
+ * cache entry.
+ * </p>
+ * 
+ * @since 8.0
+ */
+public final class CachingIdentityProvider implements IdentityProvider, IdentityWriter {
+
+	public static final long DEFAULT_MAXIMUM_SIZE = 10_000L;
+	
+	private static final String TOKEN_KEY_PREFIX = "token:";
+	private static final String CREDENTIALS_KEY_PREFIX = "credentials:";
+	
+	private static final class AuthenticatedUser {
+		
+		private final User user;
+		private final long expiresAt;
+
+		AuthenticatedUser(User user, long expiresAt) {
+			this.user = user;
+			this.expiresAt = expiresAt;
+		}
+		
+	}
+	
+	private final IdentityProvider delegate;
+	private final Cache<String, AuthenticatedUser> users;
+
+	public CachingIdentityProvider(IdentityProvider delegate, long expireAfterWriteSeconds) {
+		checkArgument(expireAfterWriteSeconds > 0, "Expiration time must be greater than zero");
+		this.delegate = delegate;
+		this.users = CacheBuilder.newBuilder()
+				.maximumSize(DEFAULT_MAXIMUM_SIZE)
+				.expireAfterWrite(expireAfterWriteSeconds, TimeUnit.SECONDS)
+				.build();
+	}
+	
+	public IdentityProvider getDelegate() {
+		return delegate;
+	}
+	
+	@Override
+	public User auth(String authorizationToken) {
+		final String key = hash(TOKEN_KEY_PREFIX, authorizationToken);
+		final User cachedUser = getIfPresent(key);
+		if (cachedUser != null) {
+			return cachedUser;
+		}
+		
+		final User user = delegate.auth(authorizationToken);
+		if (user != null) {
+			users.put(key, new AuthenticatedUser(user, getTokenExpiresAt(authorizationToken)));
+		}
+		return user;
+	}
+	
+	@Override
+	public User auth(String username, String password) {
+		final String key = hash(CREDENTIALS_KEY_PREFIX, String.join(":", username, password));
+		final User cachedUser = getIfPresent(key);
+		if (cachedUser != null) {
+			return cachedUser;
+		}
+		
+		final User user = delegate.auth(username, password);
+		if (user != null) {
+			users.put(key, new AuthenticatedUser(user, Long.MAX_VALUE));
+		}
+		return user;
+	}
+
+	private User getIfPresent(String key) {
+		final AuthenticatedUser authenticatedUser = users.getIfPresent(key);
+		if (authenticatedUser == null) {
+			return null;
+		} else if (authenticatedUser.expiresAt <= System.currentTimeMillis()) {
+			users.invalidate(key);
+			return null;
+		} else {
+			return authenticatedUser.user;
+		}
+	}
+	
+	private static long getTokenExpiresAt(String authorizationToken) {
+		final String[] parts = authorizationToken.trim().split(" ");
+		final String token = parts[parts.length - 1];
+		if (parts.length == 2 && "basic".equalsIgnoreCase(parts[0])) {
+			return Long.MAX_VALUE;
+		}
+		
+		try {
+			final Date expiresAt = JWT.decode(token).getExpiresAt();
+			return expiresAt == null ? Long.MAX_VALUE : expiresAt.getTime();
+		} catch (JWTDecodeException e) {
+			// the delegate accepted a token that is not a JWT, rely on the expiration of the cache entry
+			return Long.MAX_VALUE;
+		}
+	}
+	
+	private static String hash(String prefix, String value) {
+		return prefix + Hashing.sha256().hashString(value, Charsets.UTF_8).toString();
+	}
+	
+	/**
+	 * Evicts all cached authentication decisions of the given user. Should be called when the user or one of the roles assigned to the user changes.
+	 * 
+	 * @param username
+	 */
+	public void invalidate(String username) {
+		users.asMap().values().removeIf(authenticatedUser -> authenticatedUser.user.getUsername().equals(username));
+	}
+	
+	/**
+	 * Evicts all cached authentication decisions. Should be called when roles or permissions change.
+	 */
+	public void invalidateAll() {
+		users.invalidateAll();
+	}
+	
+	@Override
+	public void addUser(String username, String password) {
+		if (delegate instanceof IdentityWriter) {
+			((IdentityWriter) delegate).addUser(username, password);
+			invalidate(username);
+		}
+	}
+	
+	@Override
+	public Promise<Users> searchUsers(Collection<String> usernames, int limit) {
+		return delegate.searchUsers(usernames, limit);
+	}
+	
+	@Override
+	public String getInfo() {
+		return delegate.getInfo();
+	}
+	
+	@Override
+	public void validateSettings() throws Exception {
+		delegate.validateSettings();
+	}
+	
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2019 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2017-2021 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -30,6 +30,8 @@ public class IdentityConfiguration {
 	private boolean adminParty = false;
 	private String secret = "secret";
 	private String issuer = "Snow Owl";
+	// the number of seconds successful authentication decisions are cached for, 0 disables caching
+	private long cacheTtl = 60L;
 	
 	private List<IdentityProviderConfig> providerConfigurations = Collections.emptyList();
 	
@@ -58,6 +60,14 @@ public class IdentityConfiguration {
 		this.secret = secret;
 	}
 	
+	public long getCacheTtl() {
+		return cacheTtl;
+	}
+	
+	public void setCacheTtl(long cacheTtl) {
+		this.cacheTtl = cacheTtl;
+	}
+	
 	public String getIssuer() {
 		return issuer;
 	}
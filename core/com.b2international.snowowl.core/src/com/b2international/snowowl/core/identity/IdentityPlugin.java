@@ -64,6 +64,10 @@ public final class IdentityPlugin extends Plugin {
 			identityProvider = new AdminPartyIdentityProvider(identityProvider);
 		}
 		
+		if (IdentityProvider.NOOP != identityProvider && conf.getCacheTtl() > 0L) {
+			identityProvider = new CachingIdentityProvider(identityProvider, conf.getCacheTtl());
+		}
+		
 		identityProvider.validateSettings();
 		IdentityProvider.LOG.info("Configured identity providers [{}]", identityProvider.getInfo());
 		env.services().registerService(IdentityProvider.class, identityProvider);
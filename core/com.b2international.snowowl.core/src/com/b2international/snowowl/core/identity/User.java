@@ -18,12 +18,16 @@ package com.b2international.snowowl.core.identity;
 import java.io.Serializable;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.Multimaps;
 
 /**
  * Represents a logged in user in the system. A logged in user has access to his own username and assigned roles (and permissions).
@@ -32,6 +36,8 @@ import com.google.common.base.Suppliers;
 public final class User implements Serializable {
 
 	private static final long serialVersionUID = 1L;
+	
+	private static final int MAX_PERMISSION_DECISIONS = 1_000;
 
 	public static final User SYSTEM = new User("System", Collections.singletonList(Role.ADMINISTRATOR));
 	
@@ -42,6 +48,18 @@ public final class User implements Serializable {
 	private final Supplier<List<Permission>> permissions = Suppliers.memoize(() -> {
 		return getRoles().stream().flatMap(role -> role.getPermissions().stream()).distinct().collect(Collectors.toList());
 	});
+	
+	// derived cached value, permissions indexed by their operation
+	private final Supplier<ImmutableListMultimap<String, Permission>> permissionsByOperation = Suppliers.memoize(() -> {
+		return Multimaps.index(getPermissions(), Permission::getOperation);
+	});
+	
+	private final Supplier<Boolean> administrator = Suppliers.memoize(() -> {
+		return getPermissions().stream().anyMatch(Permission::isAdmin);
+	});
+	
+	// derived cached value, decisions of hasPermission keyed by the required permission string
+	private final Map<String, Boolean> permissionDecisions = new ConcurrentHashMap<>();
 
 	public User(String username, List<Role> roles) {
 		this.username = username;
@@ -79,10 +97,7 @@ public final class User implements Serializable {
 	 * @return <code>true</code> if this user has a permission that implies all other permissions, <code>false</code> otherwise.
 	 */
 	public boolean isAdministrator() {
-		return getPermissions().stream()
-				.filter(Permission::isAdmin)
-				.findFirst()
-				.isPresent();
+		return administrator.get();
 	}
 	
 	/**
@@ -92,7 +107,21 @@ public final class User implements Serializable {
 	 * @return
 	 */
 	public boolean hasPermission(Permission permissionRequirement) {
-		return getPermissions().stream().anyMatch(permission -> permission.implies(permissionRequirement));
+		// the decision depends only on the operation and resource of the requirement, both of which are part of the permission string
+		final String requiredPermission = permissionRequirement.getPermission();
+		final Boolean cachedDecision = permissionDecisions.get(requiredPermission);
+		if (cachedDecision != null) {
+			return cachedDecision;
+		}
+		
+		final ImmutableListMultimap<String, Permission> permissions = permissionsByOperation.get();
+		final boolean decision = permissions.get(permissionRequirement.getOperation()).stream().anyMatch(permission -> permission.implies(permissionRequirement))
+				|| permissions.get(Permission.ALL).stream().anyMatch(permission -> permission.implies(permissionRequirement));
+		
+		if (permissionDecisions.size() < MAX_PERMISSION_DECISIONS) {
+			permissionDecisions.put(requiredPermission, decision);
+		}
+		return decision;
 	}
 
 	/**
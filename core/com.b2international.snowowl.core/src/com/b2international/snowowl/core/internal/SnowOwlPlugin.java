@@ -27,15 +27,19 @@ import com.b2international.index.IndexClientFactory;
 import com.b2international.index.Indexes;
 import com.b2international.index.mapping.Mappings;
 import com.b2international.index.revision.DefaultRevisionIndex;
+import com.b2international.index.revision.Hooks;
 import com.b2international.index.revision.RevisionIndex;
 import com.b2international.index.revision.TimestampProvider;
 import com.b2international.snowowl.core.ResourceTypeConverter;
+import com.b2international.snowowl.core.conceptmap.ConceptMapCompareCache;
 import com.b2international.snowowl.core.config.IndexSettings;
 import com.b2international.snowowl.core.config.SnowOwlConfiguration;
+import com.b2international.snowowl.core.events.Notifications;
 import com.b2international.snowowl.core.monitoring.MonitoringConfiguration;
 import com.b2international.snowowl.core.plugin.ClassPathScanner;
 import com.b2international.snowowl.core.plugin.Component;
 import com.b2international.snowowl.core.repository.PathTerminologyResourceResolver;
+import com.b2international.snowowl.core.repository.ResourceRepositoryCache;
 import com.b2international.snowowl.core.setup.ConfigurationRegistry;
 import com.b2international.snowowl.core.setup.Environment;
 import com.b2international.snowowl.core.setup.Plugin;
@@ -46,6 +50,7 @@ import com.b2international.snowowl.core.version.VersionDocument;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.binder.jvm.ClassLoaderMetrics;
 import io.micrometer.core.instrument.binder.jvm.JvmGcMetrics;
@@ -78,6 +83,8 @@ public final class SnowOwlPlugin extends Plugin {
 		if (monitoringConfig.isEnabled()) {
 			final PrometheusMeterRegistry registry = createRegistry(monitoringConfig);
 			env.services().registerService(MeterRegistry.class, registry);
+			// publish metrics of lower level components (eg. index bulk writes) registered to the global registry as well
+			Metrics.addRegistry(registry);
 		} else {
 			// XXX this works like a NOOP registry if you do NOT register any additional registries to it
 			env.services().registerService(MeterRegistry.class, new CompositeMeterRegistry());
@@ -99,6 +106,16 @@ public final class SnowOwlPlugin extends Plugin {
 			
 			final RevisionIndex revisionIndex = new DefaultRevisionIndex(resourceIndex, env.service(TimestampProvider.class), mapper);
 			env.services().registerService(ResourceRepository.class, new ResourceRepository(revisionIndex));
+			
+			// resource and version lookups are cached until the next resource commit (local commits evict synchronously, remote ones via notifications)
+			final ResourceRepositoryCache resourceCache = new ResourceRepositoryCache(ResourceRepositoryCache.DEFAULT_MAXIMUM_SIZE, mapper)
+					.subscribe(env.service(Notifications.class));
+			revisionIndex.hooks().addHook((Hooks.PostCommitHook) commit -> resourceCache.invalidateAll());
+			env.services().registerService(ResourceRepositoryCache.class, resourceCache);
+			
+			// complete concept map comparisons are cached until the next commit in any repository
+			env.services().registerService(ConceptMapCompareCache.class, new ConceptMapCompareCache(ConceptMapCompareCache.DEFAULT_MAXIMUM_SIZE)
+					.subscribe(env.service(Notifications.class)));
 		}
 	}
 
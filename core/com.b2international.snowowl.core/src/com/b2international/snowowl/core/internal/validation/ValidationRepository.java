@@ -54,6 +54,11 @@ public final class ValidationRepository implements Index {
 	public <T> T write(IndexWrite<T> write) {
 		return index.write(write);
 	}
+	
+	@Override
+	public IdSets idSets() {
+		return index.idSets();
+	}
 
 	public Searcher searcher() {
 		return new Searcher() {
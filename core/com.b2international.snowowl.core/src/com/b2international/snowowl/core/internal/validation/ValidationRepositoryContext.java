@@ -19,12 +19,15 @@ import static com.google.common.collect.Maps.newHashMap;
 import static com.google.common.collect.Sets.newHashSet;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import com.b2international.index.BulkUpdate;
+import com.b2international.index.IdSet;
+import com.b2international.index.query.Expression;
 import com.b2international.index.query.Expressions;
 import com.b2international.index.query.Expressions.ExpressionBuilder;
 import com.b2international.snowowl.core.ComponentIdentifier;
@@ -42,6 +45,11 @@ import com.google.common.collect.*;
  */
 public final class ValidationRepositoryContext extends DelegatingContext {
 
+	/**
+	 * Affected component filters above this size are registered as a server-side ID set instead of being sent inline with the update.
+	 */
+	private static final int ID_SET_THRESHOLD = 10_000;
+	
 	// actual raw mapping changes
 	private final List<Object> newObjects = new ArrayList<>();
 	private final Multimap<Class<?>, String> objectsToDelete = HashMultimap.create();
@@ -76,54 +84,60 @@ public final class ValidationRepositoryContext extends DelegatingContext {
 	void commit() {
 		if (!newObjects.isEmpty() || !objectsToDelete.isEmpty()) {
 			final Set<String> ruleIdsAffectedByDeletion = Sets.newHashSet();
-			service(ValidationRepository.class).write(writer -> {
-				writer.putAll(newObjects);
-				
-				final Multimap<String, ComponentIdentifier> addToWhitelist = HashMultimap.create();
-				newObjects
-					.stream()
-					.filter(ValidationWhiteList.class::isInstance)
-					.map(ValidationWhiteList.class::cast)
-					.forEach(whitelist -> addToWhitelist.put(whitelist.getRuleId(), whitelist.getComponentIdentifier()));
-				
-				if (!addToWhitelist.isEmpty()) {
-					ExpressionBuilder filter = Expressions.builder();
-					for (String ruleId : addToWhitelist.keySet()) {
-						filter.should(Expressions.builder()
-							.filter(Expressions.exactMatch(ValidationIssue.Fields.RULE_ID, ruleId))
-							.filter(Expressions.matchAny(ValidationIssue.Fields.AFFECTED_COMPONENT_ID, addToWhitelist.get(ruleId).stream().map(ComponentIdentifier::getComponentId).collect(Collectors.toSet())))
-							.build());
+			final ValidationRepository repository = service(ValidationRepository.class);
+			final List<IdSet> idSets = new ArrayList<>();
+			try {
+				repository.write(writer -> {
+					writer.putAll(newObjects);
+					
+					final Multimap<String, ComponentIdentifier> addToWhitelist = HashMultimap.create();
+					newObjects
+						.stream()
+						.filter(ValidationWhiteList.class::isInstance)
+						.map(ValidationWhiteList.class::cast)
+						.forEach(whitelist -> addToWhitelist.put(whitelist.getRuleId(), whitelist.getComponentIdentifier()));
+					
+					if (!addToWhitelist.isEmpty()) {
+						ExpressionBuilder filter = Expressions.builder();
+						for (String ruleId : addToWhitelist.keySet()) {
+							filter.should(Expressions.builder()
+								.filter(Expressions.exactMatch(ValidationIssue.Fields.RULE_ID, ruleId))
+								.filter(affectedComponentIds(repository, idSets, addToWhitelist.get(ruleId)))
+								.build());
+						}
+						writer.bulkUpdate(new BulkUpdate<>(ValidationIssue.class, filter.build(), ValidationIssue.Scripts.WHITELIST, ImmutableMap.of("whitelisted", true)));
 					}
-					writer.bulkUpdate(new BulkUpdate<>(ValidationIssue.class, filter.build(), ValidationIssue.Scripts.WHITELIST, ImmutableMap.of("whitelisted", true)));
-				}
-				
-				final Multimap<String, ComponentIdentifier> removeFromWhitelist = HashMultimap.create();
-				ValidationRequests.whiteList().prepareSearch()
-					.all()
-					.filterByIds(ImmutableSet.copyOf(objectsToDelete.get(ValidationWhiteList.class)))
-					.build()
-					.execute(this)
-					.forEach(whitelist -> removeFromWhitelist.put(whitelist.getRuleId(), whitelist.getComponentIdentifier()));
-				
-				if (!removeFromWhitelist.isEmpty()) {
-					ExpressionBuilder filter = Expressions.builder();
-					for (String ruleId : removeFromWhitelist.keySet()) {
-						ruleIdsAffectedByDeletion.add(ruleId);
-						filter.should(Expressions.builder()
-							.filter(Expressions.exactMatch(ValidationIssue.Fields.RULE_ID, ruleId))
-							.filter(Expressions.matchAny(ValidationIssue.Fields.AFFECTED_COMPONENT_ID, removeFromWhitelist.get(ruleId).stream().map(ComponentIdentifier::getComponentId).collect(Collectors.toSet())))
-							.build());
+					
+					final Multimap<String, ComponentIdentifier> removeFromWhitelist = HashMultimap.create();
+					ValidationRequests.whiteList().prepareSearch()
+						.all()
+						.filterByIds(ImmutableSet.copyOf(objectsToDelete.get(ValidationWhiteList.class)))
+						.build()
+						.execute(this)
+						.forEach(whitelist -> removeFromWhitelist.put(whitelist.getRuleId(), whitelist.getComponentIdentifier()));
+					
+					if (!removeFromWhitelist.isEmpty()) {
+						ExpressionBuilder filter = Expressions.builder();
+						for (String ruleId : removeFromWhitelist.keySet()) {
+							ruleIdsAffectedByDeletion.add(ruleId);
+							filter.should(Expressions.builder()
+								.filter(Expressions.exactMatch(ValidationIssue.Fields.RULE_ID, ruleId))
+								.filter(affectedComponentIds(repository, idSets, removeFromWhitelist.get(ruleId)))
+								.build());
+						}
+						writer.bulkUpdate(new BulkUpdate<>(ValidationIssue.class, filter.build(), ValidationIssue.Scripts.WHITELIST, ImmutableMap.of("whitelisted", false)));
 					}
-					writer.bulkUpdate(new BulkUpdate<>(ValidationIssue.class, filter.build(), ValidationIssue.Scripts.WHITELIST, ImmutableMap.of("whitelisted", false)));
-				}
-				
-				final Map<Class<?>, Set<String>> docsToDelete = newHashMap();
-				objectsToDelete.asMap().forEach((type, ids) -> docsToDelete.put(type, ImmutableSet.copyOf(ids)));
-				writer.removeAll(docsToDelete);
-				
-				writer.commit();
-				return null;
-			});
+					
+					final Map<Class<?>, Set<String>> docsToDelete = newHashMap();
+					objectsToDelete.asMap().forEach((type, ids) -> docsToDelete.put(type, ImmutableSet.copyOf(ids)));
+					writer.removeAll(docsToDelete);
+					
+					writer.commit();
+					return null;
+				});
+			} finally {
+				idSets.forEach(repository.idSets()::release);
+			}
 			
 			if (!newObjects.isEmpty()) {
 				final Set<String> addedWhiteLists = newHashSet();
@@ -148,5 +162,17 @@ public final class ValidationRepositoryContext extends DelegatingContext {
 			}
 		}
 	}
+	
+	private static Expression affectedComponentIds(ValidationRepository repository, List<IdSet> idSets, Collection<ComponentIdentifier> components) {
+		final Set<String> componentIds = components.stream().map(ComponentIdentifier::getComponentId).collect(Collectors.toSet());
+		if (componentIds.size() <= ID_SET_THRESHOLD) {
+			return Expressions.matchAny(ValidationIssue.Fields.AFFECTED_COMPONENT_ID, componentIds);
+		}
+		
+		// released by the caller once the update has been committed
+		final IdSet idSet = repository.idSets().register(componentIds);
+		idSets.add(idSet);
+		return Expressions.matchAnyIdSet(ValidationIssue.Fields.AFFECTED_COMPONENT_ID, idSet);
+	}
 
 }
\ No newline at end of file
@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2019 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2017-2021 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,7 +19,6 @@ import com.b2international.commons.exceptions.NotFoundException;
 import com.b2international.snowowl.core.ServiceProvider;
 import com.b2international.snowowl.core.events.Request;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.google.common.collect.Iterables;
 
 /**
  * @since 5.7
@@ -35,8 +34,8 @@ final class GetJobRequest implements Request<ServiceProvider, RemoteJobEntry> {
 	
 	@Override
 	public RemoteJobEntry execute(ServiceProvider context) {
-		final RemoteJobEntry entry = Iterables.getOnlyElement(context.service(RemoteJobTracker.class).search(RemoteJobEntry.Expressions.id(id), 2), null);
-		if (entry == null) {
+		final RemoteJobEntry entry = context.service(RemoteJobTracker.class).get(id);
+		if (entry == null || entry.isDeleted()) {
 			throw new NotFoundException("job", id);
 		} else {
 			return entry;
@@ -17,7 +17,9 @@ package com.b2international.snowowl.core.jobs;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.UnaryOperator;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -40,15 +42,25 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
+ * Tracks the state of {@link RemoteJob remote jobs} scheduled on this node.
+ * <p>
+ * Entries of live jobs are kept in memory and serve as the authoritative source of their state, state transitions are written to the jobs index in
+ * coalesced batches. Finished jobs are written immediately, searches write pending transitions before executing the query.
+ * </p>
+ * 
  * @since 5.7
  */
 public final class RemoteJobTracker implements IDisposableService {
 
 	private static final Logger LOG = LoggerFactory.getLogger("jobs");
 	
+	private static final long FLUSH_INTERVAL_MILLIS = 1_000L;
+	
 	private static class Holder {
 		private static final Timer CLEANUP_TIMER = new Timer("Remote job cleanup", true);
 	}
@@ -56,6 +68,10 @@ public final class RemoteJobTracker implements IDisposableService {
 	private final class CleanUpTask extends TimerTask {
 		@Override
 		public void run() {
+			// finished jobs that were marked deleted are removed when flushing, scan the index only if there might be leftovers
+			if (!purgeRequired.getAndSet(false)) {
+				return;
+			}
 			try {
 				index.write(writer -> {
 					final Hits<String> hits = writer.searcher().search(Query.select(String.class)
@@ -78,11 +94,20 @@ public final class RemoteJobTracker implements IDisposableService {
 				});
 			} catch (IllegalStateException e) {
 				cancel();
+			} catch (RuntimeException e) {
+				purgeRequired.set(true);
+				LOG.error("Couldn't purge deleted job entries, retrying later.", e);
 			}
 		}
 	}
 	
 	private final AtomicBoolean disposed = new AtomicBoolean(false);
+	// entries from previous runs might be left in the index, scan it once after startup
+	private final AtomicBoolean purgeRequired = new AtomicBoolean(true);
+	private final ConcurrentMap<String, RemoteJobEntry> liveJobs = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, RemoteJobEntry> pendingWrites = new ConcurrentHashMap<>();
+	private final Object flushLock = new Object();
+	private final ScheduledExecutorService flusher;
 	private final Index index;
 	private final RemoteJobChangeAdapter listener;
 	private final CleanUpTask cleanUp;
@@ -109,6 +134,12 @@ public final class RemoteJobTracker implements IDisposableService {
 			return null;
 		});
 		
+		this.flusher = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+				.setNameFormat("remote-job-flush-%d")
+				.setDaemon(true)
+				.build());
+		this.flusher.scheduleWithFixedDelay(this::flushSafely, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+		
 		this.listener = new RemoteJobChangeAdapter();
 		Job.getJobManager().addJobChangeListener(listener);
 		this.cleanUp = new CleanUpTask();
@@ -125,6 +156,7 @@ public final class RemoteJobTracker implements IDisposableService {
 	}
 	
 	private Hits<RemoteJobEntry> searchHits(Expression query, List<String> fields, SortBy sortBy, int limit) {
+		flush();
 		return index.read(searcher -> {
 			return searcher.search(
 					Query.select(RemoteJobEntry.class)
@@ -141,8 +173,17 @@ public final class RemoteJobTracker implements IDisposableService {
 	}
 	
 	
-	@VisibleForTesting
+	/**
+	 * Returns the current entry of the job with the given identifier, including entries that are marked deleted but not removed yet.
+	 * 
+	 * @param jobId
+	 * @return the job entry or <code>null</code> if no such job exists
+	 */
 	public RemoteJobEntry get(String jobId) {
+		final RemoteJobEntry liveJob = liveJobs.get(jobId);
+		if (liveJob != null) {
+			return liveJob;
+		}
 		return index.read(searcher -> searcher.get(RemoteJobEntry.class, jobId));
 	}
 	
@@ -150,7 +191,10 @@ public final class RemoteJobTracker implements IDisposableService {
 		final RemoteJobEntry job = get(jobId);
 		if (job != null && !job.isCancelled()) {
 			LOG.trace("Cancelling job {}", jobId);
-			update(jobId, RemoteJobEntry.WITH_STATE, ImmutableMap.of("expectedState", RemoteJobState.RUNNING.name(), "newState", RemoteJobState.CANCEL_REQUESTED.name()));
+			update(jobId, 
+				entry -> RemoteJobState.RUNNING == entry.getState() ? RemoteJobEntry.from(entry).state(RemoteJobState.CANCEL_REQUESTED).build() : entry, 
+				RemoteJobEntry.WITH_STATE, 
+				ImmutableMap.of("expectedState", RemoteJobState.RUNNING.name(), "newState", RemoteJobState.CANCEL_REQUESTED.name()));
 			Job.getJobManager().cancel(SingleRemoteJobFamily.create(jobId));
 		}
 	}
@@ -170,45 +214,126 @@ public final class RemoteJobTracker implements IDisposableService {
 		}
 		// delete all other jobs, that dont need to be cancelled
 		final Set<String> remoteJobsToDelete = Sets.difference(Sets.newHashSet(jobIds), remoteJobsToCancel);
-		index.write(writer -> {
-			// if the job still running or scheduled, then mark it deleted and the done handler will delete it
-			LOG.trace("Deleting jobs {}", remoteJobsToDelete);
-			writer.removeAll(ImmutableMap.of(RemoteJobEntry.class, remoteJobsToDelete));
-			if (!remoteJobsToCancel.isEmpty()) {
-				LOG.trace("Marking deletable jobs {}", remoteJobsToCancel);
-				writer.bulkUpdate(new BulkUpdate<>(RemoteJobEntry.class, RemoteJobEntry.Expressions.ids(remoteJobsToCancel), RemoteJobEntry.WITH_DELETED));
+		// if the job still running or scheduled, then mark it deleted and it will be deleted when flushing its final state
+		final Set<String> remoteJobsToMark = Sets.newHashSet();
+		for (String jobId : remoteJobsToCancel) {
+			if (liveJobs.computeIfPresent(jobId, (id, entry) -> markPending(RemoteJobEntry.from(entry).deleted(true).build())) == null) {
+				remoteJobsToMark.add(jobId);
 			}
-			writer.commit();
-			return null;
-		});
+		}
+		// hold the flush lock, so pending writes of the removed entries can not bring them back
+		synchronized (flushLock) {
+			remoteJobsToDelete.forEach(jobId -> {
+				liveJobs.remove(jobId);
+				pendingWrites.remove(jobId);
+			});
+			index.write(writer -> {
+				LOG.trace("Deleting jobs {}", remoteJobsToDelete);
+				writer.removeAll(ImmutableMap.of(RemoteJobEntry.class, remoteJobsToDelete));
+				if (!remoteJobsToMark.isEmpty()) {
+					LOG.trace("Marking deletable jobs {}", remoteJobsToMark);
+					writer.bulkUpdate(new BulkUpdate<>(RemoteJobEntry.class, RemoteJobEntry.Expressions.ids(remoteJobsToMark), RemoteJobEntry.WITH_DELETED));
+				}
+				writer.commit();
+				return null;
+			});
+		}
+		if (!remoteJobsToMark.isEmpty()) {
+			purgeRequired.set(true);
+		}
 		// finally cancel all jobs that need to be cancelled
 		Job.getJobManager().cancel(SingleRemoteJobFamily.create(remoteJobsToCancel));
 		notifyRemoved(existingJobIds);
 	}
 	
 	private void put(RemoteJobEntry job) {
-		index.write(writer -> {
-			writer.put(job);
-			writer.commit();
-			return null;
-		});
+		liveJobs.put(job.getId(), markPending(job));
 		notifyAdded(job.getId());
 	}
 	
-	private void update(String jobId, String script, Map<String, Object> params) {
-		index.write(writer -> {
-			writer.bulkUpdate(new BulkUpdate<>(RemoteJobEntry.class, RemoteJobEntry.Expressions.id(jobId), script, params));
-			writer.commit();
-			return null;
-		});
+	private void update(String jobId, UnaryOperator<RemoteJobEntry> change, String script, Map<String, Object> params) {
+		apply(jobId, change, script, params);
 		notifyChanged(jobId);
 	}
-
+	
+	private void apply(String jobId, UnaryOperator<RemoteJobEntry> change, String script, Map<String, Object> params) {
+		final RemoteJobEntry updated = liveJobs.computeIfPresent(jobId, (id, entry) -> markPending(change.apply(entry)));
+		if (updated == null) {
+			// not tracked by this node, update the persisted entry directly
+			index.write(writer -> {
+				writer.bulkUpdate(new BulkUpdate<>(RemoteJobEntry.class, RemoteJobEntry.Expressions.id(jobId), script, params));
+				writer.commit();
+				return null;
+			});
+		}
+	}
+	
+	private RemoteJobEntry markPending(RemoteJobEntry entry) {
+		pendingWrites.put(entry.getId(), entry);
+		return entry;
+	}
+	
+	private void flushSafely() {
+		try {
+			flush();
+		} catch (RuntimeException e) {
+			LOG.error("Couldn't write job state changes to the jobs index, retrying later.", e);
+		}
+	}
+	
+	/**
+	 * Writes all pending job state changes to the jobs index. Entries of finished jobs are no longer kept in memory after they are written, entries
+	 * of finished jobs marked deleted are removed from the index.
+	 */
+	@VisibleForTesting
+	void flush() {
+		if (pendingWrites.isEmpty()) {
+			return;
+		}
+		synchronized (flushLock) {
+			final Map<String, RemoteJobEntry> batch = ImmutableMap.copyOf(pendingWrites);
+			if (batch.isEmpty()) {
+				return;
+			}
+			
+			final List<RemoteJobEntry> entriesToPut = Lists.newArrayListWithExpectedSize(batch.size());
+			final Set<String> entriesToRemove = Sets.newHashSet();
+			batch.forEach((jobId, entry) -> {
+				if (entry.isDone() && entry.isDeleted()) {
+					entriesToRemove.add(jobId);
+				} else {
+					entriesToPut.add(entry);
+				}
+			});
+			index.write(writer -> {
+				if (!entriesToPut.isEmpty()) {
+					writer.putAll(entriesToPut);
+				}
+				if (!entriesToRemove.isEmpty()) {
+					LOG.trace("Purging job entries {}", entriesToRemove);
+					writer.remove(RemoteJobEntry.class, entriesToRemove);
+				}
+				writer.commit();
+				return null;
+			});
+			
+			// keep state changes that were made while the batch was written
+			batch.forEach((jobId, entry) -> {
+				pendingWrites.remove(jobId, entry);
+				if (entry.isDone()) {
+					liveJobs.remove(jobId, entry);
+				}
+			});
+		}
+	}
+	
 	@Override
 	public void dispose() {
 		if (disposed.compareAndSet(false, true)) {
 			this.cleanUp.cancel();
 			Job.getJobManager().removeJobChangeListener(listener);
+			flusher.shutdownNow();
+			flushSafely();
 		}
 	}
 
@@ -230,7 +355,10 @@ public final class RemoteJobTracker implements IDisposableService {
 	}
 	
 	IProgressMonitor createMonitor(String jobId, IProgressMonitor monitor) {
-		return new RemoteJobProgressMonitor(monitor, percentComplete -> update(jobId, RemoteJobEntry.WITH_COMPLETION_LEVEL, ImmutableMap.of("completionLevel", percentComplete)));
+		return new RemoteJobProgressMonitor(monitor, percentComplete -> update(jobId, 
+				entry -> RemoteJobEntry.from(entry).completionLevel(percentComplete).build(), 
+				RemoteJobEntry.WITH_COMPLETION_LEVEL, 
+				ImmutableMap.of("completionLevel", percentComplete)));
 	}
 	
 	private class RemoteJobChangeAdapter extends JobChangeAdapter {
@@ -265,7 +393,11 @@ public final class RemoteJobTracker implements IDisposableService {
 				final RemoteJob job = (RemoteJob) event.getJob();
 				final String jobId = job.getId();
 				LOG.trace("Running job {}", jobId);
-				update(jobId, RemoteJobEntry.WITH_RUNNING, ImmutableMap.of("state", RemoteJobState.RUNNING.name(), "startDate", System.currentTimeMillis()));
+				final long startDate = System.currentTimeMillis();
+				update(jobId, 
+					entry -> RemoteJobEntry.from(entry).state(RemoteJobState.RUNNING).startDate(new Date(startDate)).build(), 
+					RemoteJobEntry.WITH_RUNNING, 
+					ImmutableMap.of("state", RemoteJobState.RUNNING.name(), "startDate", startDate));
 			}
 		}
 		
@@ -293,13 +425,20 @@ public final class RemoteJobTracker implements IDisposableService {
 					newState = RemoteJobState.FAILED;
 				}
 				
+				final long finishDate = System.currentTimeMillis();
 				ImmutableMap.Builder<String, Object> params = ImmutableMap.builder();
 				if (response != null) {
 					params.put("result", response);
 				}
 				params.put("state", newState.name());
-				params.put("finishDate", System.currentTimeMillis());
-				update(jobId, RemoteJobEntry.WITH_DONE, params.build());
+				params.put("finishDate", finishDate);
+				apply(jobId, 
+					entry -> RemoteJobEntry.from(entry).state(newState).finishDate(new Date(finishDate)).result(response).build(), 
+					RemoteJobEntry.WITH_DONE, 
+					params.build());
+				// final states are written immediately (along with any other pending changes), before anyone is notified about them
+				flushSafely();
+				notifyChanged(jobId);
 			}
 		}
 		
@@ -332,11 +471,13 @@ public final class RemoteJobTracker implements IDisposableService {
 
 			@Override
 			public <T> T get(Class<T> type, String key) throws IOException {
+				flush();
 				return index.read(searcher -> searcher.get(type, key));
 			}
 
 			@Override
 			public <T> Iterable<T> get(Class<T> type, Iterable<String> keys) throws IOException {
+				flush();
 				return index.read(searcher -> searcher.get(type, keys));
 			}
 		};
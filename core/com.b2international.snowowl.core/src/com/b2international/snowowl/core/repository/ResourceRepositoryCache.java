@@ -0,0 +1,262 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.core.repository;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.Maps.newHashMapWithExpectedSize;
+import static com.google.common.collect.Sets.newHashSet;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.b2international.snowowl.core.IDisposableService;
+import com.b2international.snowowl.core.ServiceProvider;
+import com.b2international.snowowl.core.api.SnowowlRuntimeException;
+import com.b2international.snowowl.core.context.ResourceRepositoryRequest;
+import com.b2international.snowowl.core.events.Notifications;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import io.reactivex.disposables.Disposable;
+
+/**
+ * Node-local cache of values derived from the content of the resource repository (resources and their versions), eg. resolved branch paths of
+ * resource URIs or code systems looked up by their URL. Entries are grouped by a namespace and a key, <code>null</code> values are cached as well.
+ * <p>
+ * Values are stored in their serialized JSON form and each lookup returns a new copy, callers are free to modify the returned instances without
+ * affecting the cached value or other callers.
+ * </p>
+ * <p>
+ * All entries are evicted when a {@link RepositoryCommitNotification commit notification} of the resource repository arrives (commits on the local
+ * node also evict entries synchronously via {@link #invalidateAll()}). Entries are never kept longer than
+ * {@value #DEFAULT_EXPIRE_AFTER_WRITE_MINUTES} minutes after being loaded, which bounds how long a missed notification from another node can
+ * leave a stale branch path or resource in use.
+ * </p>
+ *
+ * @since 8.0
+ */
+public final class ResourceRepositoryCache implements IDisposableService {
+
+	public static final long DEFAULT_MAXIMUM_SIZE = 10_000L;
+	public static final long DEFAULT_EXPIRE_AFTER_WRITE_MINUTES = 10L;
+
+	/**
+	 * Namespace of {@link com.b2international.snowowl.core.Resource resources} keyed by their identifier.
+	 */
+	public static final String RESOURCES_BY_ID = "resourcesById";
+
+	/**
+	 * Namespace of {@link com.b2international.snowowl.core.version.Version versions} keyed by the resource URI they were looked up with.
+	 */
+	public static final String VERSIONS_BY_URI = "versionsByUri";
+
+	/**
+	 * Namespace of FHIR code systems keyed by their URL, version and summary mode. The namespace is also evicted when a new version is created in
+	 * a terminology repository.
+	 */
+	public static final String CODE_SYSTEMS_BY_URL = "fhirCodeSystemsByUrl";
+
+	/**
+	 * Zero-size instance for contexts without a registered cache, every lookup calls its loader.
+	 */
+	private static final ResourceRepositoryCache DISABLED = new ResourceRepositoryCache(0L, new ObjectMapper());
+
+	private final boolean enabled;
+	private final ObjectMapper mapper;
+	private final Cache<List<Object>, Optional<CachedValue>> entries;
+	// incremented on each invalidation, values loaded before an invalidation are not stored
+	private final AtomicLong generation = new AtomicLong();
+	private final AtomicBoolean disposed = new AtomicBoolean(false);
+	private Disposable subscription;
+
+	public ResourceRepositoryCache(long maximumSize, ObjectMapper mapper) {
+		checkArgument(maximumSize >= 0, "Maximum size must be greater than or equal to zero");
+		this.enabled = maximumSize > 0;
+		// cached values are only read back by this cache, tolerate derived properties and support the date types of versions
+		this.mapper = mapper.copy()
+				.registerModule(new JavaTimeModule())
+				.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+		this.entries = CacheBuilder.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(DEFAULT_EXPIRE_AFTER_WRITE_MINUTES, TimeUnit.MINUTES)
+				.build();
+	}
+
+	/**
+	 * Returns the resource repository cache of the given context. Lookups in contexts without a registered cache (eg. in unit tests) always
+	 * query the resource repository.
+	 *
+	 * @param context
+	 * @return
+	 */
+	public static ResourceRepositoryCache get(ServiceProvider context) {
+		return context.optionalService(ResourceRepositoryCache.class).orElse(DISABLED);
+	}
+
+	/**
+	 * Registers this cache to receive commit notifications of the resource repository from the given {@link Notifications} stream.
+	 *
+	 * @param notifications
+	 * @return this cache for method chaining
+	 */
+	public ResourceRepositoryCache subscribe(Notifications notifications) {
+		this.subscription = notifications.ofType(RepositoryCommitNotification.class)
+			.filter(notification -> ResourceRepositoryRequest.RESOURCE_REPOSITORY_ID.equals(notification.getRepositoryId()))
+			.subscribe(notification -> invalidateAll());
+		return this;
+	}
+
+	/**
+	 * Returns the cached value for the given key or computes and caches it using the given loader.
+	 *
+	 * @param namespace - the namespace of the key
+	 * @param key - the key of the value
+	 * @param loader - the function that computes the value if it is not cached, may return <code>null</code>
+	 * @return a copy of the cached value or the computed value, may be <code>null</code>
+	 */
+	public <V> V get(String namespace, Object key, Supplier<V> loader) {
+		final List<Object> cacheKey = List.of(namespace, key);
+		final Optional<CachedValue> cached = entries.getIfPresent(cacheKey);
+		if (cached != null) {
+			return cached.map(this::<V>read).orElse(null);
+		}
+
+		final long expectedGeneration = generation.get();
+		final V value = loader.get();
+		put(cacheKey, value, expectedGeneration);
+		return value;
+	}
+
+	/**
+	 * Returns the cached values for the given keys, values not present in the cache are computed with a single call to the given loader.
+	 * Keys that are missing from the map returned by the loader are cached as <code>null</code> values and will be missing from the returned
+	 * map as well.
+	 *
+	 * @param namespace - the namespace of the keys
+	 * @param keys - the keys to return values for
+	 * @param loader - the function that computes the values of the keys that are not cached
+	 * @return a {@link Map} of keys to non-<code>null</code> values, never <code>null</code>
+	 */
+	public <K, V> Map<K, V> getAll(String namespace, Collection<K> keys, Function<Set<K>, Map<K, V>> loader) {
+		final Map<K, V> results = newHashMapWithExpectedSize(keys.size());
+		final Set<K> missingKeys = newHashSet();
+		for (K key : keys) {
+			final Optional<CachedValue> cached = entries.getIfPresent(List.of(namespace, key));
+			if (cached == null) {
+				missingKeys.add(key);
+			} else {
+				cached.ifPresent(value -> results.put(key, read(value)));
+			}
+		}
+
+		if (!missingKeys.isEmpty()) {
+			final long expectedGeneration = generation.get();
+			final Map<K, V> loadedValues = loader.apply(missingKeys);
+			for (K key : missingKeys) {
+				final V value = loadedValues.get(key);
+				put(List.of(namespace, key), value, expectedGeneration);
+				if (value != null) {
+					results.put(key, value);
+				}
+			}
+		}
+
+		return results;
+	}
+
+	private void put(List<Object> cacheKey, Object value, long expectedGeneration) {
+		if (!enabled) {
+			return;
+		}
+		// serialize outside of the lock, the loaded instance itself is returned to the caller and never shared
+		final Optional<CachedValue> cachedValue = Optional.ofNullable(value).map(this::write);
+		synchronized (this) {
+			if (generation.get() == expectedGeneration) {
+				entries.put(cacheKey, cachedValue);
+			}
+		}
+	}
+
+	private CachedValue write(Object value) {
+		try {
+			return new CachedValue(value.getClass(), mapper.writeValueAsBytes(value));
+		} catch (JsonProcessingException e) {
+			throw new SnowowlRuntimeException("Couldn't serialize cached value of type " + value.getClass().getName(), e);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private <V> V read(CachedValue value) {
+		try {
+			return (V) mapper.readValue(value.json, value.type);
+		} catch (IOException e) {
+			throw new SnowowlRuntimeException("Couldn't deserialize cached value of type " + value.type.getName(), e);
+		}
+	}
+
+	/**
+	 * Evicts all entries of the given namespace.
+	 *
+	 * @param namespace - the namespace to evict
+	 */
+	public synchronized void invalidateAll(String namespace) {
+		generation.incrementAndGet();
+		entries.asMap().keySet().removeIf(cacheKey -> namespace.equals(cacheKey.get(0)));
+	}
+
+	public synchronized void invalidateAll() {
+		generation.incrementAndGet();
+		entries.invalidateAll();
+	}
+
+	@Override
+	public void dispose() {
+		if (disposed.compareAndSet(false, true)) {
+			if (subscription != null) {
+				subscription.dispose();
+				subscription = null;
+			}
+			invalidateAll();
+		}
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return disposed.get();
+	}
+
+	private static final class CachedValue {
+
+		private final Class<?> type;
+		private final byte[] json;
+
+		private CachedValue(Class<?> type, byte[] json) {
+			this.type = type;
+			this.json = json;
+		}
+
+	}
+
+}
@@ -67,6 +67,7 @@ public final class ConceptSearchRequest extends SearchResourceRequest<ServicePro
 				.put(ConceptSearchRequestEvaluator.OptionKey.ID, componentIds())
 				.put(ConceptSearchRequestEvaluator.OptionKey.AFTER, searchAfter())
 				.put(ConceptSearchRequestEvaluator.OptionKey.LIMIT, limit)
+				.put(ConceptSearchRequestEvaluator.OptionKey.TRACK_TOTAL_HITS, trackTotalHits())
 				.put(ConceptSearchRequestEvaluator.OptionKey.LOCALES, locales())
 				.put(ConceptSearchRequestEvaluator.OptionKey.FIELDS, fields())
 				.put(ConceptSearchRequestEvaluator.OptionKey.EXPAND, expand())
@@ -112,16 +113,20 @@ public final class ConceptSearchRequest extends SearchResourceRequest<ServicePro
 		
 		// calculate grand total
 		int total = 0;
+		boolean totalLowerBound = false;
 		for (Concepts conceptsToAdd : concepts) {
 			total += conceptsToAdd.getTotal();
+			totalLowerBound |= conceptsToAdd.isTotalLowerBound();
 		}
 		
-		return new Concepts(
+		final Concepts result = new Concepts(
 			concepts.stream().flatMap(Concepts::stream).limit(limit).collect(Collectors.toList()), // TODO add manual sorting here if multiple resources have been fetched 
 			null, /* not supported across codesystems */
 			limit, 
 			total
 		);
+		result.setTotalLowerBound(totalLowerBound);
+		return result;
 	}
 
 }
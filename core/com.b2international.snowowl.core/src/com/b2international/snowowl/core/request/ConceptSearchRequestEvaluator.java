@@ -76,6 +76,11 @@ public interface ConceptSearchRequestEvaluator {
 		 */
 		LIMIT,
 		
+		/**
+		 * Number of matches to count accurately when computing the total.
+		 */
+		TRACK_TOTAL_HITS,
+		
 		/**
 		 * Specific fields to load when requested content (consumers of the API must be familiar with the underlying schema)
 		 */
@@ -29,6 +29,7 @@ import com.b2international.index.revision.Revision;
 import com.b2international.index.revision.RevisionSearcher;
 import com.b2international.snowowl.core.ServiceProvider;
 import com.b2international.snowowl.core.domain.CollectionResource;
+import com.b2international.snowowl.core.domain.PageableCollectionResource;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 
@@ -86,9 +87,14 @@ public abstract class SearchIndexResourceRequest<C extends ServiceProvider, B, D
 				.limit(limit())
 				.sortBy(querySortBy(context))
 				.withScores(trackScores())
+				.trackTotalHitsUpTo(trackTotalHits())
 				.build());
 		
-		return toCollectionResource(context, hits);
+		final B result = toCollectionResource(context, hits);
+		if (result instanceof PageableCollectionResource<?>) {
+			((PageableCollectionResource<?>) result).setTotalLowerBound(hits.isTotalLowerBound());
+		}
+		return result;
 	}
 	
 	/**
@@ -31,6 +31,7 @@ import com.b2international.commons.options.OptionsBuilder;
 import com.b2international.index.ID;
 import com.b2international.index.query.Expression;
 import com.b2international.index.query.Expressions.ExpressionBuilder;
+import com.b2international.index.query.Query;
 import com.b2international.index.query.SortBy;
 import com.b2international.index.query.SortBy.Builder;
 import com.b2international.index.query.SortBy.Order;
@@ -215,6 +216,8 @@ public abstract class SearchResourceRequest<C extends ServiceProvider, B> extend
 	
 	@Min(0)
 	private int limit;
+	
+	private int trackTotalHits = Query.TRACK_TOTAL_HITS_ACCURATE;
 
 	@NotNull
 	private Options options;
@@ -257,6 +260,15 @@ public abstract class SearchResourceRequest<C extends ServiceProvider, B> extend
 		return limit;
 	}
 	
+	void setTrackTotalHits(int trackTotalHits) {
+		this.trackTotalHits = trackTotalHits;
+	}
+	
+	@JsonProperty
+	protected final int trackTotalHits() {
+		return trackTotalHits;
+	}
+	
 	@JsonProperty
 	protected final Options options() {
 		return options;
@@ -21,6 +21,7 @@ import java.util.Set;
 import com.b2international.commons.collections.Collections3;
 import com.b2international.commons.exceptions.BadRequestException;
 import com.b2international.commons.options.OptionsBuilder;
+import com.b2international.index.query.Query;
 import com.b2international.snowowl.core.ServiceProvider;
 import com.b2international.snowowl.core.domain.PageableCollectionResource;
 import com.b2international.snowowl.core.request.SearchResourceRequest.OptionKey;
@@ -39,6 +40,7 @@ public abstract class SearchResourceRequestBuilder<B extends SearchResourceReque
 	private String searchAfter;
 	
 	private int limit = 50;
+	private Integer trackTotalHits;
 	
 	private final OptionsBuilder optionsBuilder = OptionsBuilder.newBuilder();
 	
@@ -68,6 +70,35 @@ public abstract class SearchResourceRequestBuilder<B extends SearchResourceReque
 		return getSelf();
 	}
 	
+	/**
+	 * Sets the number of matches to count accurately when computing the total of the result set. Counting every match is often the most
+	 * expensive part of a broad query, if the cap is reached the returned total is a lower bound of the actual number of matches. 
+	 * 
+	 * @param trackTotalHits - the maximum number of matches to count, {@link Query#TRACK_TOTAL_HITS_DISABLED} to skip counting or
+	 *                       <code>null</code> to count all matches (the default)
+	 * @return this builder instance
+	 * @throws BadRequestException - if the given value is less than {@link Query#TRACK_TOTAL_HITS_DISABLED}
+	 */
+	public final B setTrackTotalHits(Integer trackTotalHits) {
+		if (trackTotalHits != null && trackTotalHits < Query.TRACK_TOTAL_HITS_DISABLED) {
+			throw new BadRequestException("Track total hits should be '%s' or greater, was '%s'.", Query.TRACK_TOTAL_HITS_DISABLED, trackTotalHits);
+		}
+		this.trackTotalHits = trackTotalHits;
+		return getSelf();
+	}
+	
+	final String searchAfter() {
+		return searchAfter;
+	}
+	
+	final int limit() {
+		return limit;
+	}
+	
+	final Integer trackTotalHits() {
+		return trackTotalHits;
+	}
+	
 	/**
 	 * Filter by resource identifiers.
 	 * @param id - a single identifier to match
@@ -170,6 +201,7 @@ public abstract class SearchResourceRequestBuilder<B extends SearchResourceReque
 		req.setComponentIds(componentIds);
 		req.setSearchAfter(searchAfter);
 		req.setLimit(Math.min(limit, MAX_LIMIT));
+		req.setTrackTotalHits(trackTotalHits == null ? Query.TRACK_TOTAL_HITS_ACCURATE : trackTotalHits);
 		req.setOptions(optionsBuilder.build());
 		return req;
 	}
@@ -22,6 +22,13 @@ import com.google.common.base.Strings;
 import com.google.common.collect.AbstractIterator;
 
 /**
+ * Iterates over all matches of a search request page by page, using <code>searchAfter</code> based paging.
+ * <p>
+ * The iterator uses the {@link SearchResourceRequestBuilder#setTrackTotalHits(Integer) total hit tracking} mode of the builder, all matches
+ * are counted by default. Callers that do not need the total can disable counting on the builder to make each page cheaper; without an
+ * accurate total the iteration ends with the first empty page or the first page without a <code>searchAfter</code> value. Iteration starts
+ * from the <code>searchAfter</code> value the builder has been configured with, if any.
+ * 
  * @since 6.4
  * 
  * @param <B> the search resource request builder type; an instance of this will be configured for paging
@@ -34,10 +41,15 @@ public final class SearchResourceRequestIterator<
 	private final B searchRequestBuilder;
 	private final Function<B, R> executeHandler;
 
+	private final int pageSize;
+	private final int maxItems;
+	
 	private boolean firstRun = true;
+	private boolean lastPage = false;
 	private String searchAfter;
 	private int visited;
-	private int total;
+	// only set if all matches are counted
+	private int total = Integer.MAX_VALUE;
 	
 	/**
 	 * @param searchRequestBuilder
@@ -47,36 +59,54 @@ public final class SearchResourceRequestIterator<
 	 *            through a request context or an event bus, and returns the results
 	 */
 	public SearchResourceRequestIterator(B searchRequestBuilder, Function<B, R> executeHandler) {
+		this(searchRequestBuilder, executeHandler, Integer.MAX_VALUE);
+	}
+	
+	/**
+	 * @param searchRequestBuilder
+	 *            the pre-configured request builder (should have a batch limit set)
+	 * @param executeHandler
+	 *            a function that builds an appropriate request, executes it either
+	 *            through a request context or an event bus, and returns the results
+	 * @param maxItems
+	 *            the maximum number of items to return over all pages; the limit of the last page is reduced so that its
+	 *            <code>searchAfter</code> value points right after the last returned item
+	 */
+	public SearchResourceRequestIterator(B searchRequestBuilder, Function<B, R> executeHandler, int maxItems) {
 		this.searchRequestBuilder = searchRequestBuilder;
 		this.executeHandler = executeHandler;
+		this.pageSize = searchRequestBuilder.limit();
+		this.maxItems = maxItems;
+		this.searchAfter = searchRequestBuilder.searchAfter();
 	}
 	
 	@Override
 	protected R computeNext() {
 		// If it is not the first time we run the request, and all items have already been collected, exit
-		if (!firstRun && visited >= total) {
+		if (!firstRun && (lastPage || visited >= maxItems || visited >= total)) {
 			return endOfData();
 		}
 		
 		// Execute the request with the last recorded searchAfter value (can be null on first run) 
 		searchRequestBuilder.setSearchAfter(searchAfter);
+		searchRequestBuilder.setLimit(Math.min(pageSize, maxItems - visited));
 		R hits = executeHandler.apply(searchRequestBuilder);
 
-		// Initialize total counter on first run
+		// Initialize total counter on first run, a capped or skipped total can not tell when to stop
 		if (firstRun) {
 			firstRun = false;
-			total = hits.getTotal();
-			
-			if (total < 1) {
-				return endOfData();
+			if (!hits.isTotalLowerBound()) {
+				total = hits.getTotal();
 			}
 		}
+		
+		if (hits.getItems().isEmpty()) {
+			return endOfData();
+		}
 
-		// Update searchAfter and visited counter
+		// Update searchAfter and visited counter, a page without searchAfter value is the last one
 		searchAfter = hits.getSearchAfter();
-		if (Strings.isNullOrEmpty(searchAfter)) {
-			throw new IllegalStateException("Cannot proceed to the next page if searchAfter returned from the current page is null or empty.");
-		}
+		lastPage = Strings.isNullOrEmpty(searchAfter);
 		visited += hits.getItems().size();
 		
 		return hits;
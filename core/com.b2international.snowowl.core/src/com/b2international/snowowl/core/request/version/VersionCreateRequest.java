@@ -48,6 +48,7 @@ import com.b2international.snowowl.core.internal.locks.DatastoreLockContext;
 import com.b2international.snowowl.core.internal.locks.DatastoreLockTarget;
 import com.b2international.snowowl.core.locks.IOperationLockManager;
 import com.b2international.snowowl.core.repository.RepositoryRequests;
+import com.b2international.snowowl.core.repository.ResourceRepositoryCache;
 import com.b2international.snowowl.core.request.*;
 import com.b2international.snowowl.core.request.SearchResourceRequest.SortField;
 import com.b2international.snowowl.core.terminology.TerminologyRegistry;
@@ -304,6 +305,8 @@ public final class VersionCreateRequest implements Request<RepositoryContext, Bo
 			.build(codeSystem.getToolingId())
 			.execute(context.service(IEventBus.class))
 			.getSync(1, TimeUnit.MINUTES);
+		// code systems resolved by the FHIR API before the new version branch existed are no longer valid
+		ResourceRepositoryCache.get(context).invalidateAll(ResourceRepositoryCache.CODE_SYSTEMS_BY_URL);
 		monitor.worked(1);
 	}
 	
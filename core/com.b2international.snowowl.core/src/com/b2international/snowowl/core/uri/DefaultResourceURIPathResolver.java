@@ -18,6 +18,7 @@ package com.b2international.snowowl.core.uri;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -28,11 +29,12 @@ import com.b2international.snowowl.core.ResourceURI;
 import com.b2international.snowowl.core.ServiceProvider;
 import com.b2international.snowowl.core.TerminologyResource;
 import com.b2international.snowowl.core.branch.Branch;
+import com.b2international.snowowl.core.repository.ResourceRepositoryCache;
 import com.b2international.snowowl.core.request.ResourceRequests;
 import com.b2international.snowowl.core.request.SearchResourceRequest;
 import com.b2international.snowowl.core.request.version.VersionSearchRequestBuilder;
+import com.b2international.snowowl.core.version.Version;
 import com.b2international.snowowl.core.version.VersionDocument;
-import com.b2international.snowowl.core.version.Versions;
 
 /**
  * @since 7.12
@@ -51,13 +53,15 @@ public final class DefaultResourceURIPathResolver implements ResourceURIPathReso
 			return Collections.emptyList();
 		}
 		final Set<String> resourceIds = codeSystemURIs.stream().map(ResourceURI::getResourceId).collect(Collectors.toSet());
-		final Map<String, Resource> resourcesById = ResourceRequests.prepareSearch()
-				.filterByIds(resourceIds)
-				.buildAsync()
-				.getRequest()
-				.execute(context)
-				.stream()
-				.collect(Collectors.toMap(Resource::getId, t -> t));
+		final Map<String, Resource> resourcesById = ResourceRepositoryCache.get(context).getAll(ResourceRepositoryCache.RESOURCES_BY_ID, resourceIds, missingResourceIds -> {
+			return ResourceRequests.prepareSearch()
+					.filterByIds(missingResourceIds)
+					.buildAsync()
+					.getRequest()
+					.execute(context)
+					.stream()
+					.collect(Collectors.toMap(Resource::getId, t -> t));
+		});
 		
 		return codeSystemURIs.stream().map(uri -> resolve(context, uri, resourcesById.get(uri.getResourceId()))).collect(Collectors.toList());
 	}
@@ -79,24 +83,29 @@ public final class DefaultResourceURIPathResolver implements ResourceURIPathReso
 				return new PathWithVersion(absoluteBranchPath);
 			}
 				
-			VersionSearchRequestBuilder versionSearch = ResourceRequests.prepareSearchVersion()
-				.one()
-				.filterByResource(terminologyResource.getResourceURI());
-			
-			if (uriToResolve.isLatest()) {
-				// fetch the latest resource version if LATEST is specified in the URI
-				versionSearch.sortBy(SearchResourceRequest.SortField.descending(VersionDocument.Fields.EFFECTIVE_TIME));
-			} else {
-				// try to fetch the path as exact version if not the special LATEST is specified in the URI
-				versionSearch.filterByVersionId(uriToResolve.getPath());
-			}
-			
 			// determine the final branch path, if based on the version search we find a version, then use that, otherwise use the defined path as relative branch of the code system working branch
-			Versions versions = versionSearch.buildAsync()
-				.getRequest()
-				.execute(context);
+			final ResourceURI versionKey = terminologyResource.getResourceURI().withPath(uriToResolve.getPath());
+			final Version version = ResourceRepositoryCache.get(context).get(ResourceRepositoryCache.VERSIONS_BY_URI, versionKey, () -> {
+				VersionSearchRequestBuilder versionSearch = ResourceRequests.prepareSearchVersion()
+					.one()
+					.filterByResource(terminologyResource.getResourceURI());
+				
+				if (uriToResolve.isLatest()) {
+					// fetch the latest resource version if LATEST is specified in the URI
+					versionSearch.sortBy(SearchResourceRequest.SortField.descending(VersionDocument.Fields.EFFECTIVE_TIME));
+				} else {
+					// try to fetch the path as exact version if not the special LATEST is specified in the URI
+					versionSearch.filterByVersionId(uriToResolve.getPath());
+				}
+				
+				return versionSearch.buildAsync()
+					.getRequest()
+					.execute(context)
+					.first()
+					.orElse(null);
+			});
 			
-			return versions.first()
+			return Optional.ofNullable(version)
 				.map(v -> {
 					final String versionBranchPath = v.getBranchPath() + uriToResolve.getTimestampPart();
 					final ResourceURI versionResourceURI = v.getVersionResourceURI().withTimestampPart(uriToResolve.getTimestampPart());
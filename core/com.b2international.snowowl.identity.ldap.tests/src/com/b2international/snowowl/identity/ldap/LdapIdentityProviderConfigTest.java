@@ -0,0 +1,88 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.identity.ldap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.snowowl.core.identity.IdentityProviderConfig;
+import com.b2international.snowowl.core.repository.JsonSupport;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.JsonTypeInfo.Id;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * @since 8.0
+ */
+public class LdapIdentityProviderConfigTest {
+
+	// Type IDs are resolved via the class path scanner, which is not available here
+	@JsonTypeInfo(use = Id.NONE)
+	private interface NoTypeInfo {
+	}
+
+	private ObjectMapper mapper;
+
+	@Before
+	public void setup() {
+		mapper = JsonSupport.getDefaultObjectMapper().copy();
+		mapper.addMixIn(IdentityProviderConfig.class, NoTypeInfo.class);
+	}
+
+	@Test
+	public void defaults() throws Exception {
+		final LdapIdentityProviderConfig config = mapper.readValue("{}", LdapIdentityProviderConfig.class);
+		assertFalse(config.isConnectionPoolEnabled());
+		assertEquals(60L, config.getRoleCacheTtl());
+	}
+
+	@Test
+	public void bindPoolAndRoleCacheTtlSeparately() throws Exception {
+		final LdapIdentityProviderConfig config = mapper.readValue("{\"usePool\": true, \"roleCacheTtl\": 30}", LdapIdentityProviderConfig.class);
+		assertTrue(config.isConnectionPoolEnabled());
+		assertEquals(30L, config.getRoleCacheTtl());
+
+		final LdapIdentityProviderConfig disabledPool = mapper.readValue("{\"usePool\": false, \"roleCacheTtl\": 0}", LdapIdentityProviderConfig.class);
+		assertFalse(disabledPool.isConnectionPoolEnabled());
+		assertEquals(0L, disabledPool.getRoleCacheTtl());
+	}
+
+	@Test
+	public void roundTrip() throws Exception {
+		final LdapIdentityProviderConfig config = new LdapIdentityProviderConfig();
+		config.setUri("ldap://localhost:10389");
+		config.setConnectionPoolEnabled(true);
+		config.setRoleCacheTtl(120L);
+
+		final String json = mapper.writeValueAsString(config);
+		final Map<String, Object> properties = mapper.readValue(json, new TypeReference<Map<String, Object>>() {});
+		assertEquals(true, properties.get("usePool"));
+		assertEquals(120, properties.get("roleCacheTtl"));
+
+		final LdapIdentityProviderConfig deserialized = mapper.readValue(json, LdapIdentityProviderConfig.class);
+		assertEquals(config.getUri(), deserialized.getUri());
+		assertTrue(deserialized.isConnectionPoolEnabled());
+		assertEquals(120L, deserialized.getRoleCacheTtl());
+	}
+
+}
@@ -14,6 +14,7 @@ import javax.naming.ldap.InitialLdapContext;
 import com.b2international.snowowl.core.ApplicationContext;
 import com.b2international.snowowl.core.console.Command;
 import com.b2international.snowowl.core.console.CommandLineStream;
+import com.b2international.snowowl.core.identity.CachingIdentityProvider;
 import com.b2international.snowowl.core.identity.IdentityProvider;
 import com.b2international.snowowl.core.identity.MultiIdentityProvider;
 import com.b2international.snowowl.core.plugin.Component;
@@ -122,6 +123,9 @@ public class LdapCommand extends Command {
 			try {
 
 				final InitialLdapContext context = ldapProvider.createLdapContext();
+				// list the current roles and make sure user searches and authentication see them as well
+				ldapProvider.invalidateRoles();
+				getCachingIdentityProvider().ifPresent(CachingIdentityProvider::invalidateAll);
 
 				ldapProvider.getAllLdapRoles(context).forEach(role -> {
 
@@ -175,6 +179,9 @@ public class LdapCommand extends Command {
 			try {
 
 				final InitialLdapContext context = ldapProvider.createLdapContext();
+				// list the current roles and make sure user searches and authentication see them as well
+				ldapProvider.invalidateRoles();
+				getCachingIdentityProvider().ifPresent(cachingProvider -> cachingProvider.invalidate(username));
 
 				final String userDN = ldapProvider.findUserDN(context, username);
 
@@ -194,9 +201,21 @@ public class LdapCommand extends Command {
 
 	}
 
+	private static Optional<CachingIdentityProvider> getCachingIdentityProvider() {
+		final IdentityProvider provider = ApplicationContext.getServiceForClass(IdentityProvider.class);
+		if (provider instanceof CachingIdentityProvider) {
+			return Optional.of((CachingIdentityProvider) provider);
+		} else {
+			return Optional.empty();
+		}
+	}
+
 	private static IdentityProvider getIdentityProvider() {
 
-		final IdentityProvider provider = ApplicationContext.getServiceForClass(IdentityProvider.class);
+		IdentityProvider provider = ApplicationContext.getServiceForClass(IdentityProvider.class);
+		if (provider instanceof CachingIdentityProvider) {
+			provider = ((CachingIdentityProvider) provider).getDelegate();
+		}
 
 		if (provider instanceof LdapIdentityProvider) {
 			return provider;
@@ -24,6 +24,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -49,6 +50,9 @@ import com.b2international.snowowl.core.identity.User;
 import com.b2international.snowowl.core.identity.Users;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
@@ -113,10 +117,18 @@ final class LdapIdentityProvider implements IdentityProvider {
 	private static final String ATTRIBUTE_DN = "dn";
 	private static final String ATTR_CN = "cn";
 	
+	private static final String ALL_ROLES_KEY = "*";
+	
 	private final LdapIdentityProviderConfig conf;
+	// role search results are the same for all users, keep them for a short amount of time
+	private final Cache<String, Collection<LdapRole>> roles;
 	
 	public LdapIdentityProvider(LdapIdentityProviderConfig conf) {
 		this.conf = conf;
+		this.roles = CacheBuilder.newBuilder()
+				.maximumSize(1L)
+				.expireAfterWrite(Math.max(0L, conf.getRoleCacheTtl()), TimeUnit.SECONDS)
+				.build();
 		final Map<String, String> options = new TreeMap<>();
 		options.put("bindDn", conf.getBindDn());
 		options.put("baseDn", conf.getBaseDn());
@@ -212,7 +224,7 @@ final class LdapIdentityProvider implements IdentityProvider {
 
 		try {
 			context = createLdapContext();
-			Collection<LdapRole> ldapRoles = getAllLdapRoles(context);
+			Collection<LdapRole> ldapRoles = getCachedLdapRoles(context);
 			
 			searchResultEnumeration = context.search(conf.getBaseDn(), conf.getUserFilter(), createSearchControls(ATTRIBUTE_DN, uidProp));
 			for (final SearchResult searchResult : ImmutableList.copyOf(Iterators.forEnumeration(searchResultEnumeration))) {
@@ -245,6 +257,27 @@ final class LdapIdentityProvider implements IdentityProvider {
 		}
 	}
 	
+	private Collection<LdapRole> getCachedLdapRoles(InitialLdapContext context) throws NamingException {
+		if (conf.getRoleCacheTtl() <= 0L) {
+			return getAllLdapRoles(context);
+		}
+		
+		try {
+			return roles.get(ALL_ROLES_KEY, () -> getAllLdapRoles(context));
+		} catch (ExecutionException e) {
+			Throwables.throwIfInstanceOf(e.getCause(), NamingException.class);
+			Throwables.throwIfUnchecked(e.getCause());
+			throw new SnowowlRuntimeException(e.getCause());
+		}
+	}
+	
+	/**
+	 * Evicts cached role search results, the next user search reads roles from the LDAP directory again.
+	 */
+	void invalidateRoles() {
+		roles.invalidateAll();
+	}
+	
 	protected Collection<LdapRole> getAllLdapRoles(InitialLdapContext context) throws NamingException {
 		NamingEnumeration<SearchResult> enumeration = null;
 		try {
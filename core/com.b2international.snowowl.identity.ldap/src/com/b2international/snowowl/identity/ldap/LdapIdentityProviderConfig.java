@@ -47,6 +47,9 @@ public class LdapIdentityProviderConfig implements IdentityProviderConfig {
 	
 	private boolean connectionPoolEnabled = false;
 	
+	// the number of seconds role search results are cached for, 0 disables caching
+	private long roleCacheTtl = 60L;
+	
 	public String getBaseDn() {
 		return baseDn;
 	}
@@ -87,6 +90,16 @@ public class LdapIdentityProviderConfig implements IdentityProviderConfig {
 		this.userIdProperty = userIdProperty;
 	}
 	
+	@JsonProperty("roleCacheTtl")
+	public long getRoleCacheTtl() {
+		return roleCacheTtl;
+	}
+	
+	@JsonProperty("roleCacheTtl")
+	public void setRoleCacheTtl(long roleCacheTtl) {
+		this.roleCacheTtl = roleCacheTtl;
+	}
+	
 	@JsonProperty("usePool")
 	public boolean isConnectionPoolEnabled() {
 		return connectionPoolEnabled;
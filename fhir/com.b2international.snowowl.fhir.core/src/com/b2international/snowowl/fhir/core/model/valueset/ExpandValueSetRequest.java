@@ -38,7 +38,7 @@ import com.google.common.collect.ImmutableList;
  * @since 6.9
  */
 @JsonDeserialize(builder = ExpandValueSetRequest.Builder.class)
-@JsonPropertyOrder({"url", "valueSet", "valueSetVersion", "context", "contextDirection", "filter", "date", "offset", "count", "includeDesignations", "designation", "includeDefinition", "activeOnly", "excludeNested", 
+@JsonPropertyOrder({"url", "valueSet", "valueSetVersion", "context", "contextDirection", "filter", "date", "offset", "count", "after", "includeDesignations", "designation", "includeDefinition", "activeOnly", "excludeNested", 
 	"excludeNotForUI", "excludePostCoordinated", "displayLanguage", "excludeSystem", "systemVersion", "checkSystemVersion", "forceSystemVersion" })
 public class ExpandValueSetRequest {
 	
@@ -67,6 +67,12 @@ public class ExpandValueSetRequest {
 	
 	private final Integer count;
 	
+	/*
+	 * Non-standard paging parameter; the cursor returned in the 'next' expansion parameter of the previous page.
+	 * Takes precedence over offset when both are specified.
+	 */
+	private final String after;
+	
 	private final Boolean includeDesignations;
 	
 	/*
@@ -106,6 +112,7 @@ public class ExpandValueSetRequest {
 		Date date,
 		Integer offset,
 		Integer count,
+		String after,
 		Boolean includeDesignations,
 		Collection<String> designation,
 		Boolean includeDefinition,
@@ -128,6 +135,7 @@ public class ExpandValueSetRequest {
 		this.date = date;
 		this.offset = offset;
 		this.count = count;
+		this.after = after;
 		this.includeDesignations = includeDesignations;
 		this.designation = designation;
 		this.includeDefinition = includeDefinition;
@@ -177,6 +185,10 @@ public class ExpandValueSetRequest {
 	public Integer getCount() {
 		return count;
 	}
+	
+	public String getAfter() {
+		return after;
+	}
 
 	public Boolean getIncludeDesignations() {
 		return includeDesignations;
@@ -242,6 +254,7 @@ public class ExpandValueSetRequest {
 		private Date date;
 		private Integer offset;
 		private Integer count;
+		private String after;
 		private Boolean includeDesignations;
 		private ImmutableList.Builder<String> designations = ImmutableList.builder();
 		private Boolean includeDefinition;
@@ -316,6 +329,11 @@ public class ExpandValueSetRequest {
 			return this;
 		}
 		
+		public Builder after(final String after) {
+			this.after = after;
+			return this;
+		}
+		
 		public Builder includeDesignations(final Boolean includeDesignations) {
 			this.includeDesignations = includeDesignations;
 			return this;
@@ -389,7 +407,7 @@ public class ExpandValueSetRequest {
 		
 		@Override
 		protected ExpandValueSetRequest doBuild() {
-			return new ExpandValueSetRequest(url, valueSet, valueSetVersion, context, contextDirection, filter, date, offset, count, includeDesignations, designations.build(),
+			return new ExpandValueSetRequest(url, valueSet, valueSetVersion, context, contextDirection, filter, date, offset, count, after, includeDesignations, designations.build(),
 					includeDefinition, activeOnly, excludeNested, excludeNotForUI, excludePostCoordinated, displayLanguage, excludeSystem, systemVersion, checkSystemVersion, forceSystemVersion);
 		}
 
@@ -16,6 +16,7 @@
 package com.b2international.snowowl.fhir.core.request.codesystem;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import com.b2international.snowowl.core.ServiceProvider;
@@ -23,6 +24,7 @@ import com.b2international.snowowl.core.domain.Concept;
 import com.b2international.snowowl.fhir.core.model.Designation;
 import com.b2international.snowowl.fhir.core.model.codesystem.CodeSystem;
 import com.b2international.snowowl.fhir.core.model.codesystem.LookupRequest;
+import com.b2international.snowowl.fhir.core.model.codesystem.LookupResult;
 import com.b2international.snowowl.fhir.core.model.codesystem.Property;
 import com.b2international.snowowl.fhir.core.model.codesystem.SupportedCodeSystemRequestProperties;
 
@@ -34,6 +36,21 @@ public interface FhirCodeSystemLookupConverter {
 	FhirCodeSystemLookupConverter DEFAULT = new FhirCodeSystemLookupConverter() {
 	};
 
+	/**
+	 * Implementers may answer the entire lookup request from a local representation of the code system's content without running a concept search.
+	 * The default implementation returns an empty {@link Optional}, in which case the concept is loaded via the Concept Search API and converted
+	 * with the other methods of this converter.
+	 * 
+	 * @param context
+	 * @param codeSystem
+	 * @param request
+	 * @param acceptLanguage
+	 * @return the lookup result or an empty {@link Optional} if the request cannot be answered this way
+	 */
+	default Optional<LookupResult> lookup(ServiceProvider context, CodeSystem codeSystem, LookupRequest request, String acceptLanguage) {
+		return Optional.empty();
+	}
+
 	/**
 	 * Implementers may need to load additional data from the underlying CodeSystem's tooling repository to offer the best possible lookup result and
 	 * it can be done by requested expansion of additional data via Snow Owl's Expand API. This method by default does not request load of any
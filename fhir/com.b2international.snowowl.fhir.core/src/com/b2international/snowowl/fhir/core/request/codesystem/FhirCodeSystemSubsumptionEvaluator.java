@@ -0,0 +1,53 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.fhir.core.request.codesystem;
+
+import com.b2international.snowowl.core.ServiceProvider;
+import com.b2international.snowowl.core.codesystem.CodeSystemRequests;
+import com.b2international.snowowl.fhir.core.model.codesystem.CodeSystem;
+
+/**
+ * Evaluates the subsumption relationship of two codes for the <code>$subsumes</code> operation.
+ * 
+ * @since 8.0
+ */
+public interface FhirCodeSystemSubsumptionEvaluator {
+
+	FhirCodeSystemSubsumptionEvaluator DEFAULT = new FhirCodeSystemSubsumptionEvaluator() {
+	};
+
+	/**
+	 * Returns whether the given sub type is subsumed by the given super type in the code system. The default implementation runs a Concept Search
+	 * API request with an ancestor filter, implementers may answer the question from a more efficient representation of their hierarchy.
+	 * 
+	 * @param context
+	 * @param codeSystem
+	 * @param subType
+	 * @param superType
+	 * @return <code>true</code> if the sub type is a (direct or indirect) descendant of the super type, <code>false</code> otherwise
+	 */
+	default boolean isSubsumedBy(ServiceProvider context, CodeSystem codeSystem, String subType, String superType) {
+		return CodeSystemRequests.prepareSearchConcepts()
+			.setLimit(0)
+			.filterByCodeSystemUri(codeSystem.getResourceURI())
+			.filterById(subType)
+			.filterByAncestor(superType)
+			.buildAsync()
+			.execute(context)
+			.getTotal() > 0;
+	}
+
+}
@@ -16,6 +16,7 @@
 package com.b2international.snowowl.fhir.core.request.codesystem;
 
 import java.util.Arrays;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -74,6 +75,11 @@ final class FhirLookupRequest extends FhirRequest<LookupResult> {
 				.optionalService(FhirCodeSystemLookupConverter.class)
 				.orElse(FhirCodeSystemLookupConverter.DEFAULT);
 		
+		final Optional<LookupResult> result = converter.lookup(context, codeSystem, request, acceptLanguage);
+		if (result.isPresent()) {
+			return result.get();
+		}
+		
 		final String conceptExpand = converter.configureConceptExpand(request);
 		
 		Concept concept = CodeSystemRequests.prepareSearchConcepts()
@@ -15,10 +15,14 @@
  */
 package com.b2international.snowowl.fhir.core.request.codesystem;
 
+import java.util.List;
+import java.util.Objects;
+
 import com.b2international.commons.CompareUtils;
 import com.b2international.commons.exceptions.NotFoundException;
 import com.b2international.snowowl.core.ServiceProvider;
 import com.b2international.snowowl.core.events.Request;
+import com.b2international.snowowl.core.repository.ResourceRepositoryCache;
 import com.b2international.snowowl.fhir.core.model.ResourceResponseEntry;
 import com.b2international.snowowl.fhir.core.model.codesystem.CodeSystem;
 import com.b2international.snowowl.fhir.core.model.dt.Code;
@@ -44,12 +48,21 @@ public abstract class FhirRequest<R> implements Request<ServiceProvider, R> {
 	
 	@Override
 	public final R execute(ServiceProvider context) {
-		CodeSystem codeSystem = FhirRequests
+		final String summary = configureSummary();
+		final CodeSystem codeSystem = ResourceRepositoryCache.get(context).get(ResourceRepositoryCache.CODE_SYSTEMS_BY_URL, List.of(Objects.toString(system), Objects.toString(version), Objects.toString(summary)), () -> findCodeSystem(context, summary));
+		if (codeSystem == null) {
+			throw new NotFoundException("CodeSystem", system);
+		}
+		return doExecute(context, codeSystem);
+	}
+	
+	private CodeSystem findCodeSystem(ServiceProvider context, String summary) {
+		return FhirRequests
 				.codeSystems().prepareSearch()
 				.one()
 				.filterByUrl(system)
 				.filterByVersion(version)
-				.setSummary(configureSummary())
+				.setSummary(summary)
 				.buildAsync()
 				.getRequest()
 				.execute(context)
@@ -63,7 +76,7 @@ public abstract class FhirRequest<R> implements Request<ServiceProvider, R> {
 						.one()
 						.filterById(system)
 						.filterByVersion(version)
-						.setSummary(configureSummary())
+						.setSummary(summary)
 						.buildAsync()
 						.getRequest()
 						.execute(context)
@@ -72,9 +85,7 @@ public abstract class FhirRequest<R> implements Request<ServiceProvider, R> {
 						.map(ResourceResponseEntry::getResponseResource)
 						.map(CodeSystem.class::cast);
 				})
-				.orElseThrow(() -> new NotFoundException("CodeSystem", system));
-		
-		return doExecute(context, codeSystem);
+				.orElse(null);
 	}
 	
 	protected String configureSummary() {
@@ -20,8 +20,8 @@ import java.util.Objects;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 
+import com.b2international.snowowl.core.RepositoryManager;
 import com.b2international.snowowl.core.ServiceProvider;
-import com.b2international.snowowl.core.codesystem.CodeSystemRequests;
 import com.b2international.snowowl.fhir.core.model.codesystem.CodeSystem;
 import com.b2international.snowowl.fhir.core.model.codesystem.SubsumptionRequest;
 import com.b2international.snowowl.fhir.core.model.codesystem.SubsumptionResult;
@@ -55,26 +55,19 @@ final class FhirSubsumesRequest extends FhirRequest<SubsumptionResult> {
 		final String codeA = request.getCodeA() != null ? request.getCodeA() : request.getCodingA().getCodeValue();
 		final String codeB = request.getCodeB() != null ? request.getCodeB() : request.getCodingB().getCodeValue();
 		
+		final FhirCodeSystemSubsumptionEvaluator evaluator = context.service(RepositoryManager.class).get(codeSystem.getToolingId())
+				.optionalService(FhirCodeSystemSubsumptionEvaluator.class)
+				.orElse(FhirCodeSystemSubsumptionEvaluator.DEFAULT);
+		
 		if (Objects.equals(codeA, codeB)) {
 			return SubsumptionResult.equivalent();
-		} else if (isSubsumedBy(context, codeSystem, codeA, codeB)) {
+		} else if (evaluator.isSubsumedBy(context, codeSystem, codeA, codeB)) {
 			return SubsumptionResult.subsumedBy(); 
-		} else if (isSubsumedBy(context, codeSystem, codeB, codeA)) {
+		} else if (evaluator.isSubsumedBy(context, codeSystem, codeB, codeA)) {
 			return SubsumptionResult.subsumes();	
 		} else {
 			return SubsumptionResult.notSubsumed();				
 		}
 	}
 
-	private boolean isSubsumedBy(ServiceProvider context, CodeSystem codeSystem, final String subType, final String superType) {
-		return CodeSystemRequests.prepareSearchConcepts()
-			.setLimit(0)
-			.filterByCodeSystemUri(codeSystem.getResourceURI())
-			.filterById(subType)
-			.filterByAncestor(superType)
-			.buildAsync()
-			.execute(context)
-			.getTotal() > 0;
-	}
-
 }
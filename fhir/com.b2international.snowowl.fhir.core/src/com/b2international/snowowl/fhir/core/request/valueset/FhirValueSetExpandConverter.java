@@ -0,0 +1,48 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.fhir.core.request.valueset;
+
+import com.b2international.snowowl.fhir.core.exceptions.BadRequestException;
+import com.google.common.base.Strings;
+
+/**
+ * Converts implicit value set definitions of a code system to queries that can be evaluated by the Concept Search API.
+ * 
+ * @since 8.0
+ */
+public interface FhirValueSetExpandConverter {
+
+	FhirValueSetExpandConverter DEFAULT = new FhirValueSetExpandConverter() {
+	};
+	
+	/**
+	 * Converts the query part of an implicit value set URL (everything after the <code>?</code> character) to a query expression in the code
+	 * system's query language. The default implementation supports only the value set of all codes (a URL without a query part).
+	 * 
+	 * @param queryPart
+	 *            - the query part of the value set URL, may be <code>null</code>
+	 * @return the query expression to evaluate or <code>null</code> if all codes of the code system are members of the value set
+	 * @throws BadRequestException
+	 *             - if the query part does not define a value set supported by the code system
+	 */
+	default String toQueryExpression(String queryPart) {
+		if (!Strings.isNullOrEmpty(queryPart)) {
+			throw new BadRequestException(String.format("Implicit value set definition '%s' is not supported.", queryPart), "ExpandValueSetRequest.url");
+		}
+		return null;
+	}
+	
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.fhir.core.request.valueset;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
+import com.b2international.snowowl.core.RepositoryManager;
+import com.b2international.snowowl.core.ServiceProvider;
+import com.b2international.snowowl.core.codesystem.CodeSystemRequests;
+import com.b2international.snowowl.core.domain.Concept;
+import com.b2international.snowowl.core.domain.Concepts;
+import com.b2international.snowowl.core.request.ConceptSearchRequestBuilder;
+import com.b2international.snowowl.fhir.core.codesystems.PublicationStatus;
+import com.b2international.snowowl.fhir.core.exceptions.BadRequestException;
+import com.b2international.snowowl.fhir.core.model.Designation;
+import com.b2international.snowowl.fhir.core.model.codesystem.CodeSystem;
+import com.b2international.snowowl.fhir.core.model.valueset.ExpandValueSetRequest;
+import com.b2international.snowowl.fhir.core.model.valueset.ValueSet;
+import com.b2international.snowowl.fhir.core.model.valueset.expansion.Contains;
+import com.b2international.snowowl.fhir.core.model.valueset.expansion.Expansion;
+import com.b2international.snowowl.fhir.core.model.valueset.expansion.StringParameter;
+import com.b2international.snowowl.fhir.core.request.codesystem.FhirRequest;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.google.common.base.Strings;
+
+/**
+ * Expands implicit value sets of code systems (eg. <code>http://snomed.info/sct/900000000000207008?fhir_vs=ecl/&lt;&lt;404684003</code>) one page
+ * at a time. Pages are fetched with <code>searchAfter</code> based paging from the Concept Search API, the cursor of the next page is returned in
+ * the <code>next</code> expansion parameter and can be sent back in the <code>after</code> request parameter. Only a single page of codes is
+ * loaded regardless of the size of the value set.
+ *
+ * @see ExpandValueSetRequest
+ * @see FhirValueSetExpandConverter
+ * @since 8.0
+ */
+final class FhirValueSetExpandRequest extends FhirRequest<ValueSet> {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The number of codes returned when the request does not specify a count.
+	 */
+	static final int DEFAULT_COUNT = 1_000;
+
+	/**
+	 * The maximum number of codes returned in a single expansion page.
+	 */
+	static final int MAX_COUNT = 10_000;
+
+	static final String NEXT_PARAMETER = "next";
+
+	@NotNull
+	@Valid
+	@JsonProperty
+	@JsonUnwrapped
+	private ExpandValueSetRequest request;
+
+	FhirValueSetExpandRequest(ExpandValueSetRequest request) {
+		super(getCodeSystemUrl(request), null);
+		this.request = request;
+	}
+
+	private static String getCodeSystemUrl(ExpandValueSetRequest request) {
+		if (request.getUrl() == null || Strings.isNullOrEmpty(request.getUrl().getUriValue())) {
+			throw new BadRequestException("Expand request URL is not defined.", "ExpandValueSetRequest.url");
+		}
+		final String url = request.getUrl().getUriValue();
+		final int queryStart = url.indexOf('?');
+		return queryStart == -1 ? url : url.substring(0, queryStart);
+	}
+
+	private static String getQueryPart(ExpandValueSetRequest request) {
+		final String url = request.getUrl().getUriValue();
+		final int queryStart = url.indexOf('?');
+		return queryStart == -1 ? null : url.substring(queryStart + 1);
+	}
+
+	@Override
+	protected ValueSet doExecute(ServiceProvider context, CodeSystem codeSystem) {
+		final FhirValueSetExpandConverter converter = context.service(RepositoryManager.class).get(codeSystem.getToolingId())
+				.optionalService(FhirValueSetExpandConverter.class)
+				.orElse(FhirValueSetExpandConverter.DEFAULT);
+
+		final String query = converter.toQueryExpression(getQueryPart(request));
+		final String locales = extractLocales(request.getDisplayLanguage());
+		final int offset = request.getOffset() == null ? 0 : request.getOffset();
+		final int count = request.getCount() == null ? DEFAULT_COUNT : request.getCount();
+
+		if (offset < 0) {
+			throw new BadRequestException("Offset must be equal to or larger than 0.", "ExpandValueSetRequest.offset");
+		}
+
+		if (count < 0 || count > MAX_COUNT) {
+			throw new BadRequestException(String.format("Count must be between 0 and %d.", MAX_COUNT), "ExpandValueSetRequest.count");
+		}
+
+		String searchAfter = request.getAfter();
+		if (searchAfter == null && offset > 0) {
+			searchAfter = skip(context, codeSystem, query, offset);
+		}
+
+		final Concepts concepts = prepareSearch(codeSystem, query)
+				.setSearchAfter(searchAfter)
+				.setLimit(count)
+				.setLocales(locales)
+				.setPreferredDisplay("PT")
+				.buildAsync()
+				.execute(context);
+
+		final boolean includeDesignations = Boolean.TRUE.equals(request.getIncludeDesignations());
+		final List<Contains> contains = concepts.stream()
+				.map(concept -> toContains(codeSystem, concept, includeDesignations))
+				.collect(Collectors.toList());
+
+		final Expansion.Builder expansion = Expansion.builder()
+				.identifier(getExpansionIdentifier(codeSystem))
+				.timestamp(new Date())
+				.total(concepts.getTotal())
+				.offset(offset)
+				.contains(contains);
+
+		// the returned page is not the last one, tell the client where to continue
+		final boolean hasMore = request.getAfter() != null ? contains.size() == count : offset + contains.size() < concepts.getTotal();
+		if (hasMore && !contains.isEmpty() && !Strings.isNullOrEmpty(concepts.getSearchAfter())) {
+			expansion.addParameter(StringParameter.builder()
+					.name(NEXT_PARAMETER)
+					.value(concepts.getSearchAfter())
+					.build());
+		}
+
+		return ValueSet.builder()
+				.url(request.getUrl())
+				.status(PublicationStatus.ACTIVE)
+				.expansion(expansion.build())
+				.build();
+	}
+
+	/*
+	 * Walks through the first offset matches with ID-only pages and returns the searchAfter value of the last one.
+	 */
+	private String skip(ServiceProvider context, CodeSystem codeSystem, String query, int offset) {
+		String searchAfter = null;
+		int remaining = offset;
+		while (remaining > 0) {
+			final Concepts page = prepareSearch(codeSystem, query)
+					.setSearchAfter(searchAfter)
+					.setLimit(Math.min(remaining, MAX_COUNT))
+					.setFields(Concept.Fields.ID)
+					.buildAsync()
+					.execute(context);
+
+			remaining -= page.getItems().size();
+			searchAfter = page.getSearchAfter();
+			if (page.getItems().isEmpty() || Strings.isNullOrEmpty(searchAfter)) {
+				break;
+			}
+		}
+		return searchAfter;
+	}
+
+	private ConceptSearchRequestBuilder prepareSearch(CodeSystem codeSystem, String query) {
+		final ConceptSearchRequestBuilder req = CodeSystemRequests.prepareSearchConcepts()
+				.filterByCodeSystemUri(codeSystem.getResourceURI())
+				.filterByTerm(request.getFilter());
+
+		if (query != null) {
+			req.filterByQuery(query);
+		}
+
+		if (Boolean.TRUE.equals(request.getActiveOnly())) {
+			req.filterByActive(true);
+		}
+
+		return req;
+	}
+
+	private Contains toContains(CodeSystem codeSystem, Concept concept, boolean includeDesignations) {
+		final Contains.Builder contains = Contains.builder()
+				.system(codeSystem.getUrl())
+				.version(codeSystem.getVersion())
+				.code(concept.getId())
+				.display(concept.getTerm());
+
+		if (includeDesignations && concept.getAlternativeTerms() != null) {
+			contains.designations(concept.getAlternativeTerms().stream()
+					.map(term -> Designation.builder().value(term).build())
+					.collect(Collectors.toList()));
+		}
+
+		return contains.build();
+	}
+
+	/*
+	 * The same value set definition evaluated on the same code system content yields the same identifier, so clients can detect if the pages they
+	 * received belong to the same expansion.
+	 */
+	private String getExpansionIdentifier(CodeSystem codeSystem) {
+		final String lastUpdated = codeSystem.getMeta() != null && codeSystem.getMeta().getLastUpdated() != null
+				? codeSystem.getMeta().getLastUpdated().getInstant()
+				: null;
+		final String key = String.join("|",
+				request.getUrl().getUriValue(),
+				codeSystem.getResourceURI().toString(),
+				Objects.toString(lastUpdated),
+				Objects.toString(request.getFilter()),
+				Objects.toString(request.getActiveOnly()));
+		return "urn:uuid:" + UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
@@ -28,4 +28,8 @@ public class FhirValueSetRequests {
 		return new FhirValueSetGetRequestBuilder(idOrUrl);
 	}
 	
+	public FhirValueSetExpandRequestBuilder prepareExpand() {
+		return new FhirValueSetExpandRequestBuilder();
+	}
+	
 }
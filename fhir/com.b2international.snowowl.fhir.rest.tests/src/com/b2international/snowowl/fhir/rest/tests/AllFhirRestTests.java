@@ -25,7 +25,9 @@ import com.b2international.snowowl.fhir.rest.tests.batch.FhirBatchApiRestTest;
 import com.b2international.snowowl.fhir.rest.tests.codesystem.FhirCodeSystemApiTest;
 import com.b2international.snowowl.fhir.rest.tests.codesystem.FhirCodeSystemLookupOperationTest;
 import com.b2international.snowowl.fhir.rest.tests.codesystem.FhirCodeSystemSubsumesOperationTest;
+import com.b2international.snowowl.fhir.rest.tests.codesystem.FhirCodeSystemSubsumesTaxonomyTest;
 import com.b2international.snowowl.fhir.rest.tests.codesystem.FhirCodeSystemValidateCodeOperationTest;
+import com.b2international.snowowl.fhir.rest.tests.valueset.FhirValueSetExpandOperationTest;
 import com.b2international.snowowl.snomed.core.domain.Rf2ReleaseType;
 import com.b2international.snowowl.test.commons.BundleStartRule;
 import com.b2international.snowowl.test.commons.Resources;
@@ -42,9 +44,11 @@ import com.b2international.snowowl.test.commons.SnowOwlAppRule;
 	FhirCodeSystemApiTest.class,
 	FhirCodeSystemLookupOperationTest.class,
 	FhirCodeSystemSubsumesOperationTest.class,
+	FhirCodeSystemSubsumesTaxonomyTest.class,
 	FhirCodeSystemValidateCodeOperationTest.class,
 	
 	// ValueSet API
+	FhirValueSetExpandOperationTest.class,
 //	SnomedValueSetRestTest.class,
 //	ExpandSnomedRestTest.class,
 	
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.fhir.rest.tests.codesystem;
+
+import static com.b2international.snowowl.fhir.tests.FhirRestTest.Endpoints.CODESYSTEM_SUBSUMES;
+import static com.b2international.snowowl.fhir.tests.FhirTestConcepts.BACTERIA;
+import static com.b2international.snowowl.fhir.tests.FhirTestConcepts.MICROORGANISM;
+import static com.b2international.snowowl.fhir.tests.FhirTestConcepts.ORGANISM;
+import static com.b2international.snowowl.test.commons.rest.RestExtensions.givenAuthenticatedRequest;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.snowowl.core.ResourceURI;
+import com.b2international.snowowl.core.codesystem.CodeSystem;
+import com.b2international.snowowl.core.codesystem.CodeSystemRequests;
+import com.b2international.snowowl.core.request.ResourceRequests;
+import com.b2international.snowowl.fhir.core.model.codesystem.SubsumptionResult.SubsumptionType;
+import com.b2international.snowowl.fhir.tests.FhirRestTest;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
+import com.b2international.snowowl.snomed.fhir.SnomedFhirTaxonomy;
+import com.b2international.snowowl.snomed.fhir.SnomedFhirTaxonomyCache;
+import com.b2international.snowowl.test.commons.Services;
+import com.b2international.snowowl.test.commons.codesystem.CodeSystemRestRequests;
+import com.b2international.snowowl.test.commons.rest.RestExtensions;
+
+/**
+ * Checks that CodeSystem $subsumes answers from the in-memory taxonomy of a SNOMED CT version agree with the concept searches they replace,
+ * and that a commit on the version branch does not leave a stale taxonomy behind.
+ *
+ * @since 8.0
+ */
+public class FhirCodeSystemSubsumesTaxonomyTest extends FhirRestTest {
+
+	private static final String PROCEDURE = "71388002";
+	private static final List<String> CONCEPTS = List.of(Concepts.ROOT_CONCEPT, ORGANISM, MICROORGANISM, BACTERIA, PROCEDURE);
+
+	private static final ResourceURI VERSION_URI = CodeSystem.uri("SNOMEDCT/2002-01-31");
+	private static final String VERSION_SYSTEM = CodeSystemRestRequests.getCodeSystemUrl("version/20020131");
+
+	private static final long TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(1L);
+
+	@Before
+	public void invalidateTaxonomies() {
+		cache().invalidateAll();
+	}
+
+	@After
+	public void cleanUpTaxonomies() {
+		cache().invalidateAll();
+	}
+
+	@Test
+	public void taxonomyMatchesConceptSearch() throws Exception {
+		final SnomedFhirTaxonomy taxonomy = awaitTaxonomy(t -> true);
+
+		for (String subType : CONCEPTS) {
+			for (String superType : CONCEPTS) {
+				if (subType.equals(superType)) {
+					continue;
+				}
+
+				// the same search the default subsumption evaluator runs
+				final boolean expected = CodeSystemRequests.prepareSearchConcepts()
+						.setLimit(0)
+						.filterByCodeSystemUri(VERSION_URI)
+						.filterById(subType)
+						.filterByAncestor(superType)
+						.buildAsync()
+						.execute(Services.bus())
+						.getSync()
+						.getTotal() > 0;
+
+				assertEquals(String.format("%s subsumed by %s", subType, superType), expected, taxonomy.isSubsumedBy(subType, superType));
+			}
+		}
+
+		// the taxonomy is available, so these are answered without concept searches
+		assertSubsumption(ORGANISM, BACTERIA, SubsumptionType.SUBSUMES);
+		assertSubsumption(BACTERIA, ORGANISM, SubsumptionType.SUBSUMED_BY);
+		assertSubsumption(BACTERIA, BACTERIA, SubsumptionType.EQUIVALENT);
+		assertSubsumption(BACTERIA, PROCEDURE, SubsumptionType.NOT_SUBSUMED);
+	}
+
+	@Test
+	public void commitOnVersionBranchEvictsTaxonomy() throws Exception {
+		assertFalse(awaitTaxonomy(t -> true).isSubsumedBy(PROCEDURE, BACTERIA));
+		assertSubsumption(BACTERIA, PROCEDURE, SubsumptionType.NOT_SUBSUMED);
+
+		final String branchPath = ResourceRequests.prepareGetVersion(VERSION_URI)
+				.buildAsync()
+				.execute(Services.bus())
+				.getSync()
+				.getBranchPath();
+
+		final String relationshipId = SnomedRequests.prepareNewRelationship()
+				.setIdFromNamespace(Concepts.B2I_NAMESPACE)
+				.setActive(true)
+				.setModuleId(Concepts.MODULE_SCT_CORE)
+				.setSourceId(PROCEDURE)
+				.setTypeId(Concepts.IS_A)
+				.setDestinationId(BACTERIA)
+				.setCharacteristicTypeId(Concepts.INFERRED_RELATIONSHIP)
+				.setModifierId(Concepts.EXISTENTIAL_RESTRICTION_MODIFIER)
+				.build(branchPath, RestExtensions.USER, "Add inferred IS A to version branch")
+				.execute(Services.bus())
+				.getSync()
+				.getResultAs(String.class);
+
+		try {
+			// the outcome changes right away (answered by searches while the taxonomy is rebuilt) and the rebuilt taxonomy agrees
+			awaitCondition(() -> SubsumptionType.SUBSUMES.name().equals(getSubsumption(BACTERIA, PROCEDURE)), "$subsumes to reflect the commit");
+			awaitTaxonomy(t -> t.isSubsumedBy(PROCEDURE, BACTERIA));
+			assertSubsumption(BACTERIA, PROCEDURE, SubsumptionType.SUBSUMES);
+		} finally {
+			SnomedRequests.prepareDeleteRelationship(relationshipId)
+				.build(branchPath, RestExtensions.USER, "Remove inferred IS A from version branch")
+				.execute(Services.bus())
+				.getSync();
+		}
+
+		awaitTaxonomy(t -> !t.isSubsumedBy(PROCEDURE, BACTERIA));
+		assertSubsumption(BACTERIA, PROCEDURE, SubsumptionType.NOT_SUBSUMED);
+	}
+
+	private static SnomedFhirTaxonomyCache cache() {
+		return Services.service(SnomedFhirTaxonomyCache.class);
+	}
+
+	private static SnomedFhirTaxonomy awaitTaxonomy(Predicate<SnomedFhirTaxonomy> condition) throws InterruptedException {
+		final long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+		while (true) {
+			// the first access schedules loading the taxonomy
+			final Optional<SnomedFhirTaxonomy> taxonomy = cache().get(Services.context(), VERSION_URI);
+			if (taxonomy.isPresent() && condition.test(taxonomy.get())) {
+				return taxonomy.get();
+			}
+			assertTrue("Timed out waiting for the taxonomy of " + VERSION_URI, System.currentTimeMillis() < deadline);
+			Thread.sleep(100L);
+		}
+	}
+
+	private static void awaitCondition(BooleanSupplier condition, String description) throws InterruptedException {
+		final long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+		while (!condition.getAsBoolean()) {
+			assertTrue("Timed out waiting for " + description, System.currentTimeMillis() < deadline);
+			Thread.sleep(100L);
+		}
+	}
+
+	private static String getSubsumption(String codeA, String codeB) {
+		return givenAuthenticatedRequest(FHIR_ROOT_CONTEXT)
+			.queryParam("codeA", codeA)
+			.queryParam("codeB", codeB)
+			.queryParam("system", VERSION_SYSTEM)
+			.when().get(CODESYSTEM_SUBSUMES)
+			.then().assertThat()
+			.statusCode(200)
+			.extract()
+			.path("parameter[0].valueCode");
+	}
+
+	private static void assertSubsumption(String codeA, String codeB, SubsumptionType expected) {
+		givenAuthenticatedRequest(FHIR_ROOT_CONTEXT)
+			.queryParam("codeA", codeA)
+			.queryParam("codeB", codeB)
+			.queryParam("system", VERSION_SYSTEM)
+			.when().get(CODESYSTEM_SUBSUMES)
+			.then().assertThat()
+			.statusCode(200)
+			.body("parameter[0].name", equalTo("outcome"))
+			.body("parameter[0].valueCode", equalTo(expected.name()));
+	}
+
+}
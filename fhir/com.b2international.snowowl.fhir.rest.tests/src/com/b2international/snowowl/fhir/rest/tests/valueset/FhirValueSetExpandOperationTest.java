@@ -0,0 +1,211 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.fhir.rest.tests.valueset;
+
+import static com.b2international.snowowl.fhir.tests.FhirRestTest.Endpoints.VALUESET_EXPAND;
+import static com.b2international.snowowl.fhir.tests.FhirTestConcepts.BACTERIA;
+import static com.b2international.snowowl.fhir.tests.FhirTestConcepts.MICROORGANISM;
+import static com.b2international.snowowl.fhir.tests.FhirTestConcepts.ORGANISM;
+import static com.b2international.snowowl.test.commons.rest.RestExtensions.givenAuthenticatedRequest;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.b2international.snowowl.fhir.core.model.valueset.ExpandValueSetRequest;
+import com.b2international.snowowl.fhir.tests.FhirRestTest;
+import com.b2international.snowowl.snomed.common.SnomedTerminologyComponentConstants;
+import com.google.common.collect.Lists;
+
+import io.restassured.response.ValidatableResponse;
+import io.restassured.specification.RequestSpecification;
+
+/**
+ * ValueSet $expand operation REST end-point test cases for implicit SNOMED CT value sets.
+ *
+ * @since 8.0
+ */
+public class FhirValueSetExpandOperationTest extends FhirRestTest {
+
+	private static final String ORGANISM_VALUE_SET = SnomedTerminologyComponentConstants.SNOMED_URI_SCT + "?fhir_vs=isa/" + ORGANISM;
+	private static final String NEXT_PAGE = "expansion.parameter.find { it.name == 'next' }.valueString";
+
+	@Test
+	public void GET_ValueSet_$expand_Isa() throws Exception {
+		expand(ORGANISM_VALUE_SET)
+			.body("resourceType", equalTo("ValueSet"))
+			.body("url", equalTo(ORGANISM_VALUE_SET))
+			.body("status", equalTo("active"))
+			.body("expansion.identifier", notNullValue())
+			.body("expansion.offset", equalTo(0))
+			.body("expansion.contains.code", hasItems(ORGANISM, MICROORGANISM, BACTERIA))
+			.body(NEXT_PAGE, nullValue());
+	}
+
+	@Test
+	public void GET_ValueSet_$expand_Ecl() throws Exception {
+		expand(SnomedTerminologyComponentConstants.SNOMED_URI_SCT + "?fhir_vs=ecl/<" + MICROORGANISM)
+			.body("expansion.contains.code", hasItem(BACTERIA))
+			.body("expansion.contains.code", not(hasItem(MICROORGANISM)))
+			.body("expansion.contains.code", not(hasItem(ORGANISM)));
+	}
+
+	@Test
+	public void GET_ValueSet_$expand_Filter() throws Exception {
+		givenAuthenticatedRequest(FHIR_ROOT_CONTEXT)
+			.queryParam("url", ORGANISM_VALUE_SET)
+			.queryParam("filter", "bacteria")
+			.when().get(VALUESET_EXPAND)
+			.then().assertThat()
+			.statusCode(200)
+			.body("expansion.contains.code", hasItem(BACTERIA))
+			.body("expansion.contains.code", not(hasItem(ORGANISM)))
+			.body("expansion.contains.code", not(hasItem(MICROORGANISM)));
+	}
+
+	@Test
+	public void GET_ValueSet_$expand_PageWithAfter() throws Exception {
+		final ValidatableResponse expansion = expand(ORGANISM_VALUE_SET);
+		final List<String> allCodes = expansion.extract().path("expansion.contains.code");
+		final int total = expansion.extract().path("expansion.total");
+		final String identifier = expansion.extract().path("expansion.identifier");
+		assertEquals(total, allCodes.size());
+		assertTrue("Value set should span multiple pages", total > 2);
+
+		final int count = total / 3;
+		final List<String> pagedCodes = Lists.newArrayList();
+		String after = null;
+		int pages = 0;
+		do {
+			final RequestSpecification request = givenAuthenticatedRequest(FHIR_ROOT_CONTEXT)
+					.queryParam("url", ORGANISM_VALUE_SET)
+					.queryParam("count", count);
+			if (after != null) {
+				request.queryParam("after", after);
+			}
+
+			final ValidatableResponse page = request
+					.when().get(VALUESET_EXPAND)
+					.then().assertThat()
+					.statusCode(200)
+					.body("expansion.total", equalTo(total))
+					.body("expansion.identifier", equalTo(identifier));
+
+			final List<String> codes = page.extract().path("expansion.contains.code");
+			if (codes != null) {
+				assertTrue(codes.size() <= count);
+				pagedCodes.addAll(codes);
+			}
+			after = page.extract().path(NEXT_PAGE);
+			assertTrue("Too many pages", ++pages <= total);
+		} while (after != null);
+
+		assertEquals(allCodes, pagedCodes);
+	}
+
+	@Test
+	public void GET_ValueSet_$expand_PageWithOffset() throws Exception {
+		final List<String> allCodes = expand(ORGANISM_VALUE_SET).extract().path("expansion.contains.code");
+		assertTrue("Value set should span multiple pages", allCodes.size() > 2);
+
+		final ValidatableResponse page = givenAuthenticatedRequest(FHIR_ROOT_CONTEXT)
+				.queryParam("url", ORGANISM_VALUE_SET)
+				.queryParam("offset", 1)
+				.queryParam("count", 1)
+				.when().get(VALUESET_EXPAND)
+				.then().assertThat()
+				.statusCode(200)
+				.body("expansion.offset", equalTo(1))
+				.body("expansion.total", equalTo(allCodes.size()))
+				.body("expansion.contains.code", equalTo(allCodes.subList(1, 2)));
+
+		// continuing from the offset page returns the code after it
+		final String after = page.extract().path(NEXT_PAGE);
+		assertNotNull(after);
+		givenAuthenticatedRequest(FHIR_ROOT_CONTEXT)
+			.queryParam("url", ORGANISM_VALUE_SET)
+			.queryParam("after", after)
+			.queryParam("count", 1)
+			.when().get(VALUESET_EXPAND)
+			.then().assertThat()
+			.statusCode(200)
+			.body("expansion.contains.code", equalTo(allCodes.subList(2, 3)));
+
+		// an offset past the last code returns an empty page without a cursor
+		final ValidatableResponse lastPage = givenAuthenticatedRequest(FHIR_ROOT_CONTEXT)
+				.queryParam("url", ORGANISM_VALUE_SET)
+				.queryParam("offset", allCodes.size())
+				.when().get(VALUESET_EXPAND)
+				.then().assertThat()
+				.statusCode(200)
+				.body("expansion.total", equalTo(allCodes.size()));
+		final List<String> lastPageCodes = lastPage.extract().path("expansion.contains.code");
+		assertTrue(lastPageCodes == null || lastPageCodes.isEmpty());
+		assertNull(lastPage.extract().path(NEXT_PAGE));
+	}
+
+	@Test
+	public void GET_ValueSet_$expand_InvalidCount() throws Exception {
+		givenAuthenticatedRequest(FHIR_ROOT_CONTEXT)
+			.queryParam("url", ORGANISM_VALUE_SET)
+			.queryParam("count", 10_001)
+			.when().get(VALUESET_EXPAND)
+			.then().assertThat()
+			.statusCode(400)
+			.body("resourceType", equalTo("OperationOutcome"));
+	}
+
+	@Test
+	public void POST_ValueSet_$expand_Filter() throws Exception {
+		final ExpandValueSetRequest request = ExpandValueSetRequest.builder()
+				.url(ORGANISM_VALUE_SET)
+				.filter("bacteria")
+				.count(10)
+				.build();
+
+		givenAuthenticatedRequest(FHIR_ROOT_CONTEXT)
+			.contentType(APPLICATION_FHIR_JSON)
+			.body(toFhirParameters(request))
+			.when().post(VALUESET_EXPAND)
+			.then().assertThat()
+			.statusCode(200)
+			.body("expansion.contains.code", hasItem(BACTERIA))
+			.body("expansion.contains.code", not(hasItem(ORGANISM)));
+	}
+
+	/*
+	 * Expands the whole value set in a single page
+	 */
+	private static ValidatableResponse expand(String url) {
+		return givenAuthenticatedRequest(FHIR_ROOT_CONTEXT)
+				.queryParam("url", url)
+				.queryParam("count", 10_000)
+				.when().get(VALUESET_EXPAND)
+				.then().assertThat()
+				.statusCode(200);
+	}
+
+}
@@ -44,6 +44,7 @@ public class FhirRestTest extends FhirTest {
 		public static final String CODESYSTEM_LOOKUP = "/CodeSystem/$lookup";
 		public static final String CODESYSTEM_SUBSUMES = "/CodeSystem/$subsumes";
 		public static final String CODESYSTEM_VALIDATE_CODE = "/CodeSystem/$validate-code";
+		public static final String VALUESET_EXPAND = "/ValueSet/$expand";
 	}
 	
 	protected final String getTestCodeSystemId() {
@@ -224,4 +224,22 @@ public class SnomedUriParsingTest extends FhirTest {
 		assertEquals(SnomedUri.SNOMED_BASE_URI_STRING + "?fhir_vs=refset/" + Concepts.ROOT_CONCEPT, uri.toString());
 	}
 	
+	@Test
+	public void testQueryPart_fhir_vs_ecl() {
+		SnomedUri snomedUri = SnomedUri.fromUriString("http://snomed.info/sct?fhir_vs=ecl/%3C%3C404684003%3A363698007%3D%3C%3C39057004", "uri");
+		
+		assertEquals("fhir_vs", snomedUri.getQueryPart().getQueryParameter());
+		assertEquals(QueryPartDefinition.ECL, snomedUri.getQueryPart().getQueryPartDefinition());
+		assertEquals("<<404684003:363698007=<<39057004", snomedUri.getQueryPart().getQueryValue());
+	}
+	
+	@Test
+	public void testQueryPart_fhir_vs_ecl_unencoded() {
+		SnomedUri snomedUri = SnomedUri.fromUriString("http://snomed.info/sct/900000000000207008?fhir_vs=ecl/<<404684003:363698007=<<39057004", "uri");
+		
+		assertEquals("900000000000207008", snomedUri.getExtensionModuleId());
+		assertEquals(QueryPartDefinition.ECL, snomedUri.getQueryPart().getQueryPartDefinition());
+		assertEquals("<<404684003:363698007=<<39057004", snomedUri.getQueryPart().getQueryValue());
+	}
+	
 }
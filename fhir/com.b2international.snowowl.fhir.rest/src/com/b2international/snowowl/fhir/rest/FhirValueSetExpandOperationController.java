@@ -0,0 +1,145 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.fhir.rest;
+
+import java.util.Optional;
+
+import org.springframework.web.bind.annotation.*;
+
+import com.b2international.snowowl.core.events.util.Promise;
+import com.b2international.snowowl.fhir.core.model.dt.Code;
+import com.b2international.snowowl.fhir.core.model.dt.Parameters;
+import com.b2international.snowowl.fhir.core.model.valueset.ExpandValueSetRequest;
+import com.b2international.snowowl.fhir.core.model.valueset.ExpandValueSetRequest.Builder;
+import com.b2international.snowowl.fhir.core.model.valueset.ValueSet;
+import com.b2international.snowowl.fhir.core.request.FhirRequests;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * @see <a href="https://www.hl7.org/fhir/valueset-operation-expand.html">FHIR:ValueSet:Operations:expand</a>
+ * @since 8.0
+ */
+@Tag(description = "ValueSet", name = "ValueSet")
+@RestController
+@RequestMapping(value="/ValueSet", produces = { AbstractFhirController.APPLICATION_FHIR_JSON })
+public class FhirValueSetExpandOperationController extends AbstractFhirController {
+
+	/**
+	 * GET-based FHIR expand endpoint.
+	 * @param url
+	 * @param filter
+	 * @param offset
+	 * @param count
+	 * @param after
+	 * @param activeOnly
+	 * @param includeDesignations
+	 * @param displayLanguage
+	 */
+	@Operation(
+		summary="Expand a value set",
+		description="Expands an implicit value set specified by its canonical URL, one page at a time. "
+				+ "The cursor of the next page is returned in the 'next' expansion parameter and can be passed in the 'after' parameter."
+	)
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "OK"),
+		@ApiResponse(responseCode = "400", description = "Bad request"),
+		@ApiResponse(responseCode = "404", description = "Code system not found")
+	})
+	@GetMapping("/$expand")
+	public Promise<ValueSet> expand(
+			
+		@Parameter(description = "Canonical URL of the value set, eg. http://snomed.info/sct/900000000000207008?fhir_vs=ecl/<<404684003")
+		@RequestParam(value="url")
+		final String url,
+		
+		@Parameter(description = "Text filter applied to the display of the codes")
+		@RequestParam(value="filter")
+		final Optional<String> filter,
+		
+		@Parameter(description = "The number of codes to skip")
+		@RequestParam(value="offset")
+		final Optional<Integer> offset,
+		
+		@Parameter(description = "The number of codes to return")
+		@RequestParam(value="count")
+		final Optional<Integer> count,
+		
+		@Parameter(description = "The cursor of the page to return, taken from the 'next' parameter of the previous expansion page")
+		@RequestParam(value="after")
+		final Optional<String> after,
+		
+		@Parameter(description = "Include active codes only")
+		@RequestParam(value="activeOnly")
+		final Optional<Boolean> activeOnly,
+		
+		@Parameter(description = "Include designations of the codes")
+		@RequestParam(value="includeDesignations")
+		final Optional<Boolean> includeDesignations,
+		
+		@Parameter(description = "Language code for display")
+		@RequestParam(value="displayLanguage")
+		final Optional<String> displayLanguage) {
+		
+		final Builder builder = ExpandValueSetRequest.builder()
+				.url(url);
+		
+		filter.ifPresent(builder::filter);
+		offset.ifPresent(builder::offset);
+		count.ifPresent(builder::count);
+		after.ifPresent(builder::after);
+		activeOnly.ifPresent(builder::activeOnly);
+		includeDesignations.ifPresent(builder::includeDesignations);
+		displayLanguage.map(Code::new).ifPresent(builder::displayLanguage);
+		
+		return expand(builder.build());
+	}
+	
+	/**
+	 * POST-based expand end-point. Parameters are in the request body.
+	 * @param body - FHIR parameters
+	 */
+	@Operation(
+		summary="Expand a value set",
+		description="Expands an implicit value set specified by the request parameters, one page at a time."
+	)
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "OK"),
+		@ApiResponse(responseCode = "400", description = "Bad request"),
+		@ApiResponse(responseCode = "404", description = "Code system not found")
+	})
+	@PostMapping(value = "/$expand", consumes = AbstractFhirResourceController.APPLICATION_FHIR_JSON)
+	public Promise<ValueSet> expand(
+			@Parameter(description = "The expand request parameters")
+			@RequestBody 
+			final Parameters.Fhir body) {
+		
+		final ExpandValueSetRequest req = toRequest(body, ExpandValueSetRequest.class);
+		return expand(req);
+	}
+	
+	private Promise<ValueSet> expand(ExpandValueSetRequest request) {
+		return FhirRequests.valueSets().prepareExpand()
+				.setRequest(request)
+				.buildAsync()
+				.execute(getBus());
+	}
+	
+}
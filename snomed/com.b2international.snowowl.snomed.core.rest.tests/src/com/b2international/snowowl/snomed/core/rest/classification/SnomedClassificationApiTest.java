@@ -475,6 +475,60 @@ public class SnomedClassificationApiTest extends AbstractSnomedApiTest {
 		assertEquivalentConceptPresent(equivalentConceptsIterable, equivalentConceptId);
 	}
 
+	@Test
+	public void mergeEquivalentConceptsOnSave() throws Exception {
+		String parentConceptId = createNewConcept(branchPath);
+		String equivalentConceptId = createNewConcept(branchPath, parentConceptId);
+		String childConceptId = createNewConcept(branchPath, equivalentConceptId);
+		String otherConceptId = createNewConcept(branchPath);
+
+		changeToDefining(branchPath, equivalentConceptId);
+
+		// Inferred relationships pointing to both equivalent concepts become redundant, one of them is removed along with the merged concept
+		createNewRelationship(branchPath, otherConceptId, Concepts.PART_OF, parentConceptId, Concepts.INFERRED_RELATIONSHIP);
+		createNewRelationship(branchPath, otherConceptId, Concepts.PART_OF, equivalentConceptId, Concepts.INFERRED_RELATIONSHIP);
+
+		String classificationId = getClassificationJobId(beginClassification(branchPath));
+		waitForClassificationJob(branchPath, classificationId)
+		.statusCode(200)
+		.body("status", equalTo(ClassificationStatus.COMPLETED.name()));
+
+		TestEquivalentConceptMerger.setEnabled(true);
+		try {
+			beginClassificationSave(branchPath, classificationId);
+			waitForClassificationSaveJob(branchPath, classificationId)
+			.statusCode(200)
+			.body("status", equalTo(ClassificationStatus.SAVED.name()));
+		} finally {
+			TestEquivalentConceptMerger.setEnabled(false);
+		}
+
+		// Exactly one of the equivalent concepts is kept, the other one is removed
+		int parentStatus = getComponent(branchPath, SnomedComponentType.CONCEPT, parentConceptId).extract().statusCode();
+		int equivalentStatus = getComponent(branchPath, SnomedComponentType.CONCEPT, equivalentConceptId).extract().statusCode();
+		assertTrue("Exactly one of the equivalent concepts should be kept.", 
+				(parentStatus == 200 && equivalentStatus == 404) || (parentStatus == 404 && equivalentStatus == 200));
+
+		String keptConceptId = parentStatus == 200 ? parentConceptId : equivalentConceptId;
+
+		// No changes are applied to or from the removed concept
+		assertEquals(1, getPersistedInferredRelationshipCount(branchPath, keptConceptId));
+		assertEquals(1, getPersistedInferredRelationshipCount(branchPath, otherConceptId));
+
+		getComponent(branchPath, SnomedComponentType.CONCEPT, childConceptId, 
+				"relationships(\"active\":true,\"characteristicTypeId\":\"" + Concepts.INFERRED_RELATIONSHIP + "\")")
+		.statusCode(200)
+		.body("relationships.total", equalTo(1))
+		.body("relationships.items[0].typeId", equalTo(Concepts.IS_A))
+		.body("relationships.items[0].destinationId", equalTo(keptConceptId));
+
+		getComponent(branchPath, SnomedComponentType.CONCEPT, otherConceptId, 
+				"relationships(\"active\":true,\"characteristicTypeId\":\"" + Concepts.INFERRED_RELATIONSHIP + "\")")
+		.statusCode(200)
+		.body("relationships.items[0].typeId", equalTo(Concepts.IS_A))
+		.body("relationships.items[0].destinationId", equalTo(Concepts.ROOT_CONCEPT));
+	}
+
 	private static void assertInferredIsAExists(FluentIterable<RelationshipChange> changesIterable, String childConceptId, String parentConceptId) {
 		assertTrue("Inferred IS A between " + childConceptId + " and " + parentConceptId + " not found.", 
 				changesIterable.anyMatch(relationshipChange -> {
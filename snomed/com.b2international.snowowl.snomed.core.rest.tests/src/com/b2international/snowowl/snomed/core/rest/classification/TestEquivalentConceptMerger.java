@@ -0,0 +1,115 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.core.rest.classification;
+
+import static com.google.common.collect.Sets.newHashSet;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import com.b2international.snowowl.core.plugin.Component;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
+import com.b2international.snowowl.snomed.core.domain.SnomedRelationship;
+import com.b2international.snowowl.snomed.core.domain.SnomedRelationships;
+import com.b2international.snowowl.snomed.reasoner.equivalence.IEquivalentConceptMerger;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multimap;
+
+/**
+ * Merges equivalent concepts by moving the active stated relationships of each removed concept over to the concept that is kept. Removed
+ * concepts are marked inactive; as test content is not released, they are deleted along with all of their remaining components.
+ * <p>
+ * Merging only happens while the merger is {@link #setEnabled(boolean) enabled}, so that saving classifications in other tests is not
+ * affected.
+ * </p>
+ *
+ * @since 8.0
+ */
+@Component
+public final class TestEquivalentConceptMerger implements IEquivalentConceptMerger {
+
+	private static volatile boolean enabled;
+
+	public static void setEnabled(final boolean enabled) {
+		TestEquivalentConceptMerger.enabled = enabled;
+	}
+
+	@Override
+	public Set<String> merge(final Multimap<SnomedConcept, SnomedConcept> equivalentConcepts) {
+		if (!enabled) {
+			return Collections.emptySet();
+		}
+
+		final Set<String> mergedConceptIds = newHashSet();
+
+		for (final SnomedConcept conceptToKeep : equivalentConcepts.keySet()) {
+			final Collection<SnomedConcept> conceptsToRemove = equivalentConcepts.get(conceptToKeep);
+			final Set<String> conceptIdsToRemove = newHashSet();
+			conceptsToRemove.forEach(conceptToRemove -> conceptIdsToRemove.add(conceptToRemove.getId()));
+
+			final List<SnomedRelationship> relationships = Lists.newArrayList(conceptToKeep.getRelationships());
+			final List<SnomedRelationship> inboundRelationships = Lists.newArrayList(conceptToKeep.getInboundRelationships());
+
+			for (final SnomedConcept conceptToRemove : conceptsToRemove) {
+				for (final SnomedRelationship relationship : conceptToRemove.getRelationships()) {
+					if (isStated(relationship) && !isMerged(relationship.getDestinationId(), conceptToKeep, conceptIdsToRemove)) {
+						relationships.add(copy(relationship, conceptToKeep.getId(), relationship.getDestinationId()));
+					}
+				}
+
+				for (final SnomedRelationship relationship : conceptToRemove.getInboundRelationships()) {
+					if (isStated(relationship) && !isMerged(relationship.getSourceId(), conceptToKeep, conceptIdsToRemove)) {
+						inboundRelationships.add(copy(relationship, relationship.getSourceId(), conceptToKeep.getId()));
+					}
+				}
+
+				conceptToRemove.setActive(false);
+				mergedConceptIds.add(conceptToRemove.getId());
+			}
+
+			conceptToKeep.setRelationships(new SnomedRelationships(relationships, null, relationships.size(), relationships.size()));
+			conceptToKeep.setInboundRelationships(new SnomedRelationships(inboundRelationships, null, inboundRelationships.size(), inboundRelationships.size()));
+		}
+
+		return mergedConceptIds;
+	}
+
+	private static boolean isStated(final SnomedRelationship relationship) {
+		return Concepts.STATED_RELATIONSHIP.equals(relationship.getCharacteristicTypeId());
+	}
+
+	private static boolean isMerged(final String conceptId, final SnomedConcept conceptToKeep, final Set<String> conceptIdsToRemove) {
+		return conceptToKeep.getId().equals(conceptId) || conceptIdsToRemove.contains(conceptId);
+	}
+
+	private static SnomedRelationship copy(final SnomedRelationship relationship, final String sourceId, final String destinationId) {
+		final SnomedRelationship copy = new SnomedRelationship(PREFIX_NEW + relationship.getId());
+		copy.setActive(true);
+		copy.setSourceId(sourceId);
+		copy.setTypeId(relationship.getTypeId());
+		copy.setDestinationId(destinationId);
+		copy.setDestinationNegated(relationship.isDestinationNegated());
+		copy.setCharacteristicTypeId(relationship.getCharacteristicTypeId());
+		copy.setRelationshipGroup(relationship.getRelationshipGroup());
+		copy.setUnionGroup(relationship.getUnionGroup());
+		copy.setModifierId(relationship.getModifierId());
+		return copy;
+	}
+
+}
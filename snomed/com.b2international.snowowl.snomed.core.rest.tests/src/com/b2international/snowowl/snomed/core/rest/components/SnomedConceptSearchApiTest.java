@@ -167,4 +167,40 @@ public class SnomedConceptSearchApiTest extends AbstractSnomedApiTest {
 		assertThat(hits.getTotal()).isEqualTo(1);
 		assertThat(hits.getItems()).allMatch(c -> conceptId.equals(c.getId()));
 	}
+	
+	@Test
+	public void searchWithCappedTotal() throws Exception {
+		SnomedConcepts hits = givenAuthenticatedRequest(getApiBaseUrl())
+			.accept(JSON_UTF8)
+			.queryParams(Map.of("limit", 5, "trackTotalHits", 2))
+			.get("/{path}/concepts/", branchPath.getPath())
+			.then().assertThat()
+			.statusCode(200)
+			.extract().as(SnomedConcepts.class);
+		
+		assertThat(hits.getItems()).hasSize(5);
+		assertThat(hits.getTotal()).isEqualTo(2);
+		assertThat(hits.isTotalLowerBound()).isTrue();
+		
+		SnomedConcepts accurateHits = givenAuthenticatedRequest(getApiBaseUrl())
+			.accept(JSON_UTF8)
+			.queryParams(Map.of("limit", 5))
+			.get("/{path}/concepts/", branchPath.getPath())
+			.then().assertThat()
+			.statusCode(200)
+			.extract().as(SnomedConcepts.class);
+		
+		assertThat(accurateHits.getTotal()).isGreaterThan(5);
+		assertThat(accurateHits.isTotalLowerBound()).isFalse();
+	}
+	
+	@Test
+	public void searchWithInvalidTrackTotalHits() throws Exception {
+		givenAuthenticatedRequest(getApiBaseUrl())
+			.accept(JSON_UTF8)
+			.queryParams(Map.of("trackTotalHits", -2))
+			.get("/{path}/concepts/", branchPath.getPath())
+			.then().assertThat()
+			.statusCode(400);
+	}
 }
@@ -25,6 +25,7 @@ import static com.b2international.snowowl.test.commons.rest.RestExtensions.asser
 import static com.b2international.snowowl.test.commons.rest.RestExtensions.givenAuthenticatedRequest;
 import static com.google.common.collect.Lists.newArrayList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.nullValue;
@@ -35,6 +36,7 @@ import static org.junit.Assert.assertTrue;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.hamcrest.CoreMatchers;
 import org.junit.Test;
@@ -48,9 +50,14 @@ import com.b2international.snowowl.core.domain.TransactionContext;
 import com.b2international.snowowl.core.events.bulk.BulkRequest;
 import com.b2international.snowowl.core.events.bulk.BulkRequestBuilder;
 import com.b2international.snowowl.core.request.CommitResult;
+import com.b2international.snowowl.core.rest.util.StreamingCollectionResponseBody;
 import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
 import com.b2international.snowowl.snomed.common.SnomedRf2Headers;
 import com.b2international.snowowl.snomed.core.domain.refset.DataType;
+import com.b2international.snowowl.snomed.core.domain.refset.MemberChange;
+import com.b2international.snowowl.snomed.core.domain.refset.MemberChange.MemberChangeKind;
+import com.b2international.snowowl.snomed.core.domain.refset.QueryRefSetMemberEvaluation;
+import com.b2international.snowowl.snomed.core.domain.refset.QueryRefSetMemberEvaluations;
 import com.b2international.snowowl.snomed.core.domain.refset.SnomedRefSetType;
 import com.b2international.snowowl.snomed.core.domain.refset.SnomedReferenceSetMember;
 import com.b2international.snowowl.snomed.core.domain.refset.SnomedReferenceSetMembers;
@@ -848,6 +855,176 @@ public class SnomedRefSetMemberApiTest extends AbstractSnomedApiTest {
 		checkReferencedComponentIds(conceptIds, simpleRefSetId);
 	}
 	
+	@Test
+	public void evaluateQueryRefSetMembers() throws Exception {
+		String queryRefSetId = createNewRefSet(branchPath, SnomedRefSetType.QUERY);
+		
+		final List<String> memberIds = newArrayList();
+		final List<String> simpleRefSetIds = newArrayList();
+		final List<List<String>> expectedConceptIds = newArrayList();
+		
+		// Each query member targets its own simple reference set and matches the children of a different parent concept
+		for (int i = 0; i < 4; i++) {
+			String simpleRefSetId = createNewRefSet(branchPath);
+			String parentId = createNewConcept(branchPath);
+			
+			List<String> conceptIds = newArrayList();
+			for (int j = 0; j <= i; j++) {
+				String conceptId = createNewConcept(branchPath, parentId);
+				conceptIds.add(conceptId);
+				createNewRelationship(branchPath, conceptId, Concepts.IS_A, parentId, Concepts.INFERRED_RELATIONSHIP);
+			}
+			
+			final Json memberRequest = Json.object(
+				SnomedRf2Headers.FIELD_MODULE_ID, Concepts.MODULE_SCT_CORE,
+				"refsetId", queryRefSetId,
+				SnomedRf2Headers.FIELD_REFERENCED_COMPONENT_ID, simpleRefSetId,
+				SnomedRf2Headers.FIELD_QUERY, "<" + parentId,
+				"commitComment", "Created new query reference set member"
+			);
+			
+			memberIds.add(assertCreated(createComponent(branchPath, SnomedComponentType.MEMBER, memberRequest)));
+			simpleRefSetIds.add(simpleRefSetId);
+			expectedConceptIds.add(conceptIds);
+		}
+		
+		final QueryRefSetMemberEvaluations evaluations = SnomedRequests.prepareQueryRefSetEvaluation(queryRefSetId)
+				.build(branchPath.getPath())
+				.execute(getBus())
+				.getSync();
+		
+		assertThat(evaluations.getItems())
+			.extracting(QueryRefSetMemberEvaluation::getMemberId)
+			.containsExactlyInAnyOrderElementsOf(memberIds);
+		
+		for (QueryRefSetMemberEvaluation evaluation : evaluations) {
+			final int index = memberIds.indexOf(evaluation.getMemberId());
+			
+			assertEquals(simpleRefSetIds.get(index), evaluation.getReferenceSetId());
+			assertThat(evaluation.getChanges())
+				.allMatch(MemberChange::isAdded)
+				.extracting(change -> change.getReferencedComponent().getId())
+				.containsExactlyInAnyOrderElementsOf(expectedConceptIds.get(index));
+			
+			// Evaluating the reference set gives the same result as evaluating the member on its own
+			final QueryRefSetMemberEvaluation memberEvaluation = SnomedRequests.prepareQueryRefSetMemberEvaluation(evaluation.getMemberId())
+					.build(branchPath.getPath())
+					.execute(getBus())
+					.getSync();
+			
+			assertThat(memberEvaluation.getChanges())
+				.extracting(change -> change.getReferencedComponent().getId())
+				.containsExactlyInAnyOrderElementsOf(expectedConceptIds.get(index));
+		}
+	}
+	
+	@Test
+	public void evaluateQueryRefSetMemberChanges() throws Exception {
+		String queryRefSetId = createNewRefSet(branchPath, SnomedRefSetType.QUERY);
+		String simpleRefSetId = createNewRefSet(branchPath);
+		
+		String parentId = createNewConcept(branchPath);
+		List<String> conceptIds = newArrayList();
+		for (int i = 0; i < 3; i++) {
+			String conceptId = createNewConcept(branchPath, parentId);
+			conceptIds.add(conceptId);
+			createNewRelationship(branchPath, conceptId, Concepts.IS_A, parentId, Concepts.INFERRED_RELATIONSHIP);
+		}
+		
+		String unchangedConceptId = conceptIds.get(0);
+		String conceptToActivateId = conceptIds.get(1);
+		String conceptToAddId = conceptIds.get(2);
+		String conceptToRemoveId = createNewConcept(branchPath);
+		
+		// Matching concept with an active member, matching concept with an inactive member only, non-matching concept with an active member
+		createNewRefSetMember(branchPath, unchangedConceptId, simpleRefSetId);
+		String memberToActivateId = createNewRefSetMember(branchPath, conceptToActivateId, simpleRefSetId, Map.<String, Object>of("active", false));
+		String memberToRemoveId = createNewRefSetMember(branchPath, conceptToRemoveId, simpleRefSetId);
+		
+		final Json memberRequest = Json.object(
+			SnomedRf2Headers.FIELD_MODULE_ID, Concepts.MODULE_SCT_CORE,
+			"refsetId", queryRefSetId,
+			SnomedRf2Headers.FIELD_REFERENCED_COMPONENT_ID, simpleRefSetId,
+			SnomedRf2Headers.FIELD_QUERY, "<" + parentId,
+			"commitComment", "Created new query reference set member"
+		);
+		final String memberId = assertCreated(createComponent(branchPath, SnomedComponentType.MEMBER, memberRequest));
+		
+		final QueryRefSetMemberEvaluation evaluation = SnomedRequests.prepareQueryRefSetMemberEvaluation(memberId)
+				.build(branchPath.getPath())
+				.execute(getBus())
+				.getSync();
+		
+		assertEquals(simpleRefSetId, evaluation.getReferenceSetId());
+		assertThat(evaluation.getChanges())
+			.extracting(MemberChange::getChangeKind, change -> change.getReferencedComponent().getId(), MemberChange::getMemberId)
+			.containsExactlyInAnyOrder(
+				tuple(MemberChangeKind.ADD, conceptToAddId, null),
+				tuple(MemberChangeKind.CHANGE, conceptToActivateId, memberToActivateId),
+				tuple(MemberChangeKind.REMOVE, conceptToRemoveId, memberToRemoveId)
+			);
+	}
+	
+	@Test
+	public void searchMembersWithLargeLimit() throws Exception {
+		final String refSetId = createNewRefSet(branchPath);
+		final int pageSize = StreamingCollectionResponseBody.DEFAULT_PAGE_SIZE;
+		final int memberCount = pageSize + 100;
+		
+		final BulkRequestBuilder<TransactionContext> bulk = BulkRequest.create();
+		for (int i = 0; i < memberCount; i++) {
+			bulk.add(SnomedRequests.prepareNewMember()
+				.setId(UUID.randomUUID().toString())
+				.setActive(true)
+				.setModuleId(Concepts.MODULE_SCT_CORE)
+				.setReferencedComponentId(Concepts.ROOT_CONCEPT)
+				.setRefsetId(refSetId));
+		}
+		
+		SnomedRequests.prepareCommit()
+			.setBody(bulk)
+			.setCommitComment("Created simple reference set members")
+			.setAuthor("test")
+			.build(branchPath.getPath())
+			.execute(Services.bus())
+			.getSync();
+		
+		// Limits above the page size are streamed page by page, the response is the same as the one assembled from regular pages
+		final int limit = memberCount - 50;
+		final SnomedReferenceSetMembers streamed = searchMembers(refSetId, limit, null);
+		assertEquals(limit, streamed.getItems().size());
+		assertEquals(limit, streamed.getLimit());
+		assertEquals(memberCount, streamed.getTotal());
+		
+		final SnomedReferenceSetMembers firstPage = searchMembers(refSetId, pageSize, null);
+		final SnomedReferenceSetMembers secondPage = searchMembers(refSetId, limit - pageSize, firstPage.getSearchAfter());
+		final List<String> expectedIds = newArrayList(memberIds(firstPage));
+		expectedIds.addAll(memberIds(secondPage));
+		
+		assertEquals(expectedIds, memberIds(streamed));
+		assertEquals(secondPage.getSearchAfter(), streamed.getSearchAfter());
+		
+		// Streaming continues from the given searchAfter value
+		final SnomedReferenceSetMembers remaining = searchMembers(refSetId, limit, streamed.getSearchAfter());
+		assertEquals(50, remaining.getItems().size());
+		assertThat(memberIds(remaining)).doesNotContainAnyElementsOf(expectedIds);
+		
+		final SnomedReferenceSetMembers empty = searchMembers(createNewRefSet(branchPath), limit, null);
+		assertTrue(empty.isEmpty());
+		assertEquals(limit, empty.getLimit());
+		assertEquals(0, empty.getTotal());
+	}
+	
+	@Test
+	public void searchMembersWithLargeLimitOnMissingBranch() throws Exception {
+		// the first page is fetched before the response is committed, so the failure is reported with the proper status
+		givenAuthenticatedRequest(SnomedApiTestConstants.SCT_API)
+			.queryParam("limit", StreamingCollectionResponseBody.DEFAULT_PAGE_SIZE + 1)
+			.get("/{path}/members", "MAIN/x/y/z")
+			.then()
+			.statusCode(404);
+	}
+	
 	/**
 	 * Removals are sent in a BulkRequest which includes individual DeleteRequests for each member to be deleted. The version of SnomedEditingContext prior to the fix, however, used
 	 * a server-side query to determine the list index for each member, and the list index reported by the database become misaligned with the actual
@@ -939,6 +1116,23 @@ public class SnomedRefSetMemberApiTest extends AbstractSnomedApiTest {
 		executeMemberAction(branchPath, memberId, syncActionRequest).statusCode(200);
 	}
 
+	private SnomedReferenceSetMembers searchMembers(String refSetId, int limit, String searchAfter) {
+		final Map<String, Object> params = searchAfter == null
+				? Map.of("refsetId", refSetId, "limit", limit)
+				: Map.of("refsetId", refSetId, "limit", limit, "searchAfter", searchAfter);
+		
+		return givenAuthenticatedRequest(SnomedApiTestConstants.SCT_API)
+			.queryParams(params)
+			.get("/{path}/members", branchPath.getPath())
+			.then()
+			.statusCode(200)
+			.extract().as(SnomedReferenceSetMembers.class);
+	}
+	
+	private static List<String> memberIds(SnomedReferenceSetMembers members) {
+		return members.stream().map(SnomedReferenceSetMember::getId).collect(Collectors.toList());
+	}
+	
 	private void checkReferencedComponentIds(List<String> conceptIds, String simpleRefSetId) {
 		List<String> referencedComponentIds = getComponent(branchPath, SnomedComponentType.REFSET, simpleRefSetId, "members()")
 				.statusCode(200)
@@ -82,6 +82,10 @@ public class SnomedClassificationRestService extends AbstractRestService {
 			@RequestParam(value="searchAfter", required=false)
 			final String searchAfter,
 			
+			@Parameter(description = "The number of matches to count accurately when computing the total, -1 to skip counting. If the total reaches this number, it is a lower bound of the actual number of matches. All matches are counted by default.")
+			@RequestParam(value="trackTotalHits", required=false)
+			final Integer trackTotalHits,
+			
 			@Parameter(description ="Sort keys")
 			@RequestParam(value="sort", required=false)
 			final List<String> sort,
@@ -96,6 +100,7 @@ public class SnomedClassificationRestService extends AbstractRestService {
 			.filterByStatus(status)
 			.sortBy(extractSortFields(sort))
 			.setSearchAfter(searchAfter)
+			.setTrackTotalHits(trackTotalHits)
 			.setLimit(limit)
 			.build(SnomedApiConfig.REPOSITORY_ID)
 			.execute(getBus());
@@ -173,6 +178,10 @@ public class SnomedClassificationRestService extends AbstractRestService {
 			@RequestParam(value="searchAfter", required=false)
 			final String searchAfter,
 			
+			@Parameter(description = "The number of matches to count accurately when computing the total, -1 to skip counting. If the total reaches this number, it is a lower bound of the actual number of matches. All matches are counted by default.")
+			@RequestParam(value="trackTotalHits", required=false)
+			final Integer trackTotalHits,
+			
 			@Parameter(description ="The maximum number of items to return")
 			@RequestParam(value="limit", defaultValue="50", required=false) 
 			final int limit,
@@ -186,6 +195,7 @@ public class SnomedClassificationRestService extends AbstractRestService {
 				.setExpand("equivalentConcepts(expand(pt()))")
 				.setLocales(acceptLanguage)
 				.setSearchAfter(searchAfter)
+				.setTrackTotalHits(trackTotalHits)
 				.setLimit(limit)
 				.build(SnomedApiConfig.REPOSITORY_ID)
 				.execute(getBus());
@@ -223,6 +233,7 @@ public class SnomedClassificationRestService extends AbstractRestService {
 				.setExpand(expandWithRelationship)
 				.setFields(params.getField())
 				.setSearchAfter(params.getSearchAfter())
+				.setTrackTotalHits(params.getTrackTotalHits())
 				.setLimit(params.getLimit())
 				.build(SnomedApiConfig.REPOSITORY_ID)
 				.execute(getBus());
@@ -98,6 +98,7 @@ public class SnomedConceptRestService extends AbstractRestService {
 		return SnomedRequests
 					.prepareSearchConcept()
 					.setLimit(params.getLimit())
+					.setTrackTotalHits(params.getTrackTotalHits())
 					.setSearchAfter(params.getSearchAfter())
 					.filterByIds(params.getId())
 					.filterByEffectiveTime(params.getEffectiveTime())
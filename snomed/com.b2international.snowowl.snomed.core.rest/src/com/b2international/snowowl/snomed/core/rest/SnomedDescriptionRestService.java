@@ -105,6 +105,7 @@ public class SnomedDescriptionRestService extends AbstractRestService {
 				.isActiveMemberOf(params.getIsActiveMemberOf())
 				.setLocales(acceptLanguage)
 				.setLimit(params.getLimit())
+				.setTrackTotalHits(params.getTrackTotalHits())
 				.setSearchAfter(params.getSearchAfter())
 				.setExpand(params.getExpand())
 				.setFields(params.getField())
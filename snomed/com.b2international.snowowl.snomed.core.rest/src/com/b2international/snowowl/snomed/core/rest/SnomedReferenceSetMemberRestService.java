@@ -19,6 +19,7 @@ import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 import org.springdoc.api.annotations.ParameterObject;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -27,8 +28,10 @@ import org.springframework.web.bind.annotation.*;
 import com.b2international.commons.options.Options;
 import com.b2international.snowowl.core.domain.TransactionContext;
 import com.b2international.snowowl.core.events.util.Promise;
+import com.b2international.snowowl.core.request.SearchResourceRequestIterator;
 import com.b2international.snowowl.core.rest.AbstractRestService;
 import com.b2international.snowowl.core.rest.domain.ResourceSelectors;
+import com.b2international.snowowl.core.rest.util.StreamingCollectionResponseBody;
 import com.b2international.snowowl.snomed.core.domain.refset.SnomedReferenceSetMember;
 import com.b2international.snowowl.snomed.core.domain.refset.SnomedReferenceSetMembers;
 import com.b2international.snowowl.snomed.core.rest.domain.SnomedMemberRestUpdate;
@@ -40,6 +43,7 @@ import com.b2international.snowowl.snomed.core.rest.request.RequestResolver;
 import com.b2international.snowowl.snomed.core.rest.request.RestRequest;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRefSetMemberSearchRequestBuilder;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -55,6 +59,9 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @RequestMapping(value="/{path:**}/members")
 public class SnomedReferenceSetMemberRestService extends AbstractRestService {
 	
+	@Autowired
+	private ObjectMapper objectMapper;
+	
 	public SnomedReferenceSetMemberRestService() {
 		super(SnomedReferenceSetMember.Fields.ALL);
 	}
@@ -70,7 +77,7 @@ public class SnomedReferenceSetMemberRestService extends AbstractRestService {
 		@ApiResponse(responseCode = "404", description = "Branch not found")
 	})
 	@GetMapping(produces = { AbstractRestService.JSON_MEDIA_TYPE })	
-	public @ResponseBody Promise<SnomedReferenceSetMembers> searchByGet(
+	public @ResponseBody Promise<Object> searchByGet(
 			@Parameter(description = "The resource path", required = true)
 			@PathVariable(value="path")
 			final String path,
@@ -84,6 +91,7 @@ public class SnomedReferenceSetMemberRestService extends AbstractRestService {
 
 		final SnomedRefSetMemberSearchRequestBuilder req = SnomedRequests.prepareSearchMember()
 				.setLimit(params.getLimit())
+				.setTrackTotalHits(params.getTrackTotalHits())
 				.setSearchAfter(params.getSearchAfter())
 				.filterByIds(params.getId())
 				.filterByActive(params.getActive())
@@ -101,7 +109,17 @@ public class SnomedReferenceSetMemberRestService extends AbstractRestService {
 			req.filterByProps(propFilters);
 		}
 		
-		return req.build(path).execute(getBus());
+		final int limit = params.getLimit();
+		if (limit > StreamingCollectionResponseBody.DEFAULT_PAGE_SIZE) {
+			// large result sets are fetched and written to the response page by page, the total is computed by the first request
+			req.setLimit(StreamingCollectionResponseBody.DEFAULT_PAGE_SIZE);
+			final SearchResourceRequestIterator<SnomedRefSetMemberSearchRequestBuilder, SnomedReferenceSetMembers> pages = new SearchResourceRequestIterator<>(req, 
+					builder -> builder.build(path).execute(getBus()).getSync(3, TimeUnit.MINUTES), 
+					limit);
+			return Promise.immediate(StreamingCollectionResponseBody.json(objectMapper, pages, limit));
+		}
+		
+		return req.build(path).execute(getBus()).then(members -> members);
 	}
 	
 	@Operation(
@@ -116,7 +134,7 @@ public class SnomedReferenceSetMemberRestService extends AbstractRestService {
 		@ApiResponse(responseCode = "404", description = "Branch not found")
 	})
 	@PostMapping("/search")
-	public @ResponseBody Promise<SnomedReferenceSetMembers> searchByPost(
+	public @ResponseBody Promise<Object> searchByPost(
 			@Parameter(description = "The resource path", required = true)
 			@PathVariable(value="path")
 			final String branch,
@@ -103,6 +103,7 @@ public class SnomedReferenceSetRestService extends AbstractRestService {
 				.setExpand(params.getExpand())
 				.setFields(params.getField())
 				.setSearchAfter(params.getSearchAfter())
+				.setTrackTotalHits(params.getTrackTotalHits())
 				.setLocales(acceptLanguage)
 				.sortBy(sorts)
 				.build(path)
@@ -95,6 +95,7 @@ public class SnomedRelationshipRestService extends AbstractRestService {
 					.filterByValue(params.getOperator(), RelationshipValue.fromLiteral(params.getValue()))
 					.isActiveMemberOf(params.getIsActiveMemberOf())
 					.setLimit(params.getLimit())
+					.setTrackTotalHits(params.getTrackTotalHits())
 					.setSearchAfter(params.getSearchAfter())
 					.setExpand(params.getExpand())
 					.setFields(params.getField())
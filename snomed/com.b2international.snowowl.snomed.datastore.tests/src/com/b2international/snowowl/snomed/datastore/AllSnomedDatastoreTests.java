@@ -22,6 +22,8 @@ import org.junit.runners.Suite.SuiteClasses;
 import com.b2international.snowowl.snomed.core.ecl.*;
 import com.b2international.snowowl.snomed.core.tree.TerminologyTreeTest;
 import com.b2international.snowowl.snomed.datastore.id.memory.DefaultSnomedIdentifierServiceRegressionTest;
+import com.b2international.snowowl.snomed.datastore.id.cis.CisSnomedIdentifierServiceBulkJobTest;
+import com.b2international.snowowl.snomed.datastore.id.memory.DefaultSnomedIdentifierServicePooledTest;
 import com.b2international.snowowl.snomed.datastore.id.memory.DefaultSnomedIdentifierServiceTest;
 import com.b2international.snowowl.snomed.datastore.index.change.*;
 import com.b2international.snowowl.snomed.datastore.index.entry.*;
@@ -42,6 +44,8 @@ import com.b2international.snowowl.snomed.validation.SnomedQueryValidationRuleEv
 	SnomedIdentifierReservationServiceImplTest.class,
 	DefaultSnomedIdentifierServiceTest.class,
 	DefaultSnomedIdentifierServiceRegressionTest.class,
+	DefaultSnomedIdentifierServicePooledTest.class,
+	CisSnomedIdentifierServiceBulkJobTest.class,
 	// index document test cases 
 	SnomedConceptDocumentSerializationTest.class,
 	SnomedRelationshipIndexEntrySerializationTest.class,
@@ -56,6 +60,10 @@ import com.b2international.snowowl.snomed.validation.SnomedQueryValidationRuleEv
 	PreferredDescriptionPreCommitHookTest.class,
 	ConceptChangeProcessorAxiomTest.class,
 	ConceptIconIdUpdaterTest.class,
+	MappedDoiDataTest.class,
+	DoiDataProviderTest.class,
+	// label cache test cases
+	SnomedLabelCacheTest.class,
 	// ECL test cases
 	SnomedEclEvaluationRequestTest.class,
 	SnomedEclEvaluationRequestPropertyFilterTest.class,
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore;
+
+import static com.b2international.snowowl.test.commons.snomed.RandomSnomedIdentiferGenerator.generateDescriptionId;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.eclipse.xtext.parser.IParser;
+import org.eclipse.xtext.serializer.ISerializer;
+import org.eclipse.xtext.validation.IResourceValidator;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.collections.PrimitiveCollectionModule;
+import com.b2international.commons.http.ExtendedLocale;
+import com.b2international.index.Index;
+import com.b2international.index.revision.BaseRevisionIndexTest;
+import com.b2international.index.revision.RevisionIndex;
+import com.b2international.index.revision.RevisionSearcher;
+import com.b2international.snomed.ecl.EclStandaloneSetup;
+import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
+import com.b2international.snowowl.snomed.core.domain.SnomedDescription;
+import com.b2international.snowowl.snomed.core.ecl.DefaultEclParser;
+import com.b2international.snowowl.snomed.core.ecl.DefaultEclSerializer;
+import com.b2international.snowowl.snomed.core.ecl.EclParser;
+import com.b2international.snowowl.snomed.core.ecl.EclSerializer;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedDescriptionFragment;
+import com.b2international.snowowl.test.commons.snomed.DocumentBuilders;
+import com.b2international.snowowl.test.commons.snomed.TestBranchContext;
+import com.b2international.snowowl.test.commons.snomed.TestBranchContext.Builder;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.inject.Injector;
+
+/**
+ * @since 8.0
+ */
+public class SnomedLabelCacheTest extends BaseRevisionIndexTest {
+
+	private static final Injector ECL_INJECTOR = new EclStandaloneSetup().createInjectorAndDoEMFRegistration();
+	private static final List<ExtendedLocale> US = List.of(ExtendedLocale.valueOf("en-x-" + Concepts.REFSET_LANGUAGE_TYPE_US));
+
+	private SnomedLabelCache cache;
+	private BranchContext context;
+
+	@Override
+	protected void configureMapper(ObjectMapper mapper) {
+		super.configureMapper(mapper);
+		mapper.setSerializationInclusion(Include.NON_NULL);
+		mapper.registerModule(new PrimitiveCollectionModule());
+	}
+
+	@Override
+	protected Collection<Class<?>> getTypes() {
+		return Collections.singleton(SnomedConceptDocument.class);
+	}
+
+	@Before
+	public void setup() {
+		cache = new SnomedLabelCache(SnomedLabelCache.DEFAULT_MAXIMUM_SIZE);
+
+		final IParser parser = ECL_INJECTOR.getInstance(IParser.class);
+		final IResourceValidator resourceValidator = ECL_INJECTOR.getInstance(IResourceValidator.class);
+		final ISerializer serializer = ECL_INJECTOR.getInstance(ISerializer.class);
+
+		Builder contextBuilder = TestBranchContext.on(MAIN)
+			.with(EclParser.class, new DefaultEclParser(parser, resourceValidator))
+			.with(EclSerializer.class, new DefaultEclSerializer(serializer))
+			.with(Index.class, rawIndex()).with(RevisionIndex.class, index())
+			.with(ObjectMapper.class, getMapper())
+			.with(SnomedLabelCache.class, cache);
+
+		CodeSystemResource.configureCodeSystem(contextBuilder);
+		context = contextBuilder.build();
+	}
+
+	private Map<String, SnomedDescription> getPreferredTerms(String...conceptIds) {
+		return index().read(MAIN, searcher -> cache.getPreferredTerms(withSearcher(searcher), Set.of(conceptIds), US));
+	}
+
+	private Map<String, SnomedDescription> getFullySpecifiedNames(List<ExtendedLocale> locales, String...conceptIds) {
+		return index().read(MAIN, searcher -> cache.getFullySpecifiedNames(withSearcher(searcher), Set.of(conceptIds), locales));
+	}
+
+	private BranchContext withSearcher(RevisionSearcher searcher) {
+		return context.inject().bind(RevisionSearcher.class, searcher).build();
+	}
+
+	@Test
+	public void loadPreferredTerm() throws Exception {
+		final String ptUk = "SNOMED CT Concept UK";
+		final String ptUs = "SNOMED CT Concept US";
+		indexRevision(MAIN, DocumentBuilders.concept(Concepts.ROOT_CONCEPT).preferredDescriptions(List.of(
+				new SnomedDescriptionFragment(generateDescriptionId(), Concepts.SYNONYM, ptUk, Concepts.REFSET_LANGUAGE_TYPE_UK),
+				new SnomedDescriptionFragment(generateDescriptionId(), Concepts.SYNONYM, ptUs, Concepts.REFSET_LANGUAGE_TYPE_US)))
+				.build());
+
+		assertThat(getPreferredTerms(Concepts.ROOT_CONCEPT))
+			.extractingByKey(Concepts.ROOT_CONCEPT)
+			.extracting(SnomedDescription::getTerm)
+			.isEqualTo(ptUs);
+	}
+
+	@Test
+	public void cachedLabelIsReturnedUntilInvalidated() throws Exception {
+		final SnomedConceptDocument original = DocumentBuilders.concept(Concepts.ROOT_CONCEPT).preferredDescriptions(List.of(
+				new SnomedDescriptionFragment(generateDescriptionId(), Concepts.FULLY_SPECIFIED_NAME, "Original", Concepts.REFSET_LANGUAGE_TYPE_US)))
+				.build();
+		indexRevision(MAIN, original);
+		assertThat(getFullySpecifiedNames(US, Concepts.ROOT_CONCEPT).get(Concepts.ROOT_CONCEPT).getTerm()).isEqualTo("Original");
+
+		final SnomedConceptDocument changed = SnomedConceptDocument.builder(original).preferredDescriptions(List.of(
+				new SnomedDescriptionFragment(generateDescriptionId(), Concepts.FULLY_SPECIFIED_NAME, "Changed", Concepts.REFSET_LANGUAGE_TYPE_US)))
+				.build();
+		indexChange(MAIN, original, changed);
+
+		// the test branch context does not advance its head timestamp, the cached value must be returned
+		assertThat(getFullySpecifiedNames(US, Concepts.ROOT_CONCEPT).get(Concepts.ROOT_CONCEPT).getTerm()).isEqualTo("Original");
+
+		cache.invalidate(MAIN);
+		assertThat(getFullySpecifiedNames(US, Concepts.ROOT_CONCEPT).get(Concepts.ROOT_CONCEPT).getTerm()).isEqualTo("Changed");
+	}
+
+	@Test
+	public void missingLabelIsCached() throws Exception {
+		final SnomedConceptDocument original = DocumentBuilders.concept(Concepts.ROOT_CONCEPT).build();
+		indexRevision(MAIN, original);
+		assertThat(getPreferredTerms(Concepts.ROOT_CONCEPT)).isEmpty();
+		assertThat(cache.getCachedLabels(context, Set.of(Concepts.ROOT_CONCEPT), US, SnomedConcept.Expand.PREFERRED_TERM))
+			.containsEntry(Concepts.ROOT_CONCEPT, Optional.empty());
+	}
+
+	@Test
+	public void defaultFsnWithoutLocales() throws Exception {
+		final String fsn = "SNOMED CT Concept (SNOMED RT+CTV3)";
+		indexRevision(MAIN, DocumentBuilders.concept(Concepts.ROOT_CONCEPT).preferredDescriptions(List.of(
+				new SnomedDescriptionFragment(generateDescriptionId(), Concepts.FULLY_SPECIFIED_NAME, fsn, Concepts.REFSET_LANGUAGE_TYPE_UK)))
+				.build());
+
+		assertThat(getFullySpecifiedNames(List.of(), Concepts.ROOT_CONCEPT).get(Concepts.ROOT_CONCEPT).getTerm()).isEqualTo(fsn);
+	}
+
+	@Test
+	public void invalidateOtherBranch() throws Exception {
+		final SnomedConceptDocument original = DocumentBuilders.concept(Concepts.ROOT_CONCEPT).preferredDescriptions(List.of(
+				new SnomedDescriptionFragment(generateDescriptionId(), Concepts.FULLY_SPECIFIED_NAME, "Original", Concepts.REFSET_LANGUAGE_TYPE_US)))
+				.build();
+		indexRevision(MAIN, original);
+		assertThat(getFullySpecifiedNames(US, Concepts.ROOT_CONCEPT)).containsKey(Concepts.ROOT_CONCEPT);
+
+		// a branch whose path starts with the same characters should not evict labels of MAIN
+		cache.invalidate("MAI");
+		cache.invalidate(MAIN + "/a");
+
+		assertThat(cache.getCachedLabels(context, Set.of(Concepts.ROOT_CONCEPT), US, SnomedConcept.Expand.FULLY_SPECIFIED_NAME)).containsKey(Concepts.ROOT_CONCEPT);
+	}
+
+	@Test
+	public void disabledCache() throws Exception {
+		final String ptUs = "SNOMED CT Concept US";
+		indexRevision(MAIN, DocumentBuilders.concept(Concepts.ROOT_CONCEPT).preferredDescriptions(List.of(
+				new SnomedDescriptionFragment(generateDescriptionId(), Concepts.SYNONYM, ptUs, Concepts.REFSET_LANGUAGE_TYPE_US)))
+				.build());
+
+		final SnomedLabelCache disabled = new SnomedLabelCache(0);
+		assertThat(disabled.isEnabled()).isFalse();
+
+		// labels are still returned, but nothing is stored
+		final Map<String, SnomedDescription> labels = index().read(MAIN, searcher -> disabled.getPreferredTerms(withSearcher(searcher), Set.of(Concepts.ROOT_CONCEPT), US));
+		assertThat(labels.get(Concepts.ROOT_CONCEPT).getTerm()).isEqualTo(ptUs);
+
+		disabled.putLabels(context, Set.of(Concepts.ROOT_CONCEPT), US, SnomedConcept.Expand.PREFERRED_TERM, labels);
+		assertThat(disabled.getCachedLabels(context, Set.of(Concepts.ROOT_CONCEPT), US, SnomedConcept.Expand.PREFERRED_TERM)).isEmpty();
+	}
+
+}
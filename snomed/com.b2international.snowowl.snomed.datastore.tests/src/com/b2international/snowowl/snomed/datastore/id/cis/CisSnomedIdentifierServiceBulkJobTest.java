@@ -0,0 +1,188 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.id.cis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.commons.VerhoeffCheck;
+import com.b2international.snowowl.core.api.SnowowlRuntimeException;
+import com.b2international.snowowl.snomed.cis.SnomedIdentifierConfiguration;
+import com.b2international.snowowl.snomed.cis.client.CisSnomedIdentifierService;
+import com.b2international.snowowl.snomed.cis.domain.SctId;
+import com.b2international.snowowl.snomed.cis.internal.reservations.SnomedIdentifierReservationServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteStreams;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests bulk job handling of {@link CisSnomedIdentifierService} against a local stub CIS server.
+ * 
+ * @since 8.0
+ */
+public class CisSnomedIdentifierServiceBulkJobTest {
+
+	private static final String B2I_NAMESPACE = "1000154";
+	private static final int MAX_CONCURRENT_BULK_JOBS = 2;
+	
+	private final ObjectMapper mapper = new ObjectMapper();
+	
+	// number of status polls per job, jobs finish on their second poll
+	private final Map<String, AtomicInteger> polls = new ConcurrentHashMap<>();
+	private final AtomicInteger submittedJobs = new AtomicInteger();
+	private final AtomicInteger jobsInProgress = new AtomicInteger();
+	private final AtomicInteger maxJobsInProgress = new AtomicInteger();
+	private volatile boolean jobsFinish = true;
+	
+	private HttpServer server;
+	private CisSnomedIdentifierService service;
+
+	@Before
+	public void init() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/api/login", exchange -> respond(exchange, mapper.createObjectNode().put("token", "stub-token")));
+		server.createContext("/api/logout", exchange -> respond(exchange, mapper.createObjectNode()));
+		server.createContext("/api/sct/bulk/ids", this::handleGetIds);
+		server.createContext("/api/sct/bulk/publish", this::handleSubmitJob);
+		server.createContext("/api/bulk/jobs", this::handleJobStatus);
+		server.start();
+		
+		final SnomedIdentifierConfiguration conf = new SnomedIdentifierConfiguration();
+		conf.setStrategy(SnomedIdentifierConfiguration.IdGenerationStrategy.CIS);
+		conf.setCisBaseUrl("http://localhost:" + server.getAddress().getPort());
+		conf.setCisContextRoot("api");
+		conf.setCisUserName("user");
+		conf.setCisPassword("password");
+		conf.setCisTimeBetweenPollTries(10);
+		conf.setCisNumberOfPollTries(1_000);
+		conf.setCisMaxConcurrentBulkJobs(MAX_CONCURRENT_BULK_JOBS);
+		conf.setRequestBulkLimit(2);
+		
+		service = new CisSnomedIdentifierService(conf, new SnomedIdentifierReservationServiceImpl(), mapper);
+	}
+	
+	@After
+	public void after() {
+		service.dispose();
+		server.stop(0);
+	}
+	
+	@Test
+	public void publishSubmitsAndPollsAllBulkJobs() throws Exception {
+		final Map<String, SctId> published = service.publish(toConceptIds(10));
+		
+		assertEquals(10, published.size());
+		assertEquals(5, submittedJobs.get());
+		assertEquals(5, polls.size());
+		assertTrue(polls.values().stream().allMatch(count -> count.get() == 2));
+		assertEquals(0, jobsInProgress.get());
+		assertTrue(maxJobsInProgress.get() <= MAX_CONCURRENT_BULK_JOBS);
+	}
+
+	@Test
+	public void disposeFailsPendingBulkJobs() throws Exception {
+		jobsFinish = false;
+		final CompletableFuture<Map<String, SctId>> publish = CompletableFuture.supplyAsync(() -> service.publish(toConceptIds(4)));
+		
+		final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10L);
+		while (polls.isEmpty()) {
+			assertTrue("Timed out waiting for the first job status poll", System.currentTimeMillis() < deadline);
+			Thread.sleep(10L);
+		}
+		
+		service.dispose();
+		
+		try {
+			publish.get(10L, TimeUnit.SECONDS);
+			fail("Expected publish to fail after the service has been disposed");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof SnowowlRuntimeException);
+			assertTrue(e.getCause().getMessage().contains("disposed"));
+		}
+	}
+
+	private void handleGetIds(HttpExchange exchange) throws IOException {
+		final JsonNode request = mapper.readTree(ByteStreams.toByteArray(exchange.getRequestBody()));
+		final ArrayNode sctIds = mapper.createArrayNode();
+		for (String sctId : request.get("sctids").asText().split(",")) {
+			sctIds.addObject()
+				.put("sctid", sctId)
+				.put("status", "Assigned");
+		}
+		respond(exchange, sctIds);
+	}
+	
+	private void handleSubmitJob(HttpExchange exchange) throws IOException {
+		final String jobId = Integer.toString(submittedJobs.incrementAndGet());
+		maxJobsInProgress.accumulateAndGet(jobsInProgress.incrementAndGet(), Math::max);
+		respond(exchange, mapper.createObjectNode().put("id", jobId));
+	}
+	
+	private void handleJobStatus(HttpExchange exchange) throws IOException {
+		final String path = exchange.getRequestURI().getPath();
+		final String jobId = path.substring(path.lastIndexOf('/') + 1);
+		final int pollCount = polls.computeIfAbsent(jobId, key -> new AtomicInteger()).incrementAndGet();
+		if (jobsFinish && pollCount == 2) {
+			jobsInProgress.decrementAndGet();
+			respond(exchange, mapper.createObjectNode().put("status", 2));
+		} else {
+			respond(exchange, mapper.createObjectNode().put("status", 1));
+		}
+	}
+	
+	private void respond(HttpExchange exchange, JsonNode body) throws IOException {
+		final byte[] bytes = mapper.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+	
+	private static ImmutableSet<String> toConceptIds(int count) {
+		final ImmutableSet.Builder<String> componentIds = ImmutableSet.builder();
+		for (long itemId = 1; itemId <= count; itemId++) {
+			componentIds.add(toConceptId(itemId));
+		}
+		return componentIds.build();
+	}
+	
+	private static String toConceptId(long itemId) {
+		final String partial = itemId + B2I_NAMESPACE + "10";
+		return partial + VerhoeffCheck.calculateChecksum(partial, false);
+	}
+	
+}
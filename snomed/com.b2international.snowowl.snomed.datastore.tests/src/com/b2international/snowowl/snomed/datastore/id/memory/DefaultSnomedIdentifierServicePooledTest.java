@@ -0,0 +1,117 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.id.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.commons.VerhoeffCheck;
+import com.b2international.index.Hits;
+import com.b2international.index.Index;
+import com.b2international.index.Indexes;
+import com.b2international.index.mapping.Mappings;
+import com.b2international.index.query.Expressions;
+import com.b2international.index.query.Query;
+import com.b2international.snowowl.core.terminology.ComponentCategory;
+import com.b2international.snowowl.snomed.cis.ISnomedIdentifierService;
+import com.b2international.snowowl.snomed.cis.SnomedIdentifierConfiguration;
+import com.b2international.snowowl.snomed.cis.SnomedIdentifiers;
+import com.b2international.snowowl.snomed.cis.domain.SctId;
+import com.b2international.snowowl.snomed.cis.gen.SequentialItemIdGenerationStrategy;
+import com.b2international.snowowl.snomed.cis.internal.reservations.SnomedIdentifierReservationServiceImpl;
+import com.b2international.snowowl.snomed.cis.memory.DefaultSnomedIdentifierService;
+import com.b2international.snowowl.snomed.cis.reservations.ISnomedIdentifierReservationService;
+import com.b2international.snowowl.snomed.datastore.id.AbstractIdentifierServiceTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Sets;
+
+/**
+ * @since 8.0
+ */
+public class DefaultSnomedIdentifierServicePooledTest extends AbstractIdentifierServiceTest {
+
+	private DefaultSnomedIdentifierService service;
+	private Index store;
+
+	@Override
+	protected ISnomedIdentifierService getIdentifierService() {
+		return service;
+	}
+
+	@Before
+	public void init() {
+		store = Indexes.createIndex(UUID.randomUUID().toString(), new ObjectMapper(), new Mappings(SctId.class));
+		store.admin().create();
+		
+		final ISnomedIdentifierReservationService reservationService = new SnomedIdentifierReservationServiceImpl();
+		final SnomedIdentifierConfiguration config = new SnomedIdentifierConfiguration();
+		config.setIdPoolSize(10);
+		
+		service = new DefaultSnomedIdentifierService(store, new SequentialItemIdGenerationStrategy(reservationService), reservationService, config);
+	}
+	
+	@After
+	public void after() {
+		service.dispose();
+		store.admin().delete();
+	}
+	
+	@Test
+	public void pendingWritesAreFlushedToIndex() throws Exception {
+		final Set<String> componentIds = service.generate(B2I_NAMESPACE, ComponentCategory.CONCEPT, 3);
+		service.flush();
+		
+		final Hits<SctId> hits = store.read(index -> index.search(Query.select(SctId.class)
+				.where(Expressions.matchAny("sctid", componentIds))
+				.limit(componentIds.size())
+				.build()));
+		assertEquals(3, hits.getTotal());
+	}
+	
+	@Test
+	public void registeredIdsAreNotLeasedFromPool() throws Exception {
+		// the pool is refilled in the background after the first generation 
+		final Set<String> first = service.generate(B2I_NAMESPACE, ComponentCategory.CONCEPT, 1);
+		
+		// register the next 20 identifiers of the counter, covering all pooled IDs
+		final Set<String> registered = Sets.newHashSet();
+		final long firstItemId = SnomedIdentifiers.getItemId(Iterables.getOnlyElement(first));
+		for (long itemId = firstItemId + 1; itemId <= firstItemId + 20; itemId++) {
+			registered.add(toConceptId(itemId));
+		}
+		service.register(ImmutableSet.copyOf(registered));
+		
+		final Set<String> generated = service.generate(B2I_NAMESPACE, ComponentCategory.CONCEPT, 5);
+		assertEquals(5, generated.size());
+		assertTrue(Sets.intersection(generated, registered).isEmpty());
+		assertTrue(Sets.intersection(generated, first).isEmpty());
+	}
+	
+	private static String toConceptId(long itemId) {
+		final String partial = itemId + B2I_NAMESPACE + "10";
+		return partial + VerhoeffCheck.calculateChecksum(partial, false);
+	}
+	
+}
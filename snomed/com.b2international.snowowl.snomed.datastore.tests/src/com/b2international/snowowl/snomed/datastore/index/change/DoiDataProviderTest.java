@@ -0,0 +1,81 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.index.change;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.b2international.collections.PrimitiveMaps;
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.LongKeyFloatMap;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+
+/**
+ * @since 8.0
+ */
+public class DoiDataProviderTest extends BaseChangeProcessorTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void updateScores() throws Exception {
+		final SnomedConceptDocument scored = concept().doi(2.0f).build();
+		final SnomedConceptDocument unscored = concept().doi(3.0f).build();
+		final SnomedConceptDocument unchanged = concept().doi(4.0f).build();
+		initRevisions(scored, unscored, unchanged);
+
+		final LongKeyFloatMap scores = PrimitiveMaps.newLongKeyFloatOpenHashMap();
+		scores.put(Long.parseLong(scored.getId()), 5.0f);
+		scores.put(Long.parseLong(unchanged.getId()), 6.0f);
+		final Path file = folder.newFile().toPath();
+		MappedDoiData.write(file, scores);
+
+		DoiDataProvider.updateScores(rawIndex(), MappedDoiData.open(file), PrimitiveSets.newLongOpenHashSet(Long.parseLong(scored.getId()), Long.parseLong(unscored.getId())));
+
+		assertEquals(5.0f, getRevision(MAIN, SnomedConceptDocument.class, scored.getId()).getDoi(), 0.0f);
+		// concepts without a score get the default value
+		assertEquals(SnomedConceptDocument.DEFAULT_DOI, getRevision(MAIN, SnomedConceptDocument.class, unscored.getId()).getDoi(), 0.0f);
+		// concepts not in the changed set keep their current score
+		assertEquals(4.0f, getRevision(MAIN, SnomedConceptDocument.class, unchanged.getId()).getDoi(), 0.0f);
+	}
+
+	@Test
+	public void updateScoresInBatches() throws Exception {
+		final int numberOfConcepts = 1_500;
+		final SnomedConceptDocument[] concepts = new SnomedConceptDocument[numberOfConcepts];
+		final LongKeyFloatMap scores = PrimitiveMaps.newLongKeyFloatOpenHashMap();
+		for (int i = 0; i < numberOfConcepts; i++) {
+			concepts[i] = concept().build();
+			scores.put(Long.parseLong(concepts[i].getId()), i);
+		}
+		initRevisions(concepts);
+		final Path file = folder.newFile().toPath();
+		MappedDoiData.write(file, scores);
+
+		DoiDataProvider.updateScores(rawIndex(), MappedDoiData.open(file), scores.keySet());
+
+		for (int i = 0; i < numberOfConcepts; i++) {
+			assertEquals((float) i, getRevision(MAIN, SnomedConceptDocument.class, concepts[i].getId()).getDoi(), 0.0f);
+		}
+	}
+
+}
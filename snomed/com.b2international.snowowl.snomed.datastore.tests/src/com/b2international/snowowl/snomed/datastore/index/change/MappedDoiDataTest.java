@@ -0,0 +1,103 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.index.change;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.b2international.collections.PrimitiveMaps;
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.LongKeyFloatMap;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+
+/**
+ * @since 8.0
+ */
+public class MappedDoiDataTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void empty() throws Exception {
+		assertEquals(0, MappedDoiData.EMPTY.size());
+		assertEquals(SnomedConceptDocument.DEFAULT_DOI, MappedDoiData.EMPTY.getDoiScore(138875005L), 0.0f);
+	}
+
+	@Test
+	public void openSorted() throws Exception {
+		final Path file = folder.newFile().toPath();
+		MappedDoiData.write(file, scores(100L, 2.0f, 200L, 3.0f, 300L, 4.0f));
+
+		final MappedDoiData data = MappedDoiData.open(file);
+		assertEquals(3, data.size());
+		assertEquals(2.0f, data.getDoiScore(100L), 0.0f);
+		assertEquals(3.0f, data.getDoiScore(200L), 0.0f);
+		assertEquals(4.0f, data.getDoiScore(300L), 0.0f);
+		assertEquals(SnomedConceptDocument.DEFAULT_DOI, data.getDoiScore(150L), 0.0f);
+	}
+
+	@Test
+	public void openUnsorted() throws Exception {
+		final Path file = folder.newFile().toPath();
+		try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file))) {
+			out.writeInt(3);
+			out.writeLong(300L);
+			out.writeFloat(4.0f);
+			out.writeLong(100L);
+			out.writeFloat(2.0f);
+			out.writeLong(200L);
+			out.writeFloat(3.0f);
+		}
+
+		final MappedDoiData data = MappedDoiData.open(file);
+		assertEquals(3, data.size());
+		assertEquals(2.0f, data.getDoiScore(100L), 0.0f);
+		assertEquals(3.0f, data.getDoiScore(200L), 0.0f);
+		assertEquals(4.0f, data.getDoiScore(300L), 0.0f);
+	}
+
+	@Test
+	public void changedConceptIds() throws Exception {
+		final Path previousFile = folder.newFile().toPath();
+		MappedDoiData.write(previousFile, scores(100L, 2.0f, 200L, 3.0f, 300L, 4.0f));
+		final Path nextFile = folder.newFile().toPath();
+		MappedDoiData.write(nextFile, scores(200L, 3.0f, 300L, 5.0f, 400L, 6.0f));
+
+		final MappedDoiData previous = MappedDoiData.open(previousFile);
+		final MappedDoiData next = MappedDoiData.open(nextFile);
+		assertEquals(PrimitiveSets.newLongOpenHashSet(100L, 300L, 400L), next.getChangedConceptIds(previous));
+		assertEquals(PrimitiveSets.newLongOpenHashSet(100L, 300L, 400L), previous.getChangedConceptIds(next));
+		assertTrue(next.getChangedConceptIds(next).isEmpty());
+	}
+
+	private static LongKeyFloatMap scores(Object...conceptIdsAndScores) {
+		final LongKeyFloatMap scores = PrimitiveMaps.newLongKeyFloatOpenHashMap();
+		for (int i = 0; i < conceptIdsAndScores.length; i += 2) {
+			scores.put((long) conceptIdsAndScores[i], (float) conceptIdsAndScores[i + 1]);
+		}
+		return scores;
+	}
+
+}
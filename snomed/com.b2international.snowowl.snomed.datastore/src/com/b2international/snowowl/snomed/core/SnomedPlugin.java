@@ -29,6 +29,7 @@ import com.b2international.snowowl.core.config.SnowOwlConfiguration;
 import com.b2international.snowowl.core.domain.BranchContext;
 import com.b2international.snowowl.core.domain.ContextConfigurer;
 import com.b2international.snowowl.core.domain.IComponent;
+import com.b2international.snowowl.core.events.Notifications;
 import com.b2international.snowowl.core.internal.locks.DatastoreLockContextDescriptions;
 import com.b2international.snowowl.core.merge.ComponentRevisionConflictProcessor;
 import com.b2international.snowowl.core.plugin.Component;
@@ -65,7 +66,9 @@ import com.b2international.snowowl.snomed.core.request.SnomedConceptSearchReques
 import com.b2international.snowowl.snomed.core.request.SnomedQueryOptimizer;
 import com.b2international.snowowl.snomed.core.uri.SnomedURLSchemaSupport;
 import com.b2international.snowowl.snomed.core.version.SnomedVersioningRequest;
+import com.b2international.snowowl.snomed.datastore.SnomedLabelCache;
 import com.b2international.snowowl.snomed.datastore.config.SnomedCoreConfiguration;
+import com.b2international.snowowl.snomed.datastore.index.change.DoiDataProvider;
 import com.b2international.snowowl.snomed.datastore.index.change.SnomedRepositoryPreCommitHook;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedDocument;
 import com.b2international.snowowl.snomed.datastore.request.ModuleRequest.ModuleIdProvider;
@@ -108,6 +111,14 @@ public final class SnomedPlugin extends TerminologyRepositoryPlugin {
 	
 	@Override
 	public void preRun(SnowOwlConfiguration configuration, Environment env) throws Exception {
+		if (env.isServer()) {
+			// initialize node-local PT/FSN label cache, evicted by commit notifications
+			final SnomedCoreConfiguration coreConfig = configuration.getModuleConfig(SnomedCoreConfiguration.class);
+			env.services().registerService(SnomedLabelCache.class, new SnomedLabelCache(coreConfig.getLabelCacheSize()).subscribe(env.service(Notifications.class)));
+			// load concept DOI scores from the configured file (or the bundled scores if the file does not exist yet)
+			DoiDataProvider.INSTANCE.configure(env.getDataPath().resolve(coreConfig.getDoiFile()));
+		}
+		
 		// initialize MRCM Import-Export API
 		if (env.isServer()) {
 			env.services().registerService(MrcmExporter.class, new MrcmExporterImpl(env.provider(IEventBus.class)));
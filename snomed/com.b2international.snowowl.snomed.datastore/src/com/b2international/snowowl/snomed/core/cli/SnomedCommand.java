@@ -15,17 +15,24 @@
  */
 package com.b2international.snowowl.snomed.core.cli;
 
+import java.io.IOException;
 import java.io.PrintStream;
 import java.nio.file.Paths;
 
+import com.b2international.collections.longs.LongSet;
+import com.b2international.index.revision.RevisionIndex;
+import com.b2international.snowowl.core.ApplicationContext;
 import com.b2international.snowowl.core.attachments.Attachment;
 import com.b2international.snowowl.core.console.Command;
 import com.b2international.snowowl.core.console.CommandLineStream;
 import com.b2international.snowowl.core.identity.Permission;
 import com.b2international.snowowl.core.identity.User;
 import com.b2international.snowowl.core.plugin.Component;
+import com.b2international.snowowl.core.repository.RepositoryManager;
 import com.b2international.snowowl.core.request.io.ImportResponse;
+import com.b2international.snowowl.snomed.common.SnomedTerminologyComponentConstants;
 import com.b2international.snowowl.snomed.core.domain.Rf2ReleaseType;
+import com.b2international.snowowl.snomed.datastore.index.change.DoiDataProvider;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
 
 import picocli.CommandLine;
@@ -43,7 +50,8 @@ import picocli.CommandLine.Parameters;
 	description = "Provides subcommands to manage SNOMED CT content",
 	subcommands = {
 		HelpCommand.class,
-		SnomedCommand.ImportCommand.class
+		SnomedCommand.ImportCommand.class,
+		SnomedCommand.DoiCommand.class
 	}
 )
 public final class SnomedCommand extends Command {
@@ -106,4 +114,42 @@ public final class SnomedCommand extends Command {
 			}
 		}
 	}
+	
+	@picocli.CommandLine.Command(
+		name = "doi",
+		header = "Reloads concept degree of interest scores",
+		description = "Replaces the degree of interest scores of SNOMED CT concepts with the content of the given file and updates the scores of already indexed concepts in place. "
+				+ "The file is copied to the configured 'snomed.doiFile' location, other nodes pick up the new scores when restarted"
+	)
+	private static final class DoiCommand extends Command {
+		
+		@Parameters(paramLabel = "PATH", description = "The absolute path to the score data file")
+		String path;
+		
+		@Override
+		public void run(CommandLineStream out) {
+			final User user = out.authenticate(getBus());
+			
+			if (user == null || !user.isAdministrator()) {
+				out.println("User is unauthorized to reload degree of interest scores.");
+				return;
+			}
+			
+			final LongSet changedConceptIds;
+			try {
+				changedConceptIds = DoiDataProvider.INSTANCE.reload(Paths.get(path));
+			} catch (IOException e) {
+				out.println("Failed to read degree of interest scores from file '%s'. %s", path, e.getMessage());
+				return;
+			}
+			
+			final RevisionIndex index = ApplicationContext.getServiceForClass(RepositoryManager.class)
+					.get(SnomedTerminologyComponentConstants.TOOLING_ID)
+					.service(RevisionIndex.class);
+			DoiDataProvider.INSTANCE.updateScores(index.index(), changedConceptIds);
+			out.println("Reloaded degree of interest scores from file '%s', updated the score of %s concepts.", path, changedConceptIds.size());
+		}
+		
+	}
+	
 }
@@ -35,6 +35,8 @@ import com.b2international.snowowl.core.emf.EObjectWalker;
 import com.b2international.snowowl.core.identity.Permission;
 import com.b2international.snowowl.core.request.ResourceRequest;
 import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
+import com.b2international.snowowl.snomed.core.domain.SnomedDescription;
+import com.b2international.snowowl.snomed.datastore.SnomedLabelCache;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Strings;
@@ -101,16 +103,25 @@ final class SnomedEclLabelerRequest extends ResourceRequest<BranchContext, Label
 			throw badRequestException;
 		}
 		
-		// fetch all concept labels
-		final Map<String, String> labels = SnomedRequests.prepareSearchConcept()
-				.filterByIds(conceptIdsToLabel)
-				.setLimit(conceptIdsToLabel.size())
-				.setExpand(descriptionType.toLowerCase() + "()")
-				.setLocales(locales())
-				.build()
-				.execute(context)
-				.stream()
-				.collect(Collectors.toMap(SnomedConcept::getId, this::extractLabel));
+		// fetch all concept labels, use the node-local label cache if available
+		final Optional<SnomedLabelCache> labelCache = context.optionalService(SnomedLabelCache.class).filter(SnomedLabelCache::isEnabled);
+		final Map<String, String> labels;
+		if (labelCache.isPresent() && isCacheableDescriptionType()) {
+			final Map<String, SnomedDescription> descriptions = SnomedConcept.Expand.FULLY_SPECIFIED_NAME.equals(descriptionType) 
+					? labelCache.get().getFullySpecifiedNames(context, conceptIdsToLabel, locales())
+					: labelCache.get().getPreferredTerms(context, conceptIdsToLabel, locales());
+			labels = Maps.transformValues(descriptions, SnomedDescription::getTerm);
+		} else {
+			labels = SnomedRequests.prepareSearchConcept()
+					.filterByIds(conceptIdsToLabel)
+					.setLimit(conceptIdsToLabel.size())
+					.setExpand(descriptionType.toLowerCase() + "()")
+					.setLocales(locales())
+					.build()
+					.execute(context)
+					.stream()
+					.collect(Collectors.toMap(SnomedConcept::getId, this::extractLabel));
+		}
 		
 		// expand all queries with labels
 		List<String> results = expressions.stream()
@@ -128,6 +139,10 @@ final class SnomedEclLabelerRequest extends ResourceRequest<BranchContext, Label
 		return new LabeledEclExpressions(results);
 	}
 	
+	private boolean isCacheableDescriptionType() {
+		return SnomedConcept.Expand.FULLY_SPECIFIED_NAME.equals(descriptionType) || SnomedConcept.Expand.PREFERRED_TERM.equals(descriptionType);
+	}
+	
 	private String extractLabel(SnomedConcept concept) {
 		switch (descriptionType) {
 		case SnomedConcept.Expand.FULLY_SPECIFIED_NAME:
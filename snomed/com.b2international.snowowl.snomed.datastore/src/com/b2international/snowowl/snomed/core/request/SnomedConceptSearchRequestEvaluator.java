@@ -122,13 +122,14 @@ public final class SnomedConceptSearchRequestEvaluator implements ConceptSearchR
 				.setLocales(search.getList(OptionKey.LOCALES, ExtendedLocale.class))
 				.setSearchAfter(search.getString(OptionKey.AFTER))
 				.setLimit(search.get(OptionKey.LIMIT, Integer.class))
+				.setTrackTotalHits(search.get(OptionKey.TRACK_TOTAL_HITS, Integer.class))
 				.setFields(search.getList(OptionKey.FIELDS, String.class))
 				.setExpand(expand)
 				.sortBy(search.containsKey(SearchResourceRequest.OptionKey.SORT_BY) ? search.getList(SearchResourceRequest.OptionKey.SORT_BY, SearchResourceRequest.Sort.class) : null)
 				.build(uri)
 				.execute(context);
 
-		return new Concepts(
+		final Concepts concepts = new Concepts(
 			matches
 				.stream()
 				.map(concept -> toConcept(uri, concept, displayTermType.getLabel(concept), requestedExpand))
@@ -137,6 +138,8 @@ public final class SnomedConceptSearchRequestEvaluator implements ConceptSearchR
 			matches.getLimit(), 
 			matches.getTotal()
 		);
+		concepts.setTotalLowerBound(matches.isTotalLowerBound());
+		return concepts;
 	}
 	
 }
@@ -0,0 +1,346 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.Maps.newHashMapWithExpectedSize;
+import static com.google.common.collect.Sets.newHashSet;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.b2international.commons.http.ExtendedLocale;
+import com.b2international.index.revision.RevisionIndex;
+import com.b2international.snowowl.core.ComponentIdentifier;
+import com.b2international.snowowl.core.IDisposableService;
+import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.core.events.Notifications;
+import com.b2international.snowowl.core.repository.RepositoryCommitNotification;
+import com.b2international.snowowl.snomed.common.SnomedTerminologyComponentConstants;
+import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
+import com.b2international.snowowl.snomed.core.domain.SnomedDescription;
+import com.b2international.snowowl.snomed.core.domain.refset.SnomedReferenceSetMember;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
+import com.google.common.base.MoreObjects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Iterables;
+
+import io.reactivex.disposables.Disposable;
+
+/**
+ * Node-local cache of the preferred term and fully specified name of SNOMED CT concepts. Labels are kept in a separate bounded cache for each branch
+ * (point-in-time references share the cache of their branch), the labels of the {@link #MAXIMUM_BRANCHES most recently used branches} are
+ * retained. Within a branch labels are keyed by the branch reference (requested path and head timestamp of the branch), the concept ID, the kind of
+ * label (PT or FSN) and the resolved list of language reference set IDs.
+ * <p>
+ * Since the head timestamp changes with every commit, stale entries are never returned. In addition to that the labels of a branch are dropped
+ * eagerly when a {@link RepositoryCommitNotification commit notification} arrives that touches descriptions or reference set members on that branch.
+ * <p>
+ * A cache with a maximum size of zero is disabled, it does not store labels and resolves every request with a concept search.
+ *
+ * @since 8.0
+ */
+public final class SnomedLabelCache implements IDisposableService {
+
+	/**
+	 * The default maximum number of labels cached for a single branch.
+	 */
+	public static final int DEFAULT_MAXIMUM_SIZE = 20_000;
+	
+	/**
+	 * The maximum number of branches to keep labels for.
+	 */
+	public static final int MAXIMUM_BRANCHES = 10;
+
+	private static final String BRANCH_REF_SEPARATOR = "#";
+
+	private final long maximumSize;
+	private final LoadingCache<String, Cache<LabelKey, Optional<SnomedDescription>>> labelsByBranch;
+	private final AtomicBoolean disposed = new AtomicBoolean(false);
+	private Disposable subscription;
+
+	/**
+	 * @param maximumSize - the maximum number of labels to cache for a single branch, <code>0</code> disables the cache
+	 */
+	public SnomedLabelCache(long maximumSize) {
+		checkArgument(maximumSize >= 0, "Maximum size must be greater than or equal to zero");
+		this.maximumSize = maximumSize;
+		this.labelsByBranch = CacheBuilder.newBuilder()
+				.maximumSize(MAXIMUM_BRANCHES)
+				.build(CacheLoader.from(() -> CacheBuilder.newBuilder().maximumSize(maximumSize).build()));
+	}
+	
+	/**
+	 * @return <code>true</code> if this cache stores labels, <code>false</code> if it was created with a maximum size of zero
+	 */
+	public boolean isEnabled() {
+		return maximumSize > 0;
+	}
+
+	/**
+	 * Registers this cache to receive commit notifications from the given {@link Notifications} stream.
+	 *
+	 * @param notifications
+	 * @return this cache for method chaining
+	 */
+	public SnomedLabelCache subscribe(Notifications notifications) {
+		this.subscription = notifications.ofType(RepositoryCommitNotification.class)
+			.filter(notification -> SnomedTerminologyComponentConstants.TOOLING_ID.equals(notification.getRepositoryId()))
+			.filter(SnomedLabelCache::affectsLabels)
+			.subscribe(notification -> invalidate(notification.getBranchPath()));
+		return this;
+	}
+
+	/**
+	 * Returns the preferred terms of the given concepts on the branch of the given context. Concepts without a preferred term in the given locales
+	 * will not have an entry in the returned {@link Map}. Labels missing from the cache are loaded with a single concept search request.
+	 *
+	 * @param context - the branch context to use
+	 * @param conceptIds - the concept identifiers to return the preferred terms for
+	 * @param locales - the locales to use for preferred term selection
+	 * @return a {@link Map} of concept IDs to preferred terms, never <code>null</code>
+	 */
+	public Map<String, SnomedDescription> getPreferredTerms(BranchContext context, Collection<String> conceptIds, List<ExtendedLocale> locales) {
+		return getLabels(context, conceptIds, locales, SnomedConcept.Expand.PREFERRED_TERM);
+	}
+
+	/**
+	 * Returns the fully specified names of the given concepts on the branch of the given context. Concepts without an FSN will not have an entry in
+	 * the returned {@link Map}. Labels missing from the cache are loaded with a single concept search request.
+	 *
+	 * @param context - the branch context to use
+	 * @param conceptIds - the concept identifiers to return the fully specified names for
+	 * @param locales - the locales to use for fully specified name selection
+	 * @return a {@link Map} of concept IDs to fully specified names, never <code>null</code>
+	 */
+	public Map<String, SnomedDescription> getFullySpecifiedNames(BranchContext context, Collection<String> conceptIds, List<ExtendedLocale> locales) {
+		return getLabels(context, conceptIds, locales, SnomedConcept.Expand.FULLY_SPECIFIED_NAME);
+	}
+
+	private Map<String, SnomedDescription> getLabels(BranchContext context, Collection<String> conceptIds, List<ExtendedLocale> locales, String labelType) {
+		if (conceptIds.isEmpty()) {
+			return Map.of();
+		}
+
+		final Map<String, Optional<SnomedDescription>> cachedLabels = getCachedLabels(context, conceptIds, locales, labelType);
+		final Map<String, SnomedDescription> results = newHashMapWithExpectedSize(conceptIds.size());
+		final Set<String> missingConceptIds = newHashSet();
+
+		for (String conceptId : conceptIds) {
+			final Optional<SnomedDescription> label = cachedLabels.get(conceptId);
+			if (label == null) {
+				missingConceptIds.add(conceptId);
+			} else if (label.isPresent()) {
+				results.put(conceptId, label.get());
+			}
+		}
+
+		if (!missingConceptIds.isEmpty()) {
+			// the concept converter populates the cache (if enabled) with both labels of each loaded concept, see putLabels
+			SnomedRequests.prepareSearchConcept()
+				.filterByIds(missingConceptIds)
+				.setLimit(missingConceptIds.size())
+				.setFields(SnomedConceptDocument.Fields.ID)
+				.setExpand(isEnabled() ? "pt(),fsn()" : labelType + "()")
+				.setLocales(locales)
+				.build()
+				.execute(context)
+				.forEach(concept -> {
+					final SnomedDescription label = SnomedConcept.Expand.PREFERRED_TERM.equals(labelType) ? concept.getPt() : concept.getFsn();
+					if (label != null) {
+						results.put(concept.getId(), copy(label));
+					}
+				});
+		}
+
+		return results;
+	}
+
+	/**
+	 * Returns the cached labels of the given type for the given concepts. Concepts that have no cached entry are not included in the returned
+	 * {@link Map}, while concepts that are known not to have a label are included with an {@link Optional#empty() empty} value.
+	 *
+	 * @param context
+	 * @param conceptIds
+	 * @param locales
+	 * @param labelType - either {@link SnomedConcept.Expand#PREFERRED_TERM} or {@link SnomedConcept.Expand#FULLY_SPECIFIED_NAME}
+	 * @return
+	 */
+	public Map<String, Optional<SnomedDescription>> getCachedLabels(BranchContext context, Collection<String> conceptIds, List<ExtendedLocale> locales, String labelType) {
+		if (!isEnabled() || conceptIds.isEmpty()) {
+			return Map.of();
+		}
+		
+		final Cache<LabelKey, Optional<SnomedDescription>> labels = labelsByBranch.getIfPresent(toBranchKey(context));
+		if (labels == null) {
+			return Map.of();
+		}
+
+		final String branchRef = toBranchRef(context);
+		final List<String> languageRefSetIds = SnomedDescriptionUtils.getLanguageRefSetIds(context, locales);
+		final Map<String, Optional<SnomedDescription>> results = newHashMapWithExpectedSize(conceptIds.size());
+		for (String conceptId : conceptIds) {
+			final Optional<SnomedDescription> label = labels.getIfPresent(new LabelKey(branchRef, conceptId, labelType, languageRefSetIds));
+			if (label != null) {
+				results.put(conceptId, label.map(SnomedLabelCache::copy));
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Stores the computed labels of the given type for the given concepts. Concepts without an entry in the labels {@link Map} are registered as
+	 * having no label in the given locales.
+	 *
+	 * @param context
+	 * @param conceptIds
+	 * @param locales
+	 * @param labelType - either {@link SnomedConcept.Expand#PREFERRED_TERM} or {@link SnomedConcept.Expand#FULLY_SPECIFIED_NAME}
+	 * @param computedLabels
+	 */
+	public void putLabels(BranchContext context, Collection<String> conceptIds, List<ExtendedLocale> locales, String labelType, Map<String, SnomedDescription> computedLabels) {
+		if (!isEnabled() || conceptIds.isEmpty()) {
+			return;
+		}
+
+		final Cache<LabelKey, Optional<SnomedDescription>> labels = labelsByBranch.getUnchecked(toBranchKey(context));
+		final String branchRef = toBranchRef(context);
+		final List<String> languageRefSetIds = SnomedDescriptionUtils.getLanguageRefSetIds(context, locales);
+		for (String conceptId : conceptIds) {
+			final SnomedDescription label = computedLabels.get(conceptId);
+			labels.put(new LabelKey(branchRef, conceptId, labelType, languageRefSetIds), Optional.ofNullable(label).map(SnomedLabelCache::copy));
+		}
+	}
+
+	/**
+	 * Evicts all cached labels computed on the given branch path (including point-in-time references of the same branch).
+	 *
+	 * @param branchPath
+	 */
+	public void invalidate(String branchPath) {
+		labelsByBranch.invalidate(branchPath);
+	}
+
+	public void invalidateAll() {
+		labelsByBranch.invalidateAll();
+	}
+
+	@Override
+	public void dispose() {
+		if (disposed.compareAndSet(false, true)) {
+			if (subscription != null) {
+				subscription.dispose();
+				subscription = null;
+			}
+			labelsByBranch.invalidateAll();
+		}
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return disposed.get();
+	}
+
+	private static boolean affectsLabels(RepositoryCommitNotification notification) {
+		return containsLabelComponent(notification.getNewComponents())
+				|| containsLabelComponent(notification.getChangedComponents())
+				|| containsLabelComponent(notification.getDeletedComponents());
+	}
+
+	private static boolean containsLabelComponent(Set<ComponentIdentifier> components) {
+		return Iterables.any(components, component -> SnomedDescription.TYPE.equals(component.getComponentType())
+				|| SnomedReferenceSetMember.TYPE.equals(component.getComponentType()));
+	}
+
+	/*
+	 * Point-in-time and base references are cached together with their branch, so they are also dropped when the branch changes
+	 */
+	private static String toBranchKey(BranchContext context) {
+		final String path = context.path();
+		if (RevisionIndex.isRevRangePath(path)) {
+			return path;
+		}
+		final int atIdx = path.indexOf(RevisionIndex.AT_CHAR);
+		final int baseIdx = path.indexOf(RevisionIndex.BASE_REF_CHAR);
+		if (atIdx < 0 && baseIdx < 0) {
+			return path;
+		}
+		final int suffixIdx = atIdx < 0 ? baseIdx : baseIdx < 0 ? atIdx : Math.min(atIdx, baseIdx);
+		return path.substring(0, suffixIdx);
+	}
+
+	private static String toBranchRef(BranchContext context) {
+		return context.path() + BRANCH_REF_SEPARATOR + context.branch().headTimestamp();
+	}
+
+	@SuppressWarnings("deprecation")
+	private static SnomedDescription copy(SnomedDescription label) {
+		final SnomedDescription copy = new SnomedDescription(label.getId());
+		copy.setConceptId(label.getConceptId());
+		copy.setTerm(label.getTerm());
+		copy.setTypeId(label.getTypeId());
+		copy.setAcceptabilityMap(label.getAcceptabilityMap());
+		return copy;
+	}
+
+	private static final class LabelKey {
+
+		private final String branchRef;
+		private final String conceptId;
+		private final String labelType;
+		private final List<String> languageRefSetIds;
+
+		LabelKey(String branchRef, String conceptId, String labelType, List<String> languageRefSetIds) {
+			this.branchRef = branchRef;
+			this.conceptId = conceptId;
+			this.labelType = labelType;
+			this.languageRefSetIds = languageRefSetIds;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(branchRef, conceptId, labelType, languageRefSetIds);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) return true;
+			if (obj == null) return false;
+			if (getClass() != obj.getClass()) return false;
+			final LabelKey other = (LabelKey) obj;
+			return Objects.equals(branchRef, other.branchRef)
+					&& Objects.equals(conceptId, other.conceptId)
+					&& Objects.equals(labelType, other.labelType)
+					&& Objects.equals(languageRefSetIds, other.languageRefSetIds);
+		}
+
+		@Override
+		public String toString() {
+			return MoreObjects.toStringHelper(this)
+					.add("branchRef", branchRef)
+					.add("conceptId", conceptId)
+					.add("labelType", labelType)
+					.add("languageRefSetIds", languageRefSetIds)
+					.toString();
+		}
+
+	}
+
+}
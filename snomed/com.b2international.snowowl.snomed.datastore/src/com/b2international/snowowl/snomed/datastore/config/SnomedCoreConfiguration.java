@@ -25,6 +25,7 @@ import javax.validation.constraints.NotNull;
 import org.hibernate.validator.constraints.NotEmpty;
 
 import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.datastore.SnomedLabelCache;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
@@ -39,6 +40,7 @@ public class SnomedCoreConfiguration {
 	public static final int DEFAULT_MAXIMUM_REASONER_COUNT = 2;
 	public static final int DEFAULT_MAXIMUM_REASONER_RESULTS = 10;
 	public static final int DEFAULT_MAXIMUM_REASONER_RUNS = 1000;
+	public static final String DEFAULT_DOI_FILE = "snomed/doi.bin"; //$NON-NLS-1$
 	
 	@Min(1)
 	@Max(3)
@@ -88,6 +90,12 @@ public class SnomedCoreConfiguration {
 	@NotNull
 	private String namespaceModuleAssigner = "default";
 	
+	@Min(0)
+	private int labelCacheSize = SnomedLabelCache.DEFAULT_MAXIMUM_SIZE;
+	
+	@NotEmpty
+	private String doiFile = DEFAULT_DOI_FILE;
+	
 	/**
 	 * @return the number of reasoners that are permitted to run simultaneously.
 	 */
@@ -322,6 +330,34 @@ public class SnomedCoreConfiguration {
 		this.namespaceModuleAssigner = namespaceModuleAssigner;
 	}
 	
+	/**
+	 * @return the maximum number of preferred terms and fully specified names to keep for each branch in the node-local label cache,
+	 *         <code>0</code> disables caching
+	 */
+	@JsonProperty
+	public int getLabelCacheSize() {
+		return labelCacheSize;
+	}
+	
+	@JsonProperty
+	public void setLabelCacheSize(int labelCacheSize) {
+		this.labelCacheSize = labelCacheSize;
+	}
+	
+	/**
+	 * @return the file storing the degree of interest scores of concepts, relative to the data directory unless it is an absolute path. The
+	 *         bundled scores are used until the file is created by reloading the scores.
+	 */
+	@JsonProperty
+	public String getDoiFile() {
+		return doiFile;
+	}
+	
+	@JsonProperty
+	public void setDoiFile(String doiFile) {
+		this.doiFile = doiFile;
+	}
+	
 	@JsonProperty
 	public Set<String> getReasonerExcludedModuleIds() {
 		return this.reasonerExcludedModuleIds;
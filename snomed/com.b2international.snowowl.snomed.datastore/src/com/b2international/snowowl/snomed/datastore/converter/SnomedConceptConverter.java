@@ -22,6 +22,7 @@ import static com.google.common.collect.Sets.newHashSet;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -36,6 +37,7 @@ import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
 import com.b2international.snowowl.snomed.core.domain.*;
 import com.b2international.snowowl.snomed.core.domain.refset.SnomedReferenceSet;
 import com.b2international.snowowl.snomed.datastore.SnomedDescriptionUtils;
+import com.b2international.snowowl.snomed.datastore.SnomedLabelCache;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
 import com.google.common.base.Functions;
@@ -200,17 +202,34 @@ public final class SnomedConceptConverter extends BaseRevisionResourceConverter<
 			return;
 		}
 		
+		final Optional<SnomedLabelCache> labelCache = context().optionalService(SnomedLabelCache.class).filter(SnomedLabelCache::isEnabled);
+		final Map<String, Optional<SnomedDescription>> cachedTerms = labelCache
+				.map(cache -> cache.getCachedLabels(context(), conceptIds, locales(), SnomedConcept.Expand.PREFERRED_TERM))
+				.orElse(Map.of());
+		
+		final Set<String> conceptIdsToCompute = newHashSet();
 		final List<SnomedDescription> synonyms = newArrayList();
 		for (SnomedConcept result : results) {
+			if (cachedTerms.containsKey(result.getId())) {
+				continue;
+			}
+			conceptIdsToCompute.add(result.getId());
 			for (SnomedDescription description : result.getPreferredDescriptions()) {
 				if (!Concepts.FULLY_SPECIFIED_NAME.equals(description.getTypeId())) {
 					synonyms.add(description);
 				}
 			}
 		}
+		
 		final Map<String, SnomedDescription> terms = SnomedDescriptionUtils.indexBestPreferredByConceptId(context(), synonyms, locales());
+		labelCache.ifPresent(cache -> cache.putLabels(context(), conceptIdsToCompute, locales(), SnomedConcept.Expand.PREFERRED_TERM, terms));
+		
 		for (SnomedConcept concept : results) {
-			concept.setPt(terms.get(concept.getId()));
+			if (cachedTerms.containsKey(concept.getId())) {
+				concept.setPt(cachedTerms.get(concept.getId()).orElse(null));
+			} else {
+				concept.setPt(terms.get(concept.getId()));
+			}
 		}
 	}
 
@@ -219,9 +238,19 @@ public final class SnomedConceptConverter extends BaseRevisionResourceConverter<
 			return;
 		}
 		
+		final Optional<SnomedLabelCache> labelCache = context().optionalService(SnomedLabelCache.class).filter(SnomedLabelCache::isEnabled);
+		final Map<String, Optional<SnomedDescription>> cachedTerms = labelCache
+				.map(cache -> cache.getCachedLabels(context(), conceptIds, locales(), SnomedConcept.Expand.FULLY_SPECIFIED_NAME))
+				.orElse(Map.of());
+		
+		final Set<String> conceptIdsToCompute = newHashSet();
 		final Map<String, SnomedDescription> firstFsnByConceptId = newHashMap();
 		final List<SnomedDescription> fsns = newArrayList();
 		for (SnomedConcept concept : results) {
+			if (cachedTerms.containsKey(concept.getId())) {
+				continue;
+			}
+			conceptIdsToCompute.add(concept.getId());
 			for (SnomedDescription description : concept.getPreferredDescriptions()) {
 				if (Concepts.FULLY_SPECIFIED_NAME.equals(description.getTypeId())) {
 					fsns.add(description);
@@ -232,14 +261,16 @@ public final class SnomedConceptConverter extends BaseRevisionResourceConverter<
 			}
 		}
 		
-		final Map<String, SnomedDescription> terms = SnomedDescriptionUtils.indexBestPreferredByConceptId(context(), fsns, locales());
+		final Map<String, SnomedDescription> terms = newHashMap(SnomedDescriptionUtils.indexBestPreferredByConceptId(context(), fsns, locales()));
+		firstFsnByConceptId.forEach(terms::putIfAbsent);
+		labelCache.ifPresent(cache -> cache.putLabels(context(), conceptIdsToCompute, locales(), SnomedConcept.Expand.FULLY_SPECIFIED_NAME, terms));
 		
 		for (SnomedConcept concept : results) {
-			SnomedDescription fsn = terms.get(concept.getId());
-			if (fsn == null) {
-				fsn = firstFsnByConceptId.get(concept.getId());
+			if (cachedTerms.containsKey(concept.getId())) {
+				concept.setFsn(cachedTerms.get(concept.getId()).orElse(null));
+			} else {
+				concept.setFsn(terms.get(concept.getId()));
 			}
-			concept.setFsn(fsn);
 		}
 	}
 
@@ -15,54 +15,161 @@
  */
 package com.b2international.snowowl.snomed.datastore.index.change;
 
-import java.io.DataInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.b2international.collections.PrimitiveMaps;
-import com.b2international.collections.longs.LongKeyFloatMap;
+import com.b2international.collections.longs.LongIterator;
+import com.b2international.collections.longs.LongSet;
+import com.b2international.index.BulkUpdate;
+import com.b2international.index.Index;
 import com.b2international.snowowl.snomed.core.SnomedPlugin;
+import com.b2international.snowowl.snomed.datastore.config.SnomedCoreConfiguration;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+import com.google.common.collect.Maps;
 
 /**
- * Class for initializing the DOI data on concept documents.
+ * Class for initializing the DOI data on concept documents. Scores are read from a {@link MappedDoiData memory-mapped file}, which is the
+ * {@link SnomedCoreConfiguration#getDoiFile() configured score file} if it exists, the bundled usage data otherwise. The scores can be replaced
+ * at runtime via {@link #reload(Path)}, which also stores the new scores in the configured file, so they are used after a restart as well.
  */
-enum DoiDataProvider implements DoiData {
+public enum DoiDataProvider implements DoiData {
 
 	INSTANCE;
 	
+	private static final Logger LOG = LoggerFactory.getLogger("index");
 	private static final String USAGE_RESOURCE_FILE = "resources/out.bin";
-	private LongKeyFloatMap doiData;
+	private static final int UPDATE_BATCH_SIZE = 1_000;
+	
+	private volatile Path doiFile;
+	private volatile MappedDoiData doiData;
 
-	private DoiDataProvider() {
-		final Logger log = LoggerFactory.getLogger("index");
+	@Override
+	public float getDoiScore(long conceptId) {
+		final MappedDoiData currentDoiData = doiData;
+		return currentDoiData != null ? currentDoiData.getDoiScore(conceptId) : getDoiData().getDoiScore(conceptId);
+	}
+	
+	private synchronized MappedDoiData getDoiData() {
+		if (doiData == null) {
+			doiData = load();
+		}
+		return doiData;
+	}
+	
+	/**
+	 * Sets the file where scores are read from and stored to, and loads the scores from it if it exists.
+	 * 
+	 * @param doiFile - the score data file, see {@link MappedDoiData} for the expected format
+	 */
+	public synchronized void configure(Path doiFile) {
+		this.doiFile = doiFile;
+		this.doiData = load();
+	}
+	
+	/**
+	 * Replaces the current scores with the content of the given score data file, and copies the file to the configured location. Concept
+	 * documents indexed after this call will get the new scores, existing documents can be brought up to date with
+	 * {@link #updateScores(Index, LongSet)}.
+	 * <p>
+	 * The scores are only replaced on the node where this method is called. Other nodes sharing the same configured file pick up the new scores
+	 * when they are restarted.
+	 * </p>
+	 * 
+	 * @param file - the score data file, see {@link MappedDoiData} for the expected format
+	 * @return the identifiers of concepts whose score has changed
+	 * @throws IOException
+	 */
+	public synchronized LongSet reload(Path file) throws IOException {
+		final MappedDoiData newDoiData = MappedDoiData.open(file);
+		final LongSet changedConceptIds = newDoiData.getChangedConceptIds(getDoiData());
+		if (doiFile != null && !(Files.exists(doiFile) && Files.isSameFile(file, doiFile))) {
+			store(file, doiFile);
+		}
+		this.doiData = newDoiData;
+		return changedConceptIds;
+	}
+	
+	/**
+	 * Writes the current score of the given concepts to all revisions of their documents in place, without reindexing the concepts.
+	 * 
+	 * @param index - the raw index of the SNOMED CT repository
+	 * @param conceptIds - the concepts to update
+	 */
+	public void updateScores(Index index, LongSet conceptIds) {
+		updateScores(index, this, conceptIds);
+	}
+	
+	/*package*/ static void updateScores(Index index, DoiData doiData, LongSet conceptIds) {
+		if (conceptIds.isEmpty()) {
+			return;
+		}
+		index.write(writer -> {
+			final LongIterator it = conceptIds.iterator();
+			while (it.hasNext()) {
+				final Map<String, Object> scores = Maps.newHashMapWithExpectedSize(UPDATE_BATCH_SIZE);
+				while (it.hasNext() && scores.size() < UPDATE_BATCH_SIZE) {
+					final long conceptId = it.next();
+					scores.put(Long.toString(conceptId), doiData.getDoiScore(conceptId));
+				}
+				writer.bulkUpdate(new BulkUpdate<>(
+					SnomedConceptDocument.class, 
+					SnomedConceptDocument.Expressions.ids(scores.keySet()), 
+					SnomedConceptDocument.WITH_DOI, 
+					Map.of("scores", scores)
+				));
+			}
+			writer.commit();
+			return null;
+		});
+	}
+	
+	private MappedDoiData load() {
 		try {
-			log.info("Initializing usage data for concept documents...");
-			this.doiData = run();
-			log.info("Initialization of usage data for concept documents successfully finished.");
+			if (doiFile != null && Files.exists(doiFile)) {
+				LOG.info("Initializing usage data for concept documents from '{}'...", doiFile);
+				return MappedDoiData.open(doiFile);
+			} else {
+				LOG.info("Initializing usage data for concept documents...");
+				return loadBundled();
+			}
 		} catch (Throwable e) {
-			log.warn("Failed to collect usage data for concept documents. Falling back to default degree of interest values.", e);
-			this.doiData = PrimitiveMaps.newLongKeyFloatOpenHashMap();
+			LOG.warn("Failed to collect usage data for concept documents. Falling back to default degree of interest values.", e);
+			return MappedDoiData.EMPTY;
 		}
 	}
 	
-	@Override
-	public float getDoiScore(long conceptId) {
-		return doiData.containsKey(conceptId) ? doiData.get(conceptId) : SnomedConceptDocument.DEFAULT_DOI;
+	private MappedDoiData loadBundled() throws Exception {
+		// the bundled resource can not be mapped directly
+		final Path file = Files.createTempFile("doi", ".bin");
+		file.toFile().deleteOnExit();
+		try (final InputStream in = getResourceStream()) {
+			Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+		return MappedDoiData.open(file);
 	}
 	
-	private LongKeyFloatMap run() throws Exception {
-		try (final DataInputStream dis = new DataInputStream(getResourceStream())) {
-			final int size = dis.readInt();
-			final LongKeyFloatMap data = size > 0 ? PrimitiveMaps.newLongKeyFloatOpenHashMapWithExpectedSize(size) : PrimitiveMaps.newLongKeyFloatOpenHashMap();
-			for (int i = 0; i < size; i++) {
-				data.put(dis.readLong(), dis.readFloat());
-			}
-			return data;
+	/*
+	 * Replaces the target file atomically, nodes starting up in the meantime either read the previous or the new scores.
+	 */
+	private static void store(Path file, Path target) throws IOException {
+		final Path directory = target.toAbsolutePath().getParent();
+		Files.createDirectories(directory);
+		final Path tempFile = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+		try {
+			Files.copy(file, tempFile, StandardCopyOption.REPLACE_EXISTING);
+			Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(tempFile);
 		}
+		LOG.info("Stored usage data for concept documents in '{}'", target);
 	}
 	
 	/*returns with the stream pointing to the doi resource file.*/
@@ -75,4 +182,4 @@ enum DoiDataProvider implements DoiData {
 		return new URL(sb.toString()).openStream();
 	}
 	
-}
\ No newline at end of file
+}
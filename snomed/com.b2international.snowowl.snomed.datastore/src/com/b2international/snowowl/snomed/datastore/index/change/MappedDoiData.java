@@ -0,0 +1,188 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.index.change;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import com.b2international.collections.PrimitiveMaps;
+import com.b2international.collections.PrimitiveSets;
+import com.b2international.collections.longs.LongKeyFloatMap;
+import com.b2international.collections.longs.LongSet;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+
+/**
+ * {@link DoiData} backed by a memory-mapped binary file. The file starts with the number of entries as an <code>int</code>, followed by the
+ * entries as <code>long</code> concept identifier and <code>float</code> score pairs. Scores are looked up with a binary search over the mapped
+ * file, so entries are expected in ascending concept identifier order; files with entries in any other order are copied to a sorted temporary
+ * file when opened.
+ *
+ * @since 8.0
+ */
+public final class MappedDoiData implements DoiData {
+
+	/**
+	 * Score data without any entries, every concept gets the {@link SnomedConceptDocument#DEFAULT_DOI default score}.
+	 */
+	public static final MappedDoiData EMPTY = new MappedDoiData(ByteBuffer.allocate(Integer.BYTES).putInt(0, 0));
+
+	private static final int HEADER_BYTES = Integer.BYTES;
+	private static final int ENTRY_BYTES = Long.BYTES + Float.BYTES;
+
+	private final ByteBuffer buffer;
+	private final int size;
+
+	private MappedDoiData(ByteBuffer buffer) {
+		this.buffer = buffer;
+		this.size = buffer.getInt(0);
+		checkArgument(size >= 0 && buffer.capacity() >= HEADER_BYTES + (long) size * ENTRY_BYTES, "Truncated score data, expected %s entries.", size);
+	}
+
+	/**
+	 * Maps the given score data file into memory.
+	 *
+	 * @param file - the file to map
+	 * @return
+	 * @throws IOException
+	 */
+	public static MappedDoiData open(Path file) throws IOException {
+		final MappedDoiData data;
+		// the mapping remains valid after the channel is closed
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			data = new MappedDoiData(channel.map(MapMode.READ_ONLY, 0, channel.size()));
+		}
+
+		if (data.isSorted()) {
+			return data;
+		}
+
+		final Path sortedFile = Files.createTempFile("doi", ".bin");
+		sortedFile.toFile().deleteOnExit();
+		write(sortedFile, data.toMap());
+		return open(sortedFile);
+	}
+
+	/**
+	 * Writes the given scores to a file in the format expected by {@link #open(Path)}.
+	 *
+	 * @param file - the file to write
+	 * @param scores - the scores to write, keyed by concept identifier
+	 * @throws IOException
+	 */
+	public static void write(Path file, LongKeyFloatMap scores) throws IOException {
+		final long[] conceptIds = scores.keySet().toArray();
+		Arrays.sort(conceptIds);
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+			out.writeInt(conceptIds.length);
+			for (long conceptId : conceptIds) {
+				out.writeLong(conceptId);
+				out.writeFloat(scores.get(conceptId));
+			}
+		}
+	}
+
+	@Override
+	public float getDoiScore(long conceptId) {
+		int low = 0;
+		int high = size - 1;
+		while (low <= high) {
+			final int mid = (low + high) >>> 1;
+			final long midConceptId = getConceptId(mid);
+			if (midConceptId < conceptId) {
+				low = mid + 1;
+			} else if (midConceptId > conceptId) {
+				high = mid - 1;
+			} else {
+				return getScore(mid);
+			}
+		}
+		return SnomedConceptDocument.DEFAULT_DOI;
+	}
+
+	/**
+	 * @return the number of concepts with a score
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the identifiers of concepts which have a different score in this and the given score data (including concepts that have a score
+	 * in only one of them).
+	 *
+	 * @param other - the score data to compare with
+	 * @return
+	 */
+	public LongSet getChangedConceptIds(MappedDoiData other) {
+		final LongSet changedConceptIds = PrimitiveSets.newLongOpenHashSet();
+		int i = 0;
+		int j = 0;
+		while (i < size || j < other.size) {
+			final long conceptId = i < size ? getConceptId(i) : Long.MAX_VALUE;
+			final long otherConceptId = j < other.size ? other.getConceptId(j) : Long.MAX_VALUE;
+			if (conceptId < otherConceptId) {
+				changedConceptIds.add(conceptId);
+				i++;
+			} else if (conceptId > otherConceptId) {
+				changedConceptIds.add(otherConceptId);
+				j++;
+			} else {
+				if (Float.compare(getScore(i), other.getScore(j)) != 0) {
+					changedConceptIds.add(conceptId);
+				}
+				i++;
+				j++;
+			}
+		}
+		return changedConceptIds;
+	}
+
+	private long getConceptId(int index) {
+		return buffer.getLong(HEADER_BYTES + index * ENTRY_BYTES);
+	}
+
+	private float getScore(int index) {
+		return buffer.getFloat(HEADER_BYTES + index * ENTRY_BYTES + Long.BYTES);
+	}
+
+	private boolean isSorted() {
+		for (int i = 1; i < size; i++) {
+			if (getConceptId(i - 1) >= getConceptId(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private LongKeyFloatMap toMap() {
+		final LongKeyFloatMap scores = PrimitiveMaps.newLongKeyFloatOpenHashMapWithExpectedSize(size);
+		for (int i = 0; i < size; i++) {
+			scores.put(getConceptId(i), getScore(i));
+		}
+		return scores;
+	}
+
+}
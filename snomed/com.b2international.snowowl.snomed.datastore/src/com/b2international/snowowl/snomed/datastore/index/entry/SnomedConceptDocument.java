@@ -72,7 +72,7 @@ import com.google.common.collect.ImmutableMap;
 	"double interest = params.useDoi ? (doc.doi.value - params.minDoi) / (params.maxDoi - params.minDoi) : 0;"
 	+ "String id = doc.id.value;" 
 	+ "return params.termScores.containsKey(id) ? params.termScores.get(id) + interest : 0.0d;")
-@Script(name="doi", script="return doc.doi.value")
+@Script(name=SnomedConceptDocument.WITH_DOI, script="ctx._source.doi = params.scores.get(ctx._source.id)")
 @Script(
 	name="termSort", 
 	script=
@@ -109,6 +109,11 @@ import com.google.common.collect.ImmutableMap;
 public final class SnomedConceptDocument extends SnomedComponentDocument {
 
 	public static final float DEFAULT_DOI = 1.0f;
+	
+	/**
+	 * Script that updates the degree of interest of concepts in place, parameter <code>scores</code> maps concept identifiers to their new score.
+	 */
+	public static final String WITH_DOI = "withDoi";
 
 	public static SortBy sortByTerm(List<String> languageRefSetPreferenceList, Set<String> synonymIds, SortBy.Order order) {
 		return SortBy.script("termSort", ImmutableMap.of("locales", languageRefSetPreferenceList, "synonymIds", synonymIds), order);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2020 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2018-2021 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,10 +22,9 @@ import java.util.BitSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
-import com.b2international.collections.PrimitiveMaps;
 import com.b2international.collections.PrimitiveSets;
-import com.b2international.collections.ints.IntKeyMap;
 import com.b2international.collections.ints.IntSet;
 import com.b2international.collections.longs.LongSet;
 import com.b2international.commons.collect.LongSets;
@@ -34,6 +33,10 @@ import com.b2international.commons.collect.LongSets;
  * Allows associating SCTID key pairs, and computing the direct and indirect
  * successors in integer form using an {@link InternalIdMap} as the mapping
  * between SCTIDs and integers.
+ * <p>
+ * Instances are safe to query from multiple threads; destination sets are
+ * computed on demand and cached without locking.
+ * </p>
  * 
  * @since 7.0
  */
@@ -97,15 +100,15 @@ public final class InternalIdEdges {
 	private final InternalIdMap internalIdMap;
 	private final int[][] edges;
 	
-	// direct and indirect destinationCaches loaded on demand
-	private final IntKeyMap<LongSet> directDestinationIdsCache;
-	private final IntKeyMap<LongSet> indirectDestinationIdsCache;
+	// direct and indirect destinationCaches loaded on demand; concurrent callers may compute the same set, but only one of them is kept
+	private final AtomicReferenceArray<LongSet> directDestinationIdsCache;
+	private final AtomicReferenceArray<LongSet> indirectDestinationIdsCache;
 
 	private InternalIdEdges(final InternalIdMap internalIdMap, final int[][] edges) {
 		this.internalIdMap = internalIdMap;
 		this.edges = edges;
-		this.directDestinationIdsCache = PrimitiveMaps.newIntKeyOpenHashMapWithExpectedSize(internalIdMap.size());
-		this.indirectDestinationIdsCache = PrimitiveMaps.newIntKeyOpenHashMapWithExpectedSize(internalIdMap.size());
+		this.directDestinationIdsCache = new AtomicReferenceArray<>(internalIdMap.size());
+		this.indirectDestinationIdsCache = new AtomicReferenceArray<>(internalIdMap.size());
 	}
 
 	public Set<String> getDestinations(final String source, final boolean direct) {
@@ -119,17 +122,23 @@ public final class InternalIdEdges {
 		}
 
 		if (direct) {
-			if (!directDestinationIdsCache.containsKey(internalId)) {
-				final int[] destinations = edges[internalId];
-				directDestinationIdsCache.put(internalId, toSctIds(destinations));
+			final LongSet cachedDestinations = directDestinationIdsCache.get(internalId);
+			if (cachedDestinations != null) {
+				return cachedDestinations;
 			}
+			
+			final int[] destinations = edges[internalId];
+			directDestinationIdsCache.compareAndSet(internalId, null, toSctIds(destinations));
 			return directDestinationIdsCache.get(internalId);
 		} else {
-			if (!indirectDestinationIdsCache.containsKey(internalId)) {
-				final BitSet destinations = new BitSet(internalIdMap.size());
-				collectIndirectDestinations(internalId, destinations);
-				indirectDestinationIdsCache.put(internalId, toSctIds(destinations));
+			final LongSet cachedDestinations = indirectDestinationIdsCache.get(internalId);
+			if (cachedDestinations != null) {
+				return cachedDestinations;
 			}
+			
+			final BitSet destinations = new BitSet(internalIdMap.size());
+			collectIndirectDestinations(internalId, destinations);
+			indirectDestinationIdsCache.compareAndSet(internalId, null, toSctIds(destinations));
 			return indirectDestinationIdsCache.get(internalId);
 		}
 	}
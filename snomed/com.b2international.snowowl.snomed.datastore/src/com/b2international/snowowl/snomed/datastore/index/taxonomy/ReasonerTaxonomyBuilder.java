@@ -82,6 +82,8 @@ public final class ReasonerTaxonomyBuilder {
 			Concepts.INFERRED_RELATIONSHIP);
 	
 	private static final int SCROLL_LIMIT = 50_000;
+	// number of slices to scroll concurrently when loading the taxonomy from the index
+	private static final int SCROLL_SLICES = 4;
 
 	private final Stopwatch stopwatch;
 	private final Set<String> excludedModuleIds;
@@ -147,12 +149,15 @@ public final class ReasonerTaxonomyBuilder {
 				.build();
 
 		final List<String> conceptIds = new ArrayList<>(SCROLL_LIMIT);
-		for (final Hits<String[]> hits : searcher.scroll(query)) {
-			for (String[] hit : hits) {
-				conceptIds.add(hit[0]);
-			}
-			conceptMapBuilder.addAll(conceptIds);
-			conceptIds.clear();
+		// internal IDs are assigned in encounter order, concepts can be read in any order
+		try (final Stream<Hits<String[]>> pages = searcher.scroll(query, SCROLL_SLICES)) {
+			pages.forEach(hits -> {
+				for (String[] hit : hits) {
+					conceptIds.add(hit[0]);
+				}
+				conceptMapBuilder.addAll(conceptIds);
+				conceptIds.clear();
+			});
 		}
 
 		leaving("Registering active concept IDs using revision searcher");
@@ -273,22 +278,24 @@ public final class ReasonerTaxonomyBuilder {
 
 		final List<String> sourceIds = new ArrayList<>(SCROLL_LIMIT);
 		final List<String> destinationIds = new ArrayList<>(SCROLL_LIMIT);
-		for (final Hits<String[]> hits : searcher.scroll(query)) {
-			for (final String[] relationship : hits) {
-				if (conceptMap.containsKey(relationship[0]) && conceptMap.containsKey(relationship[1])) {
-					sourceIds.add(relationship[0]);
-					destinationIds.add(relationship[1]);
-				} else {
-					LOGGER.debug("Not registering IS A relationship as its source {} and/or destination {} is inactive.",
-							relationship[0],
-							relationship[1]);
+		try (final Stream<Hits<String[]>> pages = searcher.scroll(query, SCROLL_SLICES)) {
+			pages.forEach(hits -> {
+				for (final String[] relationship : hits) {
+					if (conceptMap.containsKey(relationship[0]) && conceptMap.containsKey(relationship[1])) {
+						sourceIds.add(relationship[0]);
+						destinationIds.add(relationship[1]);
+					} else {
+						LOGGER.debug("Not registering IS A relationship as its source {} and/or destination {} is inactive.",
+								relationship[0],
+								relationship[1]);
+					}
 				}
-			}
 
-			statedAncestors.addEdges(sourceIds, destinationIds);
-			statedDescendants.addEdges(destinationIds, sourceIds);
-			sourceIds.clear();
-			destinationIds.clear();
+				statedAncestors.addEdges(sourceIds, destinationIds);
+				statedDescendants.addEdges(destinationIds, sourceIds);
+				sourceIds.clear();
+				destinationIds.clear();
+			});
 		}
 
 		leaving("Registering active stated IS A graph edges using revision searcher");
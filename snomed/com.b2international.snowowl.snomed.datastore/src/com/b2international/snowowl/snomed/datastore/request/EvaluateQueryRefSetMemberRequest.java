@@ -17,36 +17,48 @@ package com.b2international.snowowl.snomed.datastore.request;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Maps.newLinkedHashMap;
 import static com.google.common.collect.Sets.newHashSet;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.hibernate.validator.constraints.NotEmpty;
 
 import com.b2international.commons.options.Options;
+import com.b2international.index.query.Query;
+import com.b2international.index.query.SortBy;
+import com.b2international.index.revision.RevisionSearcher;
 import com.b2international.snowowl.core.authorization.AccessControl;
 import com.b2international.snowowl.core.domain.BranchContext;
 import com.b2international.snowowl.core.domain.IComponent;
 import com.b2international.snowowl.core.domain.TransactionContext;
 import com.b2international.snowowl.core.identity.Permission;
 import com.b2international.snowowl.core.request.IndexResourceRequest;
+import com.b2international.snowowl.core.request.SearchResourceRequest.SortField;
 import com.b2international.snowowl.snomed.common.SnomedRf2Headers;
 import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
 import com.b2international.snowowl.snomed.core.domain.SnomedConcepts;
 import com.b2international.snowowl.snomed.core.domain.refset.*;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
 import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRefSetMemberIndexEntry;
 import com.google.common.base.Strings;
-import com.google.common.collect.FluentIterable;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Maps;
+import com.google.common.collect.PeekingIterator;
+import com.google.common.collect.Streams;
 
 /**
  * @since 4.5
  */
 public final class EvaluateQueryRefSetMemberRequest extends IndexResourceRequest<BranchContext, QueryRefSetMemberEvaluation> implements AccessControl {
 
+	private static final int PAGE_SIZE = 10_000;
+	
 	@NotEmpty
 	private String memberId;
 	
@@ -85,55 +97,61 @@ public final class EvaluateQueryRefSetMemberRequest extends IndexResourceRequest
 			return new QueryRefSetMemberEvaluationImpl(memberId, targetReferenceSet, Collections.emptyList());
 		}
 
-		// GET matching members of a query
-		final SnomedConcepts matchingConcepts = SnomedRequests.prepareSearchConcept()
-				.filterByEcl(query)
-				.all()
-				.build()
-				.execute(context);
-		
-		final Map<String, SnomedConcept> conceptsToAdd = newHashMap();
-		final Collection<SnomedReferenceSetMember> membersToRemove = newHashSet();
-		final Collection<SnomedReferenceSetMember> conceptsToActivate = newHashSet();
-
-		// add all matching first
-		for (SnomedConcept matchedConcept : matchingConcepts.getItems()) {
-			conceptsToAdd.put(matchedConcept.getId(), matchedConcept);
-		}
+		// both sides are read in referenced component ID order and merged, so only the differences are kept in memory
+		final PeekingIterator<String> matchingConceptIds = Iterators.peekingIterator(getMatchingConceptIds(context, query));
+		final PeekingIterator<String[]> currentMembers = Iterators.peekingIterator(getCurrentMembers(context, targetReferenceSet));
 		
-		// then re-evaluate all current members of the target simple type reference set
-		final Collection<SnomedReferenceSetMember> curretMembersOfTarget = SnomedRequests.prepareSearchMember()
-					.all()
-					.filterByRefSet(targetReferenceSet)
-					.build()
-					.execute(context)
-					.getItems();
+		final List<String> conceptsToAdd = newArrayList();
+		// referenced component ID to member ID
+		final Map<String, String> membersToRemove = newLinkedHashMap();
+		final Map<String, String> membersToActivate = newLinkedHashMap();
 		
-		for (SnomedReferenceSetMember currentMember : curretMembersOfTarget) {
-			final String referencedComponentId = currentMember.getReferencedComponent().getId();
-			if (conceptsToAdd.containsKey(referencedComponentId)) {
-				if (!currentMember.isActive()) {
-					conceptsToAdd.remove(referencedComponentId);
-					conceptsToActivate.add(currentMember);
-				} else {
-					conceptsToAdd.remove(referencedComponentId);
-				}
-			} else {
-				if (currentMember.isActive()) {
-					membersToRemove.add(currentMember);
+		while (currentMembers.hasNext()) {
+			final String referencedComponentId = currentMembers.peek()[0];
+			
+			while (matchingConceptIds.hasNext() && matchingConceptIds.peek().compareTo(referencedComponentId) < 0) {
+				conceptsToAdd.add(matchingConceptIds.next());
+			}
+			
+			final boolean matching = matchingConceptIds.hasNext() && matchingConceptIds.peek().equals(referencedComponentId);
+			if (matching) {
+				matchingConceptIds.next();
+			}
+			
+			// process all members of the same referenced component at once
+			String inactiveMemberId = null;
+			boolean hasActiveMember = false;
+			while (currentMembers.hasNext() && currentMembers.peek()[0].equals(referencedComponentId)) {
+				final String[] currentMember = currentMembers.next();
+				final String currentMemberId = currentMember[1];
+				final boolean currentMemberActive = Boolean.parseBoolean(currentMember[2]);
+				if (matching) {
+					if (currentMemberActive) {
+						hasActiveMember = true;
+					} else if (inactiveMemberId == null) {
+						inactiveMemberId = currentMemberId;
+					}
+				} else if (currentMemberActive) {
+					membersToRemove.put(referencedComponentId, currentMemberId);
 				}
 			}
+			
+			// an active member already covers the concept, otherwise re-activate one of the inactive members
+			if (matching && !hasActiveMember) {
+				membersToActivate.put(referencedComponentId, inactiveMemberId);
+			}
 		}
 		
+		Iterators.addAll(conceptsToAdd, matchingConceptIds);
+		
 		// fetch all referenced components
 		final Set<String> referencedConceptIds = newHashSet();
-		referencedConceptIds.addAll(conceptsToAdd.keySet());
-		referencedConceptIds.addAll(FluentIterable.from(membersToRemove).transform(SnomedReferenceSetMember::getReferencedComponent).transform(IComponent::getId).toSet());
-		
-		referencedConceptIds.addAll(FluentIterable.from(conceptsToActivate).transform(SnomedReferenceSetMember::getReferencedComponent).transform(IComponent::getId).toSet());
+		referencedConceptIds.addAll(conceptsToAdd);
+		referencedConceptIds.addAll(membersToRemove.keySet());
+		referencedConceptIds.addAll(membersToActivate.keySet());
 		
 		final Map<String, SnomedConcept> concepts;
-		if (expand().containsKey("referencedComponent")) {
+		if (expand().containsKey("referencedComponent") && !referencedConceptIds.isEmpty()) {
 			final Options expandOptions = expand().getOptions("referencedComponent");
 			concepts = Maps.uniqueIndex(SnomedRequests.prepareSearchConcept()
 					.filterByIds(referencedConceptIds)
@@ -152,20 +170,57 @@ public final class EvaluateQueryRefSetMemberRequest extends IndexResourceRequest
 		
 		final Collection<MemberChange> changes = newArrayList();
 		
-		for (String id : conceptsToAdd.keySet()) {
+		for (String id : conceptsToAdd) {
 			changes.add(MemberChangeImpl.added(concepts.get(id)));
 		}
 
-		for (SnomedReferenceSetMember memberToRemove : membersToRemove) {
-			changes.add(MemberChangeImpl.removed(concepts.get(memberToRemove.getReferencedComponent().getId()), memberToRemove.getId()));
-		}
+		membersToRemove.forEach((referencedComponentId, memberToRemoveId) -> {
+			changes.add(MemberChangeImpl.removed(concepts.get(referencedComponentId), memberToRemoveId));
+		});
 
-		for (SnomedReferenceSetMember conceptToActivate : conceptsToActivate) {
-			changes.add(MemberChangeImpl.changed(concepts.get(conceptToActivate.getReferencedComponent().getId()), conceptToActivate.getId()));
-		}
+		membersToActivate.forEach((referencedComponentId, memberToActivateId) -> {
+			changes.add(MemberChangeImpl.changed(concepts.get(referencedComponentId), memberToActivateId));
+		});
 		return new QueryRefSetMemberEvaluationImpl(memberId, targetReferenceSet, changes);
 	}
 	
+	/*
+	 * Returns the IDs of concepts matching the query in ascending order, page by page
+	 */
+	private Iterator<String> getMatchingConceptIds(BranchContext context, String query) {
+		return SnomedRequests.prepareSearchConcept()
+				.filterByEcl(query)
+				.setFields(SnomedConceptDocument.Fields.ID)
+				.sortBy(SortField.ascending(SnomedConceptDocument.Fields.ID))
+				.setLimit(PAGE_SIZE)
+				.stream(context)
+				.flatMap(SnomedConcepts::stream)
+				.map(SnomedConcept::getId)
+				.iterator();
+	}
+	
+	/*
+	 * Returns the referenced component ID, member ID and status of the target reference set's members in referenced component ID order
+	 */
+	private Iterator<String[]> getCurrentMembers(BranchContext context, String targetReferenceSet) {
+		final Query<String[]> query = Query.select(String[].class)
+				.from(SnomedRefSetMemberIndexEntry.class)
+				.fields(SnomedRefSetMemberIndexEntry.Fields.REFERENCED_COMPONENT_ID, // 0
+						SnomedRefSetMemberIndexEntry.Fields.ID, // 1
+						SnomedRefSetMemberIndexEntry.Fields.ACTIVE) // 2
+				.where(SnomedRefSetMemberIndexEntry.Expressions.refsetId(targetReferenceSet))
+				.sortBy(SortBy.builder()
+						.sortByField(SnomedRefSetMemberIndexEntry.Fields.REFERENCED_COMPONENT_ID, SortBy.Order.ASC)
+						.sortByField(SnomedRefSetMemberIndexEntry.Fields.ID, SortBy.Order.ASC)
+						.build())
+				.limit(PAGE_SIZE)
+				.build();
+		
+		return Streams.stream(context.service(RevisionSearcher.class).scroll(query))
+				.flatMap(hits -> hits.getHits().stream())
+				.iterator();
+	}
+	
 	@Override
 	public String getOperation() {
 		return Permission.OPERATION_BROWSE;
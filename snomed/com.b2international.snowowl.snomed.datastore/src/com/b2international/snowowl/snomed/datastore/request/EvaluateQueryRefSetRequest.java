@@ -15,20 +15,20 @@
  */
 package com.b2international.snowowl.snomed.datastore.request;
 
+import static com.google.common.collect.Lists.newArrayList;
+
 import java.util.Collection;
+import java.util.List;
 
 import javax.validation.constraints.NotNull;
 
 import com.b2international.commons.exceptions.BadRequestException;
 import com.b2international.snowowl.core.authorization.AccessControl;
 import com.b2international.snowowl.core.domain.BranchContext;
-import com.b2international.snowowl.core.events.Request;
 import com.b2international.snowowl.core.identity.Permission;
 import com.b2international.snowowl.core.request.IndexResourceRequest;
 import com.b2international.snowowl.snomed.core.domain.refset.*;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.google.common.base.Function;
-import com.google.common.collect.FluentIterable;
 
 /**
  * @since 4.5
@@ -46,22 +46,16 @@ public final class EvaluateQueryRefSetRequest extends IndexResourceRequest<Branc
 	@Override
 	public QueryRefSetMemberEvaluations execute(final BranchContext context) {
 		final SnomedReferenceSet referenceSet = SnomedRequests.prepareGetReferenceSet(referenceSetId).build().execute(context);
-		return new QueryRefSetMemberEvaluations(
-				FluentIterable
-				.from(getQueryMembers(context, referenceSet))
-				.transform(new Function<SnomedReferenceSetMember, Request<BranchContext, QueryRefSetMemberEvaluation>>() {
-					@Override
-					public Request<BranchContext, QueryRefSetMemberEvaluation> apply(SnomedReferenceSetMember input) {
-						return SnomedRequests.prepareQueryRefSetMemberEvaluation(input.getId()).setLocales(locales()).setExpand(expand()).build();
-					}
-				})
-				.transform(new Function<Request<BranchContext, QueryRefSetMemberEvaluation>, QueryRefSetMemberEvaluation>() {
-					@Override
-					public QueryRefSetMemberEvaluation apply(Request<BranchContext, QueryRefSetMemberEvaluation> input) {
-						return input.execute(context);
-					}
-				})
-				.toList());
+		
+		final List<QueryRefSetMemberEvaluation> evaluations = newArrayList();
+		for (SnomedReferenceSetMember member : getQueryMembers(context, referenceSet)) {
+			evaluations.add(SnomedRequests.prepareQueryRefSetMemberEvaluation(member.getId())
+					.setLocales(locales())
+					.setExpand(expand())
+					.build()
+					.execute(context));
+		}
+		return new QueryRefSetMemberEvaluations(evaluations);
 	}
 	
 	private Collection<SnomedReferenceSetMember> getQueryMembers(BranchContext context, SnomedReferenceSet referenceSet) {
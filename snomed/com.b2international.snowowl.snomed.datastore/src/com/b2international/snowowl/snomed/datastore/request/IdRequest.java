@@ -139,7 +139,7 @@ public final class IdRequest<C extends BranchContext, R> extends DelegatingReque
 							final Collection<BaseSnomedComponentCreateRequest> namespaceRequests = requestsByNamespace.get(namespace);
 							final int count = namespaceRequests.size();
 							
-							final Set<String> uniqueIds = getUniqueIds(context, recorder, category, documentClass, count, convertedNamespace);
+							final Set<String> uniqueIds = getUniqueIds(context, recorder, category, count, convertedNamespace);
 
 							final Iterator<String> idsToUse = Iterators.consumingIterator(uniqueIds.iterator());
 							for (final BaseSnomedComponentCreateRequest createRequest : namespaceRequests) {
@@ -211,12 +211,25 @@ public final class IdRequest<C extends BranchContext, R> extends DelegatingReque
 		}
 	}
 
-	private Set<String> getUniqueIds(final BranchContext context, final IdActionRecorder recorder, 
+	/**
+	 * Reserves the given number of SNOMED CT identifiers via the specified recorder, skipping identifiers that are already in use on the branch of
+	 * the given context. Callers are responsible for {@link IdActionRecorder#commit() committing} or {@link IdActionRecorder#rollback() rolling back}
+	 * the recorded actions.
+	 * 
+	 * @param context - the context of the branch where the identifiers will be used
+	 * @param recorder - the recorder to reserve identifiers with
+	 * @param category - the component category of the identifiers
+	 * @param quantity - the number of identifiers to reserve
+	 * @param namespace - the namespace of the identifiers, or <code>null</code> for the international namespace
+	 * @return a set of unique identifiers of the requested size
+	 * @throws BadRequestException - if the namespace does not have enough identifiers available
+	 */
+	public static Set<String> getUniqueIds(final BranchContext context, final IdActionRecorder recorder, 
 			final ComponentCategory category, 
-			final Class<? extends SnomedDocument> documentClass, 
 			final int quantity, 
 			final String namespace) {
 		
+		final Class<? extends SnomedDocument> documentClass = getDocumentClass(category);
 		final Set<String> uniqueIds = newHashSet(); 
 				
 		for (int i = 0; i < ID_GENERATION_ATTEMPTS && uniqueIds.size() < quantity; i++) {
@@ -235,7 +248,7 @@ public final class IdRequest<C extends BranchContext, R> extends DelegatingReque
 		}
 	}
 
-	private Set<String> getExistingIds(final BranchContext context, final Set<String> ids, final Class<? extends SnomedDocument> documentClass) {
+	private static Set<String> getExistingIds(final BranchContext context, final Set<String> ids, final Class<? extends SnomedDocument> documentClass) {
 		if (CompareUtils.isEmpty(ids)) {
 			return Set.of();
 		}
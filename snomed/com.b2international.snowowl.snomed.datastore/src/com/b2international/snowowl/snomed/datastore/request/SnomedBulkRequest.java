@@ -15,11 +15,12 @@
  */
 package com.b2international.snowowl.snomed.datastore.request;
 
-import java.util.Collection;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.b2international.commons.exceptions.BadRequestException;
 import com.b2international.snowowl.core.domain.TransactionContext;
@@ -34,9 +35,7 @@ import com.b2international.snowowl.snomed.core.domain.SnomedDescription;
 import com.b2international.snowowl.snomed.core.domain.SnomedRelationship;
 import com.b2international.snowowl.snomed.datastore.index.entry.*;
 import com.google.common.base.Strings;
-import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Multimap;
 
 /**
  * @since 6.5
@@ -65,21 +64,20 @@ public final class SnomedBulkRequest<R> extends DelegatingRequest<TransactionCon
 			.filter(componentId -> SnomedComponent.getTypeSafe(componentId) != null || isMember(componentId)) // just in case filter out invalid component IDs
 			.collect(Collectors.toSet());
 		
-		final Multimap<Class<? extends SnomedDocument>, String> componentIdsByType = HashMultimap.create();
-		for (String requiredComponentId : requiredComponentIds) {
-			if (!Strings.isNullOrEmpty(requiredComponentId)) {
-				componentIdsByType.put(this.getDocType(requiredComponentId), requiredComponentId);
-			}
-		}
-		
 		// collect all deleted IDs as well
-		deletions.build()
+		final Set<String> deletedComponentIds = deletions.build()
 			.stream()
 			.map(DeleteRequest::getComponentId)
-			.forEach(componentId -> componentIdsByType.put(getDocType(componentId), componentId));
+			.collect(Collectors.toSet());
+		
+		// validate and group the collected IDs by document type, invalid IDs will fail the request before anything is looked up
+		final Map<Class<? extends SnomedDocument>, Set<String>> componentIdsByType = Stream.concat(
+				requiredComponentIds.stream().filter(componentId -> !Strings.isNullOrEmpty(componentId)), 
+				deletedComponentIds.stream())
+			.collect(Collectors.groupingBy(this::getDocType, Collectors.toSet()));
 		
 		try {
-			for (final Entry<Class<? extends SnomedDocument>, Collection<String>> idsForType : componentIdsByType.asMap().entrySet()) {
+			for (final Entry<Class<? extends SnomedDocument>, Set<String>> idsForType : componentIdsByType.entrySet()) {
 				context.lookup(idsForType.getValue(), idsForType.getKey());	
 			}
 		} catch (final ComponentNotFoundException e) {
@@ -238,7 +238,7 @@ public class SnomedConceptSearchRequest extends SnomedComponentSearchRequest<Sno
 			queryExpression = Expressions.scriptScore(q, "doiFactor", Map.of("termScores", conceptScoreMap, "useDoi", containsKey(OptionKey.USE_DOI), "minDoi", MIN_DOI_VALUE, "maxDoi", MAX_DOI_VALUE));
 		} else if (containsKey(OptionKey.USE_DOI)) {
 			final Expression q = addSearchProfile(searchProfileQuery, queryBuilder.build());
-			queryExpression = Expressions.scriptScore(q, "doi");
+			queryExpression = Expressions.fieldScore(q, SnomedConceptDocument.Fields.DOI, SnomedConceptDocument.DEFAULT_DOI);
 		} else {
 			queryExpression = addSearchProfile(searchProfileQuery, queryBuilder.build());
 		}
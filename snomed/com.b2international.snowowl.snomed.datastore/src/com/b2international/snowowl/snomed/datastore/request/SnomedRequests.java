@@ -492,7 +492,9 @@ public abstract class SnomedRequests {
 				return descendantDomainIds;				
 			})
 			.thenWith(descendantDomainIds -> {
-				final BulkRequestBuilder<BranchContext> constraintBulkRequestBuilder = BulkRequest.<BranchContext>create();
+				// the constraint searches are independent of each other, run them concurrently
+				final BulkRequestBuilder<BranchContext> constraintBulkRequestBuilder = BulkRequest.<BranchContext>create()
+						.setParallelism(5);
 
 				if (!CompareUtils.isEmpty(selfIds)) {
 					constraintBulkRequestBuilder.add(SnomedRequests.prepareSearchConstraint().all().filterBySelfIds(selfIds));
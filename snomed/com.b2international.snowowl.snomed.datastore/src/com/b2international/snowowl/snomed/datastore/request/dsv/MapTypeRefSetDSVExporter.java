@@ -17,22 +17,27 @@ package com.b2international.snowowl.snomed.datastore.request.dsv;
 
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Strings.nullToEmpty;
+import static com.google.common.collect.Maps.newHashMap;
 import static com.google.common.collect.Maps.newHashMapWithExpectedSize;
+import static com.google.common.collect.Sets.newHashSet;
 
-import java.io.DataOutputStream;
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 
+import com.b2international.index.query.Query;
 import com.b2international.snowowl.core.api.SnowowlRuntimeException;
 import com.b2international.snowowl.core.date.Dates;
 import com.b2international.snowowl.core.date.EffectiveTimes;
 import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.core.request.SearchResourceRequest.SortField;
+import com.b2international.snowowl.core.request.SearchResourceRequestIterator;
 import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
 import com.b2international.snowowl.snomed.common.SnomedRf2Headers;
 import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
@@ -42,11 +47,15 @@ import com.b2international.snowowl.snomed.core.domain.SnomedDescription;
 import com.b2international.snowowl.snomed.core.domain.SnomedRelationship;
 import com.b2international.snowowl.snomed.core.domain.refset.SnomedReferenceSetMember;
 import com.b2international.snowowl.snomed.core.domain.refset.SnomedReferenceSetMembers;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRefSetMemberIndexEntry;
 import com.b2international.snowowl.snomed.datastore.internal.rf2.AbstractSnomedDsvExportItem;
 import com.b2international.snowowl.snomed.datastore.internal.rf2.SnomedDsvExportItemType;
 import com.b2international.snowowl.snomed.datastore.internal.rf2.SnomedRefSetDSVExportModel;
+import com.b2international.snowowl.snomed.datastore.request.SnomedRefSetMemberSearchRequestBuilder;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
+import com.google.common.base.Charsets;
 import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
 
 /**
  * This class implements the export process of the DSV export for map type reference sets. 
@@ -55,6 +64,22 @@ import com.google.common.base.Strings;
 public final class MapTypeRefSetDSVExporter implements IRefSetDSVExporter {
 
 	private static final String LINE_SEPARATOR = System.lineSeparator();
+	private static final int PAGE_SIZE = 10_000;
+	
+	/**
+	 * A page of members with the SDD class labels of their referenced components.
+	 */
+	private static final class Page {
+		
+		private final SnomedReferenceSetMembers members;
+		private final Map<String, String> sddClassLabels;
+		
+		private Page(SnomedReferenceSetMembers members, Map<String, String> sddClassLabels) {
+			this.members = members;
+			this.sddClassLabels = sddClassLabels;
+		}
+		
+	}
 	
 	private final BranchContext context;
 	private final SnomedRefSetDSVExportModel exportSetting;
@@ -68,39 +93,45 @@ public final class MapTypeRefSetDSVExporter implements IRefSetDSVExporter {
 	public File executeDSVExport(IProgressMonitor monitor) throws IOException {
 		final int memberNumberToSignal = 100;
 		
-		final SnomedConcept refSetToExport = SnomedRequests.prepareGetConcept(exportSetting.getRefSetId())
-				.setLocales(exportSetting.getLocales())
-				.setExpand("referenceSet(expand(members(limit:" + Integer.MAX_VALUE + ", expand(referencedComponent(expand(fsn()))))))")
+		final String refSetId = exportSetting.getRefSetId();
+		final int memberCount = SnomedRequests.prepareSearchMember()
+				.filterByRefSet(refSetId)
+				.setLimit(0)
 				.build()
-				.execute(context);
-		
-		final SnomedReferenceSetMembers membersToExport = refSetToExport.getReferenceSet().getMembers();
-		final int activeMemberCount = membersToExport.getTotal();
+				.execute(context)
+				.getTotal();
 		
-		if (activeMemberCount < memberNumberToSignal) {
+		if (memberCount < memberNumberToSignal) {
 			monitor.beginTask("Exporting RefSet to DSV", 1);
 		} else {
-			monitor.beginTask("Exporting RefSet to DSV", activeMemberCount / memberNumberToSignal);
+			monitor.beginTask("Exporting RefSet to DSV", memberCount / memberNumberToSignal);
 		}
 		
-		final File file = Files.createTempFile("dsv-export-" + refSetToExport.getId() + Dates.now(), ".csv").toFile();
+		final File file = Files.createTempFile("dsv-export-" + refSetId + Dates.now(), ".csv").toFile();
 		
-		try (DataOutputStream os = new DataOutputStream(new FileOutputStream(file))) {
+		try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), Charsets.UTF_8)) {
 			
 			if (exportSetting.getExportItems().isEmpty()) {
 				return file;
 			}
 		
-			writeLine(os, toHeader());
+			writeLine(writer, toHeader());
 			
-			Map<String, String> labels = prepareLabelCache(membersToExport);
+			final Map<String, String> labels = prepareLabelCache();
 			
+			// members are written page by page, the next page and its SDD class labels are fetched while the current page is written
 			int count = 0;
-			for (final SnomedReferenceSetMember member : membersToExport) {
-				writeLine(os, toDsvLine(member, labels));
-				count++;
-				if (count % memberNumberToSignal == 0) {
-					monitor.worked(1);
+			try (PrefetchingPageIterator<SnomedReferenceSetMembers, Page> pages = new PrefetchingPageIterator<>(getMemberIterator(refSetId), 
+					members -> new Page(members, getSddClassLabels(members)))) {
+				while (pages.hasNext()) {
+					final Page page = pages.next();
+					for (final SnomedReferenceSetMember member : page.members) {
+						writeLine(writer, toDsvLine(member, labels, page.sddClassLabels));
+						count++;
+						if (count % memberNumberToSignal == 0) {
+							monitor.worked(1);
+						}
+					}
 				}
 			}
 		} catch (final Exception e) {
@@ -113,12 +144,24 @@ public final class MapTypeRefSetDSVExporter implements IRefSetDSVExporter {
 		return file;
 	}
 
-	private void writeLine(DataOutputStream os, String line) throws IOException {
-		os.writeBytes(line);
-		os.writeBytes(LINE_SEPARATOR);
+	private SearchResourceRequestIterator<SnomedRefSetMemberSearchRequestBuilder, SnomedReferenceSetMembers> getMemberIterator(String refSetId) {
+		final SnomedRefSetMemberSearchRequestBuilder builder = SnomedRequests.prepareSearchMember()
+				.filterByRefSet(refSetId)
+				.setLocales(exportSetting.getLocales())
+				.setExpand("referencedComponent(expand(fsn()))")
+				.sortBy(SortField.ascending(SnomedRefSetMemberIndexEntry.Fields.ID))
+				.setTrackTotalHits(Query.TRACK_TOTAL_HITS_DISABLED)
+				.setLimit(PAGE_SIZE);
+		
+		return new SearchResourceRequestIterator<>(builder, b -> b.build().execute(context));
+	}
+	
+	private void writeLine(BufferedWriter writer, String line) throws IOException {
+		writer.write(line);
+		writer.write(LINE_SEPARATOR);
 	}
 
-	private Map<String, String> prepareLabelCache(SnomedReferenceSetMembers membersToExport) {
+	private Map<String, String> prepareLabelCache() {
 		final SnomedConcepts modelComponents = SnomedRequests.prepareSearchConcept()
 			.all()
 			.filterByActive(true)
@@ -128,30 +171,67 @@ public final class MapTypeRefSetDSVExporter implements IRefSetDSVExporter {
 			.build()
 			.execute(context);
 		
-		final Map<String, String> labels = newHashMapWithExpectedSize(membersToExport.getTotal() + modelComponents.getTotal());
+		final Map<String, String> labels = newHashMapWithExpectedSize(modelComponents.getTotal());
 		
 		modelComponents.forEach(modelComponent -> {
 			labels.put(modelComponent.getId(), getFsnOrId(modelComponent));
 		});
 		
-		for (SnomedReferenceSetMember snomedReferenceSetMember : membersToExport) {
-			SnomedCoreComponent referencedComponent = snomedReferenceSetMember.getReferencedComponent();
-			String id = referencedComponent.getId();
-			if (referencedComponent instanceof SnomedConcept) {
-				labels.put(id, getFsnOrId((SnomedConcept) referencedComponent));
-			} else if (referencedComponent instanceof SnomedDescription) {
-				labels.put(id, ((SnomedDescription) referencedComponent).getTerm());
-			} else if (referencedComponent instanceof SnomedRelationship) {
-				SnomedRelationship relationship = (SnomedRelationship) referencedComponent;
-				if (relationship.hasValue()) {
-					labels.put(id, String.format("%s - %s - %s",relationship.getSourceId(), relationship.getTypeId(), relationship.getValue()));
-				} else {
-					labels.put(id, String.format("%s - %s - %s",relationship.getSourceId(), relationship.getTypeId(), relationship.getDestinationId()));
-				}
-			}
+		return labels;
+	}
+	
+	/*
+	 * Resolves the SDD class of all referenced components of the given page with a single request
+	 */
+	private Map<String, String> getSddClassLabels(SnomedReferenceSetMembers members) {
+		final boolean sddClassExported = exportSetting.getExportItems()
+				.stream()
+				.anyMatch(item -> SnomedDsvExportItemType.SDD_CLASS == item.getType());
+		
+		if (!sddClassExported || members.isEmpty()) {
+			return ImmutableMap.of();
 		}
 		
-		return labels;
+		final Set<String> referencedComponentIds = newHashSet();
+		for (SnomedReferenceSetMember member : members) {
+			referencedComponentIds.add(member.getReferencedComponent().getId());
+		}
+		
+		final Map<String, String> sddClassLabels = newHashMap();
+		SnomedRequests.prepareSearchRelationship()
+				.all()
+				// XXX intentionally using PT here for SDD class properties
+				.setExpand("destination(expand(pt()))")
+				.setLocales(exportSetting.getLocales())
+				.filterByActive(true)
+				.filterBySources(referencedComponentIds)
+				.filterByType(Concepts.HAS_SDD_CLASS)
+				.build()
+				.execute(context)
+				.forEach(relationship -> {
+					// XXX: SDD class relationships are not supposed to have a value
+					checkState(!relationship.hasValue(), "SDD class relationship found with value: %s", relationship.getId());
+					SnomedDescription pt = relationship.getDestination().getPt();
+					sddClassLabels.putIfAbsent(relationship.getSourceId(), pt != null ? pt.getTerm() : relationship.getDestinationId());
+				});
+		return sddClassLabels;
+	}
+	
+	private String getReferencedComponentLabel(SnomedCoreComponent referencedComponent) {
+		if (referencedComponent instanceof SnomedConcept) {
+			return getFsnOrId((SnomedConcept) referencedComponent);
+		} else if (referencedComponent instanceof SnomedDescription) {
+			return ((SnomedDescription) referencedComponent).getTerm();
+		} else if (referencedComponent instanceof SnomedRelationship) {
+			SnomedRelationship relationship = (SnomedRelationship) referencedComponent;
+			if (relationship.hasValue()) {
+				return String.format("%s - %s - %s",relationship.getSourceId(), relationship.getTypeId(), relationship.getValue());
+			} else {
+				return String.format("%s - %s - %s",relationship.getSourceId(), relationship.getTypeId(), relationship.getDestinationId());
+			}
+		} else {
+			return null;
+		}
 	}
 
 	private String getFsnOrId(SnomedConcept concept) {
@@ -165,18 +245,18 @@ public final class MapTypeRefSetDSVExporter implements IRefSetDSVExporter {
 				.collect(Collectors.joining(exportSetting.getDelimiter()));
 	}
 
-	private String toDsvLine(final SnomedReferenceSetMember member, Map<String, String> labelMap) {
+	private String toDsvLine(final SnomedReferenceSetMember member, Map<String, String> labelMap, Map<String, String> sddClassLabels) {
 		return exportSetting.getExportItems()
 				.stream()
-				.map(item -> getExportItemForConcept(member, item.getType(), labelMap))
+				.map(item -> getExportItemForConcept(member, item.getType(), labelMap, sddClassLabels))
 				.collect(Collectors.joining(exportSetting.getDelimiter()));
 	}
 
 	// FIXME: Restore fetching map target labels from external terminology if map target type (code system/version?) is set
-	private String getExportItemForConcept(final SnomedReferenceSetMember member, final SnomedDsvExportItemType type, Map<String, String> labelMap) {
+	private String getExportItemForConcept(final SnomedReferenceSetMember member, final SnomedDsvExportItemType type, Map<String, String> labelMap, Map<String, String> sddClassLabels) {
 		switch (type) {
 			case REFERENCED_COMPONENT:
-				return labelMap.get(member.getReferencedComponent().getId());
+				return getReferencedComponentLabel(member.getReferencedComponent());
 			case REFERENCED_COMPONENT_ID:
 				return member.getReferencedComponent().getId();
 			case MAP_TARGET_ID:
@@ -204,24 +284,7 @@ public final class MapTypeRefSetDSVExporter implements IRefSetDSVExporter {
 			case CORRELATION:
 				return labelMap.get(member.getProperties().get(SnomedRf2Headers.FIELD_CORRELATION_ID));
 			case SDD_CLASS:
-				return SnomedRequests.prepareSearchRelationship()
-						.one()
-						// XXX intentionally using PT here for SDD class properties
-						.setExpand("destination(expand(pt()))")
-						.setLocales(exportSetting.getLocales())
-						.filterByActive(true)
-						.filterBySource(member.getReferencedComponent().getId())
-						.filterByType(Concepts.HAS_SDD_CLASS)
-						.build()
-						.execute(context)
-						.first()
-						.map(relationship -> {
-							// XXX: SDD class relationships are not supposed to have a value
-							checkState(!relationship.hasValue(), "SDD class relationship found with value: %s", relationship.getId());
-							SnomedDescription pt = relationship.getDestination().getPt();
-							return pt != null ? pt.getTerm() : relationship.getDestinationId();
-						})
-						.get();
+				return sddClassLabels.getOrDefault(member.getReferencedComponent().getId(), "");
 			case MAP_CATEGORY:
 				final String mapCategoryId = (String) member.getProperties().get(SnomedRf2Headers.FIELD_MAP_CATEGORY_ID);
 				if (Strings.isNullOrEmpty(mapCategoryId)) {
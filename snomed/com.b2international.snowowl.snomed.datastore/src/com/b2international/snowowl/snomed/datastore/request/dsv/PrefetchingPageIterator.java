@@ -0,0 +1,92 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.datastore.request.dsv;
+
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import com.b2international.snowowl.core.api.SnowowlRuntimeException;
+import com.google.common.base.Throwables;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Iterates over the pages of a source iterator, fetching and resolving the next page on a background thread while the caller processes the
+ * current one. At most two pages are held in memory at any time.
+ *
+ * @since 8.0
+ * @param <S> - the source page type
+ * @param <T> - the resolved page type
+ */
+final class PrefetchingPageIterator<S, T> extends AbstractIterator<T> implements AutoCloseable {
+
+	private final Iterator<S> pages;
+	private final Function<S, T> resolver;
+	private final ExecutorService prefetcher;
+	private Future<Optional<T>> next;
+
+	PrefetchingPageIterator(Iterator<S> pages, Function<S, T> resolver) {
+		this.pages = pages;
+		this.resolver = resolver;
+		this.prefetcher = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+				.setNameFormat("dsv-export-prefetch-%d")
+				.setDaemon(true)
+				.build());
+	}
+
+	@Override
+	protected T computeNext() {
+		if (next == null) {
+			next = prefetch();
+		}
+
+		final Optional<T> page = await(next);
+		if (page.isEmpty()) {
+			return endOfData();
+		}
+
+		// the source iterator is only accessed from the prefetch thread, one page at a time
+		next = prefetch();
+		return page.get();
+	}
+
+	private Future<Optional<T>> prefetch() {
+		return prefetcher.submit(() -> pages.hasNext() ? Optional.of(resolver.apply(pages.next())) : Optional.empty());
+	}
+
+	private Optional<T> await(Future<Optional<T>> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SnowowlRuntimeException("Interrupted while fetching the next page of the DSV export", e);
+		} catch (ExecutionException e) {
+			Throwables.throwIfUnchecked(e.getCause());
+			throw new SnowowlRuntimeException(e.getCause());
+		}
+	}
+
+	@Override
+	public void close() {
+		prefetcher.shutdownNow();
+	}
+
+}
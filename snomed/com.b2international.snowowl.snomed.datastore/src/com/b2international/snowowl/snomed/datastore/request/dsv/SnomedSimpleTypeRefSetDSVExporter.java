@@ -17,6 +17,7 @@ package com.b2international.snowowl.snomed.datastore.request.dsv;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Sets.newHashSet;
 import static java.util.Optional.ofNullable;
 
 import java.io.BufferedWriter;
@@ -28,12 +29,15 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.SortedSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 
 import com.b2international.commons.http.ExtendedLocale;
+import com.b2international.index.query.Query;
 import com.b2international.snowowl.core.date.Dates;
 import com.b2international.snowowl.core.date.EffectiveTimes;
 import com.b2international.snowowl.core.domain.BranchContext;
@@ -50,6 +54,7 @@ import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDoc
 import com.b2international.snowowl.snomed.datastore.internal.rf2.AbstractSnomedDsvExportItem;
 import com.b2international.snowowl.snomed.datastore.internal.rf2.ComponentIdSnomedDsvExportItem;
 import com.b2international.snowowl.snomed.datastore.internal.rf2.DatatypeSnomedDsvExportItem;
+import com.b2international.snowowl.snomed.datastore.internal.rf2.SnomedDsvExportItemType;
 import com.b2international.snowowl.snomed.datastore.internal.rf2.SnomedRefSetDSVExportModel;
 import com.b2international.snowowl.snomed.datastore.request.SnomedConceptSearchRequestBuilder;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
@@ -64,16 +69,23 @@ import com.google.common.collect.Ordering;
  */
 public class SnomedSimpleTypeRefSetDSVExporter implements IRefSetDSVExporter {
 
-	private static final String HEADER_EXPAND = "descriptions(active:true),"
-			+ "relationships(active:true),"
-			+ "members()";
-	
-	private static final String DATA_EXPAND = "pt(),"
-			+ "descriptions(active:true),"
-			+ "relationships(active:true,expand(destination(expand(pt())))),"
-			+ "members()";
-
 	private static final Map<String, Integer> NO_OCCURRENCES = ImmutableMap.of();
+	private static final Map<String, String> NO_LABELS = ImmutableMap.of();
+	
+	/**
+	 * A page of member concepts with the preferred terms of their relationship destinations.
+	 */
+	private static final class Page {
+		
+		private final SnomedConcepts concepts;
+		private final Map<String, String> destinationLabels;
+		
+		private Page(SnomedConcepts concepts, Map<String, String> destinationLabels) {
+			this.concepts = concepts;
+			this.destinationLabels = destinationLabels;
+		}
+		
+	}
 	
 	private final BranchContext context;
 	
@@ -138,10 +150,14 @@ public class SnomedSimpleTypeRefSetDSVExporter implements IRefSetDSVExporter {
 		
 		SnomedConceptSearchRequestBuilder builder = SnomedRequests.prepareSearchConcept()
 			.setLocales(locales)
-			.setExpand(expand)
 			.sortBy(SortField.ascending(SnomedConceptDocument.Fields.ID))
+			.setTrackTotalHits(Query.TRACK_TOTAL_HITS_DISABLED)
 			.setLimit(10_000);
 		
+		if (!expand.isEmpty()) {
+			builder.setExpand(expand);
+		}
+		
 		if (includeInactiveMembers) {
 			builder.isMemberOf(refSetId);
 		} else {
@@ -151,6 +167,31 @@ public class SnomedSimpleTypeRefSetDSVExporter implements IRefSetDSVExporter {
 		return new SearchResourceRequestIterator<>(builder, b -> b.build().execute(context));
 	}
 
+	/*
+	 * Expands only the properties required by the selected export items, labels are only needed when writing values
+	 */
+	private String getExpand(boolean includeLabels) {
+		final List<String> expand = newArrayList();
+		if (includeLabels && hasExportItem(SnomedDsvExportItemType.PREFERRED_TERM)) {
+			expand.add("pt()");
+		}
+		if (hasExportItem(SnomedDsvExportItemType.DESCRIPTION)) {
+			expand.add("descriptions(active:true)");
+		}
+		if (hasExportItem(SnomedDsvExportItemType.RELATIONSHIP)) {
+			// destination labels are resolved in bulk for each page
+			expand.add("relationships(active:true)");
+		}
+		if (hasExportItem(SnomedDsvExportItemType.DATAYPE)) {
+			expand.add("members()");
+		}
+		return Joiner.on(',').join(expand);
+	}
+	
+	private boolean hasExportItem(SnomedDsvExportItemType type) {
+		return exportItems.stream().anyMatch(exportItem -> type == exportItem.getType());
+	}
+	
 	/*
 	 * Finds the maximum number of occurrences for each description, relationship and concrete data type; generates headers. 
 	 */
@@ -158,9 +199,16 @@ public class SnomedSimpleTypeRefSetDSVExporter implements IRefSetDSVExporter {
 		descriptionCount = newHashMap();
 		propertyCountByGroup = newHashMap();
 		
-		SearchResourceRequestIterator<SnomedConceptSearchRequestBuilder, SnomedConcepts> conceptIterator = getMemberConceptIterator(HEADER_EXPAND);
-		while (conceptIterator.hasNext()) {
-			computeHeader(conceptIterator.next());
+		// single-use fields don't need to be counted in advance
+		final String expand = getExpand(false);
+		if (expand.isEmpty()) {
+			return;
+		}
+		
+		try (PrefetchingPageIterator<SnomedConcepts, SnomedConcepts> conceptIterator = new PrefetchingPageIterator<>(getMemberConceptIterator(expand), Function.identity())) {
+			while (conceptIterator.hasNext()) {
+				computeHeader(conceptIterator.next());
+			}
 		}
 	}
 	
@@ -246,7 +294,7 @@ public class SnomedSimpleTypeRefSetDSVExporter implements IRefSetDSVExporter {
 					ComponentIdSnomedDsvExportItem descriptionItem = (ComponentIdSnomedDsvExportItem) exportItem;
 					String typeId = descriptionItem.getComponentId();
 					String displayName = descriptionTypeIdMap.getOrDefault(typeId, descriptionItem.getDisplayName());
-					int occurrences = descriptionCount.get(typeId);
+					int occurrences = descriptionCount.getOrDefault(typeId, 0);
 					
 					if (occurrences < 2) {
 						if (includeDescriptionId) {
@@ -366,11 +414,11 @@ public class SnomedSimpleTypeRefSetDSVExporter implements IRefSetDSVExporter {
 		}
 		
 		// write the header to the file
-		writer.write(joiner.join(propertyHeader));
+		joiner.appendTo(writer, propertyHeader);
 		writer.write(lineSeparator);
 		
 		if (includeDescriptionId || includeRelationshipId) {
-			writer.write(joiner.join(detailHeader));
+			joiner.appendTo(writer, detailHeader);
 			writer.write(lineSeparator);
 		}
 	}
@@ -393,19 +441,56 @@ public class SnomedSimpleTypeRefSetDSVExporter implements IRefSetDSVExporter {
 	}
 
 	private void writeValues(IProgressMonitor monitor, BufferedWriter writer) throws IOException {
-		SearchResourceRequestIterator<SnomedConceptSearchRequestBuilder, SnomedConcepts> conceptIterator = getMemberConceptIterator(DATA_EXPAND);
+		// the next page is fetched and its destination labels are resolved while the current page is written
+		try (PrefetchingPageIterator<SnomedConcepts, Page> pageIterator = new PrefetchingPageIterator<>(getMemberConceptIterator(getExpand(true)), 
+				chunk -> new Page(chunk, getDestinationLabels(chunk)))) {
+			while (pageIterator.hasNext()) {
+				Page page = pageIterator.next();
+				writeValues(writer, page);
+				monitor.worked(page.concepts.getItems().size());
+			}
+		}
+	}
+	
+	/*
+	 * Resolves the preferred terms of all relationship destinations of the given page with a single request
+	 */
+	private Map<String, String> getDestinationLabels(SnomedConcepts chunk) {
+		final Set<String> relationshipTypeIds = exportItems.stream()
+				.filter(exportItem -> SnomedDsvExportItemType.RELATIONSHIP == exportItem.getType())
+				.map(exportItem -> ((ComponentIdSnomedDsvExportItem) exportItem).getComponentId())
+				.collect(Collectors.toSet());
+		
+		if (relationshipTypeIds.isEmpty()) {
+			return NO_LABELS;
+		}
+		
+		final Set<String> destinationIds = newHashSet();
+		for (SnomedConcept concept : chunk) {
+			for (SnomedRelationship relationship : concept.getRelationships()) {
+				if (!relationship.hasValue() && relationshipTypeIds.contains(relationship.getTypeId())) {
+					destinationIds.add(relationship.getDestinationId());
+				}
+			}
+		}
 		
-		while (conceptIterator.hasNext()) {
-			SnomedConcepts chunk = conceptIterator.next();
-			writeValues(writer, chunk);
-			monitor.worked(chunk.getItems().size());
+		if (destinationIds.isEmpty()) {
+			return NO_LABELS;
 		}
+		
+		return createTypeIdMap(SnomedRequests.prepareSearchConcept()
+			.filterByIds(destinationIds)
+			.setLimit(destinationIds.size())
+			.setLocales(locales)
+			.setExpand("pt()")
+			.build()
+			.execute(context));
 	}
 		
-	private void writeValues(BufferedWriter writer, SnomedConcepts chunk) throws IOException {
+	private void writeValues(BufferedWriter writer, Page page) throws IOException {
 		List<String> dataRow = newArrayList();
 		
-		for (SnomedConcept concept : chunk) {
+		for (SnomedConcept concept : page.concepts) {
 			dataRow.clear();
 
 			for (AbstractSnomedDsvExportItem exportItem : exportItems) {
@@ -413,7 +498,7 @@ public class SnomedSimpleTypeRefSetDSVExporter implements IRefSetDSVExporter {
 					case DESCRIPTION: {
 						final ComponentIdSnomedDsvExportItem descriptionItem = (ComponentIdSnomedDsvExportItem) exportItem;
 						final String typeId = descriptionItem.getComponentId();
-						int occurrences = descriptionCount.get(typeId);
+						int occurrences = descriptionCount.getOrDefault(typeId, 0);
 						
 						final Map<String, String> termsById = concept.getDescriptions()
 								.stream()
@@ -443,7 +528,7 @@ public class SnomedSimpleTypeRefSetDSVExporter implements IRefSetDSVExporter {
 										if (relationship.hasValue()) {
 											addCells(dataRow, occurrences, includeRelationshipId, ImmutableMap.of(relationship.getValue(), ""));
 										} else {
-											addCells(dataRow, occurrences, includeRelationshipId, ImmutableMap.of(relationship.getDestinationId(), getPreferredTerm(relationship.getDestination())));
+											addCells(dataRow, occurrences, includeRelationshipId, ImmutableMap.of(relationship.getDestinationId(), page.destinationLabels.getOrDefault(relationship.getDestinationId(), "")));
 										}
 									});
 							
@@ -527,7 +612,7 @@ public class SnomedSimpleTypeRefSetDSVExporter implements IRefSetDSVExporter {
 				}
 			}
 			
-			writer.write(joiner.join(dataRow));
+			joiner.appendTo(writer, dataRow);
 			writer.write(lineSeparator);
 		}
 	}
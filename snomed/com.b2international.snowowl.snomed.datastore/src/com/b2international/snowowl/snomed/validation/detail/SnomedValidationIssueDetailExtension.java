@@ -49,6 +49,7 @@ import com.b2international.snowowl.snomed.core.domain.SnomedDescriptions;
 import com.b2international.snowowl.snomed.core.domain.SnomedRelationship;
 import com.b2international.snowowl.snomed.core.domain.refset.SnomedReferenceSetMember;
 import com.b2international.snowowl.snomed.datastore.SnomedDescriptionUtils;
+import com.b2international.snowowl.snomed.datastore.SnomedLabelCache;
 import com.b2international.snowowl.snomed.datastore.index.entry.*;
 import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
 import com.google.common.base.Strings;
@@ -245,14 +246,6 @@ public class SnomedValidationIssueDetailExtension implements ValidationIssueDeta
 		
 		boolean useFsn = ruleParameters.containsKey(ValidationConfiguration.USE_FSN) ? (boolean) ruleParameters.get(ValidationConfiguration.USE_FSN) : false;
 		
-		Set<String> types;
-		
-		if (useFsn) {
-			types = Set.of(Concepts.FULLY_SPECIFIED_NAME);
-		} else {
-			types = SnomedRequests.prepareGetSynonyms().build().execute(context).stream().map(SnomedConcept::getId).collect(Collectors.toSet());
-		}
-		
 		List<ExtendedLocale> locales;
 		
 		if (ruleParameters.containsKey(ValidationConfiguration.LOCALES)) {
@@ -261,6 +254,23 @@ public class SnomedValidationIssueDetailExtension implements ValidationIssueDeta
 			locales = List.of();
 		}
 		
+		// labels in the requested locales are the same as the PT/FSN of the concept, use the node-local label cache if available
+		final Optional<SnomedLabelCache> labelCache = context.optionalService(SnomedLabelCache.class).filter(SnomedLabelCache::isEnabled);
+		if (labelCache.isPresent() && !locales.isEmpty()) {
+			final Map<String, SnomedDescription> labels = useFsn 
+					? labelCache.get().getFullySpecifiedNames(context, conceptIds, locales) 
+					: labelCache.get().getPreferredTerms(context, conceptIds, locales);
+			return new HashMap<>(Maps.transformValues(labels, SnomedDescription::getTerm));
+		}
+		
+		Set<String> types;
+		
+		if (useFsn) {
+			types = Set.of(Concepts.FULLY_SPECIFIED_NAME);
+		} else {
+			types = SnomedRequests.prepareGetSynonyms().build().execute(context).stream().map(SnomedConcept::getId).collect(Collectors.toSet());
+		}
+		
 		final Map<String, String> affectedComponentLabelsByConcept = new HashMap<>();
 		
 		for (List<String> partition : Iterables.partition(conceptIds, SCROLL_SIZE)) {
@@ -17,9 +17,12 @@ package com.b2international.snowowl.snomed.fhir;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import com.b2international.commons.exceptions.NotFoundException;
+import com.b2international.commons.http.ExtendedLocale;
 import com.b2international.snowowl.core.ServiceProvider;
 import com.b2international.snowowl.core.date.DateFormats;
 import com.b2international.snowowl.core.date.EffectiveTimes;
@@ -28,6 +31,7 @@ import com.b2international.snowowl.fhir.core.codesystems.CommonConceptProperties
 import com.b2international.snowowl.fhir.core.model.Designation;
 import com.b2international.snowowl.fhir.core.model.codesystem.CodeSystem;
 import com.b2international.snowowl.fhir.core.model.codesystem.LookupRequest;
+import com.b2international.snowowl.fhir.core.model.codesystem.LookupResult;
 import com.b2international.snowowl.fhir.core.model.codesystem.Property;
 import com.b2international.snowowl.fhir.core.model.codesystem.SupportedCodeSystemRequestProperties;
 import com.b2international.snowowl.fhir.core.model.dt.Coding;
@@ -122,16 +126,7 @@ public final class SnomedFhirCodeSystemLookupConverter implements FhirCodeSystem
 		}
 		
 		// Relationship Properties
-		Set<String> relationshipTypeIds = lookupRequest.getPropertyCodes().stream()
-			.map(p -> {
-				if (p.startsWith(SnomedTerminologyComponentConstants.SNOMED_URI_BASE)) {
-					return p.substring(p.lastIndexOf('/') + 1, p.length()); // URI prefixed properties
-				} else {
-					return p; // use as is, so users won't need to define full URI for each SNOMED CT property, ID is enough
-				}
-			})
-			.filter(SnomedIdentifiers::isConceptIdentifier) // only SNOMED CT Concept IDs
-			.collect(Collectors.toSet());
+		Set<String> relationshipTypeIds = getRelationshipTypeIds(lookupRequest);
 		
 		if (!relationshipTypeIds.isEmpty()) {
 			SnomedRequests.prepareSearchRelationship()
@@ -168,4 +163,87 @@ public final class SnomedFhirCodeSystemLookupConverter implements FhirCodeSystem
 		}
 	}
 	
+	/*
+	 * Lookups on code system versions that do not request designations and relationship properties are answered from the in-memory taxonomy of the version.
+	 */
+	@Override
+	public Optional<LookupResult> lookup(ServiceProvider context, CodeSystem codeSystem, LookupRequest request, String acceptLanguage) {
+		if (request.isPropertyRequested(SupportedCodeSystemRequestProperties.DESIGNATION) || !getRelationshipTypeIds(request).isEmpty()) {
+			return Optional.empty();
+		}
+		
+		final Optional<SnomedFhirTaxonomy> optionalTaxonomy = SnomedFhirCodeSystemSubsumptionEvaluator.getTaxonomy(context, codeSystem);
+		if (optionalTaxonomy.isEmpty()) {
+			return Optional.empty();
+		}
+		
+		final SnomedFhirTaxonomy taxonomy = optionalTaxonomy.get();
+		final List<String> languageRefSetIds = taxonomy.getLanguageRefSetIds(ExtendedLocale.parseLocales(acceptLanguage));
+		if (languageRefSetIds.isEmpty()) {
+			// let the regular lookup report unknown locales
+			return Optional.empty();
+		}
+		
+		final String conceptId = request.getCode();
+		if (!taxonomy.contains(conceptId)) {
+			throw new NotFoundException("Concept", conceptId);
+		}
+		
+		final List<Property> properties = new ArrayList<>();
+		
+		if (request.isPropertyRequested(CoreSnomedConceptProperties.INACTIVE)) {
+			properties.add(CoreSnomedConceptProperties.INACTIVE.propertyOf(!taxonomy.isActive(conceptId)));
+		}
+		
+		if (request.isPropertyRequested(CoreSnomedConceptProperties.MODULE_ID)) {
+			properties.add(CoreSnomedConceptProperties.MODULE_ID.propertyOf(taxonomy.getModuleId(conceptId)));
+		}
+		
+		if (request.isPropertyRequested(CoreSnomedConceptProperties.SUFFICIENTLY_DEFINED)) {
+			properties.add(CoreSnomedConceptProperties.SUFFICIENTLY_DEFINED.propertyOf(!taxonomy.isPrimitive(conceptId)));
+		}
+		
+		if (request.isPropertyRequested(CoreSnomedConceptProperties.EFFECTIVE_TIME)) {
+			properties.add(CoreSnomedConceptProperties.EFFECTIVE_TIME.propertyOf(EffectiveTimes.format(EffectiveTimes.toDate(taxonomy.getEffectiveTime(conceptId)), DateFormats.SHORT)));
+		}
+		
+		if (request.containsProperty(CommonConceptProperties.CHILD.getCode())) {
+			for (String childId : taxonomy.getChildIds(conceptId)) {
+				properties.add(CommonConceptProperties.CHILD.propertyOf(childId, getPreferredTerm(taxonomy, childId, languageRefSetIds)));
+			}
+		}
+		
+		if (request.containsProperty(CommonConceptProperties.PARENT.getCode())) {
+			for (String parentId : taxonomy.getParentIds(conceptId)) {
+				properties.add(CommonConceptProperties.PARENT.propertyOf(parentId, getPreferredTerm(taxonomy, parentId, languageRefSetIds)));
+			}
+		}
+		
+		return Optional.of(LookupResult.builder()
+				.name(codeSystem.getName())
+				.display(getPreferredTerm(taxonomy, conceptId, languageRefSetIds))
+				.version(codeSystem.getVersion())
+				.property(properties.isEmpty() ? null : properties)
+				.build());
+	}
+	
+	// same fallback as the PT display term type
+	private static String getPreferredTerm(SnomedFhirTaxonomy taxonomy, String conceptId, List<String> languageRefSetIds) {
+		final String term = taxonomy.getPreferredTerm(conceptId, languageRefSetIds);
+		return term != null ? term : conceptId;
+	}
+	
+	private static Set<String> getRelationshipTypeIds(LookupRequest lookupRequest) {
+		return lookupRequest.getPropertyCodes().stream()
+			.map(p -> {
+				if (p.startsWith(SnomedTerminologyComponentConstants.SNOMED_URI_BASE)) {
+					return p.substring(p.lastIndexOf('/') + 1, p.length()); // URI prefixed properties
+				} else {
+					return p; // use as is, so users won't need to define full URI for each SNOMED CT property, ID is enough
+				}
+			})
+			.filter(SnomedIdentifiers::isConceptIdentifier) // only SNOMED CT Concept IDs
+			.collect(Collectors.toSet());
+	}
+	
 }
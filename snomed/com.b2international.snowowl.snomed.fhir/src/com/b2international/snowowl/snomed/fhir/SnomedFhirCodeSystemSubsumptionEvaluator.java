@@ -0,0 +1,46 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.fhir;
+
+import java.util.Optional;
+
+import com.b2international.snowowl.core.ServiceProvider;
+import com.b2international.snowowl.fhir.core.model.codesystem.CodeSystem;
+import com.b2international.snowowl.fhir.core.request.codesystem.FhirCodeSystemSubsumptionEvaluator;
+
+/**
+ * Answers subsumption tests on SNOMED CT code system versions from the in-memory {@link SnomedFhirTaxonomy} of the version.
+ * 
+ * @since 8.0
+ */
+public final class SnomedFhirCodeSystemSubsumptionEvaluator implements FhirCodeSystemSubsumptionEvaluator {
+
+	@Override
+	public boolean isSubsumedBy(ServiceProvider context, CodeSystem codeSystem, String subType, String superType) {
+		final Optional<SnomedFhirTaxonomy> taxonomy = getTaxonomy(context, codeSystem);
+		if (taxonomy.isPresent()) {
+			return taxonomy.get().isSubsumedBy(subType, superType);
+		} else {
+			return FhirCodeSystemSubsumptionEvaluator.super.isSubsumedBy(context, codeSystem, subType, superType);
+		}
+	}
+
+	static Optional<SnomedFhirTaxonomy> getTaxonomy(ServiceProvider context, CodeSystem codeSystem) {
+		return context.optionalService(SnomedFhirTaxonomyCache.class)
+				.flatMap(cache -> cache.get(context, codeSystem.getResourceURI()));
+	}
+	
+}
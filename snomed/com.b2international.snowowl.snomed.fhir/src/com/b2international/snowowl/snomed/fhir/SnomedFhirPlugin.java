@@ -17,12 +17,16 @@ package com.b2international.snowowl.snomed.fhir;
 
 import java.util.Map;
 
+import com.b2international.snowowl.core.config.SnowOwlConfiguration;
+import com.b2international.snowowl.core.events.Notifications;
 import com.b2international.snowowl.core.plugin.Component;
 import com.b2international.snowowl.core.repository.TerminologyRepositoryConfigurer;
 import com.b2international.snowowl.core.setup.Environment;
 import com.b2international.snowowl.core.setup.Plugin;
 import com.b2international.snowowl.fhir.core.request.codesystem.FhirCodeSystemLookupConverter;
 import com.b2international.snowowl.fhir.core.request.codesystem.FhirCodeSystemResourceConverter;
+import com.b2international.snowowl.fhir.core.request.codesystem.FhirCodeSystemSubsumptionEvaluator;
+import com.b2international.snowowl.fhir.core.request.valueset.FhirValueSetExpandConverter;
 import com.b2international.snowowl.snomed.common.SnomedTerminologyComponentConstants;
 
 /**
@@ -36,11 +40,21 @@ public class SnomedFhirPlugin extends Plugin implements TerminologyRepositoryCon
 		return SnomedTerminologyComponentConstants.TOOLING_ID;
 	}
 	
+	@Override
+	public void preRun(SnowOwlConfiguration configuration, Environment env) throws Exception {
+		if (env.isServer()) {
+			// initialize node-local taxonomies of SNOMED CT versions for $subsumes and $lookup
+			env.services().registerService(SnomedFhirTaxonomyCache.class, new SnomedFhirTaxonomyCache(SnomedFhirTaxonomyCache.DEFAULT_MAXIMUM_SIZE).subscribe(env.service(Notifications.class)));
+		}
+	}
+	
 	@Override
 	public Map<Class<?>, Object> bindAdditionalServices(Environment env) {
 		return Map.of(
 			FhirCodeSystemResourceConverter.class, new SnomedFhirCodeSystemResourceConverter(),
-			FhirCodeSystemLookupConverter.class, new SnomedFhirCodeSystemLookupConverter()
+			FhirCodeSystemLookupConverter.class, new SnomedFhirCodeSystemLookupConverter(),
+			FhirCodeSystemSubsumptionEvaluator.class, new SnomedFhirCodeSystemSubsumptionEvaluator(),
+			FhirValueSetExpandConverter.class, new SnomedFhirValueSetExpandConverter()
 		);
 	}
 
@@ -0,0 +1,389 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.fhir;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Lists.newArrayListWithExpectedSize;
+
+import java.util.*;
+
+import com.b2international.collections.longs.LongIterator;
+import com.b2international.collections.longs.LongSortedSet;
+import com.b2international.commons.http.ExtendedLocale;
+import com.b2international.snowowl.core.date.EffectiveTimes;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedDescriptionFragment;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ListMultimap;
+
+/**
+ * Read-only, in-memory representation of the inferred SNOMED CT hierarchy and the preferred synonyms of all concepts on a single, immutable
+ * (versioned) branch. Concepts are referenced by their position in a sorted array of concept IDs, the parent, ancestor and child lists and the
+ * language reference set memberships of preferred synonyms are all stored as primitive arrays of these positions.
+ * <p>
+ * Instances are built with {@link Builder} from the concept documents of the branch and are safe to use from multiple threads.
+ * </p>
+ *
+ * @since 8.0
+ */
+public final class SnomedFhirTaxonomy {
+
+	private static final int[] EMPTY = new int[0];
+
+	private final long[] conceptIds;
+	private final BitSet active;
+	private final BitSet primitive;
+	private final long[] moduleIds;
+	private final long[] effectiveTimes;
+	private final int[][] parents;
+	// parents and ancestors of each concept, sorted
+	private final int[][] superTypes;
+	private final int[][] children;
+
+	private final String[][] synonymTerms;
+	private final int[][][] synonymLanguageRefSets;
+	private final List<String> languageRefSetIds;
+	private final ListMultimap<String, String> languageMapping;
+
+	private SnomedFhirTaxonomy(
+			long[] conceptIds,
+			BitSet active,
+			BitSet primitive,
+			long[] moduleIds,
+			long[] effectiveTimes,
+			int[][] parents,
+			int[][] superTypes,
+			int[][] children,
+			String[][] synonymTerms,
+			int[][][] synonymLanguageRefSets,
+			List<String> languageRefSetIds,
+			ListMultimap<String, String> languageMapping) {
+		this.conceptIds = conceptIds;
+		this.active = active;
+		this.primitive = primitive;
+		this.moduleIds = moduleIds;
+		this.effectiveTimes = effectiveTimes;
+		this.parents = parents;
+		this.superTypes = superTypes;
+		this.children = children;
+		this.synonymTerms = synonymTerms;
+		this.synonymLanguageRefSets = synonymLanguageRefSets;
+		this.languageRefSetIds = languageRefSetIds;
+		this.languageMapping = languageMapping;
+	}
+
+	public int getConceptCount() {
+		return conceptIds.length;
+	}
+
+	public boolean contains(String conceptId) {
+		return indexOf(conceptId) >= 0;
+	}
+
+	/**
+	 * @param subTypeId
+	 * @param superTypeId
+	 * @return <code>true</code> if the first concept is a (direct or indirect) inferred sub-type of the second concept, <code>false</code> otherwise
+	 */
+	public boolean isSubsumedBy(String subTypeId, String superTypeId) {
+		final int subType = indexOf(subTypeId);
+		final int superType = indexOf(superTypeId);
+		return subType >= 0 && superType >= 0 && Arrays.binarySearch(superTypes[subType], superType) >= 0;
+	}
+
+	public boolean isActive(String conceptId) {
+		return active.get(checkedIndexOf(conceptId));
+	}
+
+	public boolean isPrimitive(String conceptId) {
+		return primitive.get(checkedIndexOf(conceptId));
+	}
+
+	public String getModuleId(String conceptId) {
+		return Long.toString(moduleIds[checkedIndexOf(conceptId)]);
+	}
+
+	/**
+	 * @param conceptId
+	 * @return the effective time of the concept in milliseconds, {@link EffectiveTimes#UNSET_EFFECTIVE_TIME} if the concept is not published
+	 */
+	public long getEffectiveTime(String conceptId) {
+		return effectiveTimes[checkedIndexOf(conceptId)];
+	}
+
+	public List<String> getParentIds(String conceptId) {
+		return toConceptIds(parents[checkedIndexOf(conceptId)]);
+	}
+
+	public List<String> getChildIds(String conceptId) {
+		return toConceptIds(children[checkedIndexOf(conceptId)]);
+	}
+
+	/**
+	 * Converts the given locales to language reference set identifiers using the language configuration of the code system at the time the
+	 * taxonomy was built (see {@code SnomedDescriptionUtils#getLanguageRefSetIds}).
+	 *
+	 * @param locales
+	 * @return the language reference set identifiers in order of preference, or an empty list if none of the locales could be converted
+	 */
+	public List<String> getLanguageRefSetIds(List<ExtendedLocale> locales) {
+		final List<String> refSetIds = newArrayList();
+		for (ExtendedLocale locale : locales) {
+			final Collection<String> mappedRefSetIds = locale.getLanguageRefSetId().isEmpty()
+					? languageMapping.get(locale.getLanguageTag())
+					: Collections.singleton(locale.getLanguageRefSetId());
+			for (String refSetId : mappedRefSetIds) {
+				if (!refSetIds.contains(refSetId)) {
+					refSetIds.add(refSetId);
+				}
+			}
+		}
+		return refSetIds;
+	}
+
+	/**
+	 * Returns the term of the synonym that is preferred in the first of the given language reference sets that has a preferred synonym for the
+	 * concept.
+	 *
+	 * @param conceptId
+	 * @param languageRefSetIds - the language reference sets in order of preference
+	 * @return the preferred term or <code>null</code> if the concept does not have a preferred synonym in any of the language reference sets
+	 */
+	public String getPreferredTerm(String conceptId, List<String> languageRefSetIds) {
+		final int concept = checkedIndexOf(conceptId);
+		final String[] terms = synonymTerms[concept];
+		for (String languageRefSetId : languageRefSetIds) {
+			final int languageRefSet = this.languageRefSetIds.indexOf(languageRefSetId);
+			if (languageRefSet < 0) {
+				continue;
+			}
+			for (int i = 0; i < terms.length; i++) {
+				if (contains(synonymLanguageRefSets[concept][i], languageRefSet)) {
+					return terms[i];
+				}
+			}
+		}
+		return null;
+	}
+
+	private int indexOf(String conceptId) {
+		try {
+			return Arrays.binarySearch(conceptIds, Long.parseLong(conceptId));
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	private int checkedIndexOf(String conceptId) {
+		final int index = indexOf(conceptId);
+		if (index < 0) {
+			throw new NoSuchElementException(conceptId);
+		}
+		return index;
+	}
+
+	private List<String> toConceptIds(int[] indexes) {
+		final List<String> ids = newArrayListWithExpectedSize(indexes.length);
+		for (int index : indexes) {
+			ids.add(Long.toString(conceptIds[index]));
+		}
+		return ids;
+	}
+
+	private static boolean contains(int[] values, int value) {
+		for (int candidate : values) {
+			if (candidate == value) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public static Builder builder(int expectedSize) {
+		return new Builder(expectedSize);
+	}
+
+	/**
+	 * Collects concept documents and creates the compact representation in {@link #build()}. Documents must have the ID, active, module,
+	 * effective time, definition status, parents, ancestors and preferred descriptions fields loaded.
+	 */
+	public static final class Builder {
+
+		private final List<ConceptEntry> entries;
+		private final List<String> languageRefSetIds = newArrayList();
+		private ListMultimap<String, String> languageMapping = ImmutableListMultimap.of();
+
+		private Builder(int expectedSize) {
+			this.entries = newArrayListWithExpectedSize(expectedSize);
+		}
+
+		public Builder languageMapping(ListMultimap<String, String> languageMapping) {
+			this.languageMapping = ImmutableListMultimap.copyOf(languageMapping);
+			return this;
+		}
+
+		public Builder add(SnomedConceptDocument concept) {
+			final List<String> terms = newArrayList();
+			final List<int[]> refSets = newArrayList();
+			if (concept.getPreferredDescriptions() != null) {
+				for (SnomedDescriptionFragment description : concept.getPreferredDescriptions()) {
+					if (Concepts.FULLY_SPECIFIED_NAME.equals(description.getTypeId())) {
+						continue;
+					}
+					terms.add(description.getTerm());
+					refSets.add(description.getLanguageRefSetIds().stream().mapToInt(this::languageRefSetIndex).toArray());
+				}
+			}
+
+			entries.add(new ConceptEntry(
+				Long.parseLong(concept.getId()),
+				concept.isActive(),
+				Concepts.PRIMITIVE.equals(concept.getDefinitionStatusId()),
+				Long.parseLong(concept.getModuleId()),
+				concept.getEffectiveTime() == null ? EffectiveTimes.UNSET_EFFECTIVE_TIME : concept.getEffectiveTime(),
+				toArray(concept.getParents()),
+				toArray(concept.getAncestors()),
+				terms.toArray(new String[terms.size()]),
+				refSets.toArray(new int[refSets.size()][])
+			));
+			return this;
+		}
+
+		private int languageRefSetIndex(String languageRefSetId) {
+			int index = languageRefSetIds.indexOf(languageRefSetId);
+			if (index < 0) {
+				languageRefSetIds.add(languageRefSetId);
+				index = languageRefSetIds.size() - 1;
+			}
+			return index;
+		}
+
+		public SnomedFhirTaxonomy build() {
+			entries.sort(Comparator.comparingLong(entry -> entry.conceptId));
+
+			final int size = entries.size();
+			final long[] conceptIds = new long[size];
+			final BitSet active = new BitSet(size);
+			final BitSet primitive = new BitSet(size);
+			final long[] moduleIds = new long[size];
+			final long[] effectiveTimes = new long[size];
+			final String[][] synonymTerms = new String[size][];
+			final int[][][] synonymLanguageRefSets = new int[size][][];
+
+			for (int i = 0; i < size; i++) {
+				final ConceptEntry entry = entries.get(i);
+				conceptIds[i] = entry.conceptId;
+				active.set(i, entry.active);
+				primitive.set(i, entry.primitive);
+				moduleIds[i] = entry.moduleId;
+				effectiveTimes[i] = entry.effectiveTime;
+				synonymTerms[i] = entry.synonymTerms;
+				synonymLanguageRefSets[i] = entry.synonymLanguageRefSets;
+			}
+
+			final int[][] parents = new int[size][];
+			final int[][] superTypes = new int[size][];
+			final int[] childCounts = new int[size];
+			for (int i = 0; i < size; i++) {
+				final ConceptEntry entry = entries.get(i);
+				parents[i] = toIndexes(conceptIds, entry.parentIds);
+				for (int parent : parents[i]) {
+					childCounts[parent]++;
+				}
+
+				final int[] ancestors = toIndexes(conceptIds, entry.ancestorIds);
+				final int[] parentsAndAncestors = Arrays.copyOf(parents[i], parents[i].length + ancestors.length);
+				System.arraycopy(ancestors, 0, parentsAndAncestors, parents[i].length, ancestors.length);
+				Arrays.sort(parentsAndAncestors);
+				superTypes[i] = parentsAndAncestors.length == 0 ? EMPTY : parentsAndAncestors;
+			}
+
+			final int[][] children = new int[size][];
+			for (int i = 0; i < size; i++) {
+				children[i] = childCounts[i] == 0 ? EMPTY : new int[childCounts[i]];
+				childCounts[i] = 0;
+			}
+			// visiting concepts in ID order keeps the child lists sorted
+			for (int i = 0; i < size; i++) {
+				for (int parent : parents[i]) {
+					children[parent][childCounts[parent]++] = i;
+				}
+			}
+
+			entries.clear();
+			return new SnomedFhirTaxonomy(conceptIds, active, primitive, moduleIds, effectiveTimes, parents, superTypes, children, synonymTerms,
+					synonymLanguageRefSets, List.copyOf(languageRefSetIds), languageMapping);
+		}
+
+		private static long[] toArray(LongSortedSet ids) {
+			if (ids == null || ids.isEmpty()) {
+				return new long[0];
+			}
+			final long[] array = new long[ids.size()];
+			final LongIterator it = ids.iterator();
+			for (int i = 0; it.hasNext(); i++) {
+				array[i] = it.next();
+			}
+			return array;
+		}
+
+		// concepts that are not present on the branch (eg. the ROOT ID placeholder in ancestors) are skipped
+		private static int[] toIndexes(long[] conceptIds, long[] ids) {
+			if (ids.length == 0) {
+				return EMPTY;
+			}
+			final int[] indexes = new int[ids.length];
+			int count = 0;
+			for (long id : ids) {
+				final int index = Arrays.binarySearch(conceptIds, id);
+				if (index >= 0) {
+					indexes[count++] = index;
+				}
+			}
+			return count == 0 ? EMPTY : Arrays.copyOf(indexes, count);
+		}
+
+	}
+
+	private static final class ConceptEntry {
+
+		private final long conceptId;
+		private final boolean active;
+		private final boolean primitive;
+		private final long moduleId;
+		private final long effectiveTime;
+		private final long[] parentIds;
+		private final long[] ancestorIds;
+		private final String[] synonymTerms;
+		private final int[][] synonymLanguageRefSets;
+
+		ConceptEntry(long conceptId, boolean active, boolean primitive, long moduleId, long effectiveTime, long[] parentIds, long[] ancestorIds,
+				String[] synonymTerms, int[][] synonymLanguageRefSets) {
+			this.conceptId = conceptId;
+			this.active = active;
+			this.primitive = primitive;
+			this.moduleId = moduleId;
+			this.effectiveTime = effectiveTime;
+			this.parentIds = parentIds;
+			this.ancestorIds = ancestorIds;
+			this.synonymTerms = synonymTerms;
+			this.synonymLanguageRefSets = synonymLanguageRefSets;
+		}
+
+	}
+
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.fhir;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.b2international.snowowl.core.IDisposableService;
+import com.b2international.snowowl.core.Resource;
+import com.b2international.snowowl.core.ResourceURI;
+import com.b2international.snowowl.core.ServiceProvider;
+import com.b2international.snowowl.core.api.SnowowlRuntimeException;
+import com.b2international.snowowl.core.events.Notifications;
+import com.b2international.snowowl.core.repository.RepositoryCommitNotification;
+import com.b2international.snowowl.core.repository.ResourceRepositoryCache;
+import com.b2international.snowowl.core.request.ResourceRequests;
+import com.b2international.snowowl.core.uri.ResourceURIPathResolver;
+import com.b2international.snowowl.core.uri.ResourceURIPathResolver.PathWithVersion;
+import com.b2international.snowowl.snomed.common.SnomedTerminologyComponentConstants;
+import com.b2international.snowowl.snomed.datastore.request.SnomedContentRequestBuilder;
+import com.google.common.base.Stopwatch;
+import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import io.reactivex.disposables.Disposable;
+
+/**
+ * Node-local cache of {@link SnomedFhirTaxonomy} instances of SNOMED CT code system versions, keyed by the branch path of the version.
+ * <p>
+ * Taxonomies are built lazily in the background when a code system version is first accessed, until the build completes callers are expected to
+ * fall back to regular searches. Only code system versions are eligible, since the content of their branch does not change (any commit on the
+ * branch of a cached taxonomy evicts it nevertheless).
+ * </p>
+ *
+ * @since 8.0
+ */
+public final class SnomedFhirTaxonomyCache implements IDisposableService {
+
+	private static final Logger LOG = LoggerFactory.getLogger(SnomedFhirTaxonomyCache.class);
+
+	/**
+	 * The default number of code system versions to keep in memory.
+	 */
+	public static final int DEFAULT_MAXIMUM_SIZE = 4;
+
+	private final Cache<String, CompletableFuture<SnomedFhirTaxonomy>> taxonomies;
+	private final ExecutorService loader;
+	private final AtomicBoolean disposed = new AtomicBoolean(false);
+	private Disposable subscription;
+
+	public SnomedFhirTaxonomyCache(long maximumSize) {
+		checkArgument(maximumSize >= 0, "Maximum size must be greater than or equal to zero");
+		this.taxonomies = CacheBuilder.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterAccess(1L, TimeUnit.HOURS)
+				.build();
+		// builds are memory intensive, load one version at a time
+		this.loader = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+				.setNameFormat("snomed-fhir-taxonomy-%d")
+				.setDaemon(true)
+				.build());
+	}
+
+	/**
+	 * Registers this cache to receive commit notifications from the given {@link Notifications} stream.
+	 *
+	 * @param notifications
+	 * @return this cache for method chaining
+	 */
+	public SnomedFhirTaxonomyCache subscribe(Notifications notifications) {
+		this.subscription = notifications.ofType(RepositoryCommitNotification.class)
+			.filter(notification -> SnomedTerminologyComponentConstants.TOOLING_ID.equals(notification.getRepositoryId()))
+			.subscribe(notification -> taxonomies.invalidate(notification.getBranchPath()));
+		return this;
+	}
+
+	/**
+	 * Returns the taxonomy of the given code system version if it is available. If the URI references a code system version which was not accessed
+	 * before, building its taxonomy is scheduled and an empty {@link Optional} is returned.
+	 *
+	 * @param context
+	 * @param codeSystemUri - the resource URI of the code system version
+	 * @return the taxonomy or an empty {@link Optional} if the URI does not reference a version or the taxonomy is not available yet
+	 */
+	public Optional<SnomedFhirTaxonomy> get(ServiceProvider context, ResourceURI codeSystemUri) {
+		if (disposed.get() || !Strings.isNullOrEmpty(codeSystemUri.getTimestampPart()) || codeSystemUri.isHead()) {
+			return Optional.empty();
+		}
+
+		final Resource resource = ResourceRepositoryCache.get(context).get(ResourceRepositoryCache.RESOURCES_BY_ID, codeSystemUri.getResourceId(), () -> {
+			return ResourceRequests.prepareGet(codeSystemUri).buildAsync().getRequest().execute(context);
+		});
+		final PathWithVersion pathWithVersion = context.service(ResourceURIPathResolver.class).resolveWithVersion(context, codeSystemUri, resource);
+		if (pathWithVersion.getVersionResourceURI() == null) {
+			return Optional.empty();
+		}
+
+		final String branchPath = pathWithVersion.getPath();
+		final CompletableFuture<SnomedFhirTaxonomy> taxonomy;
+		try {
+			taxonomy = taxonomies.get(branchPath, () -> CompletableFuture.supplyAsync(() -> load(context, pathWithVersion.getVersionResourceURI(), branchPath), loader));
+		} catch (ExecutionException e) {
+			throw new SnowowlRuntimeException(e.getCause());
+		}
+
+		if (!taxonomy.isDone()) {
+			return Optional.empty();
+		} else if (taxonomy.isCompletedExceptionally()) {
+			// try again on next access
+			taxonomies.asMap().remove(branchPath, taxonomy);
+			return Optional.empty();
+		} else {
+			return Optional.of(taxonomy.join());
+		}
+	}
+
+	private SnomedFhirTaxonomy load(ServiceProvider context, ResourceURI versionUri, String branchPath) {
+		try {
+			final Stopwatch watch = Stopwatch.createStarted();
+			final SnomedFhirTaxonomy taxonomy = ((SnomedContentRequestBuilder<SnomedFhirTaxonomy>) SnomedFhirTaxonomyLoadRequest::new)
+					.build(versionUri)
+					.getRequest()
+					.execute(context);
+			LOG.info("Loaded taxonomy of '{}' with {} concepts in {}", branchPath, taxonomy.getConceptCount(), watch);
+			return taxonomy;
+		} catch (RuntimeException e) {
+			LOG.error("Failed to load taxonomy of '{}'", branchPath, e);
+			throw e;
+		}
+	}
+
+	public void invalidateAll() {
+		taxonomies.invalidateAll();
+	}
+
+	@Override
+	public void dispose() {
+		if (disposed.compareAndSet(false, true)) {
+			if (subscription != null) {
+				subscription.dispose();
+				subscription = null;
+			}
+			loader.shutdownNow();
+			taxonomies.invalidateAll();
+		}
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return disposed.get();
+	}
+
+}
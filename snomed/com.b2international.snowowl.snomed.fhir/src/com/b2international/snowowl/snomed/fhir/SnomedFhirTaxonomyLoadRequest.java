@@ -0,0 +1,64 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.fhir;
+
+import com.b2international.index.Hits;
+import com.b2international.index.query.Expressions;
+import com.b2international.index.query.Query;
+import com.b2international.index.revision.RevisionSearcher;
+import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.core.events.Request;
+import com.b2international.snowowl.snomed.datastore.SnomedDescriptionUtils;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedConceptDocument;
+
+/**
+ * Loads all concepts of the current branch into a {@link SnomedFhirTaxonomy}.
+ * 
+ * @since 8.0
+ */
+final class SnomedFhirTaxonomyLoadRequest implements Request<BranchContext, SnomedFhirTaxonomy> {
+
+	private static final long serialVersionUID = 1L;
+	
+	private static final int SCROLL_LIMIT = 10_000;
+
+	@Override
+	public SnomedFhirTaxonomy execute(BranchContext context) {
+		final RevisionSearcher searcher = context.service(RevisionSearcher.class);
+		final Query<SnomedConceptDocument> query = Query.select(SnomedConceptDocument.class)
+				.where(Expressions.matchAll())
+				.fields(
+					SnomedConceptDocument.Fields.ID,
+					SnomedConceptDocument.Fields.ACTIVE,
+					SnomedConceptDocument.Fields.MODULE_ID,
+					SnomedConceptDocument.Fields.EFFECTIVE_TIME,
+					SnomedConceptDocument.Fields.DEFINITION_STATUS_ID,
+					SnomedConceptDocument.Fields.PARENTS,
+					SnomedConceptDocument.Fields.ANCESTORS,
+					SnomedConceptDocument.Fields.PREFERRED_DESCRIPTIONS
+				)
+				.limit(SCROLL_LIMIT)
+				.build();
+		
+		final SnomedFhirTaxonomy.Builder taxonomy = SnomedFhirTaxonomy.builder(SCROLL_LIMIT)
+				.languageMapping(SnomedDescriptionUtils.getLanguageMapping(context));
+		for (Hits<SnomedConceptDocument> hits : searcher.scroll(query)) {
+			hits.forEach(taxonomy::add);
+		}
+		return taxonomy.build();
+	}
+
+}
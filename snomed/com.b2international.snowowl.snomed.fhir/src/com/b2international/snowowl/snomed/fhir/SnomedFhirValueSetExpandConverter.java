@@ -0,0 +1,53 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.fhir;
+
+import com.b2international.snowowl.fhir.core.exceptions.BadRequestException;
+import com.b2international.snowowl.fhir.core.request.valueset.FhirValueSetExpandConverter;
+import com.b2international.snowowl.snomed.fhir.SnomedUri.QueryPart;
+import com.google.common.base.Strings;
+
+/**
+ * Converts SNOMED CT implicit value sets to ECL expressions.
+ * 
+ * @see <a href="https://www.hl7.org/fhir/snomedct.html#implicit">SNOMED CT implicit value sets</a>
+ * @since 8.0
+ */
+public final class SnomedFhirValueSetExpandConverter implements FhirValueSetExpandConverter {
+
+	private static final String PARAMETER_NAME = "ExpandValueSetRequest.url";
+	
+	@Override
+	public String toQueryExpression(String queryPart) {
+		if (Strings.isNullOrEmpty(queryPart)) {
+			return null;
+		}
+		
+		final QueryPart query = SnomedUri.fromUriString(SnomedUri.SNOMED_BASE_URI_STRING + "?" + queryPart, PARAMETER_NAME).getQueryPart();
+		if (!query.isValueSetQuery()) {
+			throw new BadRequestException(String.format("Query part '%s' does not define a value set.", queryPart), PARAMETER_NAME);
+		}
+		
+		switch (query.getQueryPartDefinition()) {
+			case NONE: return null;
+			case ISA: return "<< " + query.getQueryValue();
+			case REFSET: return "^ " + query.getQueryValue();
+			case ECL: return query.getQueryValue();
+			default: throw new BadRequestException(String.format("Implicit value set definition '%s' is not supported.", queryPart), PARAMETER_NAME);
+		}
+	}
+	
+}
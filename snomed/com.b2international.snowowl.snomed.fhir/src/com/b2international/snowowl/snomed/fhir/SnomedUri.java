@@ -15,6 +15,8 @@
  */
 package com.b2international.snowowl.snomed.fhir;
 
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.StringTokenizer;
 
@@ -48,7 +50,8 @@ public class SnomedUri {
 		NONE(""),
 		ISA("isa/"),
 		REFSETS("refset"),
-		REFSET("refset/");
+		REFSET("refset/"),
+		ECL("ecl/");
 		
 		private String urlString;
 
@@ -68,6 +71,7 @@ public class SnomedUri {
 	 *	?fhir_vs=isa/[sctid] - all concept IDs that are subsumed by the specified Concept.
 	 *	?fhir_vs=refset - all concept ids that correspond to real references sets defined in the specified SNOMED CT edition
 	 *	?fhir_vs=refset/[sctid] - all concept IDs in the specified reference set
+	 *	?fhir_vs=ecl/[ecl] - all concept IDs that match the specified (URL-encoded) ECL expression
 	 *	
 	 * CM
 	 *	?fhir_cm=[sctid] - where [sctid] is a value from the table above
@@ -197,6 +201,11 @@ public class SnomedUri {
 			this.queryPart = new QueryPart(QueryPart.PREFIX_VS, QueryPartDefinition.REFSET, conceptId);
 			return this;
 		}
+		
+		public Builder eclQuery(String ecl) {
+			this.queryPart = new QueryPart(QueryPart.PREFIX_VS, QueryPartDefinition.ECL, ecl);
+			return this;
+		}
 
 		public SnomedUri build() {
 			return new SnomedUri(extensionModuleId, version, queryPart);
@@ -272,11 +281,20 @@ public class SnomedUri {
 	 URI: http://snomed.info/sct?fhir_vs=isa/138875005
 	 URI: http://snomed.info/sct?fhir_vs=refset
 	 URI: http://snomed.info/sct?fhir_vs=refset/138875005
+	 URI: http://snomed.info/sct?fhir_vs=ecl/%3C%3C138875005
 	*/
 	private static void parseQueryPart(Builder builder, String uriString, String queryPartString, String parameterName) {
 		
-		//parse VS
-		if (queryPartString.startsWith(QueryPart.PREFIX_VS)) {
+		final String eclPrefix = QueryPart.PREFIX_VS + "=" + QueryPartDefinition.ECL.getUrlString();
+		
+		//parse ECL before splitting, as the expression itself may contain '=' characters
+		if (queryPartString.startsWith(eclPrefix)) {
+			String ecl = URLDecoder.decode(queryPartString.substring(eclPrefix.length()), StandardCharsets.UTF_8);
+			if (StringUtils.isEmpty(ecl)) {
+				throw new BadRequestException(String.format("Invalid 'fhir_vs=ecl/expression' query part [%s] for URI [%s].", queryPartString, uriString), parameterName);
+			}
+			builder.eclQuery(ecl); //ecl/<<138875005
+		} else if (queryPartString.startsWith(QueryPart.PREFIX_VS)) {
 			String[] queryParts = queryPartString.split("=");
 			
 			if (queryParts.length == 1) {
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.classification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.junit.Test;
+
+import com.b2international.snowowl.snomed.reasoner.classification.ClassificationAdmissionQueue.Admission;
+
+/**
+ * @since 8.0
+ */
+public class ClassificationAdmissionQueueTest {
+
+	@Test
+	public void admitWithFreeSlots() throws Exception {
+		final ClassificationAdmissionQueue queue = new ClassificationAdmissionQueue(2, 100L);
+		try (Admission first = queue.admit("1", 50L, new NullProgressMonitor());
+				Admission second = queue.admit("2", 50L, new NullProgressMonitor())) {
+
+			assertNull(queue.getQueuePosition("1"));
+			assertNotNull(queue.getWaitTime("1"));
+			assertNotNull(queue.getWaitTime("2"));
+		}
+
+		assertNull(queue.getWaitTime("1"));
+	}
+
+	@Test
+	public void waitForMemory() throws Exception {
+		final ClassificationAdmissionQueue queue = new ClassificationAdmissionQueue(2, 100L);
+		final Admission first = queue.admit("1", 80L, new NullProgressMonitor());
+		final CompletableFuture<Admission> second = CompletableFuture.supplyAsync(() -> queue.admit("2", 50L, new NullProgressMonitor()));
+
+		while (queue.getQueuePosition("2") == null) {
+			Thread.sleep(10L);
+		}
+
+		assertEquals(Integer.valueOf(1), queue.getQueuePosition("2"));
+		first.close();
+		second.get(5L, TimeUnit.SECONDS).close();
+	}
+
+	@Test
+	public void admitOversizedAlone() throws Exception {
+		final ClassificationAdmissionQueue queue = new ClassificationAdmissionQueue(2, 100L);
+		queue.admit("1", 1_000L, new NullProgressMonitor()).close();
+	}
+
+	@Test(expected = OperationCanceledException.class)
+	public void cancelWhileWaiting() throws Exception {
+		final ClassificationAdmissionQueue queue = new ClassificationAdmissionQueue(1, 100L);
+		final NullProgressMonitor monitor = new NullProgressMonitor();
+		monitor.setCanceled(true);
+
+		try (Admission first = queue.admit("1", 10L, new NullProgressMonitor())) {
+			queue.admit("2", 10L, monitor);
+		}
+	}
+
+}
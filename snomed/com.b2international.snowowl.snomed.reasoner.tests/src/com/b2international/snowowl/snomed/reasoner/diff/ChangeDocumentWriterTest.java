@@ -0,0 +1,171 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.diff;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.index.Index;
+import com.b2international.index.IndexException;
+import com.b2international.index.IndexWrite;
+import com.b2international.index.Writer;
+
+/**
+ * @since 8.0
+ */
+public class ChangeDocumentWriterTest {
+
+	private static final String CLASSIFICATION_ID = "classification";
+
+	private final List<List<Object>> committedBatches = new CopyOnWriteArrayList<>();
+
+	private Index index;
+	private Writer writer;
+
+	@Before
+	public void setup() throws Exception {
+		writer = mock(Writer.class);
+		doAnswer(invocation -> {
+			final Collection<Object> documents = invocation.getArgument(0);
+			committedBatches.add(List.copyOf(documents));
+			return null;
+		}).when(writer).putAll(any());
+
+		index = mock(Index.class);
+		when(index.write(any())).thenAnswer(invocation -> {
+			final IndexWrite<?> write = invocation.getArgument(0);
+			try {
+				return write.execute(writer);
+			} catch (final IOException e) {
+				throw new IndexException("Couldn't write index", e);
+			}
+		});
+	}
+
+	private ChangeDocumentWriter createWriter(final int batchSize, final int maxPendingBatches) {
+		return new ChangeDocumentWriter(index, CLASSIFICATION_ID, new NullProgressMonitor(), batchSize, maxPendingBatches);
+	}
+
+	@Test
+	public void batching() throws Exception {
+		try (ChangeDocumentWriter changeWriter = createWriter(3, 2)) {
+			for (int i = 0; i < 7; i++) {
+				changeWriter.put(i);
+			}
+			changeWriter.complete();
+		}
+
+		assertEquals(List.of(List.of(0, 1, 2), List.of(3, 4, 5), List.of(6)), committedBatches);
+		verify(writer, times(3)).commit();
+		verify(writer, never()).bulkDelete(any());
+	}
+
+	@Test
+	public void backPressure() throws Exception {
+		final CountDownLatch commitStarted = new CountDownLatch(1);
+		final CountDownLatch commitReleased = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			commitStarted.countDown();
+			commitReleased.await();
+			return null;
+		}).doNothing().when(writer).commit();
+
+		try (ChangeDocumentWriter changeWriter = createWriter(1, 1)) {
+			final CompletableFuture<Void> producer = CompletableFuture.runAsync(() -> {
+				changeWriter.put("first");
+				// The first batch is still being committed, there is no room for the second one
+				changeWriter.put("second");
+				changeWriter.put("third");
+			});
+
+			assertTrue(commitStarted.await(10L, TimeUnit.SECONDS));
+			Thread.sleep(200L);
+			assertFalse(producer.isDone());
+			assertEquals(1, committedBatches.size());
+
+			commitReleased.countDown();
+			producer.get(10L, TimeUnit.SECONDS);
+			changeWriter.complete();
+		}
+
+		assertEquals(List.of(List.of("first"), List.of("second"), List.of("third")), committedBatches);
+	}
+
+	@Test
+	public void failedCommit() throws Exception {
+		final IOException commitFailure = new IOException("Commit failed");
+		doThrow(commitFailure).when(writer).commit();
+
+		try (ChangeDocumentWriter changeWriter = createWriter(1, 1)) {
+			changeWriter.put("first");
+			changeWriter.put("second");
+			changeWriter.complete();
+			fail("Expected the failed commit to be reported");
+		} catch (final IndexException e) {
+			assertSame(commitFailure, e.getCause().getCause());
+		}
+
+		// Batches submitted after the failed one are skipped, nothing was committed so there is nothing to delete
+		assertEquals(List.of(List.of("first")), committedBatches);
+		verify(writer, never()).bulkDelete(any());
+	}
+
+	@Test
+	public void failedComputation() throws Exception {
+		final RuntimeException computeFailure = new RuntimeException("Computing changes failed");
+
+		try (ChangeDocumentWriter changeWriter = createWriter(2, 1)) {
+			changeWriter.put("first");
+			changeWriter.put("second");
+			changeWriter.put("third");
+			// Wait for the first batch to be committed before failing
+			verify(writer, timeout(10_000L)).commit();
+			throw computeFailure;
+		} catch (final RuntimeException e) {
+			assertSame(computeFailure, e);
+		}
+
+		// The incomplete last batch is not committed, the committed one is deleted
+		assertEquals(List.of(List.of("first", "second")), committedBatches);
+		verify(writer, times(3)).bulkDelete(any());
+		verify(writer, times(2)).commit();
+	}
+
+}
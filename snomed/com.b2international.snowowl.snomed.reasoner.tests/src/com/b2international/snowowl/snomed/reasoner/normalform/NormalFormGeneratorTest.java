@@ -0,0 +1,237 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.normalform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.b2international.collections.PrimitiveLists;
+import com.b2international.collections.longs.LongList;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
+import com.b2international.snowowl.snomed.core.domain.SnomedRelationship;
+import com.b2international.snowowl.snomed.datastore.ConcreteDomainFragment;
+import com.b2international.snowowl.snomed.datastore.StatementFragment;
+import com.b2international.snowowl.snomed.datastore.StatementFragmentWithDestination;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.InternalIdEdges;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.InternalIdMap;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.InternalSctIdMultimap;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.InternalSctIdSet;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomy;
+import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomyBuilder;
+import com.b2international.snowowl.snomed.reasoner.classification.ReasonerTaxonomyInferrer;
+import com.b2international.snowowl.snomed.reasoner.diff.OntologyChangeProcessor;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multimap;
+
+/**
+ * @since 8.0
+ */
+public class NormalFormGeneratorTest {
+
+	private static final String ROOT = Concepts.ROOT_CONCEPT;
+	private static final String FINDING_SITE = "363698007";
+
+	private static final String BODY_STRUCTURE = "100000001";
+	private static final String HEART_STRUCTURE = "100000002";
+	private static final String FINDING = "100000003";
+	private static final String DISORDER = "100000004";
+	private static final String HEART_DISEASE = "100000005";
+	private static final String HEART_DISORDER = "100000006";
+
+	private static final int LEAF_COUNT = 500;
+	private static final long FIRST_LEAF_ID = 200000000L;
+
+	private static final class RecordingProcessor extends OntologyChangeProcessor<StatementFragment> {
+
+		private final List<String> changes = Lists.newArrayList();
+		private final Multimap<String, StatementFragment> added = LinkedHashMultimap.create();
+
+		@Override
+		protected void handleAddedSubject(String conceptId, StatementFragment addedSubject) {
+			changes.add("+" + conceptId + " " + toString(addedSubject));
+			added.put(conceptId, addedSubject);
+		}
+
+		@Override
+		protected void handleRemovedSubject(String conceptId, StatementFragment removedSubject) {
+			changes.add("-" + conceptId + " " + toString(removedSubject));
+		}
+
+		private static String toString(StatementFragment fragment) {
+			final Object destination = fragment instanceof StatementFragmentWithDestination
+					? ((StatementFragmentWithDestination) fragment).getDestinationId()
+					: "value";
+			return String.format("%s %d:%d %s", fragment.getTypeId(), fragment.getGroup(), fragment.getUnionGroup(), destination);
+		}
+
+	}
+
+	private ReasonerTaxonomy taxonomy;
+
+	@Before
+	public void setup() {
+		/*
+		 * Inferred hierarchy:
+		 *
+		 * ROOT
+		 * +-- BODY_STRUCTURE
+		 * |   +-- HEART_STRUCTURE
+		 * +-- FINDING
+		 *     +-- DISORDER                  (finding site: BODY_STRUCTURE)
+		 *     |   +-- HEART_DISORDER        (finding site: HEART_STRUCTURE)
+		 *     +-- HEART_DISEASE
+		 *         +-- HEART_DISORDER
+		 *             +-- leaves            (finding site: BODY_STRUCTURE, redundant; or HEART_STRUCTURE, in a separate group)
+		 */
+		final Map<String, List<String>> parents = ImmutableMap.<String, List<String>>builder()
+				.put(BODY_STRUCTURE, List.of(ROOT))
+				.put(HEART_STRUCTURE, List.of(BODY_STRUCTURE))
+				.put(FINDING, List.of(ROOT))
+				.put(DISORDER, List.of(FINDING))
+				.put(HEART_DISEASE, List.of(FINDING))
+				.put(HEART_DISORDER, List.of(DISORDER, HEART_DISEASE))
+				.build();
+
+		final List<SnomedConcept> concepts = Lists.newArrayList(concept(ROOT), concept(FINDING_SITE));
+		parents.keySet().forEach(id -> concepts.add(concept(id)));
+
+		final List<SnomedRelationship> statedRelationships = Lists.newArrayList(
+				relationship(DISORDER, BODY_STRUCTURE, 0),
+				relationship(HEART_DISORDER, HEART_STRUCTURE, 0));
+
+		for (int i = 0; i < LEAF_COUNT; i++) {
+			final String leafId = Long.toString(FIRST_LEAF_ID + i);
+			concepts.add(concept(leafId));
+			if (i % 2 == 0) {
+				statedRelationships.add(relationship(leafId, BODY_STRUCTURE, 0));
+			} else {
+				statedRelationships.add(relationship(leafId, HEART_STRUCTURE, 1));
+			}
+		}
+
+		final ReasonerTaxonomy statedTaxonomy = new ReasonerTaxonomyBuilder()
+				.addActiveConceptIds(concepts.stream())
+				.finishConcepts()
+				.addActiveStatedRelationships(statedRelationships.stream())
+				.build();
+
+		final InternalIdMap conceptMap = statedTaxonomy.getConceptMap();
+		final List<String> sourceIds = Lists.newArrayList();
+		final List<String> destinationIds = Lists.newArrayList();
+		parents.forEach((id, parentIds) -> parentIds.forEach(parentId -> {
+			sourceIds.add(id);
+			destinationIds.add(parentId);
+		}));
+
+		final LongList iterationOrder = PrimitiveLists.newLongArrayList();
+		addDepth(iterationOrder, ROOT, FINDING_SITE);
+		addDepth(iterationOrder, BODY_STRUCTURE, FINDING);
+		addDepth(iterationOrder, HEART_STRUCTURE, DISORDER, HEART_DISEASE);
+		addDepth(iterationOrder, HEART_DISORDER);
+
+		for (int i = 0; i < LEAF_COUNT; i++) {
+			final String leafId = Long.toString(FIRST_LEAF_ID + i);
+			sourceIds.add(leafId);
+			destinationIds.add(HEART_DISORDER);
+			iterationOrder.add(Long.parseLong(leafId));
+		}
+
+		sourceIds.add(FINDING_SITE);
+		destinationIds.add(ROOT);
+
+		taxonomy = statedTaxonomy.withInferences(
+				InternalIdEdges.builder(conceptMap).addEdges(sourceIds, destinationIds).build(),
+				InternalSctIdSet.builder(conceptMap).build(),
+				InternalSctIdMultimap.builder(conceptMap).build(),
+				iterationOrder);
+	}
+
+	private static void addDepth(final LongList iterationOrder, final String... conceptIds) {
+		for (final String conceptId : conceptIds) {
+			iterationOrder.add(Long.parseLong(conceptId));
+		}
+		iterationOrder.add(ReasonerTaxonomyInferrer.DEPTH_CHANGE);
+	}
+
+	private static SnomedConcept concept(final String id) {
+		final SnomedConcept concept = new SnomedConcept(id);
+		concept.setActive(true);
+		concept.setModuleId(Concepts.MODULE_SCT_CORE);
+		return concept;
+	}
+
+	private static SnomedRelationship relationship(final String sourceId, final String destinationId, final int group) {
+		final SnomedRelationship relationship = new SnomedRelationship(Long.toString(Long.parseLong(sourceId) * 10 + group));
+		relationship.setActive(true);
+		relationship.setModuleId(Concepts.MODULE_SCT_CORE);
+		relationship.setSourceId(sourceId);
+		relationship.setTypeId(FINDING_SITE);
+		relationship.setDestinationId(destinationId);
+		relationship.setRelationshipGroup(group);
+		relationship.setUnionGroup(0);
+		relationship.setCharacteristicTypeId(Concepts.STATED_RELATIONSHIP);
+		return relationship;
+	}
+
+	private RecordingProcessor computeChanges(final int parallelism) {
+		final RecordingProcessor statementProcessor = new RecordingProcessor();
+		new NormalFormGenerator(taxonomy, parallelism).computeChanges(new NullProgressMonitor(),
+				statementProcessor,
+				new OntologyChangeProcessor<ConcreteDomainFragment>() { });
+		return statementProcessor;
+	}
+
+	@Test
+	public void removeRedundantAttributes() throws Exception {
+		final RecordingProcessor processor = computeChanges(1);
+
+		final List<String> heartDisorder = processor.added.get(HEART_DISORDER).stream()
+				.map(RecordingProcessor::toString)
+				.collect(Collectors.toList());
+		assertTrue(heartDisorder.contains(FINDING_SITE + " 0:0 " + HEART_STRUCTURE));
+		assertFalse(heartDisorder.contains(FINDING_SITE + " 0:0 " + BODY_STRUCTURE));
+
+		// The leaf's own stated attribute is subsumed by the one inherited from its parent
+		final String firstLeafId = Long.toString(FIRST_LEAF_ID);
+		final List<String> firstLeaf = processor.added.get(firstLeafId).stream()
+				.map(RecordingProcessor::toString)
+				.collect(Collectors.toList());
+		assertFalse(firstLeaf.contains(FINDING_SITE + " 0:0 " + BODY_STRUCTURE));
+		assertTrue(firstLeaf.contains(FINDING_SITE + " 0:0 " + HEART_STRUCTURE));
+	}
+
+	@Test
+	public void parallelMatchesSequential() throws Exception {
+		final List<String> sequentialChanges = computeChanges(1).changes;
+
+		for (int parallelism : new int[] { 2, 4, 8 }) {
+			assertEquals("Changes differ with parallelism " + parallelism, sequentialChanges, computeChanges(parallelism).changes);
+		}
+	}
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.ontology;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLLogicalAxiom;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+/**
+ * @since 8.0
+ */
+public class OwlAxiomCacheTest {
+
+	private static final String SUBCLASS_OF = "SubClassOf(:100000000 :138875005)";
+	private static final String DECLARATION = "Declaration(Class(:100000000))";
+
+	private final OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+	private final OWLDataFactory dataFactory = manager.getOWLDataFactory();
+
+	@Test
+	public void parse() throws Exception {
+		final OwlAxiomCache cache = new OwlAxiomCache(OwlAxiomCache.DEFAULT_MAXIMUM_SIZE);
+		final List<OWLLogicalAxiom> axioms = cache.getAxioms(manager, List.of(SUBCLASS_OF, SUBCLASS_OF));
+
+		final OWLLogicalAxiom expected = dataFactory.getOWLSubClassOfAxiom(
+				dataFactory.getOWLClass(IRI.create("http://snomed.info/id/100000000")),
+				dataFactory.getOWLClass(IRI.create("http://snomed.info/id/138875005")));
+
+		assertEquals(List.of(expected, expected), axioms);
+	}
+
+	@Test
+	public void cached() throws Exception {
+		final OwlAxiomCache cache = new OwlAxiomCache(OwlAxiomCache.DEFAULT_MAXIMUM_SIZE);
+		final OWLLogicalAxiom first = cache.getAxioms(manager, List.of(SUBCLASS_OF)).get(0);
+		final OWLLogicalAxiom second = cache.getAxioms(OWLManager.createOWLOntologyManager(), List.of(SUBCLASS_OF)).get(0);
+		assertSame(first, second);
+	}
+
+	@Test
+	public void nonLogicalAxiom() throws Exception {
+		final OwlAxiomCache cache = new OwlAxiomCache(0L);
+		final List<OWLLogicalAxiom> axioms = cache.getAxioms(manager, List.of(DECLARATION, SUBCLASS_OF));
+
+		final OWLLogicalAxiom noop = dataFactory.getOWLSubClassOfAxiom(dataFactory.getOWLNothing(), dataFactory.getOWLThing());
+		assertEquals(2, axioms.size());
+		assertEquals(noop, axioms.get(0));
+	}
+
+}
@@ -30,8 +30,10 @@ import com.b2international.snowowl.core.setup.Plugin;
 import com.b2international.snowowl.snomed.common.SnomedTerminologyComponentConstants;
 import com.b2international.snowowl.snomed.datastore.config.SnomedCoreConfiguration;
 import com.b2international.snowowl.snomed.datastore.index.constraint.SnomedConstraintDocument;
+import com.b2international.snowowl.snomed.reasoner.classification.ClassificationAdmissionQueue;
 import com.b2international.snowowl.snomed.reasoner.classification.ClassificationTracker;
 import com.b2international.snowowl.snomed.reasoner.index.*;
+import com.b2international.snowowl.snomed.reasoner.ontology.OwlAxiomCache;
 import com.google.common.collect.ImmutableList;
 
 /**
@@ -50,6 +52,10 @@ public final class SnomedReasonerPlugin extends Plugin implements TerminologyRep
 			final ClassificationTracker classificationTracker = new ClassificationTracker(repositoryIndex, maximumReasonerRuns, cleanUpInterval);
 			
 			env.services().registerService(ClassificationTracker.class, classificationTracker);
+			env.services().registerService(OwlAxiomCache.class, new OwlAxiomCache(OwlAxiomCache.DEFAULT_MAXIMUM_SIZE));
+			
+			final long memoryBudget = (long) (Runtime.getRuntime().maxMemory() * ClassificationAdmissionQueue.DEFAULT_MEMORY_BUDGET_RATIO);
+			env.services().registerService(ClassificationAdmissionQueue.class, new ClassificationAdmissionQueue(snomedConfig.getMaxReasonerCount(), memoryBudget));
 		}
 	}
 	
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.classification;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Node-local admission control for classification runs. A classification is admitted when a free slot is available and the estimated
+ * memory requirement of its taxonomy fits into the remaining memory budget. Waiting classifications are admitted in arrival order, so a
+ * large classification at the head of the queue is not starved by smaller ones arriving later.
+ * <p>
+ * Classifications with an estimate exceeding the entire budget are still admitted, but only when no other classification is running.
+ * </p>
+ *
+ * @since 8.0
+ */
+public final class ClassificationAdmissionQueue {
+
+	/**
+	 * The default fraction of the maximum heap size that running classifications can use.
+	 */
+	public static final double DEFAULT_MEMORY_BUDGET_RATIO = 0.75;
+
+	private static final long CANCEL_CHECK_INTERVAL_MILLIS = 1_000L;
+
+	/**
+	 * A classification admitted for execution. The resources held by the classification are returned to the queue when closed.
+	 */
+	public final class Admission implements AutoCloseable {
+
+		private final String classificationId;
+		private final long reservedMemory;
+		private final long waitTime;
+
+		private Admission(final String classificationId, final long reservedMemory, final long waitTime) {
+			this.classificationId = classificationId;
+			this.reservedMemory = reservedMemory;
+			this.waitTime = waitTime;
+		}
+
+		/**
+		 * @return the number of milliseconds the classification spent waiting for admission
+		 */
+		public long getWaitTime() {
+			return waitTime;
+		}
+
+		@Override
+		public void close() {
+			release(this);
+		}
+	}
+
+	private final int maxConcurrentClassifications;
+	private final long memoryBudget;
+
+	// Start of waiting in milliseconds, keyed by classification ID, in arrival order
+	private final LinkedHashMap<String, Long> waiting = new LinkedHashMap<>();
+	private final Map<String, Admission> admitted = Maps.newHashMap();
+	private long reservedMemory;
+
+	public ClassificationAdmissionQueue(final int maxConcurrentClassifications, final long memoryBudget) {
+		checkArgument(maxConcurrentClassifications > 0, "Maximum number of concurrent classifications must be greater than zero");
+		checkArgument(memoryBudget > 0L, "Memory budget must be greater than zero");
+		this.maxConcurrentClassifications = maxConcurrentClassifications;
+		this.memoryBudget = memoryBudget;
+	}
+
+	/**
+	 * Blocks until the classification can be admitted or the monitor is canceled.
+	 *
+	 * @param classificationId - the identifier of the classification to admit
+	 * @param estimatedMemory - the estimated memory requirement of the classification in bytes
+	 * @param monitor - the monitor to check for cancellation while waiting
+	 * @return the admission, which should be closed when the classification is no longer using its resources
+	 * @throws OperationCanceledException if the monitor is canceled or the thread is interrupted while waiting
+	 */
+	public synchronized Admission admit(final String classificationId, final long estimatedMemory, final IProgressMonitor monitor) {
+		checkState(!waiting.containsKey(classificationId) && !admitted.containsKey(classificationId), "Classification '%s' is already queued.", classificationId);
+
+		final long requiredMemory = Math.min(Math.max(estimatedMemory, 0L), memoryBudget);
+		final long waitStart = System.currentTimeMillis();
+		waiting.put(classificationId, waitStart);
+
+		try {
+			while (!canAdmit(classificationId, requiredMemory)) {
+				if (monitor.isCanceled()) {
+					throw new OperationCanceledException();
+				}
+				wait(CANCEL_CHECK_INTERVAL_MILLIS);
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		} finally {
+			waiting.remove(classificationId);
+			// The head of the queue has changed
+			notifyAll();
+		}
+
+		final Admission admission = new Admission(classificationId, requiredMemory, System.currentTimeMillis() - waitStart);
+		admitted.put(classificationId, admission);
+		reservedMemory += requiredMemory;
+		return admission;
+	}
+
+	private boolean canAdmit(final String classificationId, final long requiredMemory) {
+		return classificationId.equals(waiting.keySet().iterator().next())
+				&& admitted.size() < maxConcurrentClassifications
+				&& reservedMemory + requiredMemory <= memoryBudget;
+	}
+
+	private synchronized void release(final Admission admission) {
+		if (admitted.remove(admission.classificationId, admission)) {
+			reservedMemory -= admission.reservedMemory;
+			notifyAll();
+		}
+	}
+
+	/**
+	 * @param classificationId
+	 * @return the 1-based position of the classification among waiting classifications, or <code>null</code> if the classification is not
+	 *         waiting for admission
+	 */
+	public synchronized Integer getQueuePosition(final String classificationId) {
+		int position = 1;
+		for (final Iterator<String> itr = waiting.keySet().iterator(); itr.hasNext(); position++) {
+			if (itr.next().equals(classificationId)) {
+				return position;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @param classificationId
+	 * @return the number of milliseconds the classification has been waiting for admission so far, or the total time it spent waiting if it
+	 *         is already running; <code>null</code> if the classification is not known to this queue
+	 */
+	public synchronized Long getWaitTime(final String classificationId) {
+		final Long waitStart = waiting.get(classificationId);
+		if (waitStart != null) {
+			return System.currentTimeMillis() - waitStart;
+		}
+
+		final Admission admission = admitted.get(classificationId);
+		return admission != null ? admission.getWaitTime() : null;
+	}
+
+}
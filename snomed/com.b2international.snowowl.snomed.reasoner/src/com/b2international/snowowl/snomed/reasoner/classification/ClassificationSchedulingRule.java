@@ -1,5 +1,5 @@
 /*
- * Copyright 2018 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2018-2021 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,22 +22,21 @@ import org.eclipse.core.runtime.jobs.ISchedulingRule;
 import com.b2international.snowowl.core.jobs.SerializableSchedulingRule;
 
 /**
+ * Prevents concurrent classifications of the same branch. The number of concurrently running classifications is limited by
+ * {@link ClassificationAdmissionQueue} instead.
+ * 
  * @since 7.0
  */
 public final class ClassificationSchedulingRule implements SerializableSchedulingRule {
 
-	private static int nextId = 0;
-
-	private final int id;
 	private final String repositoryId;
 	private final String branch;
 
-	public static ClassificationSchedulingRule create(final int concurrentClassifications, final String repositoryId, final String branch) {
-		return new ClassificationSchedulingRule((++nextId % concurrentClassifications), repositoryId, branch);
+	public static ClassificationSchedulingRule create(final String repositoryId, final String branch) {
+		return new ClassificationSchedulingRule(repositoryId, branch);
 	}
 
-	private ClassificationSchedulingRule(final int id, final String repositoryId, final String branch) {
-		this.id = id;
+	private ClassificationSchedulingRule(final String repositoryId, final String branch) {
 		this.repositoryId = repositoryId;
 		this.branch = branch;
 	}
@@ -52,10 +51,7 @@ public final class ClassificationSchedulingRule implements SerializableSchedulin
 		if (getClass() != rule.getClass()) { return false; }
 		final ClassificationSchedulingRule other = (ClassificationSchedulingRule) rule;
 
-		// If the IDs are the same, the number of concurrent classifications limit has been reached
-		if (id == other.id) { return true; }
-
-		// Otherwise, both branch and repositoryId must match for a conflict
+		// Both branch and repositoryId must match for a conflict
 		if (!Objects.equals(branch, other.branch)) { return false; }
 		if (!Objects.equals(repositoryId, other.repositoryId)) { return false; }
 
@@ -64,7 +60,7 @@ public final class ClassificationSchedulingRule implements SerializableSchedulin
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(id, branch, repositoryId);
+		return Objects.hash(branch, repositoryId);
 	}
 
 	@Override
@@ -74,7 +70,6 @@ public final class ClassificationSchedulingRule implements SerializableSchedulin
 		if (getClass() != obj.getClass()) { return false; }
 
 		final ClassificationSchedulingRule other = (ClassificationSchedulingRule) obj;
-		if (id != other.id) { return false; }
 		if (!Objects.equals(branch, other.branch)) { return false; }
 		if (!Objects.equals(repositoryId, other.repositoryId)) { return false; }
 
@@ -17,8 +17,10 @@ package com.b2international.snowowl.snomed.reasoner.classification;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.jobs.IJobChangeEvent;
 import org.eclipse.core.runtime.jobs.ISchedulingRule;
@@ -43,6 +45,7 @@ import com.b2international.snowowl.core.jobs.RemoteJob;
 import com.b2international.snowowl.snomed.datastore.index.taxonomy.IInternalSctIdMultimap;
 import com.b2international.snowowl.snomed.datastore.index.taxonomy.IInternalSctIdSet;
 import com.b2international.snowowl.snomed.datastore.index.taxonomy.IReasonerTaxonomy;
+import com.b2international.snowowl.snomed.reasoner.diff.ChangeDocumentWriter;
 import com.b2international.snowowl.snomed.reasoner.diff.concretedomain.ConcreteDomainWriter;
 import com.b2international.snowowl.snomed.reasoner.diff.relationship.RelationshipWriter;
 import com.b2international.snowowl.snomed.reasoner.domain.ClassificationStatus;
@@ -161,6 +164,8 @@ public final class ClassificationTracker implements IDisposableService {
 	private final Index index;
 	private final ClassificationJobListener listener;
 	private final CleanUpTask cleanUp;
+	// Scheduled or running classifications of the branch content only, without additional concepts
+	private final Set<String> reusableClassificationIds = ConcurrentHashMap.newKeySet();
 
 	public ClassificationTracker(final Index index, final int maximumReasonerRuns, final long cleanUpInterval) {
 		this.index = index;
@@ -213,21 +218,69 @@ public final class ClassificationTracker implements IDisposableService {
 
 	public void classificationScheduled(final String classificationId, final String reasonerId, final String userId, final String branch) {
 		index.write(writer -> {
-			final ClassificationTaskDocument classificationRun = ClassificationTaskDocument.builder()
-					.id(classificationId)
-					.reasonerId(reasonerId)
-					.userId(userId)
-					.branch(branch)
-					.creationDate(new Date())
-					.status(ClassificationStatus.SCHEDULED)
+			writeScheduled(writer, classificationId, reasonerId, userId, branch);
+			return null;
+		});
+	}
+
+	/**
+	 * Registers a classification of the branch content as scheduled, unless a scheduled or running classification using the same reasoner
+	 * can be reused for the given branch head.
+	 * 
+	 * @param classificationId - the identifier of the classification to register
+	 * @param reasonerId - the reasoner to use
+	 * @param userId - the user requesting the classification
+	 * @param branch - the branch to classify
+	 * @param headTimestamp - the current head timestamp of the branch
+	 * @return the identifier of the reused classification if one was found, or an empty {@link Optional} if the classification was
+	 *         registered as scheduled
+	 */
+	public synchronized Optional<String> classificationScheduledOrReused(final String classificationId, 
+			final String reasonerId, 
+			final String userId, 
+			final String branch,
+			final long headTimestamp) {
+		
+		return index.write(writer -> {
+			final Query<ClassificationTaskDocument> query = Query.select(ClassificationTaskDocument.class)
+					.where(Expressions.builder()
+							.filter(ClassificationTaskDocument.Expressions.deleted(false))
+							.filter(ClassificationTaskDocument.Expressions.branch(branch))
+							.filter(ClassificationTaskDocument.Expressions.statuses(Set.of(ClassificationStatus.SCHEDULED, ClassificationStatus.RUNNING)))
+							.build())
+					.limit(Integer.MAX_VALUE)
 					.build();
 
-			writer.put(classificationRun);
-			writer.commit();
-			return null;
+			for (final ClassificationTaskDocument candidate : writer.searcher().search(query)) {
+				// Scheduled classifications will pick up the current head (or a later one) when they start running
+				final boolean upToDate = ClassificationStatus.SCHEDULED.equals(candidate.getStatus()) || candidate.getTimestamp() == headTimestamp;
+				if (upToDate 
+						&& reasonerId.equals(candidate.getReasonerId()) 
+						&& reusableClassificationIds.contains(candidate.getId())) {
+					return Optional.of(candidate.getId());
+				}
+			}
+
+			writeScheduled(writer, classificationId, reasonerId, userId, branch);
+			reusableClassificationIds.add(classificationId);
+			return Optional.empty();
 		});
 	}
 
+	private void writeScheduled(final Writer writer, final String classificationId, final String reasonerId, final String userId, final String branch) throws IOException {
+		final ClassificationTaskDocument classificationRun = ClassificationTaskDocument.builder()
+				.id(classificationId)
+				.reasonerId(reasonerId)
+				.userId(userId)
+				.branch(branch)
+				.creationDate(new Date())
+				.status(ClassificationStatus.SCHEDULED)
+				.build();
+
+		writer.put(classificationRun);
+		writer.commit();
+	}
+
 	public void classificationRunning(final String classificationId, final long timestamp) {
 		index.write(writer -> {
 			writer.bulkUpdate(new BulkUpdate<>(
@@ -242,24 +295,34 @@ public final class ClassificationTracker implements IDisposableService {
 
 	public void classificationCompleted(final String classificationId, 
 			final IReasonerTaxonomy inferredTaxonomy, 
-			final INormalFormGenerator normalFormGenerator) {
+			final INormalFormGenerator normalFormGenerator,
+			final IProgressMonitor monitor) {
 		
-		index.write(writer -> {
+		reusableClassificationIds.remove(classificationId);
 
-			indexUnsatisfiableConcepts(writer, classificationId, inferredTaxonomy.getUnsatisfiableConcepts());
-			indexEquivalentConcepts(writer, classificationId, inferredTaxonomy.getEquivalentConcepts());
+		final RelationshipWriter relationshipWriter;
+		final ConcreteDomainWriter concreteDomainWriter;
+		
+		// Changes are committed in batches while they are being computed, committed changes are removed again if computing them fails
+		try (ChangeDocumentWriter changeWriter = new ChangeDocumentWriter(index, classificationId, monitor)) {
 
-			final RelationshipWriter relationshipWriter = new RelationshipWriter(classificationId, writer);
-			final ConcreteDomainWriter concreteDomainWriter = new ConcreteDomainWriter(classificationId, writer);
+			indexUnsatisfiableConcepts(changeWriter, classificationId, inferredTaxonomy.getUnsatisfiableConcepts());
+			indexEquivalentConcepts(changeWriter, classificationId, inferredTaxonomy.getEquivalentConcepts());
 
-			normalFormGenerator.computeChanges(null, relationshipWriter, concreteDomainWriter);
+			relationshipWriter = new RelationshipWriter(classificationId, changeWriter);
+			concreteDomainWriter = new ConcreteDomainWriter(classificationId, changeWriter);
 
-			final boolean hasEquivalentConcepts = !inferredTaxonomy.getUnsatisfiableConcepts().isEmpty()
-					|| !inferredTaxonomy.getEquivalentConcepts().isEmpty();
-			final boolean hasInferredChanges = relationshipWriter.hasInferredChanges()
-					|| concreteDomainWriter.hasInferredChanges();
-			final boolean hasRedundantStatedChanges = relationshipWriter.hasRedundantStatedChanges();
-			
+			normalFormGenerator.computeChanges(monitor, relationshipWriter, concreteDomainWriter);
+			changeWriter.complete();
+		}
+
+		final boolean hasEquivalentConcepts = !inferredTaxonomy.getUnsatisfiableConcepts().isEmpty()
+				|| !inferredTaxonomy.getEquivalentConcepts().isEmpty();
+		final boolean hasInferredChanges = relationshipWriter.hasInferredChanges()
+				|| concreteDomainWriter.hasInferredChanges();
+		final boolean hasRedundantStatedChanges = relationshipWriter.hasRedundantStatedChanges();
+
+		index.write(writer -> {
 			writer.bulkUpdate(new BulkUpdate<>(ClassificationTaskDocument.class, 
 					ClassificationTaskDocument.Expressions.id(classificationId), 
 					ClassificationTaskDocument.Scripts.COMPLETED, 
@@ -309,9 +372,9 @@ public final class ClassificationTracker implements IDisposableService {
 		});
 	}
 
-	private void indexUnsatisfiableConcepts(final Writer writer, 
+	private void indexUnsatisfiableConcepts(final ChangeDocumentWriter writer, 
 			final String classificationId, 
-			final IInternalSctIdSet unsatisfiableConcepts) throws IOException {
+			final IInternalSctIdSet unsatisfiableConcepts) {
 
 		if (!unsatisfiableConcepts.isEmpty()) {
 			final EquivalentConceptSetDocument equivalentDoc = EquivalentConceptSetDocument.builder()
@@ -324,9 +387,9 @@ public final class ClassificationTracker implements IDisposableService {
 		}
 	}
 
-	private void indexEquivalentConcepts(final Writer writer, 
+	private void indexEquivalentConcepts(final ChangeDocumentWriter writer, 
 			final String classificationId, 
-			final IInternalSctIdMultimap equivalentConcepts) throws IOException {
+			final IInternalSctIdMultimap equivalentConcepts) {
 
 		for (final LongIterator itr = equivalentConcepts.keySet().iterator(); itr.hasNext(); /*empty*/) {
 			final long representativeConcept = itr.next();
@@ -347,6 +410,7 @@ public final class ClassificationTracker implements IDisposableService {
 	}
 
 	public void classificationFailed(final String classificationId) {
+		reusableClassificationIds.remove(classificationId);
 		index.write(writer -> {
 			writer.bulkUpdate(new BulkUpdate<>(ClassificationTaskDocument.class, 
 					ClassificationTaskDocument.Expressions.id(classificationId), 
@@ -358,6 +422,7 @@ public final class ClassificationTracker implements IDisposableService {
 	}
 	
 	private void classificationCancelled(final String classificationId) {
+		reusableClassificationIds.remove(classificationId);
 		index.write(writer -> {
 			writer.bulkUpdate(new BulkUpdate<>(ClassificationTaskDocument.class, 
 					ClassificationTaskDocument.Expressions.id(classificationId), 
@@ -408,7 +473,8 @@ public final class ClassificationTracker implements IDisposableService {
 				final boolean isClassifyJob = rule != null && rule instanceof ClassificationSchedulingRule || job.getName().contains("classifying");
 				if (isClassifyJob) {
 					final IStatus result = job.getResult();
-					if (result == null) {
+					// Jobs canceled while waiting for admission report a cancel status
+					if (result == null || result.getSeverity() == IStatus.CANCEL) {
 						classificationCancelled(job.getKey());
 					}
 				}
@@ -27,6 +27,7 @@ import com.b2international.snowowl.core.branch.Branches;
 import com.b2international.snowowl.core.domain.RepositoryContext;
 import com.b2international.snowowl.core.repository.RepositoryRequests;
 import com.b2international.snowowl.core.request.BaseResourceConverter;
+import com.b2international.snowowl.snomed.reasoner.classification.ClassificationAdmissionQueue;
 import com.b2international.snowowl.snomed.reasoner.domain.ClassificationStatus;
 import com.b2international.snowowl.snomed.reasoner.domain.ClassificationTask;
 import com.b2international.snowowl.snomed.reasoner.domain.ClassificationTasks;
@@ -84,6 +85,13 @@ public final class ClassificationTaskConverter extends BaseResourceConverter<Cla
 		resource.setInferredRelationshipChangesFound(entry.getHasInferredChanges());
 		resource.setRedundantStatedRelationshipsFound(entry.getHasRedundantStatedChanges());
 		resource.setEquivalentConceptsFound(entry.getHasEquivalentConcepts());
+		
+		// Admission state is only available on the node running the classification
+		context().optionalService(ClassificationAdmissionQueue.class).ifPresent(admissionQueue -> {
+			resource.setQueuePosition(admissionQueue.getQueuePosition(entry.getId()));
+			resource.setWaitTime(admissionQueue.getWaitTime(entry.getId()));
+		});
+		
 		return resource;
 	}
 
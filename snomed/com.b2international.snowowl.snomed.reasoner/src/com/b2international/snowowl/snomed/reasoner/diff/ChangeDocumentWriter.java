@@ -0,0 +1,218 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.diff;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.b2international.index.BulkDelete;
+import com.b2international.index.Index;
+import com.b2international.index.IndexException;
+import com.b2international.snowowl.snomed.reasoner.index.ConcreteDomainChangeDocument;
+import com.b2international.snowowl.snomed.reasoner.index.EquivalentConceptSetDocument;
+import com.b2international.snowowl.snomed.reasoner.index.RelationshipChangeDocument;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Writes the change documents of a classification to the index in bounded batches. Each full batch is committed on a background thread
+ * while the caller keeps producing changes; at most a fixed number of batches are held in memory at any time, so the caller blocks if
+ * committing falls behind.
+ * <p>
+ * Committed batches are immediately visible to change search requests. Indexing throughput is logged for each batch and reported as the
+ * sub-task of the given progress monitor.
+ * </p>
+ * <p>
+ * Changes are only kept if the writer is {@link #complete() completed} before it is closed. Closing an incomplete writer (eg. because computing
+ * the changes failed) discards the changes that are not committed yet and deletes the ones that are, so a failed classification does not
+ * leave partial results behind.
+ * </p>
+ *
+ * @since 8.0
+ */
+public final class ChangeDocumentWriter implements AutoCloseable {
+
+	public static final int DEFAULT_BATCH_SIZE = 10_000;
+	public static final int DEFAULT_MAX_PENDING_BATCHES = 2;
+
+	private static final Logger LOGGER = LoggerFactory.getLogger("classification");
+
+	private final Index index;
+	private final String classificationId;
+	private final IProgressMonitor monitor;
+	private final int batchSize;
+	private final int maxPendingBatches;
+	private final Semaphore pendingBatches;
+	private final ExecutorService committer;
+	private final Stopwatch stopwatch = Stopwatch.createStarted();
+	private final AtomicLong committedDocuments = new AtomicLong();
+	private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+	private List<Object> batch;
+	private boolean completed;
+	private volatile boolean discarded;
+
+	public ChangeDocumentWriter(final Index index, final String classificationId, final IProgressMonitor monitor) {
+		this(index, classificationId, monitor, DEFAULT_BATCH_SIZE, DEFAULT_MAX_PENDING_BATCHES);
+	}
+
+	public ChangeDocumentWriter(final Index index,
+			final String classificationId,
+			final IProgressMonitor monitor,
+			final int batchSize,
+			final int maxPendingBatches) {
+
+		checkArgument(batchSize > 0, "Batch size must be greater than zero");
+		checkArgument(maxPendingBatches > 0, "Maximum number of pending batches must be greater than zero");
+
+		this.index = index;
+		this.classificationId = classificationId;
+		this.monitor = monitor != null ? monitor : new NullProgressMonitor();
+		this.batchSize = batchSize;
+		this.maxPendingBatches = maxPendingBatches;
+		this.pendingBatches = new Semaphore(maxPendingBatches);
+		this.committer = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+				.setNameFormat("classification-change-writer-%d")
+				.setDaemon(true)
+				.build());
+		this.batch = Lists.newArrayListWithExpectedSize(batchSize);
+	}
+
+	public void put(final Object document) {
+		checkFailure();
+		batch.add(document);
+		if (batch.size() >= batchSize) {
+			submitBatch();
+		}
+	}
+
+	private void submitBatch() {
+		if (batch.isEmpty()) {
+			return;
+		}
+
+		final List<Object> documents = batch;
+		batch = Lists.newArrayListWithExpectedSize(batchSize);
+
+		// Blocks until there is room for another batch
+		pendingBatches.acquireUninterruptibly();
+		committer.execute(() -> {
+			try {
+				commit(documents);
+			} catch (final Throwable t) {
+				failure.compareAndSet(null, t);
+			} finally {
+				pendingBatches.release();
+			}
+		});
+
+		monitor.subTask(String.format("Indexed %d classification changes (%d changes/s)", committedDocuments.get(), getThroughput()));
+	}
+
+	private void commit(final List<Object> documents) {
+		// Skip remaining batches once a commit has failed or the changes are discarded
+		if (failure.get() != null || discarded) {
+			return;
+		}
+
+		index.write(writer -> {
+			writer.putAll(documents);
+			writer.commit();
+			return null;
+		});
+
+		final long committed = committedDocuments.addAndGet(documents.size());
+		LOGGER.info("Indexed {} changes for classification '{}' ({} changes/s)", committed, classificationId, getThroughput());
+	}
+
+	private long getThroughput() {
+		final long elapsedMillis = Math.max(stopwatch.elapsed(TimeUnit.MILLISECONDS), 1L);
+		return committedDocuments.get() * 1000L / elapsedMillis;
+	}
+
+	private void checkFailure() {
+		final Throwable t = failure.get();
+		if (t != null) {
+			throw new IndexException(String.format("Failed to index classification changes for ID '%s'.", classificationId), t);
+		}
+	}
+
+	/**
+	 * Commits the remaining changes and waits until all pending batches are committed.
+	 * 
+	 * @throws IndexException - if any of the batches could not be committed
+	 */
+	public void complete() {
+		submitBatch();
+		awaitPendingBatches();
+		checkFailure();
+		completed = true;
+	}
+
+	private void awaitPendingBatches() {
+		// All permits are available again once every pending batch has completed
+		pendingBatches.acquireUninterruptibly(maxPendingBatches);
+		pendingBatches.release(maxPendingBatches);
+	}
+
+	/**
+	 * Stops the background committer. If the writer has not been {@link #complete() completed}, changes that are not committed yet are
+	 * discarded and the change documents already committed for the classification are deleted.
+	 */
+	@Override
+	public void close() {
+		try {
+			if (!completed) {
+				discarded = true;
+				batch.clear();
+				awaitPendingBatches();
+				deleteCommittedDocuments();
+			}
+		} finally {
+			committer.shutdown();
+		}
+	}
+
+	private void deleteCommittedDocuments() {
+		if (committedDocuments.get() == 0L) {
+			return;
+		}
+
+		index.write(writer -> {
+			writer.bulkDelete(new BulkDelete<>(EquivalentConceptSetDocument.class, EquivalentConceptSetDocument.Expressions.classificationId(classificationId)));
+			writer.bulkDelete(new BulkDelete<>(RelationshipChangeDocument.class, RelationshipChangeDocument.Expressions.classificationId(classificationId)));
+			writer.bulkDelete(new BulkDelete<>(ConcreteDomainChangeDocument.class, ConcreteDomainChangeDocument.Expressions.classificationId(classificationId)));
+			writer.commit();
+			return null;
+		});
+
+		LOGGER.info("Deleted {} incomplete changes of classification '{}'", committedDocuments.get(), classificationId);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2018 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2018-2021 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,11 +15,8 @@
  */
 package com.b2international.snowowl.snomed.reasoner.diff;
 
-import java.io.IOException;
 import java.io.Serializable;
 
-import com.b2international.index.IndexException;
-import com.b2international.index.Writer;
 import com.b2international.snowowl.snomed.reasoner.domain.ChangeNature;
 
 /**
@@ -28,14 +25,11 @@ import com.b2international.snowowl.snomed.reasoner.domain.ChangeNature;
  */
 public abstract class OntologyChangeWriter<T extends Serializable> extends OntologyChangeProcessor<T> {
 
-	private static final int WRITES_PER_COMMIT = 10_000;
-
 	protected final String classificationId;
-	protected final Writer writer;
-	private int writeOps;
+	protected final ChangeDocumentWriter writer;
 	private boolean hasInferredChanges;
 
-	public OntologyChangeWriter(final String classificationId, final Writer writer) {
+	public OntologyChangeWriter(final String classificationId, final ChangeDocumentWriter writer) {
 		this.classificationId = classificationId;
 		this.writer = writer;
 	}
@@ -60,14 +54,5 @@ public abstract class OntologyChangeWriter<T extends Serializable> extends Ontol
 
 	protected void indexChange(final Object doc) {
 		writer.put(doc);
-		writeOps++;
-		if (writeOps > WRITES_PER_COMMIT) {
-			try {
-				writer.commit();
-			} catch (final IOException e) {
-				throw new IndexException(String.format("Failed to index classification changes for ID '%s'.", classificationId), e);
-			}
-			writeOps = 0;
-		}
 	}
 }
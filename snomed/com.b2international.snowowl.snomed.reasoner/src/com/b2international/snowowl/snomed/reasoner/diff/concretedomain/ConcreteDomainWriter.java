@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2019 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2018-2021 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,9 +15,9 @@
  */
 package com.b2international.snowowl.snomed.reasoner.diff.concretedomain;
 
-import com.b2international.index.Writer;
 import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
 import com.b2international.snowowl.snomed.datastore.ConcreteDomainFragment;
+import com.b2international.snowowl.snomed.reasoner.diff.ChangeDocumentWriter;
 import com.b2international.snowowl.snomed.reasoner.diff.OntologyChangeWriter;
 import com.b2international.snowowl.snomed.reasoner.domain.ChangeNature;
 import com.b2international.snowowl.snomed.reasoner.index.ConcreteDomainChangeDocument;
@@ -27,7 +27,7 @@ import com.b2international.snowowl.snomed.reasoner.index.ConcreteDomainChangeDoc
  */
 public final class ConcreteDomainWriter extends OntologyChangeWriter<ConcreteDomainFragment> {
 
-	public ConcreteDomainWriter(final String classificationId, final Writer writer) {
+	public ConcreteDomainWriter(final String classificationId, final ChangeDocumentWriter writer) {
 		super(classificationId, writer);
 	}
 
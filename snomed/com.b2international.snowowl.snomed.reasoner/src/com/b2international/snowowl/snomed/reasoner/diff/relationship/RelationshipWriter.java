@@ -15,11 +15,11 @@
  */
 package com.b2international.snowowl.snomed.reasoner.diff.relationship;
 
-import com.b2international.index.Writer;
 import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
 import com.b2international.snowowl.snomed.datastore.StatementFragment;
 import com.b2international.snowowl.snomed.datastore.StatementFragmentWithDestination;
 import com.b2international.snowowl.snomed.datastore.StatementFragmentWithValue;
+import com.b2international.snowowl.snomed.reasoner.diff.ChangeDocumentWriter;
 import com.b2international.snowowl.snomed.reasoner.diff.OntologyChangeWriter;
 import com.b2international.snowowl.snomed.reasoner.domain.ChangeNature;
 import com.b2international.snowowl.snomed.reasoner.index.RelationshipChangeDocument;
@@ -29,7 +29,7 @@ import com.b2international.snowowl.snomed.reasoner.index.RelationshipChangeDocum
  */
 public final class RelationshipWriter extends OntologyChangeWriter<StatementFragment> {
 
-	public RelationshipWriter(final String classificationId, final Writer writer) {
+	public RelationshipWriter(final String classificationId, final ChangeDocumentWriter writer) {
 		super(classificationId, writer);
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2019 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2018-2021 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -73,6 +73,8 @@ public final class ClassificationTask implements Serializable {
 	private Boolean inferredRelationshipChangesFound; // non-null in COMPLETED state only
 	private Boolean redundantStatedRelationshipsFound; // non-null in COMPLETED state only
 	private Boolean equivalentConceptsFound; // non-null in COMPLETED state only
+	private Integer queuePosition; // non-null in SCHEDULED state only, while waiting for admission
+	private Long waitTime; // milliseconds spent waiting for admission, non-null in SCHEDULED and RUNNING state only
 
 	// fields below are set only if an appropriate expand option is present
 	private EquivalentConceptSets equivalentConceptSets; 
@@ -175,6 +177,22 @@ public final class ClassificationTask implements Serializable {
 		this.equivalentConceptsFound = equivalentConceptsFound;
 	}
 
+	public Integer getQueuePosition() {
+		return queuePosition;
+	}
+
+	public void setQueuePosition(final Integer queuePosition) {
+		this.queuePosition = queuePosition;
+	}
+
+	public Long getWaitTime() {
+		return waitTime;
+	}
+
+	public void setWaitTime(final Long waitTime) {
+		this.waitTime = waitTime;
+	}
+
 	public EquivalentConceptSets getEquivalentConceptSets() {
 		return equivalentConceptSets;
 	}
@@ -226,6 +244,10 @@ public final class ClassificationTask implements Serializable {
 		builder.append(redundantStatedRelationshipsFound);
 		builder.append(", equivalentConceptsFound=");
 		builder.append(equivalentConceptsFound);
+		builder.append(", queuePosition=");
+		builder.append(queuePosition);
+		builder.append(", waitTime=");
+		builder.append(waitTime);
 		builder.append(", equivalentConceptSets=");
 		builder.append(equivalentConceptSets);
 		builder.append(", relationshipChanges=");
@@ -1,5 +1,5 @@
 /*
- * Copyright 2019 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2019-2021 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,7 +23,9 @@ import com.google.common.collect.Multimap;
 
 /**
  * Implementations of this interface can define a customized way for
- * automatically handling equivalent concept resolution.
+ * automatically handling equivalent concept resolution. Mergers are
+ * contributed either to the {@link #EXTENSION_POINT extension point} or as
+ * classes annotated with {@link com.b2international.snowowl.core.plugin.Component}.
  * 
  * @since 6.14
  */
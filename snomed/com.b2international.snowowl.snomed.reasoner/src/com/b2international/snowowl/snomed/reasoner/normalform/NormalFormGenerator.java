@@ -19,6 +19,8 @@
  */
 package com.b2international.snowowl.snomed.reasoner.normalform;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Maps.newHashMap;
 import static com.google.common.collect.Sets.newHashSet;
 
@@ -26,16 +28,23 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.SubMonitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.b2international.collections.PrimitiveLists;
 import com.b2international.collections.PrimitiveMaps;
-import com.b2international.collections.PrimitiveSets;
 import com.b2international.collections.longs.LongIterator;
+import com.b2international.collections.longs.LongKeyIntMap;
 import com.b2international.collections.longs.LongKeyMap;
 import com.b2international.collections.longs.LongList;
 import com.b2international.collections.longs.LongSet;
@@ -54,12 +63,14 @@ import com.b2international.snowowl.snomed.reasoner.diff.concretedomain.ConcreteD
 import com.b2international.snowowl.snomed.reasoner.diff.relationship.StatementFragmentOrdering;
 import com.google.common.base.Predicates;
 import com.google.common.base.Stopwatch;
+import com.google.common.base.Throwables;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * Transforms a subsumption hierarchy and a set of non-ISA relationships into
@@ -71,8 +82,12 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(NormalFormGenerator.class);
 	private static final long IS_A = Long.parseLong(Concepts.IS_A);
+	
+	// Waves are split into chunks of at least this many concepts, so that small waves are not distributed among worker threads
+	private static final int MIN_CHUNK_SIZE = 64;
 
 	private final ReasonerTaxonomy reasonerTaxonomy;
+	private final int parallelism;
 	private final LongKeyMap<Collection<StatementFragment>> statementCache = PrimitiveMaps.newLongKeyOpenHashMap();
 	private final LongKeyMap<Collection<ConcreteDomainFragment>> concreteDomainCache = PrimitiveMaps.newLongKeyOpenHashMap();
 	private final Map<Long, NodeGraph> transitiveNodeGraphs = newHashMap();
@@ -85,7 +100,23 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 	 *                         contents of the branch (may not be {@code null})
 	 */
 	public NormalFormGenerator(final ReasonerTaxonomy reasonerTaxonomy) {
+		this(reasonerTaxonomy, Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Creates a new distribution normal form generator instance.
+	 *
+	 * @param reasonerTaxonomy used for querying the concept hierarchy inferred by
+	 *                         the reasoner, as well as the pre-classification
+	 *                         contents of the branch (may not be {@code null})
+	 * @param parallelism      the maximum number of threads computing the
+	 *                         properties of concepts in the same wave; {@code 1}
+	 *                         processes all concepts on the calling thread
+	 */
+	public NormalFormGenerator(final ReasonerTaxonomy reasonerTaxonomy, final int parallelism) {
+		checkArgument(parallelism > 0, "Parallelism must be greater than zero");
 		this.reasonerTaxonomy = reasonerTaxonomy;
+		this.parallelism = parallelism;
 	}
 
 	@Override
@@ -98,11 +129,17 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 
 		final LongList entries = reasonerTaxonomy.getIterationOrder();
 		final SubMonitor subMonitor = SubMonitor.convert(monitor, "Generating distribution normal form...", entries.size() * 2);
+		final ExecutorService executor = parallelism > 1 
+				? Executors.newFixedThreadPool(parallelism, new ThreadFactoryBuilder()
+						.setNameFormat("normal-form-generator-%d")
+						.setDaemon(true)
+						.build())
+				: null;
 
 		try {
 
-			LongSet previousLayer = null;
-			LongSet currentLayer = PrimitiveSets.newLongOpenHashSet();
+			final List<LongList> waves = getWaves(entries);
+			LOGGER.info("--- Processing concepts in {} waves", waves.size());
 			
 			final Set<Long> graphTypeIds = reasonerTaxonomy.getPropertyChains()
 					.stream()
@@ -120,33 +157,22 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 			
 
 				// Round 1: build alternative hierarchies
-				for (final LongIterator itr = entries.iterator(); itr.hasNext(); /* empty */) {
-					final long conceptId = itr.next();
-	
-					if (conceptId == ReasonerTaxonomyInferrer.DEPTH_CHANGE) {
-						if (previousLayer != null) {
-							invalidate(previousLayer);
-						}
-	
-						previousLayer = currentLayer;
-						currentLayer = PrimitiveSets.newLongOpenHashSet();
-						continue;
-					}
-	
-					precomputeProperties(conceptId, false);
+				for (final LongList wave : waves) {
+					precomputeProperties(executor, wave, false);
 					
-					final Collection<StatementFragment> inferredNonIsAFragments = statementCache.get(conceptId);
-					inferredNonIsAFragments.stream()
-						.filter(r -> transitiveNodeGraphs.keySet().contains(r.getTypeId()))
-						.filter(StatementFragmentWithDestination.class::isInstance)
-						.map(StatementFragmentWithDestination.class::cast)
-						.forEachOrdered(r -> transitiveNodeGraphs.get(r.getTypeId())
-								.addParent(conceptId, r.getDestinationId()));
+					// Node graphs are not used in this round, so they can be extended after each wave
+					for (final LongIterator itr = wave.iterator(); itr.hasNext(); /* empty */) {
+						final long conceptId = itr.next();
+						final Collection<StatementFragment> inferredNonIsAFragments = statementCache.get(conceptId);
+						inferredNonIsAFragments.stream()
+							.filter(r -> transitiveNodeGraphs.keySet().contains(r.getTypeId()))
+							.filter(StatementFragmentWithDestination.class::isInstance)
+							.map(StatementFragmentWithDestination.class::cast)
+							.forEachOrdered(r -> transitiveNodeGraphs.get(r.getTypeId())
+									.addParent(conceptId, r.getDestinationId()));
+					}
 				}
 				
-				// Clear the last layer of concepts
-				previousLayer = null;
-				currentLayer = PrimitiveSets.newLongOpenHashSet();
 				statementCache.clear();
 				concreteDomainCache.clear();
 				
@@ -156,23 +182,19 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 		
 			LOGGER.info("--- Use node graphs for hierarchy computation");
 			
-			// Round 2: record changes using the hierarchies
+			// Round 2: compute target properties using the hierarchies; run costly comparison of property chain hierarchies only if there are any
+			for (final LongList wave : waves) {
+				precomputeProperties(executor, wave, propertyChainsPresent);
+			}
+
+			// Record changes in the original iteration order, so processors receive them in a deterministic order
 			for (final LongIterator itr = entries.iterator(); itr.hasNext(); /* empty */) {
 				final long conceptId = itr.next();
 
 				if (conceptId == ReasonerTaxonomyInferrer.DEPTH_CHANGE) {
-					if (previousLayer != null) {
-						invalidate(previousLayer);
-					}
-
-					previousLayer = currentLayer;
-					currentLayer = PrimitiveSets.newLongOpenHashSet();
 					continue;
 				}
 
-				// Run costly comparison of property chain hierarchies only if there are any
-				precomputeProperties(conceptId, propertyChainsPresent);
-
 				final Collection<StatementFragment> existingStatements = reasonerTaxonomy.getExistingInferredRelationships().get(conceptId);
 				final Collection<StatementFragment> targetStatements = getTargetRelationships(conceptId);
 				statementProcessor.apply(conceptId, existingStatements, targetStatements, StatementFragmentOrdering.INSTANCE, subMonitor.newChild(1));
@@ -183,29 +205,116 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 			}
 
 		} finally {
+			if (executor != null) {
+				executor.shutdownNow();
+			}
 			subMonitor.done();
 			LOGGER.info("<<< Distribution normal form generation [{}]", stopwatch.toString());
 		}
 	}
 
 	/**
-	 * Indicates that the breadth-first iteration has reached a new level in the tree.
-	 * Generators are free to drop caches associated with components in the previous
-	 * "slice".
+	 * Splits the breadth-first iteration order into waves of concepts that do not depend on each other. Each concept is placed into the wave
+	 * following the one containing its latest direct parent, so the cached results of all parents are available when the wave is processed.
+	 * Concepts keep their relative iteration order within a wave.
 	 * 
-	 * @param keysToInvalidate 
+	 * @param entries the iteration order of concepts, including depth change markers
+	 * @return the list of waves, in processing order
 	 */
-	private void invalidate(final LongSet keysToInvalidate) {
-		statementCache.keySet().removeAll(keysToInvalidate);
-		concreteDomainCache.keySet().removeAll(keysToInvalidate);
+	private List<LongList> getWaves(final LongList entries) {
+		final LongKeyIntMap waveIndexes = PrimitiveMaps.newLongKeyIntOpenHashMapWithExpectedSize(entries.size());
+		final List<LongList> waves = newArrayList();
+
+		for (final LongIterator itr = entries.iterator(); itr.hasNext(); /* empty */) {
+			final long conceptId = itr.next();
+
+			if (conceptId == ReasonerTaxonomyInferrer.DEPTH_CHANGE) {
+				continue;
+			}
+
+			int waveIndex = 0;
+			final LongSet parentIds = reasonerTaxonomy.getInferredAncestors().getDestinations(conceptId, true);
+			for (final LongIterator parentItr = parentIds.iterator(); parentItr.hasNext(); /* empty */) {
+				final long parentId = parentItr.next();
+				if (waveIndexes.containsKey(parentId)) {
+					waveIndex = Math.max(waveIndex, waveIndexes.get(parentId) + 1);
+				}
+			}
+
+			waveIndexes.put(conceptId, waveIndex);
+			if (waveIndex == waves.size()) {
+				waves.add(PrimitiveLists.newLongArrayList());
+			}
+			waves.get(waveIndex).add(conceptId);
+		}
+
+		return waves;
+	}
+
+	/**
+	 * Computes the non-redundant set of properties for all concepts of a wave, then places the results in the cache, so concepts of following
+	 * waves can re-use it. Large waves are split into chunks which are processed on the given executor.
+	 * 
+	 * @param executor the executor to distribute chunks to, or {@code null} if the wave should be processed on the calling thread
+	 * @param wave the concepts to process
+	 * @param useNodeGraphs whether property chain hierarchies should be taken into account
+	 */
+	private void precomputeProperties(final ExecutorService executor, final LongList wave, final boolean useNodeGraphs) {
+		final long[] conceptIds = wave.toArray();
+		final NormalFormGroupSet[] targetGroupSets = new NormalFormGroupSet[conceptIds.length];
+		final int chunkCount = Math.min(parallelism, (conceptIds.length + MIN_CHUNK_SIZE - 1) / MIN_CHUNK_SIZE);
+
+		if (executor == null || chunkCount < 2) {
+			computeTargetGroupSets(conceptIds, 0, conceptIds.length, useNodeGraphs, targetGroupSets);
+		} else {
+			final int chunkSize = (conceptIds.length + chunkCount - 1) / chunkCount;
+			final List<Callable<Void>> chunks = newArrayList();
+			for (int from = 0; from < conceptIds.length; from += chunkSize) {
+				final int chunkFrom = from;
+				final int chunkTo = Math.min(from + chunkSize, conceptIds.length);
+				chunks.add(() -> {
+					computeTargetGroupSets(conceptIds, chunkFrom, chunkTo, useNodeGraphs, targetGroupSets);
+					return null;
+				});
+			}
+
+			try {
+				// invokeAll waits for all chunks, and makes their results visible to this thread
+				for (final Future<Void> chunk : executor.invokeAll(chunks)) {
+					chunk.get();
+				}
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new OperationCanceledException();
+			} catch (final ExecutionException e) {
+				Throwables.throwIfUnchecked(e.getCause());
+				throw new RuntimeException(e.getCause());
+			}
+		}
+
+		for (int i = 0; i < conceptIds.length; i++) {
+			final NormalFormGroupSet targetGroupSet = targetGroupSets[i];
+			statementCache.put(conceptIds[i], ImmutableList.copyOf(relationshipsFromGroupSet(targetGroupSet)));
+			concreteDomainCache.put(conceptIds[i], ImmutableList.copyOf(membersFromGroupSet(targetGroupSet)));
+		}
+	}
+
+	private void computeTargetGroupSets(final long[] conceptIds, final int from, final int to, final boolean useNodeGraphs, final NormalFormGroupSet[] targetGroupSets) {
+		for (int i = from; i < to; i++) {
+			targetGroupSets[i] = computeTargetGroupSet(conceptIds[i], useNodeGraphs);
+		}
 	}
 
-	private void precomputeProperties(final long conceptId, final boolean useNodeGraphs) {
+	/*
+	 * Reads results of direct parents from the cache, but does not modify it; safe to call concurrently for concepts of the same wave, as the
+	 * taxonomy (including the ancestor sets computed on demand by InternalIdEdges) can be queried from multiple threads.
+	 */
+	private NormalFormGroupSet computeTargetGroupSet(final long conceptId, final boolean useNodeGraphs) {
 		final LongSet parentIds = reasonerTaxonomy.getInferredAncestors().getDestinations(conceptId, true);
 
 		/*
 		 * Non IS-A relationships are fetched from ancestors; redundancy must be removed. Since we are working through the list
-		 * of concepts in breadth-first order, we only need to look at cached results from the direct parents, and "distill"
+		 * of concepts in dependency order, we only need to look at cached results from the direct parents, and "distill"
 		 * a non-redundant set of components out of them.
 		 */
 		final LongKeyMap<Collection<StatementFragment>> candidateNonIsARelationships = PrimitiveMaps.newLongKeyOpenHashMap();
@@ -254,17 +363,13 @@ public final class NormalFormGenerator implements INormalFormGenerator {
 		final Collection<ConcreteDomainFragment> ownInferredMembers = reasonerTaxonomy.getInferredConcreteDomainMembers().get(referencedComponentId);
 
 		// Remove redundancy
-		final NormalFormGroupSet targetGroupSet = getTargetGroupSet(conceptId, 
+		return getTargetGroupSet(conceptId, 
 				parentIds,
 				ownInferredNonIsaRelationships,
 				ownInferredMembers,
 				candidateNonIsARelationships,
 				candidateMembers,
 				useNodeGraphs);
-
-		// Extract results; place them in the cache, so following concepts can re-use it
-		statementCache.put(conceptId, ImmutableList.copyOf(relationshipsFromGroupSet(targetGroupSet)));
-		concreteDomainCache.put(conceptId, ImmutableList.copyOf(membersFromGroupSet(targetGroupSet)));
 	}
 
 	private NormalFormGroupSet getTargetGroupSet(final long conceptId,
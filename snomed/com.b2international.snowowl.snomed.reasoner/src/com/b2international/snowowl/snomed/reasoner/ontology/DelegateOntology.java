@@ -18,7 +18,6 @@ package com.b2international.snowowl.snomed.reasoner.ontology;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.Sets.newHashSet;
 
-import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.*;
 import java.util.Map.Entry;
@@ -26,11 +25,7 @@ import java.util.function.BiFunction;
 import java.util.function.LongFunction;
 import java.util.function.LongPredicate;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
-import org.semanticweb.owlapi.functional.parser.OWLFunctionalSyntaxOWLParser;
-import org.semanticweb.owlapi.io.OWLOntologyDocumentSource;
-import org.semanticweb.owlapi.io.StringDocumentSource;
 import org.semanticweb.owlapi.model.*;
 import org.semanticweb.owlapi.model.parameters.ChangeApplied;
 import org.semanticweb.owlapi.model.parameters.Imports;
@@ -38,8 +33,6 @@ import org.semanticweb.owlapi.util.DefaultPrefixManager;
 import org.semanticweb.owlapi.util.OWLEntityCollector;
 import org.semanticweb.owlapi.util.OWLObjectTypeIndexProvider;
 import org.semanticweb.owlapi.vocab.OWL2Datatype;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import com.b2international.collections.PrimitiveSets;
 import com.b2international.collections.longs.LongIterator;
@@ -55,7 +48,8 @@ import com.b2international.snowowl.snomed.datastore.StatementFragmentWithDestina
 import com.b2international.snowowl.snomed.datastore.index.taxonomy.InternalIdMap;
 import com.b2international.snowowl.snomed.datastore.index.taxonomy.InternalIdMultimap;
 import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomy;
-import com.google.common.base.Joiner;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
@@ -97,19 +91,6 @@ public final class DelegateOntology extends DelegateOntologyStub implements OWLM
 			HAS_DOSE_FORM, 
 			HAS_ACTIVE_INGREDIENT);
 
-	private static final Joiner NEWLINE_JOINER = Joiner.on('\n');
-	
-	private static final String PARSED_ONTOLOGY_START = NEWLINE_JOINER.join(
-			"Prefix(:=<http://snomed.info/id/>)",
-			"Prefix(sct:=<http://snomed.info/id/>)",
-			"Prefix(sctm:=<http://snomed.info/sct/>)",
-			"Prefix(so:=<http://b2international.com/so/>)",
-			"Ontology(");
-	
-	private static final String PARSED_ONTOLOGY_END = ")";
-	
-	private static final Logger LOGGER = LoggerFactory.getLogger("ontology");
-	
 	private final class AnnotationAssertionAxiomIterator extends AbstractIterator<OWLAnnotationAssertionAxiom> {
 		private final LongIterator idIterator;
 		private final OWLAnnotationProperty property;
@@ -314,44 +295,6 @@ public final class DelegateOntology extends DelegateOntologyStub implements OWLM
 		}
 	}
 
-	private final class FunctionalSyntaxAxiomIterator extends AbstractIterator<OWLLogicalAxiom> {
-		
-		private final Iterator<String> axiomIterator;
-		private final OWLOntologyLoaderConfiguration configuration;
-		private final SingleAxiomOwlOntology singleAxiomOntology;
-		
-		public FunctionalSyntaxAxiomIterator(final Stream<String> axiomStream) {
-			this.axiomIterator = axiomStream.iterator();
-			this.configuration = new OWLOntologyLoaderConfiguration();
-			this.singleAxiomOntology = new SingleAxiomOwlOntology(getOWLOntologyManager());
-		}
-
-		@Override
-		protected OWLLogicalAxiom computeNext() {
-			if (!axiomIterator.hasNext()) {
-				return endOfData();
-			}
-			
-			final String axiomString = axiomIterator.next();
-			
-			try {
-				
-				final OWLOntologyDocumentSource singleAxiomOntologySource = new StringDocumentSource(PARSED_ONTOLOGY_START + axiomString + PARSED_ONTOLOGY_END);
-				new OWLFunctionalSyntaxOWLParser().parse(singleAxiomOntologySource, singleAxiomOntology, configuration);
-				final Set<OWLAxiom> logicalAxioms = singleAxiomOntology.getAxioms();
-				return (OWLLogicalAxiom) logicalAxioms.iterator().next();
-				
-			} catch (final NoSuchElementException e) {
-				LOGGER.warn("Encountered non-logical OWL axiom '{}'", axiomString, e);
-				// No-op axiom, just to match the expected axiom count
-				return getOWLSubClassOfAxiom(getOWLNothing(), getOWLThing());
-			} catch (final IOException e) {
-				LOGGER.warn("Couldn't parse OWL axiom '{}'", axiomString, e);
-				return getOWLSubClassOfAxiom(getOWLNothing(), getOWLThing()); // No-op axiom, just to match the expected axiom count
-			}
-		}
-	}
-
 	/**
 	 * Creates a {@link DefaultPrefixManager} instance for the specified ontology.
 	 * Prefixes will be configured in accordance with the OWL reference set
@@ -372,6 +315,7 @@ public final class DelegateOntology extends DelegateOntologyStub implements OWLM
 	private final OWLOntologyManager manager;
 	private final OWLOntologyID ontologyID;
 	private final ReasonerTaxonomy taxonomy;
+	private final Supplier<List<OWLLogicalAxiom>> owlReferenceSetAxioms;
 
 	private final DefaultPrefixManager prefixManager;
 	
@@ -381,11 +325,14 @@ public final class DelegateOntology extends DelegateOntologyStub implements OWLM
 
 	public DelegateOntology(final OWLOntologyManager manager, 
 			final OWLOntologyID ontologyID, 
-			final ReasonerTaxonomy taxonomy) {
+			final ReasonerTaxonomy taxonomy,
+			final OwlAxiomCache axiomCache) {
 
 		this.manager = manager;
 		this.ontologyID = ontologyID;
 		this.taxonomy = taxonomy;
+		// OWL axioms are parsed (or retrieved from the cache) once, on first access
+		this.owlReferenceSetAxioms = Suppliers.memoize(() -> axiomCache.getAxioms(manager, taxonomy.getAxioms().valueStream().collect(Collectors.toList())));
 
 		this.prefixManager = createPrefixManager();
 		
@@ -700,16 +647,12 @@ public final class DelegateOntology extends DelegateOntologyStub implements OWLM
 	// Anything else declared as an OWL reference set member
 	///////////////////////////////////////////////////////////
 	
-	private Stream<String> owlAxiomsAsString() {
-		return taxonomy.getAxioms().valueStream();
-	}
-	
 	private Iterator<OWLLogicalAxiom> owlReferenceSetAxioms() {
-		return new FunctionalSyntaxAxiomIterator(owlAxiomsAsString());
+		return owlReferenceSetAxioms.get().iterator();
 	}
 
 	private int owlReferenceSetAxiomCount() {
-		return (int) owlAxiomsAsString().count();
+		return owlReferenceSetAxioms.get().size();
 	}
 
 	///////////////////////////////////////////////////////////
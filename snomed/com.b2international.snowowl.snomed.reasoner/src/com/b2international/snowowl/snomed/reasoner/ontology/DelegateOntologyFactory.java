@@ -1,5 +1,5 @@
 /*
- * Copyright 2011-2019 B2i Healthcare Pte Ltd, http://b2i.sg
+ * Copyright 2011-2021 B2i Healthcare Pte Ltd, http://b2i.sg
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -35,9 +35,11 @@ import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxon
 public final class DelegateOntologyFactory implements OWLOntologyFactory {
 
 	private final ReasonerTaxonomy taxonomy;
+	private final OwlAxiomCache axiomCache;
 
-	public DelegateOntologyFactory(final ReasonerTaxonomy taxonomy) {
+	public DelegateOntologyFactory(final ReasonerTaxonomy taxonomy, final OwlAxiomCache axiomCache) {
 		this.taxonomy = taxonomy;
+		this.axiomCache = axiomCache;
 	}
 
 	@Override
@@ -56,7 +58,7 @@ public final class DelegateOntologyFactory implements OWLOntologyFactory {
 			final IRI documentIRI,
 			final OWLOntologyCreationHandler handler) throws OWLOntologyCreationException {
 
-		final DelegateOntology owlOntology = new DelegateOntology(manager, ontologyID, taxonomy);
+		final DelegateOntology owlOntology = new DelegateOntology(manager, ontologyID, taxonomy, axiomCache);
 		handler.ontologyCreated(owlOntology);
 		handler.setOntologyFormat(owlOntology, new RDFXMLDocumentFormat());
 		return owlOntology;
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.ontology;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.Maps.newHashMap;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.semanticweb.owlapi.functional.parser.OWLFunctionalSyntaxOWLParser;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLLogicalAxiom;
+import org.semanticweb.owlapi.model.OWLOntologyLoaderConfiguration;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.b2international.snowowl.core.ServiceProvider;
+import com.google.common.base.Joiner;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+
+/**
+ * Node-local cache of parsed OWL axioms, shared between classifications. Entries are keyed by the OWL functional syntax expression of OWL
+ * reference set members, so the parsed form of an axiom is reused as long as the expression of the member does not change. Axioms of
+ * changed or removed members are no longer requested, they are dropped when no classification has used them for
+ * {@value #DEFAULT_EXPIRE_AFTER_ACCESS_HOURS} hours.
+ * <p>
+ * Expressions missing from the cache are parsed in parallel batches.
+ * </p>
+ *
+ * @since 8.0
+ */
+public final class OwlAxiomCache {
+
+	/**
+	 * The default number of parsed axioms to keep in memory.
+	 */
+	public static final long DEFAULT_MAXIMUM_SIZE = 1_000_000L;
+	public static final long DEFAULT_EXPIRE_AFTER_ACCESS_HOURS = 24L;
+
+	private static final int PARSE_BATCH_SIZE = 1_000;
+
+	private static final Joiner NEWLINE_JOINER = Joiner.on('\n');
+
+	private static final String PARSED_ONTOLOGY_START = NEWLINE_JOINER.join(
+			"Prefix(:=<http://snomed.info/id/>)",
+			"Prefix(sct:=<http://snomed.info/id/>)",
+			"Prefix(sctm:=<http://snomed.info/sct/>)",
+			"Prefix(so:=<http://b2international.com/so/>)",
+			"Ontology(");
+
+	private static final String PARSED_ONTOLOGY_END = ")";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger("ontology");
+
+	/**
+	 * Zero-size instance for contexts without a registered cache, all expressions are parsed on each classification run.
+	 */
+	private static final OwlAxiomCache DISABLED = new OwlAxiomCache(0L);
+
+	private final Cache<String, OWLLogicalAxiom> axioms;
+
+	public OwlAxiomCache(final long maximumSize) {
+		checkArgument(maximumSize >= 0, "Maximum size must be greater than or equal to zero");
+		this.axioms = CacheBuilder.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterAccess(DEFAULT_EXPIRE_AFTER_ACCESS_HOURS, TimeUnit.HOURS)
+				.build();
+	}
+
+	/**
+	 * Returns the parsed axiom cache shared by classifications running in the given context. Without a registered cache nothing is kept
+	 * between classification runs.
+	 *
+	 * @param context
+	 * @return
+	 */
+	public static OwlAxiomCache get(final ServiceProvider context) {
+		return context.optionalService(OwlAxiomCache.class).orElse(DISABLED);
+	}
+
+	/**
+	 * Returns the parsed form of the given OWL functional syntax expressions, in the order of the expressions. Expressions that can not be
+	 * parsed or do not represent a logical axiom are replaced with a no-op axiom, so that the number of returned axioms always matches the
+	 * number of expressions.
+	 *
+	 * @param manager - the manager providing the data factory for parsing
+	 * @param expressions - the expressions to parse
+	 * @return the parsed axioms
+	 */
+	List<OWLLogicalAxiom> getAxioms(final OWLOntologyManager manager, final Collection<String> expressions) {
+		final Map<String, OWLLogicalAxiom> parsedAxioms = newHashMap(axioms.getAllPresent(expressions));
+		final List<String> missingExpressions = ImmutableSet.copyOf(Iterables.filter(expressions, expression -> !parsedAxioms.containsKey(expression))).asList();
+
+		if (!missingExpressions.isEmpty()) {
+			final List<Map<String, OWLLogicalAxiom>> batches = Lists.partition(missingExpressions, PARSE_BATCH_SIZE)
+					.parallelStream()
+					.map(batch -> parse(manager, batch))
+					.collect(Collectors.toList());
+
+			for (final Map<String, OWLLogicalAxiom> batch : batches) {
+				axioms.putAll(batch);
+				parsedAxioms.putAll(batch);
+			}
+		}
+
+		final List<OWLLogicalAxiom> result = Lists.newArrayListWithExpectedSize(expressions.size());
+		for (final String expression : expressions) {
+			result.add(parsedAxioms.get(expression));
+		}
+		return result;
+	}
+
+	private static Map<String, OWLLogicalAxiom> parse(final OWLOntologyManager manager, final List<String> expressions) {
+		final OWLDataFactory dataFactory = manager.getOWLDataFactory();
+		final OWLOntologyLoaderConfiguration configuration = new OWLOntologyLoaderConfiguration();
+		final Map<String, OWLLogicalAxiom> parsedAxioms = newHashMap();
+
+		for (final String expression : expressions) {
+			// The single axiom ontology is not thread-safe, and is not reset between parser runs
+			final SingleAxiomOwlOntology singleAxiomOntology = new SingleAxiomOwlOntology(manager);
+
+			try {
+
+				new OWLFunctionalSyntaxOWLParser().parse(new StringDocumentSource(PARSED_ONTOLOGY_START + expression + PARSED_ONTOLOGY_END),
+						singleAxiomOntology,
+						configuration);
+
+				final OWLAxiom axiom = Iterables.getOnlyElement(singleAxiomOntology.getAxioms());
+				if (axiom instanceof OWLLogicalAxiom) {
+					parsedAxioms.put(expression, (OWLLogicalAxiom) axiom);
+					continue;
+				}
+
+				LOGGER.warn("Encountered non-logical OWL axiom '{}'", expression);
+			} catch (final IOException e) {
+				LOGGER.warn("Couldn't parse OWL axiom '{}'", expression, e);
+			}
+
+			// No-op axiom, just to match the expected axiom count
+			parsedAxioms.put(expression, dataFactory.getOWLSubClassOfAxiom(dataFactory.getOWLNothing(), dataFactory.getOWLThing()));
+		}
+
+		return parsedAxioms;
+	}
+
+	public void invalidateAll() {
+		axioms.invalidateAll();
+	}
+
+}
@@ -16,6 +16,7 @@
 package com.b2international.snowowl.snomed.reasoner.request;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 import javax.validation.constraints.NotNull;
@@ -29,16 +30,18 @@ import com.b2international.snowowl.core.events.AsyncRequest;
 import com.b2international.snowowl.core.events.Request;
 import com.b2international.snowowl.core.identity.Permission;
 import com.b2international.snowowl.core.identity.User;
+import com.b2international.snowowl.core.internal.locks.DatastoreLockContextDescriptions;
 import com.b2international.snowowl.core.jobs.JobRequests;
 import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
-import com.b2international.snowowl.snomed.datastore.config.SnomedCoreConfiguration;
 import com.b2international.snowowl.snomed.reasoner.classification.ClassificationSchedulingRule;
 import com.b2international.snowowl.snomed.reasoner.classification.ClassificationTracker;
 import com.google.common.base.Strings;
 
 /**
  * Signals the classification tracker that a classification run is about to
- * start, then schedules a remote job for the actual work.
+ * start, then schedules a remote job for the actual work. If a classification
+ * of the same branch head is already scheduled or running, its identifier is
+ * returned instead.
  * 
  * @since 7.0
  */
@@ -89,11 +92,21 @@ final class ClassificationCreateRequest implements Request<BranchContext, String
 		final String repositoryId = context.info().id();
 		final Branch branch = context.branch();
 		final ClassificationTracker tracker = context.service(ClassificationTracker.class);
-		final SnomedCoreConfiguration config = context.service(SnomedCoreConfiguration.class);
 
 		final String user = !Strings.isNullOrEmpty(userId) ? userId : context.service(User.class).getUsername();
 		
-		tracker.classificationScheduled(classificationId, reasonerId, user, branch.path());
+		/*
+		 * Share a scheduled or running classification of the same branch head instead of starting another one, unless the
+		 * classification is a nested operation (eg. equivalence checking) that tracks and removes its own job
+		 */
+		if (additionalConcepts.isEmpty() && DatastoreLockContextDescriptions.ROOT.equals(parentLockContext)) {
+			final Optional<String> reusedClassificationId = tracker.classificationScheduledOrReused(classificationId, reasonerId, user, branch.path(), branch.headTimestamp());
+			if (reusedClassificationId.isPresent()) {
+				return reusedClassificationId.get();
+			}
+		} else {
+			tracker.classificationScheduled(classificationId, reasonerId, user, branch.path());
+		}
 
 		final AsyncRequest<Boolean> jobRequest = new ClassificationJobRequestBuilder()
 				.setReasonerId(reasonerId)
@@ -102,7 +115,6 @@ final class ClassificationCreateRequest implements Request<BranchContext, String
 				.build(branch.path());
 		
 		final ClassificationSchedulingRule rule = ClassificationSchedulingRule.create(
-				config.getMaxReasonerCount(), 
 				repositoryId, 
 				branch.path());
 
@@ -22,6 +22,8 @@ import java.util.stream.Stream;
 
 import javax.validation.constraints.NotNull;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.hibernate.validator.constraints.NotEmpty;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.IRI;
@@ -46,15 +48,19 @@ import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
 import com.b2international.snowowl.snomed.core.domain.SnomedConcept;
 import com.b2international.snowowl.snomed.core.domain.SnomedRelationship;
 import com.b2international.snowowl.snomed.core.domain.refset.SnomedReferenceSetMember;
+import com.b2international.snowowl.snomed.core.domain.refset.SnomedRefSetType;
 import com.b2international.snowowl.snomed.datastore.config.SnomedCoreConfiguration;
 import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomy;
 import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxonomyBuilder;
+import com.b2international.snowowl.snomed.datastore.request.SnomedRequests;
+import com.b2international.snowowl.snomed.reasoner.classification.ClassificationAdmissionQueue;
 import com.b2international.snowowl.snomed.reasoner.classification.ClassificationTracker;
 import com.b2international.snowowl.snomed.reasoner.classification.ReasonerTaxonomyInferrer;
 import com.b2international.snowowl.snomed.reasoner.exceptions.ReasonerApiException;
 import com.b2international.snowowl.snomed.reasoner.normalform.NormalFormGenerator;
 import com.b2international.snowowl.snomed.reasoner.ontology.DelegateOntology;
 import com.b2international.snowowl.snomed.reasoner.ontology.DelegateOntologyFactory;
+import com.b2international.snowowl.snomed.reasoner.ontology.OwlAxiomCache;
 
 /**
  * Encapsulates the computation-intensive part of a classification.
@@ -69,6 +75,10 @@ final class ClassificationJobRequest implements Request<BranchContext, Boolean>,
 
 	private static final Logger LOGGER = LoggerFactory.getLogger("reasoner");
 	
+	private static final long ESTIMATED_BYTES_PER_CONCEPT = 4_096L;
+	private static final long ESTIMATED_BYTES_PER_RELATIONSHIP = 512L;
+	private static final long ESTIMATED_BYTES_PER_AXIOM = 2_048L;
+	
 	@NotEmpty
 	private String reasonerId;
 
@@ -100,11 +110,14 @@ final class ClassificationJobRequest implements Request<BranchContext, Boolean>,
 		final Branch branch = context.branch();
 		final long headTimestamp = branch.headTimestamp();
 		final ClassificationTracker tracker = context.service(ClassificationTracker.class);
+		final ClassificationAdmissionQueue admissionQueue = context.service(ClassificationAdmissionQueue.class);
 
-		tracker.classificationRunning(classificationId, headTimestamp);
-
-		try {
+		// The classification remains in SCHEDULED state until it is admitted
+		try (ClassificationAdmissionQueue.Admission admission = admissionQueue.admit(classificationId, estimateMemory(context), context.service(IProgressMonitor.class))) {
+			tracker.classificationRunning(classificationId, headTimestamp);
 			executeClassification(context, classificationId, tracker);
+		} catch (final OperationCanceledException e) {
+			throw e;
 		} catch (final ReasonerApiException e) {
 			tracker.classificationFailed(classificationId);
 			throw e;
@@ -117,6 +130,38 @@ final class ClassificationJobRequest implements Request<BranchContext, Boolean>,
 		return Boolean.TRUE;
 	}
 
+	/*
+	 * Estimates the memory required for classifying the branch from the number of components added to the taxonomy. The figures per component
+	 * are rough approximations including the memory used by the reasoner itself.
+	 */
+	private long estimateMemory(final BranchContext context) {
+		final long conceptCount = SnomedRequests.prepareSearchConcept()
+				.filterByActive(true)
+				.setLimit(0)
+				.build()
+				.execute(context)
+				.getTotal() + additionalConcepts.size();
+		
+		final long relationshipCount = SnomedRequests.prepareSearchRelationship()
+				.filterByActive(true)
+				.setLimit(0)
+				.build()
+				.execute(context)
+				.getTotal();
+		
+		final long axiomCount = SnomedRequests.prepareSearchMember()
+				.filterByActive(true)
+				.filterByRefSetType(SnomedRefSetType.OWL_AXIOM)
+				.setLimit(0)
+				.build()
+				.execute(context)
+				.getTotal();
+		
+		return conceptCount * ESTIMATED_BYTES_PER_CONCEPT 
+				+ relationshipCount * ESTIMATED_BYTES_PER_RELATIONSHIP 
+				+ axiomCount * ESTIMATED_BYTES_PER_AXIOM;
+	}
+
 	private void executeClassification(final BranchContext context, 
 			final String classificationId, 
 			final ClassificationTracker tracker) {
@@ -133,7 +178,7 @@ final class ClassificationJobRequest implements Request<BranchContext, Boolean>,
 		}
 		
 		final OWLOntologyManager ontologyManager = OWLManager.createOWLOntologyManager();
-		ontologyManager.getOntologyFactories().add(new DelegateOntologyFactory(taxonomy));
+		ontologyManager.getOntologyFactories().add(new DelegateOntologyFactory(taxonomy, OwlAxiomCache.get(context)));
 		final IRI ontologyIRI = IRI.create(DelegateOntology.NAMESPACE_SCTM + Concepts.MODULE_SCT_CORE); // TODO: custom moduleId in ontology IRI?
 
 		try {
@@ -143,7 +188,7 @@ final class ClassificationJobRequest implements Request<BranchContext, Boolean>,
 			final ReasonerTaxonomy inferredTaxonomy = inferrer.addInferences(taxonomy);
 			final NormalFormGenerator normalFormGenerator = new NormalFormGenerator(inferredTaxonomy);
 			
-			tracker.classificationCompleted(classificationId, inferredTaxonomy, normalFormGenerator);
+			tracker.classificationCompleted(classificationId, inferredTaxonomy, normalFormGenerator, context.service(IProgressMonitor.class));
 
 		} catch (final OWLOntologyCreationException e) {
 			throw new ReasonerApiException("Exception caught while creating ontology instance.", e);
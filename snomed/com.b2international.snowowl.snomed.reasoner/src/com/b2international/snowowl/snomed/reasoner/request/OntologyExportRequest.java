@@ -42,6 +42,7 @@ import com.b2international.snowowl.snomed.datastore.index.taxonomy.ReasonerTaxon
 import com.b2international.snowowl.snomed.reasoner.exceptions.OntologyException;
 import com.b2international.snowowl.snomed.reasoner.ontology.DelegateOntology;
 import com.b2international.snowowl.snomed.reasoner.ontology.DelegateOntologyFactory;
+import com.b2international.snowowl.snomed.reasoner.ontology.OwlAxiomCache;
 
 /**
  * @since 7.0
@@ -92,7 +93,7 @@ final class OntologyExportRequest implements Request<BranchContext, String>, Acc
 
 		final ReasonerTaxonomy taxonomy = taxonomyBuilder.build();
 		final OWLOntologyManager ontologyManager = OWLManager.createOWLOntologyManager();
-		ontologyManager.getOntologyFactories().add(new DelegateOntologyFactory(taxonomy));
+		ontologyManager.getOntologyFactories().add(new DelegateOntologyFactory(taxonomy, OwlAxiomCache.get(context)));
 		final IRI ontologyIRI = IRI.create(DelegateOntology.NAMESPACE_SCTM + ontologyModuleId);
 
 		try {
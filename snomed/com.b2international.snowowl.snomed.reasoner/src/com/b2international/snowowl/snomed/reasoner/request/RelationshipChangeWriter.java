@@ -0,0 +1,297 @@
+/*
+ * Copyright 2021 B2i Healthcare Pte Ltd, http://b2i.sg
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.b2international.snowowl.snomed.reasoner.request;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Sets.newHashSet;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.b2international.index.revision.Commit;
+import com.b2international.snowowl.core.date.EffectiveTimes;
+import com.b2international.snowowl.core.domain.BranchContext;
+import com.b2international.snowowl.core.domain.TransactionContext;
+import com.b2international.snowowl.core.events.Request;
+import com.b2international.snowowl.core.events.bulk.BulkRequest;
+import com.b2international.snowowl.core.events.bulk.BulkRequestBuilder;
+import com.b2international.snowowl.core.exceptions.ComponentNotFoundException;
+import com.b2international.snowowl.core.request.CommitResult;
+import com.b2international.snowowl.core.terminology.ComponentCategory;
+import com.b2international.snowowl.snomed.cis.SnomedIdentifiers;
+import com.b2international.snowowl.snomed.cis.action.IdActionRecorder;
+import com.b2international.snowowl.snomed.common.SnomedConstants.Concepts;
+import com.b2international.snowowl.snomed.datastore.id.assigner.SnomedNamespaceAndModuleAssigner;
+import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationshipIndexEntry;
+import com.b2international.snowowl.snomed.datastore.request.IdRequest;
+import com.b2international.snowowl.snomed.reasoner.domain.ReasonerRelationship;
+import com.b2international.snowowl.snomed.reasoner.domain.RelationshipChange;
+import com.b2international.snowowl.snomed.reasoner.domain.RelationshipChanges;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.ListMultimap;
+
+/**
+ * Persists the inferred relationship changes of a classification by building relationship index documents directly, instead of executing
+ * an individual create, update or delete request for each change.
+ * <p>
+ * Stored changes are streamed without expansion. Relationships referred to by the changes of a batch are looked up at once in the
+ * transaction, identifiers of new relationships are reserved in bulk for each namespace, and each batch is staged and committed as a
+ * single commit. Requests collected by the other steps of saving are committed in the same ordered sequence, so that equivalent concept
+ * merging is applied before any of the relationship changes.
+ * </p>
+ *
+ * @since 8.0
+ */
+final class RelationshipChangeWriter {
+
+	private static final int SCROLL_LIMIT = 10_000;
+
+	private final String classificationId;
+	private final SnomedNamespaceAndModuleAssigner namespaceAndModuleAssigner;
+	private final Set<String> conceptIdsToSkip;
+	private final int batchSize;
+
+	RelationshipChangeWriter(final String classificationId,
+			final SnomedNamespaceAndModuleAssigner namespaceAndModuleAssigner,
+			final Set<String> conceptIdsToSkip,
+			final int batchSize) {
+		this.classificationId = classificationId;
+		this.namespaceAndModuleAssigner = namespaceAndModuleAssigner;
+		this.conceptIdsToSkip = conceptIdsToSkip;
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Stages and commits all relationship changes of the classification in batches. The given requests are applied in the same ordered
+	 * sequence: requests collected before the relationship changes come first, followed by the relationship changes and finally by the
+	 * requests collected after them. Each commit holds at most the configured number of requests and relationship changes combined.
+	 *
+	 * @param context - the context of the classified branch
+	 * @param precedingRequests - requests to apply before the relationship changes (eg. equivalent concept merging)
+	 * @param followingRequests - requests to apply after the relationship changes (eg. concrete domain changes)
+	 * @param commitRequestFactory - creates the commit request for the given transaction body
+	 * @return the timestamp of the last commit, or {@link Commit#NO_COMMIT_TIMESTAMP} if nothing was committed
+	 */
+	long write(final BranchContext context,
+			final List<Request<TransactionContext, ?>> precedingRequests,
+			final List<Request<TransactionContext, ?>> followingRequests,
+			final Function<Request<TransactionContext, ?>, Request<BranchContext, CommitResult>> commitRequestFactory) {
+
+		final Iterator<RelationshipChanges> pages = ClassificationRequests.prepareSearchRelationshipChange()
+				.setLimit(SCROLL_LIMIT)
+				.filterByClassificationId(classificationId)
+				.stream(context)
+				.iterator();
+
+		final Iterator<Request<TransactionContext, ?>> preceding = precedingRequests.iterator();
+		final Iterator<RelationshipChange> changes = Iterators.concat(Iterators.transform(pages, RelationshipChanges::iterator));
+		final Iterator<Request<TransactionContext, ?>> following = followingRequests.iterator();
+
+		long resultTimestamp = Commit.NO_COMMIT_TIMESTAMP;
+		while (preceding.hasNext() || changes.hasNext() || following.hasNext()) {
+			final BulkRequestBuilder<TransactionContext> body = BulkRequest.create();
+			final List<RelationshipChange> batch = newArrayList();
+			int size = 0;
+
+			for (; size < batchSize && preceding.hasNext(); size++) {
+				body.add(preceding.next());
+			}
+
+			for (; size < batchSize && changes.hasNext(); size++) {
+				batch.add(changes.next());
+			}
+
+			final IdActionRecorder recorder = new IdActionRecorder(context);
+			if (!batch.isEmpty()) {
+				body.add(tx -> stage(tx, recorder, batch));
+			}
+
+			for (; size < batchSize && following.hasNext(); size++) {
+				body.add(following.next());
+			}
+
+			try {
+				final CommitResult commitResult = new IdRequest<>(commitRequestFactory.apply(body.build())).execute(context);
+				recorder.commit();
+				if (commitResult.getCommitTimestamp() != Commit.NO_COMMIT_TIMESTAMP) {
+					resultTimestamp = commitResult.getCommitTimestamp();
+				}
+			} catch (final Exception e) {
+				recorder.rollback();
+				throw e;
+			}
+		}
+
+		namespaceAndModuleAssigner.clear();
+		return resultTimestamp;
+	}
+
+	private Boolean stage(final TransactionContext context, final IdActionRecorder recorder, final List<RelationshipChange> changes) {
+		final Set<String> conceptIds = newHashSet();
+		final Set<String> originIds = newHashSet();
+		for (final RelationshipChange change : changes) {
+			final ReasonerRelationship relationship = change.getRelationship();
+			conceptIds.add(relationship.getSourceId());
+			if (relationship.getOriginId() != null) {
+				originIds.add(relationship.getOriginId());
+			}
+		}
+
+		conceptIds.removeAll(conceptIdsToSkip);
+		namespaceAndModuleAssigner.collectRelationshipNamespacesAndModules(conceptIds, context);
+
+		// "origin" relationships of inferences, and relationships to update, remove or deactivate
+		final Map<String, SnomedRelationshipIndexEntry> originRelationships = context.lookup(originIds, SnomedRelationshipIndexEntry.class);
+		final ListMultimap<String, SnomedRelationshipIndexEntry.Builder> newRelationshipsByNamespace = ArrayListMultimap.create();
+
+		for (final RelationshipChange change : changes) {
+			final ReasonerRelationship relationship = change.getRelationship();
+			final SnomedRelationshipIndexEntry origin = relationship.getOriginId() != null ? originRelationships.get(relationship.getOriginId()) : null;
+
+			// Relationship changes related to merged concepts should not be applied
+			if (conceptIdsToSkip.contains(relationship.getSourceId()) || conceptIdsToSkip.contains(relationship.getDestinationId())) {
+				continue;
+			}
+
+			// "Origin" relationships may have been removed by equivalent concept merging in an earlier commit
+			if (relationship.getOriginId() != null && origin == null && !conceptIdsToSkip.isEmpty()) {
+				continue;
+			}
+
+			switch (change.getChangeNature()) {
+				case NEW:
+					if (relationship.getOriginId() != null && origin == null) {
+						throw new ComponentNotFoundException(ComponentCategory.RELATIONSHIP, relationship.getOriginId());
+					}
+
+					/*
+					 * Do not "infer" any relationship that is passed down from a concept that was
+					 * already merged by the equivalent concept merging step
+					 */
+					if (origin != null && (conceptIdsToSkip.contains(origin.getSourceId()) || conceptIdsToSkip.contains(origin.getDestinationId()))) {
+						continue;
+					}
+
+					final String namespace = namespaceAndModuleAssigner.getRelationshipNamespace(relationship.getSourceId());
+					newRelationshipsByNamespace.put(namespace == null ? SnomedIdentifiers.INT_NAMESPACE : namespace, toNewRelationship(relationship, origin));
+					break;
+
+				case UPDATED:
+					if (origin == null) {
+						throw new ComponentNotFoundException(ComponentCategory.RELATIONSHIP, relationship.getOriginId());
+					}
+
+					if (!conceptIdsToSkip.contains(origin.getSourceId())) {
+						update(context, origin, SnomedRelationshipIndexEntry.builder(origin)
+								.moduleId(namespaceAndModuleAssigner.getRelationshipModuleId(relationship.getSourceId()))
+								.relationshipGroup(relationship.getGroup()));
+					}
+					break;
+
+				case REDUNDANT:
+					// Ignore relationships that have been removed already
+					if (origin == null) {
+						continue;
+					}
+
+					if (relationship.isReleased()) {
+						update(context, origin, SnomedRelationshipIndexEntry.builder(origin)
+								.active(false)
+								.moduleId(namespaceAndModuleAssigner.getRelationshipModuleId(relationship.getSourceId())));
+					} else {
+						context.delete(origin);
+					}
+					break;
+
+				default:
+					throw new IllegalStateException(String.format("Unexpected relationship change '%s' found with SCTID '%s'.",
+							change.getChangeNature(),
+							relationship.getOriginId()));
+			}
+		}
+
+		for (final String namespace : newRelationshipsByNamespace.keySet()) {
+			final String convertedNamespace = SnomedIdentifiers.INT_NAMESPACE.equals(namespace) ? null : namespace;
+			final Collection<SnomedRelationshipIndexEntry.Builder> newRelationships = newRelationshipsByNamespace.get(namespace);
+			final Set<String> uniqueIds = IdRequest.getUniqueIds(context, recorder, ComponentCategory.RELATIONSHIP, newRelationships.size(), convertedNamespace);
+
+			final Iterator<String> idsToUse = Iterators.consumingIterator(uniqueIds.iterator());
+			for (final SnomedRelationshipIndexEntry.Builder newRelationship : newRelationships) {
+				context.add(newRelationship.id(idsToUse.next()).build());
+			}
+		}
+
+		return Boolean.TRUE;
+	}
+
+	private SnomedRelationshipIndexEntry.Builder toNewRelationship(final ReasonerRelationship relationship, final SnomedRelationshipIndexEntry origin) {
+		final SnomedRelationshipIndexEntry.Builder newRelationship = SnomedRelationshipIndexEntry.builder()
+				.active(true)
+				.released(false)
+				.effectiveTime(EffectiveTimes.UNSET_EFFECTIVE_TIME)
+				.moduleId(namespaceAndModuleAssigner.getRelationshipModuleId(relationship.getSourceId()))
+				.sourceId(relationship.getSourceId())
+				.characteristicTypeId(relationship.getCharacteristicTypeId())
+				.relationshipGroup(relationship.getGroup())
+				.unionGroup(relationship.getUnionGroup());
+
+		if (origin == null) {
+			// Inferred relationships not derived from a stated relationship carry all information on the change
+			return newRelationship
+					.typeId(relationship.getTypeId())
+					.destinationId(relationship.getDestinationId())
+					.value(relationship.getValueAsObject())
+					.destinationNegated(false)
+					.modifierId(Concepts.EXISTENTIAL_RESTRICTION_MODIFIER);
+		} else {
+			return newRelationship
+					.typeId(origin.getTypeId())
+					.destinationId(origin.getDestinationId())
+					.value(origin.getValueAsObject())
+					.destinationNegated(origin.isDestinationNegated())
+					.modifierId(origin.getModifierId());
+		}
+	}
+
+	/*
+	 * Mirrors SnomedRelationshipUpdateRequest: nothing is staged if the values do not change, otherwise the effective time is unset. Released
+	 * relationships keep their "released" flag, so that the effective time of the last release is restored by the pre-commit hook if the updated
+	 * values turn out to match the released ones (eg. a relationship that was moved to another group by an earlier edit is moved back).
+	 */
+	private void update(final TransactionContext context, final SnomedRelationshipIndexEntry relationship, final SnomedRelationshipIndexEntry.Builder updatedRelationship) {
+		final SnomedRelationshipIndexEntry updated = updatedRelationship.build();
+		final boolean changed = !Objects.equals(relationship.isActive(), updated.isActive())
+				|| !Objects.equals(relationship.getModuleId(), updated.getModuleId())
+				|| !Objects.equals(relationship.getRelationshipGroup(), updated.getRelationshipGroup());
+
+		if (!changed) {
+			return;
+		}
+
+		if (EffectiveTimes.isUnset(relationship.getEffectiveTime())) {
+			context.update(relationship, updated);
+		} else {
+			context.update(relationship, updatedRelationship.effectiveTime(EffectiveTimes.UNSET_EFFECTIVE_TIME).build());
+		}
+	}
+
+}
@@ -48,6 +48,7 @@ import com.b2international.snowowl.core.identity.Permission;
 import com.b2international.snowowl.core.identity.User;
 import com.b2international.snowowl.core.internal.locks.DatastoreLockContextDescriptions;
 import com.b2international.snowowl.core.locks.Locks;
+import com.b2international.snowowl.core.plugin.ClassPathScanner;
 import com.b2international.snowowl.core.plugin.Extensions;
 import com.b2international.snowowl.core.repository.RepositoryRequests;
 import com.b2international.snowowl.core.request.CommitResult;
@@ -56,7 +57,6 @@ import com.b2international.snowowl.snomed.core.domain.*;
 import com.b2international.snowowl.snomed.core.domain.refset.SnomedReferenceSetMember;
 import com.b2international.snowowl.snomed.datastore.config.SnomedCoreConfiguration;
 import com.b2international.snowowl.snomed.datastore.id.assigner.SnomedNamespaceAndModuleAssigner;
-import com.b2international.snowowl.snomed.datastore.index.entry.SnomedRelationshipIndexEntry;
 import com.b2international.snowowl.snomed.datastore.request.*;
 import com.b2international.snowowl.snomed.reasoner.classification.ClassificationTracker;
 import com.b2international.snowowl.snomed.reasoner.domain.*;
@@ -65,7 +65,6 @@ import com.b2international.snowowl.snomed.reasoner.exceptions.ReasonerApiExcepti
 import com.google.common.base.Strings;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Iterables;
 import com.google.common.collect.Multimap;
 
 /**
@@ -196,25 +195,21 @@ final class SaveJobRequest implements Request<BranchContext, Boolean>, AccessCon
 		classificationTracker.classificationSaving(classificationId);
 
 		final SubMonitor subMonitor = SubMonitor.convert(monitor, "Persisting changes", 6);
-		final BulkRequestBuilder<TransactionContext> bulkRequestBuilder = BulkRequest.create();
+		final BulkRequestBuilder<TransactionContext> mergeRequestBuilder = BulkRequest.create();
+		final BulkRequestBuilder<TransactionContext> concreteDomainRequestBuilder = BulkRequest.create();
 
-		applyChanges(subMonitor, context, bulkRequestBuilder);
+		final SnomedNamespaceAndModuleAssigner assigner = createNamespaceAndModuleAssigner(context);
+		final Set<String> conceptIdsToSkip = applyChanges(subMonitor, context, mergeRequestBuilder, concreteDomainRequestBuilder, assigner);
 	
-		long resultTimeStamp = Commit.NO_COMMIT_TIMESTAMP;
-		for (List<Request<TransactionContext, ?>> partition : Iterables.partition(bulkRequestBuilder.build().getRequests(), getCommitLimit(context))) {
-			final BulkRequestBuilder<TransactionContext> batchRequest = BulkRequest.create();
-			partition.forEach(request -> batchRequest.add(request));
-			
-			final Request<BranchContext, CommitResult> commitRequest = SnomedRequests.prepareCommit()
-					.setBody(batchRequest.build())
-					.setCommitComment(commitComment)
-					.setParentContextDescription(DatastoreLockContextDescriptions.SAVE_CLASSIFICATION_RESULTS)
-					.setAuthor(userId)
-					.build();
-			
-			final CommitResult commitResult = new IdRequest<>(commitRequest).execute(context);
-			resultTimeStamp = commitResult.getCommitTimestamp();
-		}
+		/*
+		 * Inferred relationship changes are written directly, in the same ordered sequence of commits as the requests collected above:
+		 * equivalent concept merging first, then relationship changes, then concrete domain changes
+		 */
+		final long resultTimeStamp = new RelationshipChangeWriter(classificationId, assigner, conceptIdsToSkip, getCommitLimit(context))
+				.write(context, 
+						mergeRequestBuilder.build().getRequests(), 
+						concreteDomainRequestBuilder.build().getRequests(), 
+						this::createCommitRequest);
 		
 		if (Commit.NO_COMMIT_TIMESTAMP == resultTimeStamp) {
 			classificationTracker.classificationSaveFailed(classificationId);				
@@ -225,107 +220,36 @@ final class SaveJobRequest implements Request<BranchContext, Boolean>, AccessCon
 		}		
 	}
 	
+	private Request<BranchContext, CommitResult> createCommitRequest(final Request<TransactionContext, ?> body) {
+		return SnomedRequests.prepareCommit()
+				.setBody(body)
+				.setCommitComment(commitComment)
+				.setParentContextDescription(DatastoreLockContextDescriptions.SAVE_CLASSIFICATION_RESULTS)
+				.setAuthor(userId)
+				.build();
+	}
+	
 	private final int getCommitLimit(BranchContext context) {
 		return context.service(SnowOwlConfiguration.class).getModuleConfig(RepositoryConfiguration.class).getIndexConfiguration().getCommitWatermarkLow();
 	}
 
-	private void applyChanges(final SubMonitor subMonitor, 
+	private Set<String> applyChanges(final SubMonitor subMonitor, 
 			final BranchContext context,
-			final BulkRequestBuilder<TransactionContext> bulkRequestBuilder) {
+			final BulkRequestBuilder<TransactionContext> mergeRequestBuilder,
+			final BulkRequestBuilder<TransactionContext> concreteDomainRequestBuilder,
+			final SnomedNamespaceAndModuleAssigner assigner) {
 
-		final SnomedNamespaceAndModuleAssigner assigner = createNamespaceAndModuleAssigner(context);
-		final Set<String> conceptIdsToSkip = mergeEquivalentConcepts(context, bulkRequestBuilder, assigner);
-		applyRelationshipChanges(context, bulkRequestBuilder, assigner, conceptIdsToSkip);
+		final Set<String> conceptIdsToSkip = mergeEquivalentConcepts(context, mergeRequestBuilder, assigner);
 
 		if (handleConcreteDomains) {
 			// CD member support in configuration overrides the flag on the save request
 			final SnomedCoreConfiguration snomedCoreConfiguration = context.service(SnomedCoreConfiguration.class);
 			if (snomedCoreConfiguration.isConcreteDomainSupported()) {
-				applyConcreteDomainChanges(context, bulkRequestBuilder, assigner, conceptIdsToSkip);
+				applyConcreteDomainChanges(context, concreteDomainRequestBuilder, assigner, conceptIdsToSkip);
 			}
 		}
-	}
-
-	private void applyRelationshipChanges(final BranchContext context, 
-			final BulkRequestBuilder<TransactionContext> bulkRequestBuilder,
-			final SnomedNamespaceAndModuleAssigner namespaceAndModuleAssigner, 
-			final Set<String> conceptIdsToSkip) {
-
-		ClassificationRequests.prepareSearchRelationshipChange()
-				.setLimit(SCROLL_LIMIT)
-				.setExpand("relationship(inferredOnly:true)")
-				.filterByClassificationId(classificationId)
-				.stream(context)
-				.forEach(nextChanges -> {
-					final Set<String> conceptIds = nextChanges.stream()
-							.map(RelationshipChange::getRelationship)
-							.map(ReasonerRelationship::getSourceId)
-							.collect(Collectors.toSet());
-					
-					final Set<String> originRelationshipIds = nextChanges.stream()
-							.filter(change -> ChangeNature.NEW.equals(change.getChangeNature())
-								|| ChangeNature.UPDATED.equals(change.getChangeNature()))
-							.map(RelationshipChange::getRelationship)
-							.map(ReasonerRelationship::getOriginId)
-							.filter(id -> id != null)
-							.collect(Collectors.toSet());
-
-					final Map<String, String> originSourceIds = SnomedRequests.prepareSearchRelationship()
-						.setLimit(originRelationshipIds.size())
-						.filterByIds(originRelationshipIds)
-						.setFields(SnomedRelationshipIndexEntry.Fields.ID, SnomedRelationshipIndexEntry.Fields.SOURCE_ID)
-						.build()
-						.execute(context)
-						.stream()
-						.collect(Collectors.toMap(
-								SnomedRelationship::getId, // keys: ID of the "origin" relationship  
-								SnomedRelationship::getSourceId)); // values: source concept ID of the "origin" relationship
-					
-					conceptIds.removeAll(conceptIdsToSkip);
-					namespaceAndModuleAssigner.collectRelationshipNamespacesAndModules(conceptIds, context);
-
-					for (final RelationshipChange change : nextChanges) {
-						final ReasonerRelationship relationship = change.getRelationship();
-
-						// Relationship changes related to merged concepts should not be applied
-						if (conceptIdsToSkip.contains(relationship.getSourceId()) || conceptIdsToSkip.contains(relationship.getDestinationId())) {
-							continue;
-						}
-						
-						switch (change.getChangeNature()) {
-							case NEW: {
-									/*
-									 * Do not "infer" any relationship that is passed down from a concept that was
-									 * already merged by the equivalent concept merging step
-									 */
-									final String originSourceId = originSourceIds.get(relationship.getOriginId());
-									if (!conceptIdsToSkip.contains(originSourceId)) {
-										addComponent(bulkRequestBuilder, namespaceAndModuleAssigner, relationship);
-									}
-								}
-								break;
-								
-							case UPDATED: {
-									final String originSourceId = originSourceIds.get(relationship.getOriginId());
-									if (!conceptIdsToSkip.contains(originSourceId)) {
-										updateComponent(bulkRequestBuilder, namespaceAndModuleAssigner, relationship);
-									}
-								}
-								break;
-								
-							case REDUNDANT:
-								removeOrDeactivate(bulkRequestBuilder, namespaceAndModuleAssigner, relationship);
-								break;
-								
-							default:
-								throw new IllegalStateException(String.format("Unexpected relationship change '%s' found with SCTID '%s'.", 
-										change.getChangeNature(), 
-										change.getRelationship().getOriginId()));
-						}
-					}
-				});
-
-		namespaceAndModuleAssigner.clear();
+		
+		return conceptIdsToSkip;
 	}
 
 	private void applyConcreteDomainChanges(final BranchContext context, 
@@ -449,7 +373,12 @@ final class SaveJobRequest implements Request<BranchContext, Boolean>, AccessCon
 				IEquivalentConceptMerger.EXTENSION_POINT, 
 				IEquivalentConceptMerger.class);
 		if (merger == null) {
-			merger = new IEquivalentConceptMerger.Default();
+			// Fall back to mergers registered as components
+			merger = context.service(ClassPathScanner.class)
+					.getComponentsByInterface(IEquivalentConceptMerger.class)
+					.stream()
+					.findFirst()
+					.orElseGet(IEquivalentConceptMerger.Default::new);
 		}
 		
 		final String mergerName = merger.getClass().getSimpleName();
@@ -604,12 +533,6 @@ final class SaveJobRequest implements Request<BranchContext, Boolean>, AccessCon
 		removeOrDeactivateRelationship(bulkRequestBuilder, namespaceAndModuleAssigner, relationship.isReleased(), relationship.getId(), relationship.getSourceId());
 	}
 
-	private void removeOrDeactivate(final BulkRequestBuilder<TransactionContext> bulkRequestBuilder,
-			final SnomedNamespaceAndModuleAssigner namespaceAndModuleAssigner,
-			final ReasonerRelationship relationship) {
-		removeOrDeactivateRelationship(bulkRequestBuilder, namespaceAndModuleAssigner, relationship.isReleased(), relationship.getOriginId(), relationship.getSourceId());
-	}
-
 	private void removeOrDeactivateRelationship(final BulkRequestBuilder<TransactionContext> bulkRequestBuilder,
 			final SnomedNamespaceAndModuleAssigner namespaceAndModuleAssigner,
 			final boolean released, final String relationshipId, String sourceId) {
@@ -687,25 +610,6 @@ final class SaveJobRequest implements Request<BranchContext, Boolean>, AccessCon
 		bulkRequestBuilder.add(request);
 	}
 
-	private void addComponent(final BulkRequestBuilder<TransactionContext> bulkRequestBuilder,
-			final SnomedNamespaceAndModuleAssigner namespaceAndModuleAssigner, 
-			final ReasonerRelationship relationship) {
-	
-		final String sourceId = relationship.getSourceId();
-		final String typeId = relationship.getTypeId();
-		final String destinationId = relationship.getDestinationId();
-		final boolean destinationNegated = relationship.isDestinationNegated();
-		final RelationshipValue value = relationship.getValueAsObject();
-		final String characteristicTypeId = relationship.getCharacteristicTypeId();
-		final int group = relationship.getGroup();
-		final int unionGroup = relationship.getUnionGroup();
-		final String modifier = relationship.getModifierId();
-		
-		addComponent(bulkRequestBuilder, namespaceAndModuleAssigner, 
-				sourceId, typeId, destinationId, destinationNegated, value,
-				characteristicTypeId, group, unionGroup, modifier);
-	}
-
 	private void addComponent(final BulkRequestBuilder<TransactionContext> bulkRequestBuilder,
 			final SnomedNamespaceAndModuleAssigner namespaceAndModuleAssigner, 
 			final SnomedRelationship relationship) {
@@ -835,18 +739,6 @@ final class SaveJobRequest implements Request<BranchContext, Boolean>, AccessCon
 		bulkRequestBuilder.add(createRequest);
 	}
 
-	private void updateComponent(final BulkRequestBuilder<TransactionContext> bulkRequestBuilder,
-			final SnomedNamespaceAndModuleAssigner namespaceAndModuleAssigner,
-			final ReasonerRelationship relationship) {
-		
-		final SnomedRelationshipUpdateRequestBuilder updateRequest = SnomedRequests
-				.prepareUpdateRelationship(relationship.getOriginId())
-				.setModuleId(namespaceAndModuleAssigner.getRelationshipModuleId(relationship.getSourceId()))
-				.setRelationshipGroup(relationship.getGroup());
-		
-		bulkRequestBuilder.add(updateRequest);
-	}
-
 	private void updateComponent(final BulkRequestBuilder<TransactionContext> bulkRequestBuilder,
 			final SnomedNamespaceAndModuleAssigner namespaceAndModuleAssigner,
 			final ReasonerConcreteDomainMember referenceSetMember) {